@@ -0,0 +1,52 @@
+package uespi.trabcons;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 'listaAlunos.buscarPorMatricula' (índice em memória), com e sem acerto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class BuscaBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int tamanho;
+
+    private listaAlunos gerenciador;
+    private String[] matriculas;
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        List<Aluno> alunos = DadosBenchmark.gerarAlunos(tamanho);
+        gerenciador = DadosBenchmark.gerenciadorEmMemoria(alunos);
+        matriculas = DadosBenchmark.matriculasSorteadas(alunos, 4_096);
+    }
+
+    @Benchmark
+    public Aluno buscarExistente() {
+        return gerenciador.buscarPorMatricula(matriculas[proxima++ & (matriculas.length - 1)]);
+    }
+
+    @Benchmark
+    public Aluno buscarInexistente() {
+        return gerenciador.buscarPorMatricula("X-inexistente");
+    }
+}
@@ -0,0 +1,101 @@
+package uespi.trabcons;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gerador de carga para o modo servidor ('TrabCons servidor').
+ *
+ * Cada cliente é uma thread virtual que repete requisições até o tempo acabar; no fim
+ * mostra a vazão e os percentis de latência. Uso:
+ *
+ *   java -cp target/benchmarks.jar uespi.trabcons.CargaHttp [url] [clientes] [segundos] [buscar|cadastrar]
+ *
+ * Padrão: http://localhost:8080, 200 clientes, 30 segundos, "buscar" (GET de matrículas
+ * tiradas da primeira página da listagem). "cadastrar" faz POSTs com matrículas e CPFs novos.
+ */
+public class CargaHttp {
+
+    private static final Pattern MATRICULA = Pattern.compile("\"matricula\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        boolean cadastrar = args.length > 3 && args[3].equals("cadastrar");
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<String> matriculas = new ArrayList<>();
+        if (!cadastrar) {
+            String pagina = cliente.send(HttpRequest.newBuilder(URI.create(base + "/alunos?limite=1000")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            Matcher m = MATRICULA.matcher(pagina);
+            while (m.find()) {
+                matriculas.add(m.group(1));
+            }
+            if (matriculas.isEmpty()) {
+                System.err.println("O servidor não tem alunos; use o modo 'cadastrar' primeiro.");
+                return;
+            }
+        }
+
+        MetricaOperacao metrica = new MetricaOperacao(cadastrar ? "cadastrar" : "buscar");
+        AtomicLong sequencia = new AtomicLong(System.currentTimeMillis() % 1_000_000 * 1_000);
+        long fim = System.nanoTime() + segundos * 1_000_000_000L;
+
+        System.out.printf("%d clientes por %d s contra %s (%s)...%n", clientes, segundos, base, metrica.getNome());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < fim) {
+                        HttpRequest requisicao = cadastrar
+                                ? novoCadastro(base, sequencia.incrementAndGet())
+                                : HttpRequest.newBuilder(URI.create(base + "/alunos/"
+                                        + matriculas.get(ThreadLocalRandom.current().nextInt(matriculas.size())))).build();
+                        long inicio = System.nanoTime();
+                        try {
+                            int status = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status >= 200 && status < 300) {
+                                metrica.sucesso(inicio);
+                            } else {
+                                metrica.falha(inicio);
+                            }
+                        } catch (Exception e) {
+                            metrica.falha(inicio);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        System.out.println(metrica);
+        System.out.printf("Vazão: %,.0f req/s; p50 %.3f ms, p95 %.3f ms, p99 %.3f ms%n",
+                metrica.getOperacoes() / (double) segundos,
+                metrica.getLatenciaP50Ms(), metrica.getLatenciaP95Ms(), metrica.getLatenciaP99Ms());
+    }
+
+    private static HttpRequest novoCadastro(String base, long numero) {
+        String json = String.format("{\"matricula\":\"C%d\",\"nome\":\"Aluno Carga %d\",\"idade\":20,"
+                + "\"dataNascimento\":\"01/01/2005\",\"telefone\":\"(86) 99999-0000\",\"cpf\":\"%011d\",\"index\":0}",
+                numero, numero, numero);
+        return HttpRequest.newBuilder(URI.create(base + "/alunos"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package uespi.trabcons;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Backup em CSV: 'SwingUtils.salvarAlunosEmCsv' e 'SwingUtils.carregarAlunosDoCsv',
+ * comparados com o leitor mapeado em memória ('LeitorCsvMapeado') e com a foto binária
+ * ('FotoBinaria') que a compactação grava junto.
+ *
+ * Os arquivos ficam numa pasta temporária, apagada no fim. Cada operação lê ou grava o
+ * arquivo inteiro, então o tempo é por arquivo (e cresce com o tamanho).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class CsvBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int tamanho;
+
+    private List<Aluno> alunos;
+    private Path pasta;
+    private Path arquivoLeitura;
+    private Path arquivoEscrita;
+    private Path binarioLeitura;
+    private Path binarioEscrita;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        alunos = DadosBenchmark.gerarAlunos(tamanho);
+        pasta = Files.createTempDirectory("trabcons-bench");
+        arquivoLeitura = pasta.resolve("leitura.csv");
+        arquivoEscrita = pasta.resolve("escrita.csv");
+        binarioLeitura = pasta.resolve("leitura.bin");
+        binarioEscrita = pasta.resolve("escrita.bin");
+        SwingUtils.salvarAlunosEmCsv(alunos, arquivoLeitura);
+        FotoBinaria.salvar(alunos, binarioLeitura);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpar() throws IOException {
+        Files.deleteIfExists(arquivoLeitura);
+        Files.deleteIfExists(arquivoEscrita);
+        Files.deleteIfExists(binarioLeitura);
+        Files.deleteIfExists(binarioEscrita);
+        Files.deleteIfExists(pasta);
+    }
+
+    @Benchmark
+    public Path salvarAlunosEmCsv() throws IOException {
+        SwingUtils.salvarAlunosEmCsv(alunos, arquivoEscrita);
+        return arquivoEscrita;
+    }
+
+    @Benchmark
+    public List<Aluno> carregarAlunosDoCsv() {
+        return SwingUtils.carregarAlunosDoCsv(arquivoLeitura);
+    }
+
+    @Benchmark
+    public List<Aluno> carregarCsvMapeado() throws IOException {
+        return LeitorCsvMapeado.carregar(arquivoLeitura, new LeitorCsvParalelo.RelatorioRejeicoes());
+    }
+
+    @Benchmark
+    public Path salvarFotoBinaria() throws IOException {
+        FotoBinaria.salvar(alunos, binarioEscrita);
+        return binarioEscrita;
+    }
+
+    @Benchmark
+    public List<Aluno> carregarFotoBinaria() throws IOException {
+        return FotoBinaria.carregar(binarioLeitura);
+    }
+}
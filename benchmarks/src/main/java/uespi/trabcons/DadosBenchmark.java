@@ -0,0 +1,69 @@
+package uespi.trabcons;
+
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Gera os alunos usados pelos benchmarks.
+ *
+ * A semente é fixa, então cada tamanho produz sempre os mesmos dados e as medições
+ * de execuções diferentes podem ser comparadas.
+ */
+final class DadosBenchmark {
+
+    private static final String[] NOMES = {"José", "Maria", "Ana", "João", "Pedro", "Lúcia", "Francisco",
+        "Antônia", "Carlos", "Conceição", "Paulo", "Raimunda", "Marcelo", "Fernanda"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Sousa", "Araújo", "Melo",
+        "Pinto", "Carvalho", "Ribeiro", "Gomes", "Barbosa", "Marques", "Lima", "Rocha"};
+
+    private DadosBenchmark() {
+    }
+
+    /**
+     * Gera 'quantidade' alunos com matrículas, CPFs e datas distintos, fora de ordem.
+     */
+    static List<Aluno> gerarAlunos(int quantidade) {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        List<Aluno> alunos = new ArrayList<>(quantidade);
+        long diaInicial = LocalDate.of(1960, 1, 1).toEpochDay();
+        for (int i = 0; i < quantidade; i++) {
+            // Matrícula com 8 dígitos; o embaralhamento evita que a lista já venha ordenada.
+            String matricula = String.format("%08d", (i * 7_919L + 13) % 100_000_000L);
+            String nome = NOMES[aleatorio.nextInt(NOMES.length)] + " "
+                    + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)] + " "
+                    + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)];
+            LocalDate nascimento = LocalDate.ofEpochDay(diaInicial + aleatorio.nextInt(20_000));
+            String cpf = String.format("%011d", (i * 104_729L + 7) % 100_000_000_000L);
+            try {
+                alunos.add(new Aluno(matricula, nome, 18 + aleatorio.nextInt(40), nascimento,
+                        "(86) 99999-0000", cpf, i));
+            } catch (ParseException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return alunos;
+    }
+
+    /**
+     * Um 'listaAlunos' só em memória sobre os alunos (sem banco nem diário do CSV), para
+     * medir as estruturas dele sem MySQL.
+     */
+    static listaAlunos gerenciadorEmMemoria(List<Aluno> alunos) {
+        return listaAlunos.emMemoria(alunos);
+    }
+
+    /**
+     * Sorteia 'quantidade' matrículas existentes (potência de 2, para indexar com máscara).
+     */
+    static String[] matriculasSorteadas(List<Aluno> alunos, int quantidade) {
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        String[] matriculas = new String[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            matriculas[i] = alunos.get(aleatorio.nextInt(alunos.size())).getMatricula();
+        }
+        return matriculas;
+    }
+}
@@ -0,0 +1,73 @@
+package uespi.trabcons;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 'RemocaoAlunoDAO.removerAluno' numa lista do tamanho informado, e a remoção em massa
+ * ('removerAlunos') das mesmas 1.024 matrículas de uma vez.
+ *
+ * Para a lista não encolher durante a medição, os alunos removidos voltam para o fim
+ * logo depois (um 'add' no fim do ArrayList, que é O(1)).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class RemocaoBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int tamanho;
+
+    private final AlunoDAO dao = new RemocaoAlunoDAO();
+    private List<Aluno> alunos;
+    private Aluno[] alvos;
+    private List<String> matriculasAlvo;
+    private int proximo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        alunos = DadosBenchmark.gerarAlunos(tamanho);
+        String[] matriculas = DadosBenchmark.matriculasSorteadas(alunos, 1_024);
+        alvos = new Aluno[matriculas.length];
+        for (int i = 0; i < matriculas.length; i++) {
+            // Um Aluno "novo" com a mesma matrícula, como chega da tela (a remoção usa o equals).
+            alvos[i] = new Aluno();
+            alvos[i].setMatricula(matriculas[i]);
+        }
+        matriculasAlvo = Arrays.asList(matriculas);
+    }
+
+    @Benchmark
+    public List<Aluno> removerAluno() {
+        Aluno alvo = alvos[proximo++ & (alvos.length - 1)];
+        List<Aluno> resultado = dao.removerAluno(alunos, alvo);
+        alunos.add(alvo);
+        return resultado;
+    }
+
+    /**
+     * As 1.024 matrículas numa passada só; compare com 1.024 × 'removerAluno'.
+     */
+    @Benchmark
+    public List<Aluno> removerEmMassa() {
+        List<Aluno> removidos = dao.removerAlunos(alunos, matriculasAlvo);
+        alunos.addAll(removidos);
+        return removidos;
+    }
+}
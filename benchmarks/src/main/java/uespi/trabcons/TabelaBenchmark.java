@@ -0,0 +1,87 @@
+package uespi.trabcons;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * O que 'TrabConsData.atualizarTabela' faz a cada troca de filtro: pegar a ordem por
+ * nascimento (ou o intervalo) do gerenciador e montar o modelo da tabela.
+ *
+ * Cada medição inclui desenhar uma tela de linhas ('LINHAS_VISIVEIS'), que é o que a
+ * JTable pede ao modelo logo depois. 'ordenarDoZero' mede a ordenação completa da
+ * lista, para comparar com o índice mantido pelo gerenciador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class TabelaBenchmark {
+
+    private static final int LINHAS_VISIVEIS = 40;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int tamanho;
+
+    private List<Aluno> alunos;
+    private listaAlunos gerenciador;
+    private ModeloTabelaAlunos modelo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        alunos = DadosBenchmark.gerarAlunos(tamanho);
+        gerenciador = DadosBenchmark.gerenciadorEmMemoria(alunos);
+        modelo = new ModeloTabelaAlunos(gerenciador.copiarAlunos());
+    }
+
+    @Benchmark
+    public void montarModelo(Blackhole bh) {
+        // Abrir a janela de dados: cópia da lista + modelo novo.
+        ModeloTabelaAlunos novo = new ModeloTabelaAlunos(gerenciador.copiarAlunos());
+        desenharTela(novo, bh);
+    }
+
+    @Benchmark
+    public void ordenarMaisNovo(Blackhole bh) {
+        modelo.ordenarPorNascimento(true, gerenciador.copiarIndiceNascimento());
+        desenharTela(modelo, bh);
+    }
+
+    @Benchmark
+    public void filtrarIntervalo(Blackhole bh) {
+        LocalDate de = LocalDate.of(1980, 1, 1);
+        LocalDate ate = LocalDate.of(1989, 12, 31);
+        modelo.filtrarIntervalo(de, ate, gerenciador.buscarPorNascimento(de, ate));
+        desenharTela(modelo, bh);
+    }
+
+    @Benchmark
+    public IndiceDataNascimento ordenarDoZero() {
+        return new IndiceDataNascimento(alunos);
+    }
+
+    // Lê as células da primeira tela, como a JTable faria ao pintar.
+    private static void desenharTela(ModeloTabelaAlunos modelo, Blackhole bh) {
+        int linhas = Math.min(LINHAS_VISIVEIS, modelo.getRowCount());
+        for (int linha = 0; linha < linhas; linha++) {
+            for (int coluna = 0; coluna < modelo.getColumnCount(); coluna++) {
+                bh.consume(modelo.getValueAt(linha, coluna));
+            }
+        }
+    }
+}
@@ -1,28 +1,45 @@
 package uespi.trabcons;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.io.Serializable;
 
 // Importações do Jakarta (Hibernate)
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Column;
-import jakarta.persistence.Temporal;
-import jakarta.persistence.TemporalType;
 import jakarta.persistence.Transient;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Esta é a nossa classe principal: Aluno.
  *
  * O "@Entity" diz ao Hibernate (o cara que salva no banco) que esta classe
  * é uma tabela no banco de dados.
- * O "@Table" especifica o nome dessa tabela, que é "alunos".
+ * O "@Table" especifica o nome dessa tabela, que é "alunos", e os índices das
+ * consultas por nome e nascimento.
+ *
+ * As colunas que o próprio MySQL preenche ("cpf_normalizado", com a restrição UNIQUE do
+ * CPF, e "atualizado_em") ficam de fora do mapeamento e são criadas pelo 'MigracoesBanco':
+ * com uma propriedade gerada pelo banco, o Hibernate desliga os lotes de INSERT e relê
+ * cada linha gravada.
+ * O "@Cache" guarda os alunos lidos no cache de segundo nível (região "aluno" do
+ * ehcache.xml); o Hibernate atualiza/invalida a entrada a cada persist e remove.
  */
 @Entity
-@Table(name = "alunos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "aluno")
+@Table(name = "alunos",
+       indexes = {
+           @Index(name = "idx_alunos_nome", columnList = "nome"),
+           @Index(name = "idx_alunos_data_nascimento", columnList = "data_nascimento")
+       })
 public class Aluno implements Serializable {
 
     // --- Atributos de Estado do Aluno (Colunas da Tabela) ---
@@ -43,13 +60,13 @@ public class Aluno implements Serializable {
     private int idade;
 
     /**
-     * @Temporal(TemporalType.DATE): Diz ao Hibernate para guardar só a data,
-     * ignorando a hora (tipo DATE no SQL).
+     * LocalDate é só a data, sem hora e sem fuso, e é imutável: pode ser lida
+     * por várias threads ao mesmo tempo sem problema. O Hibernate grava ela
+     * direto numa coluna DATE, a mesma "data_nascimento" de antes.
      * @Column: Coluna no banco chamada "data_nascimento".
      */
-    @Temporal(TemporalType.DATE)
     @Column(name = "data_nascimento")
-    private Date dataNascimento; // Usamos Date para guardar a data internamente.
+    private LocalDate dataNascimento;
 
     @Column(name = "telefone")
     private String telefone;
@@ -57,6 +74,17 @@ public class Aluno implements Serializable {
     @Column(name = "cpf")
     private String cpf;
 
+    /**
+     * Momento da última gravação da linha, como visto pelo 'SincronizadorAlunos'.
+     *
+     * A coluna "atualizado_em" é preenchida pelo próprio MySQL (DEFAULT / ON UPDATE
+     * CURRENT_TIMESTAMP, criada pelo 'MigracoesBanco'), mas não é mapeada: uma propriedade
+     * gerada pelo banco faz o Hibernate desligar os lotes de INSERT e reler cada linha
+     * depois de gravá-la. Só a consulta do sincronizador lê a coluna e preenche este campo.
+     */
+    @Transient
+    private LocalDateTime atualizadoEm;
+
     /**
      * @Transient: Esta anotação diz ao Hibernate para **ignorar** este campo.
      * Ele não vai para o banco de dados. É só para uso em tempo de execução
@@ -76,7 +104,7 @@ public class Aluno implements Serializable {
      * Construtor completo para criar um Aluno do zero.
      * Ele recebe todos os dados e joga nas váriaveis da classe.
      */
-    public Aluno(String matricula, String nome, int idade, Date dataNascimentoDat, String telefone, String cpf, int index) throws ParseException {
+    public Aluno(String matricula, String nome, int idade, LocalDate dataNascimentoDat, String telefone, String cpf, int index) throws ParseException {
         this.matricula = matricula;
         this.nome = nome;
         this.idade = idade;
@@ -86,6 +114,24 @@ public class Aluno implements Serializable {
         this.index = index;
     }
 
+    /**
+     * Cópia independente deste aluno, com todos os campos (inclusive os que não vão ao banco).
+     * Usada por quem guarda alunos e não pode deixar que quem os recebe altere o guardado.
+     */
+    Aluno copiar() {
+        Aluno copia = new Aluno();
+        copia.matricula = matricula;
+        copia.nome = nome;
+        copia.idade = idade;
+        copia.dataNascimento = dataNascimento;
+        copia.telefone = telefone;
+        copia.cpf = cpf;
+        copia.atualizadoEm = atualizadoEm;
+        copia.index = index;
+        copia.nomeNormalizado = nomeNormalizado;
+        return copia;
+    }
+
     /**
      * Sobrescrita do 'equals()'. É crucial!
      *
@@ -115,13 +161,26 @@ public class Aluno implements Serializable {
     }
 
     /**
-     * O 'SimpleDateFormat' é o formato de data que a gente vai usar para
-     * exportar para CSV ou mostrar na tela. Ele é estático e 'transient'
-     * (não vai para o banco) para ser compartilhado por todos os alunos.
-     * O formato escolhido é "dd/mm/yyyy".
+     * O formato de data que a gente vai usar para exportar para CSV ou
+     * mostrar na tela: "dd/MM/yyyy". O 'DateTimeFormatter' é imutável, então
+     * um só pode ser compartilhado por todas as threads.
+     */
+    static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /**
+     * Cache da data já formatada. A tabela e o CSV pedem esse texto o tempo todo,
+     * então ele é montado só na primeira vez. Como String é imutável, se duas threads
+     * montarem ao mesmo tempo as duas chegam no mesmo valor.
+     */
+    @Transient
+    private transient String dataNascimentoTexto;
+
+    /**
+     * Cache do nome sem acentos e em minúsculas, usado pelo índice de nomes
+     * (mesma ideia do 'dataNascimentoTexto').
      */
     @Transient
-    private static final SimpleDateFormat CSV_DATE_FORMAT = new SimpleDateFormat("dd/MM/yyyy");
+    private transient String nomeNormalizado;
 
     /**
      * Sobrescrita do 'toString()'.
@@ -156,6 +215,19 @@ public class Aluno implements Serializable {
 
     public void setNome(String nome) {
         this.nome = nome;
+        this.nomeNormalizado = null; // O cache do nome normalizado fica velho.
+    }
+
+    /**
+     * O nome sem acentos, em minúsculas e com espaços simples ("José  da Silva" -> "jose da silva").
+     */
+    public String getNomeNormalizado() {
+        String normalizado = nomeNormalizado;
+        if (normalizado == null) {
+            normalizado = IndiceNomes.normalizar(nome);
+            nomeNormalizado = normalizado;
+        }
+        return normalizado;
     }
 
     public int getIdade() {
@@ -166,13 +238,34 @@ public class Aluno implements Serializable {
         this.idade = idade;
     }
 
-    public Date getDataNascimento() {
+    /**
+     * Última gravação no banco, quando o aluno veio do 'SincronizadorAlunos' ('null' para os
+     * da carga inicial, os cadastrados nesta execução e os que vieram só do CSV).
+     */
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    // Usado pelo 'SincronizadorAlunos' e pelo 'ArmazemAlunos' (ao remontar um aluno guardado em colunas).
+    void setAtualizadoEm(LocalDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+
+    public LocalDate getDataNascimento() {
         return dataNascimento;
     }
 
+    /**
+     * A data como número de dias desde 01/01/1970 (útil para comparar e guardar compacto).
+     */
+    @Transient
+    public long getDataNascimentoEpochDay() {
+        return dataNascimento.toEpochDay();
+    }
+
     /**
      * Getter extra para a data. Ele retorna a data formatada
-     * usando o 'Date.toString()' padrão do java, o que normalmente
+     * usando o 'toString()' padrão do java (aaaa-mm-dd), o que normalmente
      * não é o ideal, mas tá aqui pra compatibilidade.
      */
     @Transient
@@ -180,8 +273,9 @@ public class Aluno implements Serializable {
         return dataNascimento.toString();
     }
 
-    public void setDataNascimento(Date dataNascimento) {
+    public void setDataNascimento(LocalDate dataNascimento) {
         this.dataNascimento = dataNascimento;
+        this.dataNascimentoTexto = null; // A data mudou: o texto em cache não vale mais.
     }
 
     public String getTelefone() {
@@ -221,12 +315,17 @@ public class Aluno implements Serializable {
      */
     @Transient
     public String getDataNascimentoFormatadaCsv() {
-        // Tenta formatar. Se a data for nula ou algo der erro,
-        // retorna a mensagem de erro.
-        try {
-            return CSV_DATE_FORMAT.format(this.dataNascimento);
-        } catch (Exception e) {
-            return "Data Inválida"; // Mensagem de erro.
+        // Usa o texto em cache; se ainda não existir, formata uma vez.
+        String texto = this.dataNascimentoTexto;
+        if (texto == null) {
+            // Se a data for nula ou algo der erro, retorna a mensagem de erro.
+            try {
+                texto = FORMATO_DATA.format(this.dataNascimento);
+            } catch (Exception e) {
+                return "Data Inválida"; // Mensagem de erro.
+            }
+            this.dataNascimentoTexto = texto;
         }
+        return texto;
     }
 }
\ No newline at end of file
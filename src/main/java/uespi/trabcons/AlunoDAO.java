@@ -1,23 +1,203 @@
 package uespi.trabcons;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Interface para operações de acesso a dados (DAO)
  * relacionadas à entidade Aluno.
+ *
+ * É o repositório de alunos: busca, gravação, exclusão, paginação e contagem, sempre
+ * pela matrícula (a chave), e também a carga completa e a busca por nome. As
+ * implementações são camadas que se trocam ou se empilham:
+ *
+ *   - 'HibernateAlunoDAO': a tabela "alunos" no MySQL;
+ *   - 'CsvAlunoDAO': um CSV com o seu diário (o mesmo formato do backup);
+ *   - 'MemoriaAlunoDAO': só em memória;
+ *   - 'CacheAlunoDAO': um cache por cima de qualquer uma delas.
+ *
+ * Os métodos de remoção em listas ('removerAluno' e 'removerAlunos') não dependem da
+ * camada e já vêm prontos aqui.
  */
 public interface AlunoDAO {
 
+    // --- REPOSITÓRIO ---
+
+    /**
+     * Busca um aluno pela matrícula.
+     *
+     * @return O aluno, ou 'null' se não existir.
+     */
+    public Aluno buscar(String matricula);
+
+    /**
+     * Busca o aluno dono do CPF (com ou sem pontuação; comparado só pelos dígitos).
+     *
+     * @return O aluno, ou 'null' se nenhum tiver o CPF (ou se o CPF não tiver dígitos).
+     */
+    public Aluno buscarPorCpf(String cpf);
+
+    /**
+     * Grava um aluno novo.
+     *
+     * @throws RuntimeException se a matrícula ou o CPF já existirem (no Hibernate, a
+     *         'ConstraintViolationException' do banco; nas outras, 'OperacaoAlunoException').
+     */
+    public void inserir(Aluno aluno);
+
+    /**
+     * Grava o aluno, inserindo ou substituindo o que tiver a mesma matrícula.
+     */
+    public void salvar(Aluno aluno);
+
+    /**
+     * Exclui o aluno com a matrícula.
+     *
+     * @return 'false' se ele não existia.
+     */
+    public boolean excluir(String matricula);
+
+    /**
+     * Exclui de uma vez todos os alunos com as matrículas (as que não existirem são ignoradas).
+     *
+     * @return Quantos foram excluídos.
+     */
+    public int excluirTodos(Collection<String> matriculas);
+
+    /**
+     * Uma mudança de um lote (ver 'gravarLote'): o aluno entra (inserção) ou sai (remoção).
+     */
+    record Mudanca(Aluno aluno, boolean remocao) {
+    }
+
+    /**
+     * Grava as mudanças na ordem em que vieram, todas ou nenhuma: no banco numa transação
+     * só; em memória e no CSV, uma matrícula ou um CPF repetido recusa o lote inteiro. (No
+     * CSV, uma falha de disco no meio deixa no diário só as mudanças anteriores a ela.)
+     *
+     * Remover um aluno que já não existe não é erro (outra instância pode ter excluído antes).
+     *
+     * @throws RuntimeException como em 'inserir', se uma inserção repetir a matrícula ou o CPF.
+     */
+    public void gravarLote(List<Mudanca> mudancas);
+
+    /**
+     * Página de alunos em ordem de matrícula, começando depois da matrícula informada.
+     *
+     * @param depoisDe Última matrícula da página anterior, ou 'null' para a primeira página.
+     * @param tamanho Máximo de alunos na página.
+     */
+    public List<Aluno> pagina(String depoisDe, int tamanho);
+
+    /**
+     * Quantos alunos existem.
+     */
+    public long contar();
+
+    /**
+     * Entrega todos os alunos a 'destino', um de cada vez, sem juntar a tabela inteira
+     * antes: quem recebe decide onde guardar (ex: uma lista, ou o armazém colunar).
+     */
+    public void percorrerTodos(Consumer<? super Aluno> destino);
+
+    /**
+     * Todos os alunos, numa lista nova (a carga completa do programa).
+     */
+    public default List<Aluno> todos() {
+        List<Aluno> alunos = new ArrayList<>();
+        percorrerTodos(alunos::add);
+        return alunos;
+    }
+
+    /**
+     * Alunos cujo nome contém o texto, sem diferenciar acentos nem maiúsculas, em ordem de nome.
+     *
+     * @param limite Máximo de alunos devolvidos.
+     */
+    public List<Aluno> buscarPorNome(String texto, int limite);
+
+    /**
+     * Avisa que os alunos com estas matrículas mudaram por fora deste repositório
+     * (ex: pela gravação adiada, ou por outra instância). Só quem guarda cópias precisa fazer algo.
+     */
+    public default void esquecer(Collection<String> matriculas) {
+    }
+
+    // --- REMOÇÃO EM LISTAS ---
+
     /**
      * Remove um objeto Aluno de uma lista de alunos.
+     * A lista é modificada diretamente no local.
+     *
+     * @param alunos A lista que contém os alunos.
+     * @param a O objeto Aluno a ser removido da lista.
+     * @return A própria lista 'alunos', agora modificada.
+     */
+    public default List<Aluno> removerAluno(List<Aluno> alunos, Aluno a) {
+
+        // Cláusulas de guarda: verifica se a lista ou o aluno são nulos.
+        // Se um deles for nulo, a operação é encerrada
+        // e a lista original é devolvida, sem alterassão.
+        if (alunos == null || a == null) {
+            return alunos;
+        }
+
+        // O método 'remove(Object)' é invocado na lista.
+        // A remoção depende da implementação do método 'equals()' na classe Aluno,
+        // garantindo que o aluno correto (pela matrícula) seja encontrado e retirado.
+        alunos.remove(a);
+
+        // A lista já está modificada. Ela é retornada para finalizar a operação.
+        return alunos;
+    }
+
+    /**
+     * Remove da lista, de uma vez, todos os alunos com as matrículas informadas.
+     *
+     * Para excluir vários alunos: chamar 'removerAluno' k vezes percorre a lista k vezes.
+     * Aqui as matrículas vão para um HashSet, então cada aluno da lista é testado em O(1):
+     * o total é O(n + k), e não O(n·k).
+     *
+     * @param alunos A lista, modificada no local.
+     * @param matriculas As matrículas a remover (as que não estiverem na lista são ignoradas).
+     * @return Os alunos removidos, na ordem em que estavam na lista.
+     */
+    public default List<Aluno> removerAlunos(List<Aluno> alunos, Collection<String> matriculas) {
+        if (alunos == null || matriculas == null || matriculas.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<String> alvos = matriculas instanceof HashSet<String> conjunto ? conjunto : new HashSet<>(matriculas);
+        return removerAlunos(alunos, aluno -> alvos.contains(aluno.getMatricula()));
+    }
+
+    /**
+     * Remove da lista, de uma vez, todos os alunos que atendem ao critério.
      *
-     * Este método vai ser a função principal pra tirar um aluno
-     * da lista. 
+     * O 'removeIf' do ArrayList testa todos os elementos e depois "fecha os buracos"
+     * de uma vez, movendo cada aluno que fica no máximo uma vez.
      *
-     * @param alunos
-     * @param a
-     * @return
+     * @param alunos A lista, modificada no local.
+     * @param criterio Diz se o aluno deve sair.
+     * @return Os alunos removidos, na ordem em que estavam na lista.
      */
-    public List<Aluno> removerAluno(List<Aluno> alunos, Aluno a);
-    
-}
\ No newline at end of file
+    public default List<Aluno> removerAlunos(List<Aluno> alunos, Predicate<? super Aluno> criterio) {
+        List<Aluno> removidos = new ArrayList<>();
+        if (alunos == null || criterio == null) {
+            return removidos;
+        }
+        alunos.removeIf(aluno -> {
+            if (criterio.test(aluno)) {
+                removidos.add(aluno);
+                return true;
+            }
+            return false;
+        });
+        return removidos;
+    }
+
+}
@@ -0,0 +1,46 @@
+package uespi.trabcons;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * "Lápide" de um aluno excluído: a matrícula e quando a linha sumiu da tabela "alunos".
+ *
+ * As linhas são gravadas por um trigger do MySQL (criado pelo 'MigracoesBanco'),
+ * então exclusões feitas por outra instância do programa ou direto no banco também
+ * aparecem. Sem elas, o sincronizador não teria como saber que um aluno deixou de existir.
+ */
+@Entity
+@Table(name = "alunos_removidos",
+       indexes = @Index(name = "idx_alunos_removidos_removido_em", columnList = "removido_em"))
+public class AlunoRemovido {
+
+    @Id
+    @Column(name = "matricula")
+    private String matricula;
+
+    @Column(name = "removido_em", nullable = false, columnDefinition = "TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)")
+    private LocalDateTime removidoEm;
+
+    // Construtor vazio exigido pelo Hibernate.
+    public AlunoRemovido() {
+    }
+
+    // A lápide montada fora do banco (os testes da sincronização).
+    AlunoRemovido(String matricula, LocalDateTime removidoEm) {
+        this.matricula = matricula;
+        this.removidoEm = removidoEm;
+    }
+
+    public String getMatricula() {
+        return matricula;
+    }
+
+    public LocalDateTime getRemovidoEm() {
+        return removidoEm;
+    }
+}
@@ -0,0 +1,586 @@
+package uespi.trabcons;
+
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * Armazém colunar de alunos, usado pelo 'listaAlunos' no modo compacto
+ * ('trabcons.modoCompacto=true').
+ *
+ * Um Aluno na memória custa bem mais que os dados dele: o objeto, quatro Strings (cada
+ * uma com seu byte[]), a LocalDate, a LocalDateTime e os caches. Aqui cada campo é uma
+ * coluna de tipo primitivo, indexada pelo "slot" do aluno:
+ *
+ *   - matrícula, telefone e CPF viram um 'long' ("código"): os dígitos e, nos 7 bits de
+ *     cima, o formato (só dígitos com N casas, ou uma das máscaras da tela). Textos que
+ *     não se encaixam vão para o pool, e o código guarda o id;
+ *   - o nome é o id de um 'PoolTextos', onde nomes iguais são guardados uma vez só;
+ *   - a data de nascimento é o dia desde 1970-01-01 ('int');
+ *   - idade e index são 'int', e 'atualizadoEm' são microssegundos ('long').
+ *
+ * As buscas por matrícula e por CPF usam 'TabelaSlots' (só ints). A ordem de cadastro
+ * é um int[] de slots; uma exclusão desloca esse array, como o 'ArrayList.remove' fazia
+ * com a lista de objetos, e o slot vai para reuso.
+ *
+ * Nenhum Aluno fica guardado: quem lê recebe um Aluno montado na hora ('aluno', 'buscar')
+ * ou usa uma 'VistaAluno', que copia os campos de uma linha de uma vez, sem montar um Aluno.
+ *
+ * Todos os métodos são sincronizados no próprio armazém.
+ */
+final class ArmazemAlunos {
+
+    // --- CÓDIGOS (matrícula, telefone e CPF num long) ---
+
+    private static final int BITS_VALOR = 57;
+    private static final long MASCARA_VALOR = (1L << BITS_VALOR) - 1;
+    // Formatos: 0 = nulo; 1..17 = só dígitos, com essa quantidade de casas.
+    private static final int MAXIMO_DIGITOS = 17;
+    private static final int FORMATO_MASCARA = 20; // + índice em MASCARAS
+    private static final int FORMATO_LIVRE = 127;  // valor = id no pool
+    private static final long NULO = 0;
+    // As máscaras dos campos da tela de cadastro ('#' = dígito).
+    private static final String[] MASCARAS = {"###.###.###-##", "(##) #####-####", "(##) ####-####"};
+    private static final int[] DIGITOS_MASCARA = {11, 11, 10};
+
+    private static final int DATA_NULA = Integer.MIN_VALUE;
+    private static final long INSTANTE_NULO = Long.MIN_VALUE;
+
+    // --- COLUNAS (por slot) ---
+
+    private long[] matriculas;
+    private int[] nomes;
+    private int[] idades;
+    private int[] nascimentos;
+    private long[] telefones;
+    private long[] cpfs;
+    private int[] indices;
+    private long[] atualizacoes;
+    private int proximoSlot;
+    private int[] slotsLivres = new int[16];
+    private int quantidadeSlotsLivres;
+
+    // Ordem de cadastro: posição -> slot.
+    private int[] ordem;
+    private int tamanho;
+    // Incrementada (com a trava) a cada escrita; ver 'versao'.
+    private volatile long versao;
+
+    private final PoolTextos textos = new PoolTextos(1 << 12);
+    private final TabelaSlots porMatricula;
+    private final TabelaSlots porCpf;
+
+    /**
+     * @param capacidadeInicial Quantos alunos devem caber sem as colunas crescerem.
+     */
+    ArmazemAlunos(int capacidadeInicial) {
+        int capacidade = Math.max(16, capacidadeInicial);
+        matriculas = new long[capacidade];
+        nomes = new int[capacidade];
+        idades = new int[capacidade];
+        nascimentos = new int[capacidade];
+        telefones = new long[capacidade];
+        cpfs = new long[capacidade];
+        indices = new int[capacidade];
+        atualizacoes = new long[capacidade];
+        ordem = new int[capacidade];
+        porMatricula = new TabelaSlots(capacidade, slot -> Long.hashCode(matriculas[slot]));
+        porCpf = new TabelaSlots(capacidade, slot -> Long.hashCode(chaveCpf(cpfs[slot])));
+    }
+
+    // --- ESCRITA ---
+
+    /**
+     * Acrescenta o aluno no fim da ordem. Se a matrícula já existir, a versão antiga sai antes.
+     */
+    synchronized void adicionar(Aluno aluno) {
+        versao++;
+        remover(aluno.getMatricula());
+        int slot = novoSlot();
+        matriculas[slot] = codificar(aluno.getMatricula());
+        nomes[slot] = aluno.getNome() == null ? -1 : textos.adicionar(aluno.getNome());
+        idades[slot] = aluno.getIdade();
+        LocalDate data = aluno.getDataNascimento();
+        nascimentos[slot] = data == null ? DATA_NULA : Math.toIntExact(data.toEpochDay());
+        telefones[slot] = codificar(aluno.getTelefone());
+        cpfs[slot] = codificar(aluno.getCpf());
+        indices[slot] = aluno.getIndex();
+        LocalDateTime atualizadoEm = aluno.getAtualizadoEm();
+        atualizacoes[slot] = atualizadoEm == null ? INSTANTE_NULO
+                : atualizadoEm.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + atualizadoEm.getNano() / 1_000;
+
+        if (tamanho == ordem.length) {
+            ordem = Arrays.copyOf(ordem, crescer(ordem.length));
+        }
+        ordem[tamanho++] = slot;
+        porMatricula.inserir(Long.hashCode(matriculas[slot]), slot);
+        long chaveCpf = chaveCpf(cpfs[slot]);
+        if (chaveCpf != NULO) {
+            porCpf.inserir(Long.hashCode(chaveCpf), slot);
+        }
+    }
+
+    /**
+     * Retira o aluno com a matrícula.
+     *
+     * @return 'false' se não havia aluno com ela.
+     */
+    synchronized boolean remover(String matricula) {
+        int slot = slotDaMatricula(matricula);
+        if (slot < 0) {
+            return false;
+        }
+        versao++;
+        // Procura a posição do fim para o começo: exclusões costumam ser de cadastros recentes.
+        int posicao = tamanho - 1;
+        while (ordem[posicao] != slot) {
+            posicao--;
+        }
+        System.arraycopy(ordem, posicao + 1, ordem, posicao, tamanho - posicao - 1);
+        tamanho--;
+        liberarSlot(slot);
+        return true;
+    }
+
+    /**
+     * Retira, numa única passada pela ordem, todos os alunos que atendem ao critério.
+     *
+     * @return Os alunos retirados, na ordem em que estavam.
+     */
+    synchronized List<Aluno> removerSe(Predicate<? super Aluno> criterio) {
+        versao++;
+        List<Aluno> removidos = new ArrayList<>();
+        int mantidos = 0;
+        for (int i = 0; i < tamanho; i++) {
+            int slot = ordem[i];
+            Aluno aluno = montar(slot);
+            if (criterio.test(aluno)) {
+                removidos.add(aluno);
+                liberarSlot(slot);
+            } else {
+                ordem[mantidos++] = slot;
+            }
+        }
+        tamanho = mantidos;
+        return removidos;
+    }
+
+    /**
+     * Retira todos os alunos com as matrículas informadas: cada uma é achada pelo índice,
+     * e a ordem é refeita numa única passada (sem montar os alunos que ficam).
+     *
+     * @return Os alunos retirados, na ordem em que estavam.
+     */
+    synchronized List<Aluno> removerMatriculas(Collection<String> matriculas) {
+        boolean[] marcados = new boolean[this.matriculas.length];
+        int quantidade = 0;
+        for (String matricula : matriculas) {
+            int slot = slotDaMatricula(matricula);
+            if (slot >= 0 && !marcados[slot]) {
+                marcados[slot] = true;
+                quantidade++;
+            }
+        }
+        List<Aluno> removidos = new ArrayList<>(quantidade);
+        if (quantidade == 0) {
+            return removidos;
+        }
+        versao++;
+        int mantidos = 0;
+        for (int i = 0; i < tamanho; i++) {
+            int slot = ordem[i];
+            if (marcados[slot]) {
+                removidos.add(montar(slot));
+                liberarSlot(slot);
+            } else {
+                ordem[mantidos++] = slot;
+            }
+        }
+        tamanho = mantidos;
+        return removidos;
+    }
+
+    // Tira o slot dos índices, devolve os textos ao pool e deixa o slot livre para reuso.
+    // A posição dele em 'ordem' é responsabilidade de quem chama.
+    private void liberarSlot(int slot) {
+        porMatricula.remover(Long.hashCode(matriculas[slot]), slot);
+        long chaveCpf = chaveCpf(cpfs[slot]);
+        if (chaveCpf != NULO) {
+            porCpf.remover(Long.hashCode(chaveCpf), slot);
+        }
+        liberarCodigo(matriculas[slot]);
+        liberarCodigo(telefones[slot]);
+        liberarCodigo(cpfs[slot]);
+        if (nomes[slot] >= 0) {
+            textos.liberar(nomes[slot]);
+        }
+        if (quantidadeSlotsLivres == slotsLivres.length) {
+            slotsLivres = Arrays.copyOf(slotsLivres, slotsLivres.length * 2);
+        }
+        slotsLivres[quantidadeSlotsLivres++] = slot;
+    }
+
+    // --- LEITURA ---
+
+    synchronized int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Aluno (montado agora) na posição informada da ordem de cadastro.
+     */
+    synchronized Aluno aluno(int posicao) {
+        if (posicao < 0 || posicao >= tamanho) {
+            throw new IndexOutOfBoundsException(posicao);
+        }
+        return montar(ordem[posicao]);
+    }
+
+    /**
+     * Aluno (montado agora) com a matrícula, ou 'null'.
+     */
+    synchronized Aluno buscar(String matricula) {
+        int slot = slotDaMatricula(matricula);
+        return slot < 0 ? null : montar(slot);
+    }
+
+    /**
+     * Aluno (montado agora) dono do CPF, com ou sem pontuação, ou 'null'.
+     */
+    synchronized Aluno buscarPorCpf(String cpf) {
+        long chave = chaveDosDigitos(listaAlunos.normalizarCpf(cpf));
+        if (chave == NULO) {
+            return null;
+        }
+        int slot = porCpf.buscar(Long.hashCode(chave), candidato -> chaveCpf(cpfs[candidato]) == chave);
+        return slot < 0 ? null : montar(slot);
+    }
+
+    /**
+     * Alunos cujo nome contém o texto (sem acentos nem maiúsculas), na ordem de cadastro.
+     * Cada nome distinto do pool é normalizado uma vez só por busca.
+     */
+    synchronized List<Aluno> buscarPorNome(String texto, int limite) {
+        String termo = IndiceNomes.normalizar(texto).trim();
+        List<Aluno> encontrados = new ArrayList<>();
+        if (termo.isEmpty()) {
+            return encontrados;
+        }
+        // Por id do pool: 0 = ainda não testado, 1 = contém o termo, 2 = não contém.
+        byte[] resultado = new byte[textos.limiteIds()];
+        for (int posicao = 0; posicao < tamanho && encontrados.size() < limite; posicao++) {
+            int slot = ordem[posicao];
+            int nome = nomes[slot];
+            if (nome < 0) {
+                continue;
+            }
+            if (resultado[nome] == 0) {
+                resultado[nome] = IndiceNomes.normalizar(textos.texto(nome)).contains(termo) ? (byte) 1 : (byte) 2;
+            }
+            if (resultado[nome] == 1) {
+                encontrados.add(montar(slot));
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Cópia para leitura, tirada agora, como uma lista que monta cada Aluno quando é lida.
+     * Serve para percorrer tudo (ex: gravar o CSV) sem travar o armazém e sem montar todos
+     * os alunos de uma vez.
+     */
+    synchronized List<Aluno> copiar() {
+        int[] slots = Arrays.copyOf(ordem, tamanho);
+        long[] copiaMatriculas = new long[tamanho];
+        int[] copiaNomes = new int[tamanho];
+        int[] copiaIdades = new int[tamanho];
+        int[] copiaNascimentos = new int[tamanho];
+        long[] copiaTelefones = new long[tamanho];
+        long[] copiaCpfs = new long[tamanho];
+        int[] copiaIndices = new int[tamanho];
+        long[] copiaAtualizacoes = new long[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            int slot = slots[i];
+            copiaMatriculas[i] = matriculas[slot];
+            copiaNomes[i] = nomes[slot];
+            copiaIdades[i] = idades[slot];
+            copiaNascimentos[i] = nascimentos[slot];
+            copiaTelefones[i] = telefones[slot];
+            copiaCpfs[i] = cpfs[slot];
+            copiaIndices[i] = indices[slot];
+            copiaAtualizacoes[i] = atualizacoes[slot];
+        }
+        PoolTextos copiaTextos = textos.copiarParaLeitura();
+        int quantidade = tamanho;
+        return new Lista() {
+            @Override
+            public Aluno get(int i) {
+                return ArmazemAlunos.montar(copiaTextos, copiaMatriculas[i], copiaNomes[i], copiaIdades[i], copiaNascimentos[i],
+                        copiaTelefones[i], copiaCpfs[i], copiaIndices[i], copiaAtualizacoes[i]);
+            }
+
+            @Override
+            public int size() {
+                return quantidade;
+            }
+        };
+    }
+
+    /**
+     * O armazém visto como 'List<Aluno>': 'get' monta o aluno na hora, 'add' e 'remove'
+     * escrevem nas colunas. É o que o 'listaAlunos' usa como lista principal no modo compacto.
+     */
+    List<Aluno> comoLista() {
+        return new Lista() {
+            @Override
+            public Aluno get(int posicao) {
+                return aluno(posicao);
+            }
+
+            @Override
+            public int size() {
+                return tamanho();
+            }
+
+            @Override
+            public boolean add(Aluno aluno) {
+                adicionar(aluno);
+                return true;
+            }
+
+            @Override
+            public boolean remove(Object objeto) {
+                return objeto instanceof Aluno aluno && remover(aluno.getMatricula());
+            }
+
+            @Override
+            public boolean removeIf(Predicate<? super Aluno> filtro) {
+                // Uma passada nas colunas, em vez de um 'remove(int)' por aluno.
+                return !removerSe(filtro).isEmpty();
+            }
+        };
+    }
+
+    /**
+     * Estimativa dos bytes ocupados pelas colunas, índices e pool.
+     */
+    synchronized long bytes() {
+        return 48L * matriculas.length + 4L * ordem.length + 4L * slotsLivres.length
+                + porMatricula.bytes() + porCpf.bytes() + textos.bytes();
+    }
+
+    // Base das duas listas: acesso por posição e sem 'modCount' (o armazém é a fonte da verdade).
+    private abstract static class Lista extends AbstractList<Aluno> implements RandomAccess {
+    }
+
+    // --- LEITURA POR LINHA (usada pela VistaAluno) ---
+
+    /**
+     * Número que muda a cada escrita no armazém. Lido sem trava: a 'VistaAluno' compara com
+     * o da cópia que tem para saber se precisa copiar a linha de novo.
+     */
+    long versao() {
+        return versao;
+    }
+
+    /**
+     * Copia para a vista todos os campos do aluno na posição, numa única seção sincronizada:
+     * os getters da vista leem depois só a cópia, então nunca misturam dois alunos (a
+     * posição pode ter mudado de dono, e os ids do pool são reaproveitados).
+     *
+     * @return 'false' se a posição não existir mais.
+     */
+    synchronized boolean copiarLinha(int posicao, VistaAluno vista) {
+        if (posicao < 0 || posicao >= tamanho) {
+            vista.preencherVazia(versao);
+            return false;
+        }
+        int slot = ordem[posicao];
+        vista.preencher(versao, decodificar(textos, matriculas[slot]), nomes[slot] < 0 ? null : textos.texto(nomes[slot]),
+                idades[slot], nascimentos[slot] == DATA_NULA ? null : LocalDate.ofEpochDay(nascimentos[slot]),
+                decodificar(textos, telefones[slot]), decodificar(textos, cpfs[slot]), indices[slot], instante(atualizacoes[slot]));
+        return true;
+    }
+
+    // --- INTERNOS ---
+
+    private int slotDaMatricula(String matricula) {
+        if (matricula == null) {
+            return -1;
+        }
+        long codigo = codigoExistente(matricula);
+        if (codigo == NULO) {
+            return -1;
+        }
+        return porMatricula.buscar(Long.hashCode(codigo), slot -> matriculas[slot] == codigo);
+    }
+
+    private int novoSlot() {
+        if (quantidadeSlotsLivres > 0) {
+            return slotsLivres[--quantidadeSlotsLivres];
+        }
+        if (proximoSlot == matriculas.length) {
+            int capacidade = crescer(matriculas.length);
+            matriculas = Arrays.copyOf(matriculas, capacidade);
+            nomes = Arrays.copyOf(nomes, capacidade);
+            idades = Arrays.copyOf(idades, capacidade);
+            nascimentos = Arrays.copyOf(nascimentos, capacidade);
+            telefones = Arrays.copyOf(telefones, capacidade);
+            cpfs = Arrays.copyOf(cpfs, capacidade);
+            indices = Arrays.copyOf(indices, capacidade);
+            atualizacoes = Arrays.copyOf(atualizacoes, capacidade);
+        }
+        return proximoSlot++;
+    }
+
+    private static int crescer(int capacidade) {
+        return (int) Math.min(Integer.MAX_VALUE - 8, capacidade + (capacidade >> 1) + 16L);
+    }
+
+    private Aluno montar(int slot) {
+        return montar(textos, matriculas[slot], nomes[slot], idades[slot], nascimentos[slot],
+                telefones[slot], cpfs[slot], indices[slot], atualizacoes[slot]);
+    }
+
+    private static Aluno montar(PoolTextos textos, long matricula, int nome, int idade, int nascimento,
+                                long telefone, long cpf, int index, long atualizacao) {
+        Aluno aluno;
+        try {
+            aluno = new Aluno(decodificar(textos, matricula), nome < 0 ? null : textos.texto(nome), idade,
+                    nascimento == DATA_NULA ? null : LocalDate.ofEpochDay(nascimento),
+                    decodificar(textos, telefone), decodificar(textos, cpf), index);
+        } catch (ParseException e) {
+            throw new IllegalStateException(e); // O construtor não converte nada; só declara a exceção.
+        }
+        aluno.setAtualizadoEm(instante(atualizacao));
+        return aluno;
+    }
+
+    // Microssegundos desde 1970 (UTC) de volta para LocalDateTime.
+    private static LocalDateTime instante(long atualizacao) {
+        if (atualizacao == INSTANTE_NULO) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(atualizacao, 1_000_000),
+                Math.floorMod(atualizacao, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    // Código do texto, guardando no pool se ele não couber num dos formatos numéricos.
+    private long codificar(String texto) {
+        if (texto == null) {
+            return NULO;
+        }
+        long codigo = codigoNumerico(texto);
+        return codigo != NULO ? codigo : ((long) FORMATO_LIVRE << BITS_VALOR) | textos.adicionar(texto);
+    }
+
+    // Mesmo código de 'codificar', sem guardar nada; NULO se o texto (livre) não estiver no pool.
+    private long codigoExistente(String texto) {
+        long codigo = codigoNumerico(texto);
+        if (codigo != NULO) {
+            return codigo;
+        }
+        int id = textos.buscar(texto);
+        return id < 0 ? NULO : ((long) FORMATO_LIVRE << BITS_VALOR) | id;
+    }
+
+    private void liberarCodigo(long codigo) {
+        if ((int) (codigo >>> BITS_VALOR) == FORMATO_LIVRE) {
+            textos.liberar((int) (codigo & MASCARA_VALOR));
+        }
+    }
+
+    // "Só dígitos" ou uma das máscaras; NULO se o texto não se encaixar em nenhum.
+    private static long codigoNumerico(String texto) {
+        int tamanhoTexto = texto.length();
+        if (tamanhoTexto >= 1 && tamanhoTexto <= MAXIMO_DIGITOS) {
+            long valor = digitosNoFormato(texto, null);
+            if (valor >= 0) {
+                return ((long) tamanhoTexto << BITS_VALOR) | valor;
+            }
+        }
+        for (int i = 0; i < MASCARAS.length; i++) {
+            long valor = digitosNoFormato(texto, MASCARAS[i]);
+            if (valor >= 0) {
+                return ((long) (FORMATO_MASCARA + i) << BITS_VALOR) | valor;
+            }
+        }
+        return NULO;
+    }
+
+    // Valor dos dígitos se o texto seguir a máscara (ou for só dígitos, com máscara nula); senão -1.
+    private static long digitosNoFormato(String texto, String mascara) {
+        if (mascara != null && texto.length() != mascara.length()) {
+            return -1;
+        }
+        long valor = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (mascara == null || mascara.charAt(i) == '#') {
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                valor = valor * 10 + (c - '0');
+            } else if (c != mascara.charAt(i)) {
+                return -1;
+            }
+        }
+        return valor;
+    }
+
+    private static String decodificar(PoolTextos textos, long codigo) {
+        int formato = (int) (codigo >>> BITS_VALOR);
+        long valor = codigo & MASCARA_VALOR;
+        if (formato == 0) {
+            return null;
+        }
+        if (formato == FORMATO_LIVRE) {
+            return textos.texto((int) valor);
+        }
+        if (formato <= MAXIMO_DIGITOS) {
+            return preencher(valor, formato, null);
+        }
+        return preencher(valor, DIGITOS_MASCARA[formato - FORMATO_MASCARA], MASCARAS[formato - FORMATO_MASCARA]);
+    }
+
+    // Escreve 'valor' com 'digitos' casas (zeros à esquerda), dentro da máscara se houver.
+    private static String preencher(long valor, int digitos, String mascara) {
+        char[] saida = mascara == null ? new char[digitos] : mascara.toCharArray();
+        for (int i = saida.length - 1; i >= 0; i--) {
+            if (mascara == null || saida[i] == '#') {
+                saida[i] = (char) ('0' + valor % 10);
+                valor /= 10;
+            }
+        }
+        return new String(saida);
+    }
+
+    // Chave do CPF no índice: os dígitos (como em 'listaAlunos.normalizarCpf') e quantos são.
+    private long chaveCpf(long codigo) {
+        int formato = (int) (codigo >>> BITS_VALOR);
+        if (formato == 0) {
+            return NULO;
+        }
+        if (formato == FORMATO_LIVRE) {
+            return chaveDosDigitos(listaAlunos.normalizarCpf(textos.texto((int) (codigo & MASCARA_VALOR))));
+        }
+        int digitos = formato <= MAXIMO_DIGITOS ? formato : DIGITOS_MASCARA[formato - FORMATO_MASCARA];
+        return ((long) digitos << BITS_VALOR) | (codigo & MASCARA_VALOR);
+    }
+
+    // Chave a partir dos dígitos já normalizados; NULO se não houver dígitos ou forem demais.
+    private static long chaveDosDigitos(String digitos) {
+        if (digitos.isEmpty() || digitos.length() > MAXIMO_DIGITOS) {
+            return NULO;
+        }
+        return ((long) digitos.length() << BITS_VALOR) | Long.parseLong(digitos);
+    }
+}
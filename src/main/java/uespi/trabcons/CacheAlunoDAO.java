@@ -0,0 +1,324 @@
+package uespi.trabcons;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cache de leitura por cima de outro repositório ("read-through"): 'buscar' e
+ * 'buscarPorCpf' de um aluno já lido são respondidos da memória, sem ir à camada de baixo.
+ *
+ * As gravações vão direto para a camada de baixo ("write-through") e, depois, o cache guarda
+ * o aluno gravado ou esquece o excluído. As páginas lidas também entram no cache (quem abre
+ * um aluno da tabela costuma tê-lo acabado de ver na página); 'pagina', 'contar', a busca
+ * por nome e a carga completa em si sempre vão à camada de baixo, porque dependem de todas as
+ * linhas e não só das que estão aqui. A carga completa não entra no cache (seria a tabela inteira).
+ *
+ * O despejo é configurável: tamanho máximo (o mais antigo sai quando o cache enche),
+ * por uso (LRU) ou por chegada (FIFO), e um tempo de vida por entrada (TTL), que limita por
+ * quanto tempo uma mudança feita por fora deste repositório (outra instância) pode não ser vista.
+ * Mudanças conhecidas por outros caminhos chegam por 'esquecer'.
+ *
+ * Só os encontrados ficam guardados: um "não existe" sempre vai à camada de baixo.
+ * O cache guarda cópias e devolve cópias ('Aluno.copiar'): quem recebe ou grava um aluno pode
+ * alterá-lo depois sem mudar o que está guardado.
+ *
+ * Thread-safe. A camada de baixo é chamada fora da trava.
+ */
+final class CacheAlunoDAO implements AlunoDAO {
+
+    /**
+     * Qual entrada sai quando o cache enche.
+     */
+    enum Politica {
+        /** A usada há mais tempo. */
+        LRU,
+        /** A que entrou há mais tempo, mesmo que seja muito lida. */
+        FIFO;
+
+        /**
+         * A política com esse nome, sem diferenciar maiúsculas; um nome desconhecido vira LRU
+         * com um aviso (o cache continua ligado).
+         */
+        static Politica ler(String valor) {
+            if (valor == null) {
+                return LRU;
+            }
+            for (Politica politica : values()) {
+                if (politica.name().equalsIgnoreCase(valor.trim())) {
+                    return politica;
+                }
+            }
+            System.err.println("Política de cache '" + valor + "' desconhecida (LRU ou FIFO); usando LRU.");
+            return LRU;
+        }
+    }
+
+    private record Entrada(Aluno aluno, long expiraEm) {
+    }
+
+    private final AlunoDAO origem;
+    private final int tamanhoMaximo;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entrada> porMatricula;
+    // CPF normalizado -> matrícula, só dos alunos que estão em 'porMatricula'.
+    private final Map<String, String> matriculaPorCpf = new HashMap<>();
+
+    // Muda a cada invalidação: uma leitura que começou antes dela não pode guardar o que leu
+    // (poderia ser a versão que acabou de ser excluída ou alterada).
+    private long geracao = 0;
+
+    private long acertos = 0;
+    private long falhas = 0;
+    private long despejos = 0;
+
+    /**
+     * @param origem A camada de baixo.
+     * @param tamanhoMaximo Máximo de alunos guardados.
+     * @param ttlMs Tempo de vida de cada entrada; 0 para não expirar.
+     * @param politica Qual entrada sai quando o cache enche.
+     */
+    CacheAlunoDAO(AlunoDAO origem, int tamanhoMaximo, long ttlMs, Politica politica) {
+        this.origem = origem;
+        this.tamanhoMaximo = Math.max(1, tamanhoMaximo);
+        this.ttlNanos = ttlMs <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.porMatricula = new LinkedHashMap<>(16, 0.75f, politica == Politica.LRU) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+                if (size() <= CacheAlunoDAO.this.tamanhoMaximo) {
+                    return false;
+                }
+                esquecerCpf(maisAntiga.getValue().aluno());
+                despejos++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Envolve o repositório no cache configurado pelas propriedades do sistema:
+     * 'trabcons.repositorio.cache.tamanho' (padrão 10000; 0 desliga o cache),
+     * 'trabcons.repositorio.cache.ttlMs' (padrão 60000; 0 não expira) e
+     * 'trabcons.repositorio.cache.politica' (LRU ou FIFO, padrão LRU).
+     *
+     * @return O repositório com cache, ou o próprio 'origem' se o cache estiver desligado.
+     */
+    static AlunoDAO envolver(AlunoDAO origem) {
+        int tamanho = Integer.getInteger("trabcons.repositorio.cache.tamanho", 10_000);
+        if (tamanho <= 0) {
+            return origem;
+        }
+        return new CacheAlunoDAO(origem, tamanho,
+                Long.getLong("trabcons.repositorio.cache.ttlMs", 60_000L),
+                Politica.ler(System.getProperty("trabcons.repositorio.cache.politica")));
+    }
+
+    // --- LEITURA ---
+
+    @Override
+    public Aluno buscar(String matricula) {
+        long antes;
+        synchronized (this) {
+            Aluno guardado = doCache(matricula);
+            if (guardado != null) {
+                acertos++;
+                return guardado.copiar();
+            }
+            falhas++;
+            antes = geracao;
+        }
+        Aluno aluno = origem.buscar(matricula);
+        guardar(aluno, antes);
+        return aluno;
+    }
+
+    @Override
+    public Aluno buscarPorCpf(String cpf) {
+        String normalizado = listaAlunos.normalizarCpf(cpf);
+        long antes;
+        synchronized (this) {
+            String matricula = matriculaPorCpf.get(normalizado);
+            Aluno guardado = matricula == null ? null : doCache(matricula);
+            if (guardado != null) {
+                acertos++;
+                return guardado.copiar();
+            }
+            falhas++;
+            antes = geracao;
+        }
+        Aluno aluno = origem.buscarPorCpf(cpf);
+        guardar(aluno, antes);
+        return aluno;
+    }
+
+    /**
+     * Página lida da camada de baixo; os alunos dela entram no cache.
+     */
+    @Override
+    public List<Aluno> pagina(String depoisDe, int tamanho) {
+        long antes;
+        synchronized (this) {
+            antes = geracao;
+        }
+        List<Aluno> pagina = origem.pagina(depoisDe, tamanho);
+        synchronized (this) {
+            if (geracao == antes) {
+                // Só as últimas 'tamanhoMaximo' cabem; as anteriores seriam despejadas em seguida.
+                for (Aluno aluno : pagina.subList(Math.max(0, pagina.size() - tamanhoMaximo), pagina.size())) {
+                    colocar(aluno);
+                }
+            }
+        }
+        return pagina;
+    }
+
+    @Override
+    public long contar() {
+        return origem.contar();
+    }
+
+    @Override
+    public void percorrerTodos(Consumer<? super Aluno> destino) {
+        origem.percorrerTodos(destino);
+    }
+
+    @Override
+    public List<Aluno> buscarPorNome(String texto, int limite) {
+        return origem.buscarPorNome(texto, limite);
+    }
+
+    // --- GRAVAÇÃO ---
+
+    @Override
+    public void inserir(Aluno aluno) {
+        origem.inserir(aluno);
+        substituir(aluno);
+    }
+
+    @Override
+    public void salvar(Aluno aluno) {
+        try {
+            origem.salvar(aluno);
+        } finally {
+            // Mesmo numa falha a camada de baixo pode ter mudado; na dúvida, esquece.
+            esquecer(List.of(aluno.getMatricula()));
+        }
+        substituir(aluno);
+    }
+
+    @Override
+    public boolean excluir(String matricula) {
+        try {
+            return origem.excluir(matricula);
+        } finally {
+            esquecer(List.of(matricula));
+        }
+    }
+
+    @Override
+    public int excluirTodos(Collection<String> matriculas) {
+        try {
+            return origem.excluirTodos(matriculas);
+        } finally {
+            esquecer(matriculas);
+        }
+    }
+
+    // Depois do lote (mesmo numa falha, que pode ter gravado uma parte), as matrículas dele são esquecidas.
+    @Override
+    public void gravarLote(List<Mudanca> mudancas) {
+        try {
+            origem.gravarLote(mudancas);
+        } finally {
+            List<String> matriculas = new ArrayList<>(mudancas.size());
+            for (Mudanca mudanca : mudancas) {
+                matriculas.add(mudanca.aluno().getMatricula());
+            }
+            esquecer(matriculas);
+        }
+    }
+
+    @Override
+    public synchronized void esquecer(Collection<String> matriculas) {
+        geracao++;
+        for (String matricula : matriculas) {
+            Entrada entrada = porMatricula.remove(matricula);
+            if (entrada != null) {
+                esquecerCpf(entrada.aluno());
+            }
+        }
+        origem.esquecer(matriculas);
+    }
+
+    // --- ESTATÍSTICAS ---
+
+    synchronized long getAcertos() {
+        return acertos;
+    }
+
+    synchronized long getFalhas() {
+        return falhas;
+    }
+
+    synchronized int getTamanho() {
+        return porMatricula.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        long total = acertos + falhas;
+        return String.format("Cache do repositório de alunos: %.1f%% de acertos (%d/%d, %d em memória, %d despejados)",
+                total == 0 ? 0.0 : acertos * 100.0 / total, acertos, total, porMatricula.size(), despejos);
+    }
+
+    // --- AUXILIARES (com a trava) ---
+
+    // A entrada válida da matrícula, ou 'null'; a vencida já sai aqui.
+    private Aluno doCache(String matricula) {
+        Entrada entrada = porMatricula.get(matricula);
+        if (entrada == null) {
+            return null;
+        }
+        if (ttlNanos > 0 && System.nanoTime() - entrada.expiraEm() > 0) {
+            porMatricula.remove(matricula);
+            esquecerCpf(entrada.aluno());
+            return null;
+        }
+        return entrada.aluno();
+    }
+
+    // Guarda o que foi lido, se nada foi invalidado durante a leitura.
+    private synchronized void guardar(Aluno aluno, long geracaoDaLeitura) {
+        if (aluno != null && geracao == geracaoDaLeitura) {
+            colocar(aluno);
+        }
+    }
+
+    // Depois de uma gravação que deu certo: a versão gravada é a atual.
+    private synchronized void substituir(Aluno aluno) {
+        geracao++;
+        colocar(aluno);
+    }
+
+    // Guarda uma cópia: o aluno recebido continua sendo de quem o passou.
+    private void colocar(Aluno aluno) {
+        Entrada anterior = porMatricula.put(aluno.getMatricula(),
+                new Entrada(aluno.copiar(), ttlNanos == 0 ? 0 : System.nanoTime() + ttlNanos));
+        if (anterior != null) {
+            esquecerCpf(anterior.aluno());
+        }
+        String cpf = listaAlunos.normalizarCpf(aluno.getCpf());
+        if (!cpf.isEmpty()) {
+            matriculaPorCpf.put(cpf, aluno.getMatricula());
+        }
+    }
+
+    private void esquecerCpf(Aluno aluno) {
+        matriculaPorCpf.remove(listaAlunos.normalizarCpf(aluno.getCpf()), aluno.getMatricula());
+    }
+}
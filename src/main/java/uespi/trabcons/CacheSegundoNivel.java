@@ -0,0 +1,55 @@
+package uespi.trabcons;
+
+import java.util.function.Supplier;
+
+/**
+ * As taxas de 'EstatisticasCache' publicadas no JMX, lidas de novo a cada atributo (os
+ * números são os de agora, não os da hora em que o MBean foi publicado).
+ */
+public final class CacheSegundoNivel implements CacheSegundoNivelMBean {
+
+    private final Supplier<EstatisticasCache> fonte;
+
+    CacheSegundoNivel() {
+        this(EstatisticasCache::atual);
+    }
+
+    CacheSegundoNivel(Supplier<EstatisticasCache> fonte) {
+        this.fonte = fonte;
+    }
+
+    @Override
+    public long getAcertosAluno() {
+        return fonte.get().acertosAluno();
+    }
+
+    @Override
+    public long getFalhasAluno() {
+        return fonte.get().falhasAluno();
+    }
+
+    @Override
+    public long getAlunosEmCache() {
+        return fonte.get().alunosEmCache();
+    }
+
+    @Override
+    public double getTaxaAcertoAluno() {
+        return fonte.get().taxaAcertoAluno();
+    }
+
+    @Override
+    public long getAcertosConsultas() {
+        return fonte.get().acertosConsultas();
+    }
+
+    @Override
+    public long getFalhasConsultas() {
+        return fonte.get().falhasConsultas();
+    }
+
+    @Override
+    public double getTaxaAcertoConsultas() {
+        return fonte.get().taxaAcertoConsultas();
+    }
+}
@@ -0,0 +1,22 @@
+package uespi.trabcons;
+
+/**
+ * Interface JMX do cache de segundo nível do Hibernate (o que aparece no JConsole/VisualVM em
+ * "uespi.trabcons" > "Cache" > "segundoNivel"). Só é publicada com as estatísticas ligadas.
+ */
+public interface CacheSegundoNivelMBean {
+
+    long getAcertosAluno();
+
+    long getFalhasAluno();
+
+    long getAlunosEmCache();
+
+    double getTaxaAcertoAluno();
+
+    long getAcertosConsultas();
+
+    long getFalhasConsultas();
+
+    double getTaxaAcertoConsultas();
+}
@@ -0,0 +1,167 @@
+package uespi.trabcons;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Repositório de alunos num arquivo CSV, no mesmo formato do backup.
+ *
+ * Os alunos ficam num 'MemoriaAlunoDAO' (a leitura nunca vai ao disco); cada gravação é
+ * anexada ao diário do CSV ('DiarioCsv'), que de tempos em tempos reescreve a foto.
+ * Ao abrir, a foto mais o diário são reaplicados, como na carga de fallback do 'listaAlunos'.
+ *
+ * Uma gravação que não chega ao diário é desfeita na memória e vira 'OperacaoAlunoException'.
+ *
+ * Não deve ser aberto sobre os arquivos do backup enquanto o 'listaAlunos' usa o diário deles:
+ * dois escritores no mesmo diário se atropelam.
+ */
+class CsvAlunoDAO implements AlunoDAO, Closeable {
+
+    private final MemoriaAlunoDAO memoria;
+    private final DiarioCsv diario;
+
+    CsvAlunoDAO(Collection<Aluno> alunos, DiarioCsv diario) {
+        this.memoria = new MemoriaAlunoDAO(alunos);
+        this.diario = diario;
+    }
+
+    /**
+     * Abre o repositório sobre o CSV, com o diário ao lado ("nome.journal").
+     * A configuração do diário é a mesma do backup (ver 'DiarioCsv.abrir').
+     */
+    static CsvAlunoDAO abrir(Path csv) throws IOException {
+        String nome = csv.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        Path caminhoDiario = csv.resolveSibling((ponto > 0 ? nome.substring(0, ponto) : nome) + ".journal");
+        List<Aluno> alunos = DiarioCsv.reproduzir(csv, caminhoDiario);
+        DiarioCsv diario = DiarioCsv.abrir(csv, caminhoDiario);
+        return new CsvAlunoDAO(alunos, diario);
+    }
+
+    @Override
+    public Aluno buscar(String matricula) {
+        return memoria.buscar(matricula);
+    }
+
+    @Override
+    public Aluno buscarPorCpf(String cpf) {
+        return memoria.buscarPorCpf(cpf);
+    }
+
+    @Override
+    public synchronized void inserir(Aluno aluno) {
+        memoria.inserir(aluno);
+        try {
+            diario.registrarInsercao(aluno);
+        } catch (IOException e) {
+            memoria.excluir(aluno.getMatricula());
+            throw erroDeGravacao(e);
+        }
+        compactarSeNecessario();
+    }
+
+    @Override
+    public synchronized void salvar(Aluno aluno) {
+        Aluno anterior = memoria.buscar(aluno.getMatricula());
+        memoria.salvar(aluno);
+        try {
+            diario.registrarInsercao(aluno);
+        } catch (IOException e) {
+            if (anterior == null) {
+                memoria.excluir(aluno.getMatricula());
+            } else {
+                memoria.salvar(anterior);
+            }
+            throw erroDeGravacao(e);
+        }
+        compactarSeNecessario();
+    }
+
+    @Override
+    public synchronized boolean excluir(String matricula) {
+        Aluno anterior = memoria.buscar(matricula);
+        if (anterior == null) {
+            return false;
+        }
+        try {
+            diario.registrarRemocao(matricula);
+        } catch (IOException e) {
+            throw erroDeGravacao(e);
+        }
+        memoria.excluir(matricula);
+        compactarSeNecessario();
+        return true;
+    }
+
+    @Override
+    public synchronized int excluirTodos(Collection<String> matriculas) {
+        int excluidos = 0;
+        for (String matricula : matriculas) {
+            if (excluir(matricula)) {
+                excluidos++;
+            }
+        }
+        return excluidos;
+    }
+
+    // Primeiro na memória, tudo ou nada: uma matrícula ou um CPF repetido recusa o lote antes
+    // de qualquer registro no diário. Depois, um registro por mudança.
+    @Override
+    public synchronized void gravarLote(List<Mudanca> mudancas) {
+        memoria.gravarLote(mudancas);
+        try {
+            for (Mudanca mudanca : mudancas) {
+                if (mudanca.remocao()) {
+                    diario.registrarRemocao(mudanca.aluno().getMatricula());
+                } else {
+                    diario.registrarInsercao(mudanca.aluno());
+                }
+            }
+        } catch (IOException e) {
+            throw erroDeGravacao(e);
+        }
+        compactarSeNecessario();
+    }
+
+    @Override
+    public List<Aluno> pagina(String depoisDe, int tamanho) {
+        return memoria.pagina(depoisDe, tamanho);
+    }
+
+    @Override
+    public long contar() {
+        return memoria.contar();
+    }
+
+    @Override
+    public void percorrerTodos(Consumer<? super Aluno> destino) {
+        memoria.percorrerTodos(destino);
+    }
+
+    @Override
+    public List<Aluno> buscarPorNome(String texto, int limite) {
+        return memoria.buscarPorNome(texto, limite);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            diario.compactar(this, memoria::todos);
+        } finally {
+            diario.close();
+        }
+    }
+
+    // A mudança já está no diário; a compactação roda em segundo plano e, se falhar, fica para a próxima vez.
+    private void compactarSeNecessario() {
+        diario.compactarSeNecessario(this, memoria::todos);
+    }
+
+    private static OperacaoAlunoException erroDeGravacao(IOException e) {
+        return new OperacaoAlunoException("Erro de Backup", "Erro ao gravar no CSV: " + e.getMessage(), e);
+    }
+}
@@ -0,0 +1,497 @@
+package uespi.trabcons;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * Diário (write-ahead journal) do backup em CSV.
+ *
+ * Em vez de reescrever o 'ListagemAlunos.csv' inteiro a cada cadastro ou exclusão,
+ * cada mudança vira uma linha anexada no fim do 'ListagemAlunos.journal':
+ *
+ *     crc32;I,matricula,nome,idade,data,telefone,cpf,index   (inserção)
+ *     crc32;D,matricula                                     (remoção)
+ *
+ * O CRC32 permite descartar um registro corrompido, e um registro cortado no meio por uma
+ * queda do programa é retirado do fim do arquivo ao abrir o diário de novo. Um registro pode
+ * ocupar mais de uma linha (campo entre aspas com quebra de linha): a leitura é feita pelo
+ * CSVParser, como a do próprio CSV.
+ *
+ * As escritas no diário devem acontecer com a mesma trava que protege o estado em memória
+ * (a de quem chama), para que a ordem no diário seja a ordem em que as mudanças aconteceram.
+ *
+ * De tempos em tempos (a cada 'limiteCompactacao' registros) o estado atual é gravado
+ * num CSV novo (a "foto"), que substitui o antigo de forma atômica, e o diário perde os
+ * registros que a foto já cobre. Junto com o CSV é gravada uma cópia binária da mesma foto
+ * ('FotoBinaria'), bem mais rápida de ler. A compactação roda numa thread própria: quem
+ * grava só espera a cópia da lista, não a escrita da foto.
+ *
+ * Ao iniciar sem banco, a foto é lida (a binária, se estiver íntegra e em dia com o CSV)
+ * e o diário é reaplicado por cima dela. A reaplicação é idempotente, então uma queda entre
+ * a troca da foto e o corte do diário não corrompe nada.
+ */
+class DiarioCsv implements Closeable {
+
+    /**
+     * Quando o diário força os dados para o disco (fsync).
+     */
+    enum PoliticaSync {
+        SEMPRE, // fsync a cada registro: mais seguro, mais lento.
+        GRUPO,  // fsync em grupo: a cada N registros ou a cada X milissegundos.
+        NUNCA;  // deixa o sistema operacional decidir.
+
+        /**
+         * A política com esse nome (sem diferenciar maiúsculas). Um valor que não existe não
+         * impede o programa de abrir: avisa e fica com GRUPO, o padrão.
+         */
+        static PoliticaSync ler(String valor) {
+            if (valor == null) {
+                return GRUPO;
+            }
+            for (PoliticaSync politica : values()) {
+                if (politica.name().equalsIgnoreCase(valor.trim())) {
+                    return politica;
+                }
+            }
+            System.err.println("trabcons.diario.sync='" + valor + "' não existe (SEMPRE, GRUPO ou NUNCA); usando GRUPO.");
+            return GRUPO;
+        }
+    }
+
+    // Nome padrão do arquivo do diário, ao lado do CSV.
+    static final String JOURNAL_FILE = "ListagemAlunos.journal";
+
+    private static final char INSERCAO = 'I';
+    private static final char REMOCAO = 'D';
+
+    private final Path foto;
+    private final Path diario;
+    private final PoliticaSync politica;
+    private final int grupoMaximo;
+    private final int limiteCompactacao;
+
+    // Trocado só quando a compactação corta o começo do diário.
+    private FileChannel canal;
+    // Agendador que fecha os grupos pendentes na política GRUPO.
+    private final ScheduledExecutorService agendador;
+    // Thread das compactações pedidas por 'compactarSeNecessario'.
+    private final ExecutorService compactador;
+    // Uma compactação por vez (as duas escrevem os mesmos arquivos temporários).
+    private final Object travaCompactacao = new Object();
+    // Há uma compactação na fila do 'compactador' (não pede outra).
+    private boolean compactacaoAgendada = false;
+
+    // Registros escritos mas ainda não forçados para o disco.
+    private int pendentes = 0;
+    // Registros desde a última compactação.
+    private int registrosDesdeCompactacao = 0;
+
+    /**
+     * Cria o diário com a configuração padrão, lida das propriedades do sistema:
+     * 'trabcons.diario.sync' (SEMPRE, GRUPO ou NUNCA), 'trabcons.diario.grupo',
+     * 'trabcons.diario.grupoMs' e 'trabcons.diario.compactarApos'.
+     */
+    static DiarioCsv abrirPadrao() throws IOException {
+        return abrir(Paths.get(SwingUtils.CSV_FILE), Paths.get(JOURNAL_FILE));
+    }
+
+    /**
+     * Como 'abrirPadrao', mas sobre outra foto e outro diário (ex: o 'CsvAlunoDAO').
+     */
+    static DiarioCsv abrir(Path foto, Path diario) throws IOException {
+        PoliticaSync politica = PoliticaSync.ler(System.getProperty("trabcons.diario.sync"));
+        return new DiarioCsv(
+                foto,
+                diario,
+                politica,
+                Integer.getInteger("trabcons.diario.grupo", 32),
+                Long.getLong("trabcons.diario.grupoMs", 200L),
+                Integer.getInteger("trabcons.diario.compactarApos", 10_000));
+    }
+
+    DiarioCsv(Path foto, Path diario, PoliticaSync politica, int grupoMaximo, long grupoMillis, int limiteCompactacao) throws IOException {
+        this.foto = foto;
+        this.diario = diario;
+        this.politica = politica;
+        this.grupoMaximo = grupoMaximo;
+        this.limiteCompactacao = limiteCompactacao;
+        descartarRegistroCortado(diario);
+        this.canal = abrirParaAnexar(diario);
+        this.compactador = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "diario-csv-compactacao");
+            t.setDaemon(true);
+            return t;
+        });
+
+        if (politica == PoliticaSync.GRUPO) {
+            // Garante que nenhum grupo fique mais de 'grupoMillis' sem ir para o disco.
+            this.agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "diario-csv-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            this.agendador.scheduleWithFixedDelay(this::sincronizarPendentes, grupoMillis, grupoMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.agendador = null;
+        }
+    }
+
+    // --- ESCRITA ---
+
+    /**
+     * Anexa uma inserção ao diário. Quem chama segura a trava do estado em memória.
+     */
+    synchronized void registrarInsercao(Aluno aluno) throws IOException {
+        Object[] campos = SwingUtils.camposDoAluno(aluno);
+        Object[] valores = new Object[campos.length + 1];
+        valores[0] = INSERCAO;
+        System.arraycopy(campos, 0, valores, 1, campos.length);
+        anexar(CSVFormat.DEFAULT.format(valores));
+    }
+
+    /**
+     * Anexa uma remoção ao diário. Quem chama segura a trava do estado em memória.
+     */
+    synchronized void registrarRemocao(String matricula) throws IOException {
+        anexar(CSVFormat.DEFAULT.format(REMOCAO, matricula));
+    }
+
+    // Escreve uma linha "crc;registro" e aplica a política de fsync.
+    private void anexar(String registro) throws IOException {
+        long inicio = System.nanoTime();
+        String linha = crc(registro) + ";" + registro + "\n";
+        ByteBuffer buffer = ByteBuffer.wrap(linha.getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            registrosDesdeCompactacao++;
+
+            switch (politica) {
+                case SEMPRE -> canal.force(false);
+                case GRUPO -> {
+                    pendentes++;
+                    if (pendentes >= grupoMaximo) {
+                        canal.force(false);
+                        pendentes = 0;
+                    }
+                }
+                case NUNCA -> { }
+            }
+        } catch (IOException e) {
+            Metricas.DIARIO_CSV.falha(inicio);
+            throw e;
+        }
+        // O tempo medido inclui o fsync, quando a política pede.
+        Metricas.DIARIO_CSV.sucesso(inicio);
+        Metricas.DIARIO_CSV.adicionarItens(1);
+        Metricas.DIARIO_CSV.adicionarBytes(buffer.limit());
+    }
+
+    // Chamado pelo agendador: fecha o grupo atual, se houver algo pendente.
+    private synchronized void sincronizarPendentes() {
+        if (pendentes == 0 || !canal.isOpen()) {
+            return;
+        }
+        try {
+            canal.force(false);
+            pendentes = 0;
+        } catch (IOException e) {
+            System.err.println("Erro ao sincronizar o diário do CSV: " + e.getMessage());
+        }
+    }
+
+    // --- COMPACTAÇÃO ---
+
+    /**
+     * Se o diário já cresceu o suficiente, agenda uma compactação em segundo plano
+     * (no máximo uma na fila). Volta na hora; um erro da compactação só é registrado no
+     * console, e os registros continuam no diário até a próxima.
+     *
+     * @param trava A trava que quem grava no diário segura (a do estado em memória).
+     * @param estadoAtual Fornece os alunos; chamado com 'trava' (ver 'compactar').
+     */
+    synchronized void compactarSeNecessario(Object trava, Supplier<? extends Iterable<Aluno>> estadoAtual) {
+        if (registrosDesdeCompactacao < limiteCompactacao || compactacaoAgendada || compactador.isShutdown()) {
+            return;
+        }
+        compactacaoAgendada = true;
+        compactador.execute(() -> {
+            try {
+                compactar(trava, estadoAtual);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Erro ao compactar o diário do CSV: " + e.getMessage());
+            } finally {
+                synchronized (this) {
+                    compactacaoAgendada = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Grava o estado atual numa foto nova e tira do diário os registros que ela cobre.
+     *
+     * A cópia do estado e a posição do fim do diário são lidas juntas, com 'trava': como as
+     * escritas no diário também a seguram, a foto cobre exatamente os registros até ali. A
+     * foto é escrita sem travar nada; os registros que chegarem enquanto isso ficam no diário.
+     *
+     * 'estadoAtual' também pode devolver uma leitura preguiçosa (ex: a tabela do banco, no
+     * modo paginado), percorrida só depois, já fora da trava. Basta que ela inclua tudo que
+     * foi gravado no diário até o corte: o que vier a mais também está no fim do diário, e
+     * reaplicar uma inserção ou remoção sobre ela dá no mesmo estado.
+     *
+     * @param trava A trava que quem grava no diário segura (a do estado em memória).
+     * @param estadoAtual Fornece os alunos; chamado com 'trava'.
+     */
+    void compactar(Object trava, Supplier<? extends Iterable<Aluno>> estadoAtual) throws IOException {
+        synchronized (travaCompactacao) {
+            Iterable<Aluno> alunos;
+            long corte;
+            int registrosCobertos;
+            synchronized (trava) {
+                alunos = estadoAtual.get();
+                synchronized (this) {
+                    corte = canal.size();
+                    registrosCobertos = registrosDesdeCompactacao;
+                }
+            }
+
+            // 1. Escreve a foto num arquivo temporário e força para o disco.
+            Path temporario = foto.resolveSibling(foto.getFileName() + ".tmp");
+            SwingUtils.salvarAlunosEmCsv(alunos, temporario);
+            try (FileChannel tmp = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+                tmp.force(true);
+            }
+
+            // 2. Troca a foto antiga pela nova de uma vez só.
+            Files.move(temporario, foto, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // 3. Mesmo caminho para a foto binária. Se o programa cair antes desta troca, a binária
+            //    antiga fica mais velha que o CSV e é ignorada na leitura.
+            Path binaria = FotoBinaria.aoLadoDe(foto);
+            Path binariaTemporaria = binaria.resolveSibling(binaria.getFileName() + ".tmp");
+            FotoBinaria.salvar(alunos, binariaTemporaria);
+            Files.move(binariaTemporaria, binaria, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // 4. Só agora o começo do diário pode sair.
+            synchronized (this) {
+                cortarDiario(corte);
+                registrosDesdeCompactacao -= registrosCobertos;
+            }
+        }
+    }
+
+    // Mantém só os registros depois de 'corte': copia o fim para um arquivo novo, que
+    // substitui o diário de uma vez só. Chamado com a trava do diário.
+    private void cortarDiario(long corte) throws IOException {
+        canal.force(false);
+        pendentes = 0;
+        long fim = canal.size();
+        if (corte >= fim) {
+            canal.truncate(0);
+            canal.force(true);
+            return;
+        }
+        Path novo = diario.resolveSibling(diario.getFileName() + ".tmp");
+        try (FileChannel origem = FileChannel.open(diario, StandardOpenOption.READ);
+             FileChannel destino = FileChannel.open(novo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long posicao = corte;
+            while (posicao < fim) {
+                posicao += origem.transferTo(posicao, fim - posicao, destino);
+            }
+            destino.force(true);
+        }
+        canal.close();
+        Files.move(novo, diario, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        canal = abrirParaAnexar(diario);
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactador.shutdown();
+        try {
+            // Uma compactação no meio ainda troca os arquivos; espera ela terminar.
+            compactador.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        fechar();
+    }
+
+    private synchronized void fechar() throws IOException {
+        if (agendador != null) {
+            agendador.shutdown();
+        }
+        if (canal.isOpen()) {
+            canal.force(false);
+            canal.close();
+        }
+    }
+
+    // --- REAPLICAÇÃO ---
+
+    /**
+     * Reconstrói a lista de alunos a partir da foto mais o diário.
+     * Registros com CRC inválido (corrompidos) são ignorados.
+     */
+    static List<Aluno> reproduzir(Path foto, Path diario) {
+        // Mapa por matrícula, preservando a ordem original da lista.
+        Map<String, Aluno> alunos = new LinkedHashMap<>();
+        for (Aluno aluno : lerFoto(foto)) {
+            alunos.put(aluno.getMatricula(), aluno);
+        }
+        if (!Files.exists(diario)) {
+            return new ArrayList<>(alunos.values());
+        }
+
+        int aplicados = 0;
+        int descartados = 0;
+        try (Reader reader = Files.newBufferedReader(diario, StandardCharsets.UTF_8);
+             CSVParser parser = CSVFormat.DEFAULT.parse(reader)) {
+            for (CSVRecord campos : parser) {
+                // O primeiro campo é "crc;tipo": o CRC confere o registro formatado de novo,
+                // que é o mesmo texto que foi gravado.
+                List<String> valores = new ArrayList<>(campos.toList());
+                int separador = valores.get(0).indexOf(';');
+                if (separador <= 0) {
+                    descartados++;
+                    continue;
+                }
+                String crcGravado = valores.get(0).substring(0, separador);
+                valores.set(0, valores.get(0).substring(separador + 1));
+                if (!crcGravado.equals(crc(CSVFormat.DEFAULT.format(valores.toArray())))) {
+                    descartados++;
+                    continue;
+                }
+                try {
+                    if (valores.get(0).charAt(0) == INSERCAO) {
+                        Aluno aluno = SwingUtils.alunoDosCampos(valores.subList(1, valores.size()));
+                        alunos.put(aluno.getMatricula(), aluno);
+                    } else {
+                        alunos.remove(valores.get(1));
+                    }
+                    aplicados++;
+                } catch (Exception e) {
+                    descartados++;
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // Ex: aspas abertas no fim (o diário não foi reaberto desde a queda).
+            System.err.println("Erro ao ler o diário do CSV: " + e.getMessage());
+        }
+        System.out.println("Diário reaplicado: " + aplicados + " registros, " + descartados + " descartados.");
+        return new ArrayList<>(alunos.values());
+    }
+
+    // Lê a foto binária quando ela existe, está íntegra e não é mais velha que o CSV
+    // (o CSV pode ter sido salvo por fora); senão, o próprio CSV.
+    private static List<Aluno> lerFoto(Path foto) {
+        Path binaria = FotoBinaria.aoLadoDe(foto);
+        try {
+            if (Files.exists(binaria) && (!Files.exists(foto)
+                    || Files.getLastModifiedTime(binaria).compareTo(Files.getLastModifiedTime(foto)) >= 0)) {
+                return FotoBinaria.carregar(binaria);
+            }
+        } catch (IOException e) {
+            System.err.println("Foto binária ignorada, lendo o CSV: " + e.getMessage());
+        }
+        return Files.exists(foto) ? SwingUtils.carregarAlunosDoCsv(foto) : List.of();
+    }
+
+    // --- AUXILIARES ---
+
+    private static String crc(String registro) {
+        CRC32 crc = new CRC32();
+        crc.update(registro.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static FileChannel abrirParaAnexar(Path diario) throws IOException {
+        return FileChannel.open(diario, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Tira do fim do diário um registro cortado por uma queda (sem o '\n' final, ou com aspas
+     * abertas). Sem isso os registros anexados depois se juntariam a ele, e aspas abertas
+     * engoliriam todos eles na reaplicação.
+     *
+     * As aspas seguem a regra do CSVParser: só abrem no começo de um campo, e "" dentro delas
+     * é uma aspa escapada. Aspas e fins de linha são ASCII, então os bytes bastam.
+     */
+    private static void descartarRegistroCortado(Path diario) throws IOException {
+        if (!Files.exists(diario)) {
+            return;
+        }
+        long fimUltimo = 0;
+        boolean entreAspas = false;
+        boolean fechouAspas = false;
+        boolean inicioCampo = true;
+        try (FileChannel leitura = FileChannel.open(diario, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            long posicao = 0;
+            while (leitura.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte c = buffer.get();
+                    posicao++;
+                    if (entreAspas) {
+                        if (c == '"') {
+                            entreAspas = false;
+                            fechouAspas = true;
+                        }
+                        continue;
+                    }
+                    if (fechouAspas) {
+                        fechouAspas = false;
+                        if (c == '"') {
+                            entreAspas = true;
+                            continue;
+                        }
+                    }
+                    if (c == '"' && inicioCampo) {
+                        entreAspas = true;
+                    } else if (c == '\n') {
+                        fimUltimo = posicao;
+                        inicioCampo = true;
+                    } else {
+                        inicioCampo = c == ',';
+                    }
+                }
+                buffer.clear();
+            }
+            if (fimUltimo == posicao) {
+                return;
+            }
+        }
+        try (FileChannel escrita = FileChannel.open(diario, StandardOpenOption.WRITE)) {
+            escrita.truncate(fimUltimo);
+            escrita.force(true);
+        }
+        System.err.println("Diário do CSV: registro incompleto no fim descartado.");
+    }
+}
@@ -0,0 +1,75 @@
+package uespi.trabcons;
+
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Taxas de acerto do cache de segundo nível e do cache de consultas do Hibernate.
+ *
+ * Os números vêm das estatísticas da SessionFactory e são acumulados desde o início do
+ * programa. Manter as estatísticas custa um pouco em cada operação do Hibernate, então elas
+ * só são ligadas com a propriedade 'trabcons.cache.estatisticas=true' (ver 'ligadas'). Ligadas,
+ * ficam também no JMX, em "uespi.trabcons" > "Cache" > "segundoNivel" ('CacheSegundoNivel').
+ *
+ * @param acertosAluno Leituras de Aluno atendidas pela região "aluno", sem ir ao MySQL.
+ * @param falhasAluno Leituras de Aluno que não estavam no cache.
+ * @param alunosEmCache Entradas hoje na região "aluno" (-1 se o provedor não informar).
+ * @param acertosConsultas Consultas cacheáveis respondidas pelo cache.
+ * @param falhasConsultas Consultas cacheáveis que foram ao banco.
+ */
+record EstatisticasCache(long acertosAluno, long falhasAluno, long alunosEmCache,
+                         long acertosConsultas, long falhasConsultas) {
+
+    // Nomes das regiões, iguais aos do ehcache.xml.
+    static final String REGIAO_ALUNO = "aluno";
+    static final String REGIAO_CONSULTAS = "consultas-aluno";
+
+    /**
+     * Se as estatísticas estão ligadas ('trabcons.cache.estatisticas', padrão desligado).
+     * Com elas desligadas, 'atual' devolve só zeros.
+     */
+    static boolean ligadas() {
+        return Boolean.getBoolean("trabcons.cache.estatisticas");
+    }
+
+    /**
+     * Estatísticas atuais. Espera a SessionFactory, se ela ainda estiver iniciando.
+     */
+    static EstatisticasCache atual() {
+        Statistics estatisticas = HibernateUtil.getSessionFactory().getStatistics();
+        CacheRegionStatistics aluno = estatisticas.getDomainDataRegionStatistics(REGIAO_ALUNO);
+        CacheRegionStatistics consultas = estatisticas.getQueryRegionStatistics(REGIAO_CONSULTAS);
+        return new EstatisticasCache(
+                aluno == null ? 0 : aluno.getHitCount(),
+                aluno == null ? 0 : aluno.getMissCount(),
+                aluno == null ? -1 : aluno.getElementCountInMemory(),
+                consultas == null ? 0 : consultas.getHitCount(),
+                consultas == null ? 0 : consultas.getMissCount());
+    }
+
+    /**
+     * Fração das leituras de Aluno atendidas pelo cache (0 a 1).
+     */
+    double taxaAcertoAluno() {
+        return taxa(acertosAluno, falhasAluno);
+    }
+
+    /**
+     * Fração das consultas cacheáveis atendidas pelo cache (0 a 1).
+     */
+    double taxaAcertoConsultas() {
+        return taxa(acertosConsultas, falhasConsultas);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cache de alunos: %.1f%% de acertos (%d/%d, %d em memória); consultas: %.1f%% (%d/%d)",
+                taxaAcertoAluno() * 100, acertosAluno, acertosAluno + falhasAluno, alunosEmCache,
+                taxaAcertoConsultas() * 100, acertosConsultas, acertosConsultas + falhasConsultas);
+    }
+
+    private static double taxa(long acertos, long falhas) {
+        long total = acertos + falhas;
+        return total == 0 ? 0 : (double) acertos / total;
+    }
+}
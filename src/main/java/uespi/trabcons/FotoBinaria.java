@@ -0,0 +1,242 @@
+package uespi.trabcons;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Foto binária da lista de alunos ('ListagemAlunos.bin'), gravada junto com a foto em CSV
+ * a cada compactação do diário.
+ *
+ * Ler o CSV custa separar campos, converter datas e números de texto para cada aluno.
+ * Aqui tudo já está no formato final, e a leitura é feita sobre o arquivo mapeado em memória
+ * ('FileChannel.map'), sem cópias para buffers intermediários.
+ *
+ * Formato (big-endian):
+ *
+ *     cabeçalho (32 bytes):
+ *       int   MAGICO ("TCAB")
+ *       short versão
+ *       short reservado (0)
+ *       int   quantidade de alunos
+ *       long  tamanho do corpo em bytes
+ *       int   CRC32 do corpo
+ *       int   reservado (0)
+ *       int   CRC32 dos 28 bytes anteriores
+ *
+ *     corpo: um registro por aluno, na ordem da lista
+ *       texto matricula, texto nome, int idade, int data (dia desde 1970-01-01),
+ *       texto telefone, texto cpf, int index
+ *
+ * Cada texto é um tamanho (unsigned short, 0xFFFF = nulo) seguido dos bytes em UTF-8.
+ * Data nula é gravada como 'Integer.MIN_VALUE'.
+ *
+ * Um arquivo com qualquer um dos CRCs errado (gravação interrompida, disco corrompido)
+ * é recusado inteiro; quem chama volta para o CSV.
+ */
+final class FotoBinaria {
+
+    static final String ARQUIVO_PADRAO = "ListagemAlunos.bin";
+
+    private static final int MAGICO = 0x54434142; // "TCAB"
+    private static final short VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 32;
+
+    private static final int TEXTO_NULO = 0xFFFF;
+    private static final int DATA_NULA = Integer.MIN_VALUE;
+
+    // Buffer de escrita: cheio, vai para o canal de uma vez.
+    private static final int TAMANHO_BUFFER = 1 << 20;
+
+    private FotoBinaria() {
+    }
+
+    /**
+     * A foto binária que acompanha um CSV: mesmo diretório, mesmo nome, extensão ".bin".
+     */
+    static Path aoLadoDe(Path csv) {
+        String nome = csv.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        return csv.resolveSibling((ponto > 0 ? nome.substring(0, ponto) : nome) + ".bin");
+    }
+
+    // --- ESCRITA ---
+
+    /**
+     * Grava os alunos no arquivo (substituindo o que houver) e força os dados para o disco.
+     * Percorre 'alunos' uma vez só: pode ser uma leitura do banco, sem a lista na memória.
+     */
+    static void salvar(Iterable<Aluno> alunos, Path arquivo) throws IOException {
+        int quantidade = 0;
+        long inicio = System.nanoTime();
+        try (FileChannel canal = FileChannel.open(arquivo,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // O corpo começa depois do cabeçalho, que só é escrito no fim (precisa do CRC do corpo).
+            canal.position(TAMANHO_CABECALHO);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+            CRC32 crcCorpo = new CRC32();
+            long tamanhoCorpo = 0;
+
+            for (Aluno aluno : alunos) {
+                // Um registro nunca passa de 4 textos de 64 KiB mais 12 bytes.
+                if (buffer.remaining() < 4 * (2 + 0xFFFF) + 12) {
+                    tamanhoCorpo += descarregar(buffer, canal, crcCorpo);
+                }
+                escreverTexto(buffer, aluno.getMatricula());
+                escreverTexto(buffer, aluno.getNome());
+                buffer.putInt(aluno.getIdade());
+                LocalDate data = aluno.getDataNascimento();
+                buffer.putInt(data == null ? DATA_NULA : Math.toIntExact(data.toEpochDay()));
+                escreverTexto(buffer, aluno.getTelefone());
+                escreverTexto(buffer, aluno.getCpf());
+                buffer.putInt(aluno.getIndex());
+                quantidade++;
+            }
+            tamanhoCorpo += descarregar(buffer, canal, crcCorpo);
+
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            cabecalho.putInt(MAGICO)
+                    .putShort(VERSAO)
+                    .putShort((short) 0)
+                    .putInt(quantidade)
+                    .putLong(tamanhoCorpo)
+                    .putInt((int) crcCorpo.getValue())
+                    .putInt(0);
+            CRC32 crcCabecalho = new CRC32();
+            crcCabecalho.update(cabecalho.array(), 0, TAMANHO_CABECALHO - 4);
+            cabecalho.putInt((int) crcCabecalho.getValue());
+            cabecalho.flip();
+            while (cabecalho.hasRemaining()) {
+                canal.write(cabecalho, TAMANHO_CABECALHO - cabecalho.remaining());
+            }
+            canal.force(true);
+        }
+        Metricas.SALVAR_FOTO_BINARIA.sucesso(inicio);
+        Metricas.SALVAR_FOTO_BINARIA.adicionarItens(quantidade);
+        Metricas.SALVAR_FOTO_BINARIA.adicionarBytes(Files.size(arquivo));
+    }
+
+    private static void escreverTexto(ByteBuffer buffer, String texto) throws IOException {
+        if (texto == null) {
+            buffer.putShort((short) TEXTO_NULO);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= TEXTO_NULO) {
+            throw new IOException("Campo grande demais para a foto binária (" + bytes.length + " bytes).");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    // Manda o conteúdo do buffer para o canal, somando no CRC. Retorna quantos bytes foram escritos.
+    private static int descarregar(ByteBuffer buffer, FileChannel canal, CRC32 crc) throws IOException {
+        buffer.flip();
+        int tamanho = buffer.remaining();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+        return tamanho;
+    }
+
+    // --- LEITURA ---
+
+    /**
+     * Lê o arquivo inteiro.
+     *
+     * @throws IOException se o arquivo não puder ser lido ou não for uma foto válida
+     *         (magico, versão, tamanho ou CRC errados).
+     */
+    static List<Aluno> carregar(Path arquivo) throws IOException {
+        long inicio = System.nanoTime();
+        List<Aluno> alunos;
+        long tamanhoArquivo;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            tamanhoArquivo = canal.size();
+            if (tamanhoArquivo < TAMANHO_CABECALHO) {
+                throw new IOException("Foto binária truncada.");
+            }
+            if (tamanhoArquivo > Integer.MAX_VALUE) {
+                throw new IOException("Foto binária grande demais para ser mapeada (" + tamanhoArquivo + " bytes).");
+            }
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanhoArquivo);
+            alunos = ler(mapa);
+        } catch (IOException | RuntimeException e) {
+            Metricas.CARREGAR_FOTO_BINARIA.falha(inicio);
+            throw e instanceof IOException io ? io : new IOException("Foto binária inválida: " + e.getMessage(), e);
+        }
+        Metricas.CARREGAR_FOTO_BINARIA.sucesso(inicio);
+        Metricas.CARREGAR_FOTO_BINARIA.adicionarItens(alunos.size());
+        Metricas.CARREGAR_FOTO_BINARIA.adicionarBytes(tamanhoArquivo);
+        return alunos;
+    }
+
+    // Confere o cabeçalho e o corpo e monta os alunos.
+    private static List<Aluno> ler(ByteBuffer mapa) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(mapa.slice(0, TAMANHO_CABECALHO - 4));
+        if (mapa.getInt(TAMANHO_CABECALHO - 4) != (int) crc.getValue()) {
+            throw new IOException("Cabeçalho da foto binária corrompido.");
+        }
+        if (mapa.getInt(0) != MAGICO) {
+            throw new IOException("Arquivo não é uma foto binária de alunos.");
+        }
+        short versao = mapa.getShort(4);
+        if (versao != VERSAO) {
+            throw new IOException("Versão da foto binária não suportada: " + versao + ".");
+        }
+        int quantidade = mapa.getInt(8);
+        long tamanhoCorpo = mapa.getLong(12);
+        if (quantidade < 0 || tamanhoCorpo != mapa.capacity() - TAMANHO_CABECALHO) {
+            throw new IOException("Tamanho da foto binária não confere com o cabeçalho.");
+        }
+        ByteBuffer corpo = mapa.slice(TAMANHO_CABECALHO, (int) tamanhoCorpo);
+        crc.reset();
+        crc.update(corpo.duplicate());
+        if (mapa.getInt(20) != (int) crc.getValue()) {
+            throw new IOException("Conteúdo da foto binária corrompido.");
+        }
+
+        List<Aluno> alunos = new ArrayList<>(quantidade);
+        byte[] temporario = new byte[TEXTO_NULO];
+        for (int i = 0; i < quantidade; i++) {
+            String matricula = lerTexto(corpo, temporario);
+            String nome = lerTexto(corpo, temporario);
+            int idade = corpo.getInt();
+            int dia = corpo.getInt();
+            String telefone = lerTexto(corpo, temporario);
+            String cpf = lerTexto(corpo, temporario);
+            int index = corpo.getInt();
+            try {
+                alunos.add(new Aluno(matricula, nome, idade, dia == DATA_NULA ? null : LocalDate.ofEpochDay(dia), telefone, cpf, index));
+            } catch (ParseException e) {
+                throw new IOException(e); // O construtor não converte nada; só declara a exceção.
+            }
+        }
+        if (corpo.hasRemaining()) {
+            throw new IOException("Sobraram bytes depois do último aluno da foto binária.");
+        }
+        return alunos;
+    }
+
+    private static String lerTexto(ByteBuffer corpo, byte[] temporario) {
+        int tamanho = Short.toUnsignedInt(corpo.getShort());
+        if (tamanho == TEXTO_NULO) {
+            return null;
+        }
+        corpo.get(temporario, 0, tamanho);
+        return new String(temporario, 0, tamanho, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,331 @@
+package uespi.trabcons;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.StaleStateException;
+import org.hibernate.exception.JDBCConnectionException;
+import org.hibernate.exception.LockAcquisitionException;
+
+/**
+ * Gravação adiada ("write-behind") dos cadastros e exclusões.
+ *
+ * Sem ela, cada cadastro abre uma sessão e confirma uma transação com uma única linha,
+ * e a vazão fica presa ao tempo de um commit no MySQL. Aqui a mudança é aplicada na lista
+ * em memória na hora e entra numa fila; uma thread de fundo junta o que chegou em lotes
+ * (até 'tamanhoLote' mudanças, ou o que chegar em 'janelaMs' depois da primeira) e grava
+ * cada lote de uma vez no repositório ('AlunoDAO.gravarLote': no banco, uma transação só).
+ *
+ * Quem pediu recebe um 'CompletableFuture' que só termina depois do commit (a confirmação
+ * durável), já com o resultado do backup em CSV; ou com o erro, depois de a mudança ter
+ * sido desfeita na memória.
+ *
+ * A ordem da fila é a ordem em que as mudanças foram aplicadas na memória, e é mantida:
+ *
+ *   - falha passageira (conexão caída, deadlock): o mesmo lote é repetido, com espera
+ *     crescente, até 'tentativas' vezes, sem que nada depois dele seja gravado antes;
+ *   - falha de uma mudança específica (CPF ou matrícula repetidos no banco): o lote é
+ *     refeito uma mudança por transação, em ordem, e só a culpada é recusada.
+ *
+ * Enquanto uma matrícula tem mudança na fila, a memória está à frente do banco: o
+ * 'SincronizadorAlunos' consulta 'pendente' e deixa essa matrícula para depois, senão
+ * uma exclusão ainda não gravada voltaria para a lista com a linha que o banco ainda tem.
+ *
+ * Propriedades: 'trabcons.gravacaoAdiada' (padrão false), 'trabcons.gravacaoAdiada.lote'
+ * (padrão 200), 'trabcons.gravacaoAdiada.janelaMs' (padrão 20) e
+ * 'trabcons.gravacaoAdiada.tentativas' (padrão 5).
+ */
+final class GravacaoAdiada {
+
+    enum Tipo { INSERCAO, REMOCAO }
+
+    /**
+     * Uma mudança na fila.
+     *
+     * @param confirmacao Termina depois do commit, ou com o erro (já desfeita na memória).
+     */
+    record Mutacao(Tipo tipo, Aluno aluno, CompletableFuture<ResultadoOperacao> confirmacao) {
+    }
+
+    /**
+     * Quem aplicou a mudança na memória (o 'listaAlunos'), chamado na thread de gravação.
+     */
+    interface Destino {
+
+        /**
+         * A mudança foi confirmada no banco.
+         *
+         * @return O resultado entregue a quem pediu (com o backup em CSV).
+         */
+        ResultadoOperacao confirmada(Mutacao mutacao);
+
+        /**
+         * A mudança não pôde ser gravada: deve ser desfeita na memória.
+         *
+         * @return O erro entregue a quem pediu.
+         */
+        OperacaoAlunoException recusada(Mutacao mutacao, Exception causa);
+    }
+
+    private static final long ESPERA_INICIAL_MS = 200;
+    private static final long ESPERA_MAXIMA_MS = 5_000;
+
+    // Marca o fim da fila (colocada por 'encerrar').
+    private static final Mutacao FIM = new Mutacao(null, null, null);
+
+    private final AlunoDAO repositorio;
+    private final Destino destino;
+    private final int tamanhoLote;
+    private final long janelaNanos;
+    private final int tentativas;
+    private final LinkedBlockingQueue<Mutacao> fila = new LinkedBlockingQueue<>();
+    // Matrícula -> quantas mudanças dela ainda não terminaram (na fila ou no lote sendo gravado).
+    private final ConcurrentHashMap<String, Integer> pendentesPorMatricula = new ConcurrentHashMap<>();
+    private final Thread gravador;
+    private boolean encerrada = false;
+
+    GravacaoAdiada(AlunoDAO repositorio, Destino destino, int tamanhoLote, long janelaMs, int tentativas) {
+        this.repositorio = repositorio;
+        this.destino = destino;
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.janelaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, janelaMs));
+        this.tentativas = Math.max(1, tentativas);
+        this.gravador = Thread.ofPlatform().name("gravacao-adiada").daemon(true).start(this::executar);
+    }
+
+    /**
+     * A gravação adiada configurada pelas propriedades do sistema, ou 'null' se estiver desligada.
+     */
+    static GravacaoAdiada padrao(AlunoDAO repositorio, Destino destino) {
+        if (!Boolean.getBoolean("trabcons.gravacaoAdiada")) {
+            return null;
+        }
+        return new GravacaoAdiada(repositorio, destino,
+                Integer.getInteger("trabcons.gravacaoAdiada.lote", 200),
+                Long.getLong("trabcons.gravacaoAdiada.janelaMs", 20),
+                Integer.getInteger("trabcons.gravacaoAdiada.tentativas", 5));
+    }
+
+    /**
+     * Põe a mudança na fila. Deve ser chamado junto com a mudança na memória (sob a mesma trava),
+     * para que a ordem da fila seja a ordem da lista.
+     *
+     * @return O futuro da confirmação.
+     * @throws OperacaoAlunoException se a gravação já foi encerrada.
+     */
+    synchronized CompletableFuture<ResultadoOperacao> enfileirar(Tipo tipo, Aluno aluno) {
+        if (encerrada) {
+            throw new OperacaoAlunoException(OperacaoAlunoException.Tipo.INDISPONIVEL, "Erro", "O programa está sendo encerrado; a mudança não foi aceita.");
+        }
+        Mutacao mutacao = new Mutacao(tipo, aluno, new CompletableFuture<>());
+        pendentesPorMatricula.merge(aluno.getMatricula(), 1, Integer::sum);
+        fila.add(mutacao);
+        return mutacao.confirmacao();
+    }
+
+    /**
+     * Põe várias mudanças do mesmo tipo na fila, todas ou nenhuma: se a gravação já foi
+     * encerrada, nada entra (e quem chamou ainda não mexeu na memória).
+     *
+     * @return Os futuros das confirmações, na ordem dos alunos.
+     * @throws OperacaoAlunoException se a gravação já foi encerrada.
+     */
+    synchronized List<CompletableFuture<ResultadoOperacao>> enfileirarTodas(Tipo tipo, List<Aluno> alunos) {
+        List<CompletableFuture<ResultadoOperacao>> confirmacoes = new ArrayList<>(alunos.size());
+        // Ninguém mais enfileira enquanto esta trava está com a gente: a checagem vale para todas.
+        for (Aluno aluno : alunos) {
+            confirmacoes.add(enfileirar(tipo, aluno));
+        }
+        return confirmacoes;
+    }
+
+    /**
+     * Se a matrícula tem mudança que ainda não foi confirmada nem recusada.
+     */
+    boolean pendente(String matricula) {
+        return pendentesPorMatricula.containsKey(matricula);
+    }
+
+    /**
+     * Quantas mudanças ainda esperam na fila (sem contar o lote sendo gravado).
+     */
+    int pendentes() {
+        return fila.size();
+    }
+
+    /**
+     * Para de aceitar mudanças e espera a fila ser gravada. Pode ser chamado mais de uma vez.
+     *
+     * @return 'false' se o prazo acabou antes.
+     */
+    boolean encerrar(long prazoMs) {
+        synchronized (this) {
+            if (!encerrada) {
+                encerrada = true;
+                fila.add(FIM);
+            }
+        }
+        try {
+            gravador.join(prazoMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !gravador.isAlive();
+    }
+
+    // --- THREAD DE GRAVAÇÃO ---
+
+    private void executar() {
+        List<Mutacao> lote = new ArrayList<>(tamanhoLote);
+        boolean fim = false;
+        try {
+            while (!fim) {
+                // Espera a primeira mudança e junta as que chegarem dentro da janela.
+                Mutacao primeira = fila.take();
+                if (primeira == FIM) {
+                    break;
+                }
+                lote.add(primeira);
+                long prazo = System.nanoTime() + janelaNanos;
+                while (lote.size() < tamanhoLote) {
+                    Mutacao proxima = fila.poll(prazo - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (proxima == null) {
+                        break;
+                    }
+                    if (proxima == FIM) {
+                        fim = true;
+                        break;
+                    }
+                    lote.add(proxima);
+                }
+                gravar(lote);
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Grava o lote numa transação, repetindo nas falhas passageiras. Nunca lança.
+    private void gravar(List<Mutacao> lote) {
+        long espera = ESPERA_INICIAL_MS;
+        for (int tentativa = 1; ; tentativa++) {
+            long inicio = System.nanoTime();
+            try {
+                gravarLote(lote);
+                Metricas.GRAVACAO_ADIADA.sucesso(inicio);
+                Metricas.GRAVACAO_ADIADA.adicionarItens(lote.size());
+                lote.forEach(this::confirmar);
+                return;
+            } catch (RuntimeException e) {
+                Metricas.GRAVACAO_ADIADA.falha(inicio);
+                if (!passageira(e)) {
+                    recusarCulpadas(lote, e);
+                    return;
+                }
+                if (tentativa == tentativas) {
+                    System.err.println("Gravação adiada: lote de " + lote.size() + " mudança(s) recusado após "
+                            + tentativas + " tentativas: " + e.getMessage());
+                    recusarTodas(lote, e);
+                    return;
+                }
+                if (!dormir(espera)) {
+                    recusarTodas(lote, e);
+                    return;
+                }
+                espera = Math.min(espera * 2, ESPERA_MAXIMA_MS);
+            }
+        }
+    }
+
+    private void gravarLote(List<Mutacao> lote) {
+        List<AlunoDAO.Mudanca> mudancas = new ArrayList<>(lote.size());
+        for (Mutacao mutacao : lote) {
+            mudancas.add(new AlunoDAO.Mudanca(mutacao.aluno(), mutacao.tipo() == Tipo.REMOCAO));
+        }
+        repositorio.gravarLote(mudancas);
+    }
+
+    // Uma mudança do lote foi recusada: refaz uma por lote, para achar qual.
+    private void recusarCulpadas(List<Mutacao> lote, RuntimeException erro) {
+        if (lote.size() > 1) {
+            for (Mutacao mutacao : lote) {
+                gravar(List.of(mutacao));
+            }
+            return;
+        }
+        Mutacao mutacao = lote.get(0);
+        if (mutacao.tipo() == Tipo.REMOCAO && contem(erro, StaleStateException.class, jakarta.persistence.OptimisticLockException.class)) {
+            // A linha já não existia (outra instância excluiu antes): o resultado é o pedido.
+            confirmar(mutacao);
+            return;
+        }
+        recusar(mutacao, erro);
+    }
+
+    private void recusarTodas(List<Mutacao> lote, Exception erro) {
+        // De trás para frente, para a memória voltar pelo mesmo caminho.
+        for (int i = lote.size() - 1; i >= 0; i--) {
+            recusar(lote.get(i), erro);
+        }
+    }
+
+    private void confirmar(Mutacao mutacao) {
+        try {
+            mutacao.confirmacao().complete(destino.confirmada(mutacao));
+        } catch (RuntimeException e) {
+            // O banco já gravou; só o acompanhamento falhou.
+            mutacao.confirmacao().complete(new ResultadoOperacao(mutacao.aluno(), e.getMessage()));
+        } finally {
+            terminar(mutacao);
+        }
+    }
+
+    private void recusar(Mutacao mutacao, Exception erro) {
+        try {
+            mutacao.confirmacao().completeExceptionally(destino.recusada(mutacao, erro));
+        } catch (RuntimeException e) {
+            mutacao.confirmacao().completeExceptionally(e);
+        } finally {
+            // Depois do 'recusada': a memória já foi desfeita quando a sincronização voltar a olhar.
+            terminar(mutacao);
+        }
+    }
+
+    private void terminar(Mutacao mutacao) {
+        pendentesPorMatricula.computeIfPresent(mutacao.aluno().getMatricula(), (matricula, quantas) -> quantas == 1 ? null : quantas - 1);
+    }
+
+    // Falhas que podem passar sozinhas: vale repetir o mesmo lote.
+    private static boolean passageira(Throwable erro) {
+        return contem(erro, JDBCConnectionException.class, LockAcquisitionException.class,
+                SQLTransientException.class, SQLRecoverableException.class);
+    }
+
+    @SafeVarargs
+    private static boolean contem(Throwable erro, Class<? extends Throwable>... tipos) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause()) {
+            for (Class<? extends Throwable> tipo : tipos) {
+                if (tipo.isInstance(causa)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package uespi.trabcons;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guarda de unicidade de CPF.
+ *
+ * Responde "esse CPF já está em uso?" a partir de um mapa concorrente em memória
+ * (CPF normalizado -> Aluno dono), que é mantido igual ao banco de dados.
+ * A reserva é feita com 'putIfAbsent', então dois cadastros simultâneos com o
+ * mesmo CPF nunca passam juntos pela checagem.
+ *
+ * A última palavra continua sendo do banco: a coluna "cpf_normalizado" tem uma
+ * restrição UNIQUE ("uk_alunos_cpf_normalizado"), que pega o caso de outro programa
+ * ter inserido o mesmo CPF por fora.
+ */
+class GuardaCpfUnico {
+
+    // CPF normalizado (só dígitos) -> aluno que é dono dele.
+    private final ConcurrentHashMap<String, Aluno> donos = new ConcurrentHashMap<>();
+
+    // Modo compacto: os alunos já carregados ficam no armazém (que tem o próprio índice de CPF),
+    // e o mapa guarda só as reservas e os cadastros desta execução.
+    private volatile ArmazemAlunos armazem;
+
+    // Indica se o mapa é uma cópia fiel da tabela. Se não for (ex: carregou do CSV),
+    // uma ausência no mapa precisa ser confirmada no banco.
+    private volatile boolean sincronizado = false;
+
+    /**
+     * Preenche o guarda com os alunos já existentes.
+     *
+     * @param alunos Os alunos carregados.
+     * @param espelhaBanco 'true' se a coleção veio inteira do banco de dados.
+     */
+    void carregar(Collection<Aluno> alunos, boolean espelhaBanco) {
+        for (Aluno aluno : alunos) {
+            String cpf = listaAlunos.normalizarCpf(aluno.getCpf());
+            if (!cpf.isEmpty()) {
+                donos.put(cpf, aluno);
+            }
+        }
+        this.sincronizado = espelhaBanco;
+    }
+
+    /**
+     * Modo compacto: os CPFs já em uso são consultados no armazém, sem copiar nada para o mapa.
+     *
+     * @param espelhaBanco 'true' se o armazém veio inteiro do banco de dados.
+     */
+    void carregar(ArmazemAlunos armazem, boolean espelhaBanco) {
+        this.armazem = armazem;
+        this.sincronizado = espelhaBanco;
+    }
+
+    /**
+     * Tenta reservar o CPF do aluno.
+     *
+     * @return 'null' se a reserva deu certo, ou o aluno que já é dono do CPF.
+     */
+    Aluno reservar(Aluno aluno) {
+        String cpf = listaAlunos.normalizarCpf(aluno.getCpf());
+        Aluno dono = donos.putIfAbsent(cpf, aluno);
+        if (dono != null) {
+            return dono;
+        }
+        if (armazem != null) {
+            // A reserva já está no mapa, então um cadastro simultâneo não passa; falta o armazém.
+            Aluno noArmazem = armazem.buscarPorCpf(aluno.getCpf());
+            if (noArmazem != null && !noArmazem.equals(aluno)) {
+                donos.remove(cpf, aluno);
+                return noArmazem;
+            }
+        }
+        if (!sincronizado) {
+            // Ausência não confiável: confirma no banco antes de liberar o cadastro.
+            Aluno noBanco = buscarNoBanco(aluno.getCpf());
+            if (noBanco != null) {
+                donos.replace(cpf, aluno, noBanco);
+                return noBanco;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Marca o aluno como dono do CPF sem checar nada. Usado pela sincronização,
+     * quando o aluno já está gravado no banco (que garantiu a unicidade).
+     */
+    void registrar(Aluno aluno) {
+        String cpf = listaAlunos.normalizarCpf(aluno.getCpf());
+        if (!cpf.isEmpty()) {
+            donos.put(cpf, aluno);
+        }
+    }
+
+    /**
+     * Libera o CPF do aluno (após uma exclusão ou um cadastro que falhou).
+     * Só remove se o dono atual for este aluno.
+     */
+    void liberar(Aluno aluno) {
+        donos.remove(listaAlunos.normalizarCpf(aluno.getCpf()), aluno);
+    }
+
+    /**
+     * Retorna o aluno dono do CPF informado (com ou sem pontuação), ou 'null'.
+     */
+    Aluno donoDe(String cpf) {
+        Aluno dono = donos.get(listaAlunos.normalizarCpf(cpf));
+        if (dono == null && armazem != null) {
+            dono = armazem.buscarPorCpf(cpf);
+        }
+        return dono;
+    }
+
+    // Consulta autoritativa no banco, usada somente quando o mapa não é confiável.
+    // Vai direto à tabela, sem cache nenhum: uma resposta guardada poderia ser de antes de
+    // outra instância excluir ou cadastrar o CPF, e o cadastro seria barrado (ou liberado) à toa.
+    private Aluno buscarNoBanco(String cpf) {
+        try {
+            return HibernateAlunoDAO.direto().buscarPorCpfSemCache(cpf);
+        } catch (Exception e) {
+            // Sem banco não há como confirmar; a restrição UNIQUE ainda protege na inserção.
+            System.err.println("Não foi possível confirmar o CPF no banco: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package uespi.trabcons;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+/**
+ * Repositório de alunos na tabela "alunos" do MySQL, via Hibernate.
+ *
+ * Cada operação abre a sua sessão e, nas gravações, a sua transação. As leituras passam
+ * pelo cache de segundo nível ('session.get') ou pelo cache de consultas (a página, a
+ * contagem e a busca por CPF), como o resto do programa.
+ *
+ * Os erros do banco chegam a quem chama como vieram do Hibernate (ex: a
+ * 'ConstraintViolationException' de uma matrícula repetida), depois do rollback.
+ */
+class HibernateAlunoDAO implements AlunoDAO {
+
+    // Matrículas por "DELETE ... IN (...)": mantém cada comando (e a lista de parâmetros) num tamanho razoável.
+    private static final int MATRICULAS_POR_DELETE = 1_000;
+
+    private final int tamanhoFetch;
+
+    /**
+     * @param tamanhoFetch Fetch size JDBC das páginas.
+     */
+    HibernateAlunoDAO(int tamanhoFetch) {
+        this.tamanhoFetch = tamanhoFetch;
+    }
+
+    /**
+     * O repositório do banco usado pelo programa, já com o cache de 'CacheAlunoDAO.envolver'
+     * (configurado pelas propriedades do sistema). Nada é aberto aqui: a SessionFactory só
+     * é pedida na primeira operação.
+     */
+    static AlunoDAO padrao() {
+        return Padrao.INSTANCIA;
+    }
+
+    /**
+     * O mesmo repositório de 'padrao', mas sem o 'CacheAlunoDAO' por cima. Para as
+     * conferências que precisam do que está na tabela agora (ver 'buscarPorCpfSemCache').
+     */
+    static HibernateAlunoDAO direto() {
+        return Padrao.BANCO;
+    }
+
+    // Criado no primeiro uso: as propriedades já foram lidas e há um só cache para todos.
+    private static final class Padrao {
+        static final HibernateAlunoDAO BANCO = new HibernateAlunoDAO(Integer.getInteger("trabcons.paginacao.fetch",
+                Integer.getInteger("trabcons.paginacao.tamanho", 500)));
+        static final AlunoDAO INSTANCIA = CacheAlunoDAO.envolver(BANCO);
+    }
+
+    @Override
+    public Aluno buscar(String matricula) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.get(Aluno.class, matricula);
+        }
+    }
+
+    // Compara pela coluna "cpf_normalizado", que tem o índice UNIQUE (sem ler a tabela inteira).
+    // Ela não é mapeada no 'Aluno' (ver 'MigracoesBanco'), por isso a consulta é em SQL.
+    @Override
+    public Aluno buscarPorCpf(String cpf) {
+        return buscarPorCpf(cpf, true);
+    }
+
+    /**
+     * Como 'buscarPorCpf', mas sempre lendo a tabela: sem o cache de consultas, que não vê
+     * as gravações feitas por outras instâncias. Para a conferência de unicidade do CPF.
+     */
+    Aluno buscarPorCpfSemCache(String cpf) {
+        return buscarPorCpf(cpf, false);
+    }
+
+    private Aluno buscarPorCpf(String cpf, boolean usarCache) {
+        String normalizado = listaAlunos.normalizarCpf(cpf);
+        if (normalizado.isEmpty()) {
+            return null;
+        }
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            var query = session.createNativeQuery("SELECT * FROM alunos WHERE cpf_normalizado = :cpfDoAluno", Aluno.class)
+                    .setParameter("cpfDoAluno", normalizado);
+            if (usarCache) {
+                // Invalidada a cada gravação em Aluno, como as consultas HQL em cache.
+                query.addSynchronizedEntityClass(Aluno.class)
+                        .setCacheable(true)
+                        .setCacheRegion(EstatisticasCache.REGIAO_CONSULTAS);
+            }
+            return query.uniqueResult();
+        }
+    }
+
+    @Override
+    public void inserir(Aluno aluno) {
+        naTransacao(session -> {
+            session.persist(aluno);
+            return null;
+        });
+    }
+
+    @Override
+    public void salvar(Aluno aluno) {
+        naTransacao(session -> session.merge(aluno));
+    }
+
+    // Lê e remove pela entidade (e não com um DELETE por HQL): o cache de segundo nível
+    // perde só esta linha, em vez da região inteira.
+    @Override
+    public boolean excluir(String matricula) {
+        return naTransacao(session -> {
+            Aluno aluno = session.get(Aluno.class, matricula);
+            if (aluno == null) {
+                return false;
+            }
+            session.remove(aluno);
+            return true;
+        });
+    }
+
+    // Um "DELETE ... WHERE matricula IN (...)" por bloco de matrículas, todos na mesma transação.
+    @Override
+    public int excluirTodos(Collection<String> matriculas) {
+        if (matriculas.isEmpty()) {
+            return 0;
+        }
+        List<String> lista = new ArrayList<>(matriculas);
+        return naTransacao(session -> {
+            int excluidos = 0;
+            for (int i = 0; i < lista.size(); i += MATRICULAS_POR_DELETE) {
+                excluidos += session.createMutationQuery("DELETE FROM Aluno a WHERE a.matricula IN (:matriculas)")
+                        .setParameterList("matriculas", lista.subList(i, Math.min(lista.size(), i + MATRICULAS_POR_DELETE)))
+                        .executeUpdate();
+            }
+            return excluidos;
+        });
+    }
+
+    // As mudanças na ordem, numa transação. Uma remoção de linha que já não existe faz
+    // o flush falhar com a 'StaleStateException' (ver 'AlunoDAO.gravarLote').
+    @Override
+    public void gravarLote(List<Mudanca> mudancas) {
+        naTransacao(session -> {
+            // No flush o Hibernate faz os INSERTs antes dos DELETEs. Se uma matrícula é excluída
+            // e cadastrada de novo no mesmo lote, a exclusão precisa ir antes.
+            boolean remocoesPendentes = false;
+            for (Mudanca mudanca : mudancas) {
+                if (!mudanca.remocao()) {
+                    if (remocoesPendentes) {
+                        session.flush();
+                        remocoesPendentes = false;
+                    }
+                    session.persist(mudanca.aluno());
+                } else {
+                    session.remove(mudanca.aluno());
+                    remocoesPendentes = true;
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Paginação por chave (keyset): "WHERE matricula > :ultima ORDER BY matricula LIMIT n".
+     * Diferente de OFFSET, o banco não lê e descarta as linhas anteriores (ver 'PaginadorAlunos').
+     */
+    @Override
+    public List<Aluno> pagina(String depoisDe, int tamanho) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            String hql = depoisDe == null
+                    ? "FROM Aluno a ORDER BY a.matricula"
+                    : "FROM Aluno a WHERE a.matricula > :ultima ORDER BY a.matricula";
+            var query = session.createQuery(hql, Aluno.class)
+                    .setMaxResults(tamanho)
+                    .setFetchSize(tamanhoFetch)
+                    .setReadOnly(true) // Só leitura: o Hibernate não guarda cópias para dirty checking.
+                    .setCacheable(true)
+                    .setCacheRegion(EstatisticasCache.REGIAO_CONSULTAS);
+            if (depoisDe != null) {
+                query.setParameter("ultima", depoisDe);
+            }
+            return query.list();
+        }
+    }
+
+    /**
+     * Lê a tabela numa sessão sem estado, em streaming: com fetch size MIN_VALUE o driver
+     * do MySQL entrega as linhas uma a uma, sem juntar o resultado. Fica fora dos caches
+     * (roda uma vez por execução, e guardar o resultado seria guardar a tabela inteira).
+     */
+    @Override
+    public void percorrerTodos(Consumer<? super Aluno> destino) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession();
+             ScrollableResults<Aluno> linhas = session.createQuery("FROM Aluno", Aluno.class)
+                     .setFetchSize(Integer.MIN_VALUE)
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (linhas.next()) {
+                destino.accept(linhas.get());
+            }
+        }
+    }
+
+    /**
+     * "LIKE %texto%" no nome. Acentos e maiúsculas são ignorados pela collation padrão do
+     * MySQL (utf8mb4_0900_ai_ci).
+     */
+    @Override
+    public List<Aluno> buscarPorNome(String texto, int limite) {
+        String padrao = "%" + texto.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery("FROM Aluno a WHERE a.nome LIKE :padrao ORDER BY a.nome", Aluno.class)
+                    .setParameter("padrao", padrao)
+                    .setMaxResults(limite)
+                    .setReadOnly(true)
+                    .list();
+        }
+    }
+
+    /**
+     * A tabela inteira, em ordem de matrícula, lida uma página de 'tamanhoPagina' linhas por
+     * vez enquanto é percorrida (a mesma paginação por chave de 'pagina'). Cada página usa
+     * a sua sessão sem estado, fora dos caches: nada fica aberto entre uma página e outra,
+     * e uma leitura completa não enche o cache de consultas.
+     */
+    Iterable<Aluno> todos(int tamanhoPagina) {
+        return () -> new Iterator<>() {
+            private List<Aluno> pagina = paginaSemCache(null, tamanhoPagina);
+            private int proximo = 0;
+
+            @Override
+            public boolean hasNext() {
+                if (proximo == pagina.size() && pagina.size() == tamanhoPagina) {
+                    pagina = paginaSemCache(pagina.get(proximo - 1).getMatricula(), tamanhoPagina);
+                    proximo = 0;
+                }
+                return proximo < pagina.size();
+            }
+
+            @Override
+            public Aluno next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return pagina.get(proximo++);
+            }
+        };
+    }
+
+    private List<Aluno> paginaSemCache(String depoisDe, int tamanho) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            var query = session.createQuery(depoisDe == null
+                            ? "FROM Aluno a ORDER BY a.matricula"
+                            : "FROM Aluno a WHERE a.matricula > :ultima ORDER BY a.matricula", Aluno.class)
+                    .setMaxResults(tamanho)
+                    .setFetchSize(tamanhoFetch);
+            if (depoisDe != null) {
+                query.setParameter("ultima", depoisDe);
+            }
+            return query.list();
+        }
+    }
+
+    /**
+     * Conta os alunos direto no banco ("SELECT COUNT").
+     */
+    @Override
+    public long contar() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery("SELECT COUNT(a) FROM Aluno a", Long.class)
+                    .setCacheable(true)
+                    .setCacheRegion(EstatisticasCache.REGIAO_CONSULTAS)
+                    .uniqueResult();
+        }
+    }
+
+    // Executa numa transação própria; em qualquer erro desfaz e relança.
+    private static <T> T naTransacao(Function<Session, T> trabalho) {
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            transaction = session.beginTransaction();
+            T resultado = trabalho.apply(session);
+            transaction.commit();
+            return resultado;
+        } catch (RuntimeException e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        }
+    }
+}
@@ -1,40 +1,92 @@
 package uespi.trabcons;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
 
 public class HibernateUtil {
 
-    // Declaração e inicialização da SessionFactory.
-    // Esta instância é a coiza central do hibernate e deve ser única (Singleton).
-    private static final SessionFactory sessionFactory = buildSessionFactory();
+    // A SessionFactory é a coiza central do hibernate e deve ser única (Singleton).
+    // Montá-la (ler os mapeamentos e abrir a conexão com o MySQL) é a parte mais lenta da
+    // inicialização, então ela é construída numa thread separada enquanto a janela já aparece.
+    // Quem precisar dela antes de ficar pronta simplesmente espera.
+    private static final CompletableFuture<SessionFactory> sessionFactory = new CompletableFuture<>();
+    private static final AtomicBoolean iniciada = new AtomicBoolean(false);
 
     // Método responsável pela criação da SessionFactory.
     // A visibilidade 'private' restringe seu acesso apenas a esta classe.
     private static SessionFactory buildSessionFactory() {
-        try {
-            // A configuração do hibernate é carregada (geralmente via hibernate.cfg.xml),
-            // e a SessionFactory é construída a parti desta configuração.
-            return new Configuration().configure().buildSessionFactory();
-        } catch (Throwable ex) {
-            // Em caso de falha durante o processo de inicialização,
-            // o erro é registrado no fluxo de saída de erro
-            System.err.println("Falha ao criar a SessionFactory inicial." + ex);
-            // e a execução é interrompida com uma exceção fatal de inicialização.
-            throw new ExceptionInInitializerError(ex);
+        // A configuração do hibernate é carregada (geralmente via hibernate.cfg.xml),
+        // e a SessionFactory é construída a parti desta configuração.
+        Configuration configuration = new Configuration().configure();
+        if (EstatisticasCache.ligadas()) {
+            configuration.setProperty("hibernate.generate_statistics", "true");
+        }
+        // Propriedades "hibernate.*" passadas com -D na linha de comando têm prioridade sobre o XML.
+        for (String nome : System.getProperties().stringPropertyNames()) {
+            if (nome.startsWith("hibernate.")) {
+                configuration.setProperty(nome, System.getProperty(nome));
+            }
         }
+        SessionFactory fabrica = configuration.buildSessionFactory();
+        // O "hbm2ddl.auto=update" cria tabelas, colunas e índices que faltam, mas não remove nem
+        // corrige nada; o restante das mudanças de esquema é aplicado aqui, uma única vez por banco.
+        MigracoesBanco.aplicar(fabrica);
+        if (EstatisticasCache.ligadas()) {
+            Metricas.publicar(new CacheSegundoNivel(), "Cache", "segundoNivel");
+        }
+        return fabrica;
+    }
+
+    /**
+     * Começa a construir a SessionFactory em segundo plano (só na primeira chamada).
+     *
+     * @return Futuro que termina quando a SessionFactory estiver pronta, ou com o erro da inicialização.
+     */
+    public static CompletableFuture<SessionFactory> iniciar() {
+        if (iniciada.compareAndSet(false, true)) {
+            Thread.ofPlatform().name("hibernate-inicializacao").daemon(true).start(() -> {
+                try {
+                    sessionFactory.complete(buildSessionFactory());
+                } catch (Throwable ex) {
+                    // Em caso de falha durante o processo de inicialização,
+                    // o erro é registrado no fluxo de saída de erro e entregue a quem estiver esperando.
+                    System.err.println("Falha ao criar a SessionFactory inicial." + ex);
+                    sessionFactory.completeExceptionally(ex);
+                }
+            });
+        }
+        return sessionFactory;
+    }
+
+    // Indica se a SessionFactory já está pronta para uso (sem bloquear).
+    public static boolean isPronta() {
+        return sessionFactory.isDone() && !sessionFactory.isCompletedExceptionally();
     }
 
     // Método estático de acesso à instância única da SessionFactory.
     // É o ponto de entrada para obtenção de sessões de banco de dados.
+    // Se ela ainda estiver sendo construída, a chamada espera ficar pronta.
     public static SessionFactory getSessionFactory() {
-        return sessionFactory;
+        try {
+            return iniciar().join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("SessionFactory indisponível: " + e.getCause().getMessage(), e.getCause());
+        }
     }
 
     // Método para encerramento de recursos da SessionFactory.
     // Deve ser invocado ao finalizar a aplicação para liberar caches e conexões.
     public static void shutdown() {
-        // Encerramento da SessionFactory.
-        getSessionFactory().close();
+        // Encerramento da SessionFactory (se ela chegou a ser criada).
+        if (iniciada.get()) {
+            try {
+                sessionFactory.join().close();
+            } catch (CompletionException e) {
+                // A inicialização falhou: não há nada para fechar.
+            }
+        }
     }
-}
\ No newline at end of file
+}
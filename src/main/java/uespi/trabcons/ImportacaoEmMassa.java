@@ -0,0 +1,205 @@
+package uespi.trabcons;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.exception.ConstraintViolationException;
+
+/**
+ * Importação em massa de um CSV (no layout de 'SwingUtils.HEADERS') direto para a tabela "alunos".
+ *
+ * Usa uma 'StatelessSession' do Hibernate: sem cache de primeiro nível e sem dirty checking.
+ * As linhas são lidas em blocos de 'linhasPorCommit', e cada bloco vai numa transação; os
+ * INSERTs são mandados em lotes JDBC ('tamanhoLote'), que o driver do MySQL junta num INSERT
+ * de várias linhas ('rewriteBatchedStatements=true' na URL do hibernate.cfg.xml).
+ *
+ * A importação não passa pela lista em memória nem pelo guarda de CPF: duplicatas são
+ * barradas pelas restrições do banco. Um bloco com uma linha recusada é desfeito e gravado
+ * de novo linha a linha, então só as recusadas ficam de fora; elas vão para o relatório de
+ * rejeições junto com as linhas mal formadas. Outros erros do banco interrompem a importação
+ * (os blocos anteriores continuam gravados). Como a StatelessSession não passa pelo cache de
+ * segundo nível, as consultas em cache são descartadas no fim.
+ */
+class ImportacaoEmMassa {
+
+    /**
+     * Recebe o andamento da importação (chamado a cada commit).
+     */
+    interface Progresso {
+        void atualizar(long inseridos, long rejeitados, double linhasPorSegundo);
+    }
+
+    /**
+     * Resumo de uma importação concluída.
+     *
+     * @param rejeicoes As linhas que ficaram de fora (mal formadas ou recusadas pelo banco), em ordem.
+     */
+    record Resultado(long inseridos, long rejeitados, long millis, List<LeitorCsvParalelo.Rejeicao> rejeicoes) {
+
+        double linhasPorSegundo() {
+            return millis == 0 ? inseridos : inseridos * 1000.0 / millis;
+        }
+    }
+
+    // Um aluno lido e a linha do arquivo de onde veio (para o relatório).
+    private record Linha(long numero, Aluno aluno) {
+    }
+
+    private final int tamanhoLote;
+    private final int linhasPorCommit;
+
+    ImportacaoEmMassa(int tamanhoLote, int linhasPorCommit) {
+        this.tamanhoLote = tamanhoLote;
+        this.linhasPorCommit = linhasPorCommit;
+    }
+
+    /**
+     * Cria a importação com os valores das propriedades 'trabcons.importacao.lote'
+     * (padrão 1000) e 'trabcons.importacao.commit' (padrão 20000).
+     */
+    static ImportacaoEmMassa padrao() {
+        return new ImportacaoEmMassa(
+                Integer.getInteger("trabcons.importacao.lote", 1_000),
+                Integer.getInteger("trabcons.importacao.commit", 20_000));
+    }
+
+    /**
+     * Importa o arquivo inteiro.
+     *
+     * @param arquivo CSV com cabeçalho, no layout de 'SwingUtils.HEADERS'.
+     * @param progresso Recebe o andamento a cada commit (pode ser 'null').
+     * @throws IOException se o arquivo não puder ser lido.
+     */
+    Resultado importar(Path arquivo, Progresso progresso) throws IOException {
+        CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
+                .setHeader(SwingUtils.HEADERS)
+                .setSkipHeaderRecord(true)
+                .get();
+
+        long inicio = System.nanoTime();
+        long inseridos = 0;
+        LeitorCsvParalelo.RelatorioRejeicoes rejeicoes = new LeitorCsvParalelo.RelatorioRejeicoes();
+        List<Linha> bloco = new ArrayList<>(Math.min(linhasPorCommit, 100_000));
+
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8);
+             CSVParser csvParser = csvFormat.parse(reader)) {
+            for (CSVRecord csvRecord : csvParser) {
+                // A linha onde o registro termina (a dele mesmo, se não tiver quebras entre aspas).
+                long numeroLinha = csvParser.getCurrentLineNumber();
+                try {
+                    bloco.add(new Linha(numeroLinha, SwingUtils.alunoDosCampos(csvRecord.toList())));
+                } catch (Exception e) {
+                    // Linha mal formada: vai para o relatório e segue, sem derrubar a importação.
+                    rejeicoes.adicionar(new LeitorCsvParalelo.Rejeicao(numeroLinha, String.join(",", csvRecord.toList()), e.toString()));
+                    continue;
+                }
+
+                if (bloco.size() == linhasPorCommit) {
+                    inseridos += gravarBloco(bloco, rejeicoes, inseridos);
+                    bloco.clear();
+                    if (progresso != null) {
+                        progresso.atualizar(inseridos, rejeicoes.total(), taxa(inseridos, inicio));
+                    }
+                }
+            }
+            inseridos += gravarBloco(bloco, rejeicoes, inseridos);
+        }
+
+        // As contagens e listagens em cache não enxergam as linhas novas.
+        HibernateUtil.getSessionFactory().getCache().evictQueryRegions();
+
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+        if (progresso != null) {
+            progresso.atualizar(inseridos, rejeicoes.total(), taxa(inseridos, inicio));
+        }
+        return new Resultado(inseridos, rejeicoes.total(), millis, rejeicoes.listar());
+    }
+
+    /**
+     * Grava o bloco numa transação. Se o banco recusar alguma linha (restrição UNIQUE), o bloco
+     * é desfeito e gravado de novo linha a linha, e as recusadas vão para o relatório.
+     *
+     * @return Quantas linhas foram gravadas.
+     * @throws OperacaoAlunoException num erro do banco que não seja uma linha recusada.
+     */
+    private int gravarBloco(List<Linha> bloco, LeitorCsvParalelo.RelatorioRejeicoes rejeicoes, long inseridosAntes) {
+        if (bloco.isEmpty()) {
+            return 0;
+        }
+        try {
+            inserir(bloco);
+            return bloco.size();
+        } catch (RuntimeException e) {
+            if (violacao(e) == null) {
+                throw interrompida(inseridosAntes, e);
+            }
+        }
+        int gravadas = 0;
+        for (Linha linha : bloco) {
+            try {
+                inserir(List.of(linha));
+                gravadas++;
+            } catch (RuntimeException e) {
+                ConstraintViolationException violacao = violacao(e);
+                if (violacao == null) {
+                    throw interrompida(inseridosAntes + gravadas, e);
+                }
+                Aluno aluno = linha.aluno();
+                rejeicoes.adicionar(new LeitorCsvParalelo.Rejeicao(linha.numero(), aluno.getMatricula() + "," + aluno.getCpf(),
+                        "recusada pelo banco: " + violacao.getSQLException().getMessage()));
+            }
+        }
+        return gravadas;
+    }
+
+    // Insere as linhas numa sessão e numa transação próprias (depois de um erro, o Hibernate
+    // não garante que a sessão continue usável).
+    private void inserir(List<Linha> linhas) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            // Tamanho do lote JDBC desta sessão (sobrepõe o 'hibernate.jdbc.batch_size').
+            session.setJdbcBatchSize(tamanhoLote);
+            Transaction transaction = session.beginTransaction();
+            try {
+                for (Linha linha : linhas) {
+                    session.insert(linha.aluno());
+                }
+                transaction.commit();
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        }
+    }
+
+    // O Hibernate pode embrulhar a violação (ex: numa exceção do commit).
+    private static ConstraintViolationException violacao(Throwable erro) {
+        for (Throwable t = erro; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException violacao) {
+                return violacao;
+            }
+        }
+        return null;
+    }
+
+    private static OperacaoAlunoException interrompida(long inseridos, RuntimeException causa) {
+        return new OperacaoAlunoException("Erro na Importação",
+                "Importação interrompida depois de " + inseridos + " alunos: " + causa.getMessage(), causa);
+    }
+
+    // Linhas inseridas por segundo desde o início.
+    private static double taxa(long inseridos, long inicio) {
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        return segundos == 0 ? inseridos : inseridos / segundos;
+    }
+}
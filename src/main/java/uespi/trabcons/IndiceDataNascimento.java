@@ -0,0 +1,155 @@
+package uespi.trabcons;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Índice ordenado por data de nascimento.
+ *
+ * Guarda os alunos num ArrayList sempre ordenado (data crescente, matrícula para desempatar).
+ * Cadastros e exclusões acham a posição por busca binária, então a lista nunca precisa ser
+ * ordenada de novo. A mesma lista atende "Mais Velho" (lida do começo) e "Mais Novo"
+ * (lida do fim), e consultas por intervalo de datas viram duas buscas binárias.
+ *
+ * Não é thread-safe: quem usa é responsável por sincronizar.
+ */
+class IndiceDataNascimento {
+
+    // Datas nulas vão para o fim; a matrícula torna a ordem total (cada aluno tem uma posição única).
+    static final Comparator<Aluno> ORDEM = Comparator
+            .comparing(Aluno::getDataNascimento, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+            .thenComparing(Aluno::getMatricula);
+
+    private final ArrayList<Aluno> alunos;
+
+    /**
+     * Monta o índice a partir de uma coleção qualquer (ordena uma única vez).
+     */
+    IndiceDataNascimento(Collection<Aluno> alunos) {
+        this.alunos = new ArrayList<>(alunos);
+        this.alunos.sort(ORDEM);
+    }
+
+    // Usado pelas cópias: a lista recebida já está ordenada.
+    private IndiceDataNascimento(ArrayList<Aluno> jaOrdenados) {
+        this.alunos = jaOrdenados;
+    }
+
+    /**
+     * Cópia independente do índice, sem reordenar.
+     */
+    IndiceDataNascimento copiar() {
+        return new IndiceDataNascimento(new ArrayList<>(alunos));
+    }
+
+    /**
+     * Insere o aluno na posição certa.
+     *
+     * @return A posição (em ordem crescente), ou -1 se o aluno já estava no índice.
+     */
+    int inserir(Aluno aluno) {
+        int posicao = Collections.binarySearch(alunos, aluno, ORDEM);
+        if (posicao >= 0) {
+            return -1;
+        }
+        posicao = -posicao - 1; // Ponto de inserção.
+        alunos.add(posicao, aluno);
+        return posicao;
+    }
+
+    /**
+     * Remove o aluno.
+     *
+     * @return A posição (em ordem crescente) que ele ocupava, ou -1 se não estava no índice.
+     */
+    int remover(Aluno aluno) {
+        int posicao = Collections.binarySearch(alunos, aluno, ORDEM);
+        if (posicao < 0) {
+            return -1;
+        }
+        alunos.remove(posicao);
+        return posicao;
+    }
+
+    /**
+     * Retira vários alunos numa única passada, em vez de um 'remove' (que desloca o resto
+     * do ArrayList) para cada um. A ordem dos que ficam não muda.
+     */
+    void removerTodos(Collection<Aluno> removidos) {
+        if (removidos.isEmpty()) {
+            return;
+        }
+        Set<Aluno> alvos = new HashSet<>(removidos);
+        alunos.removeIf(alvos::contains);
+    }
+
+    int tamanho() {
+        return alunos.size();
+    }
+
+    /**
+     * Aluno na posição informada.
+     *
+     * @param decrescente 'true' para contar a partir do mais novo.
+     */
+    Aluno get(int posicao, boolean decrescente) {
+        return alunos.get(decrescente ? alunos.size() - 1 - posicao : posicao);
+    }
+
+    /**
+     * Alunos nascidos entre as duas datas (inclusive), do mais velho para o mais novo.
+     * Qualquer um dos limites pode ser 'null' (intervalo aberto daquele lado).
+     */
+    IndiceDataNascimento intervalo(LocalDate de, LocalDate ate) {
+        int inicio = de == null ? 0 : primeiraPosicaoNaoAntesDe(de);
+        int fim = ate == null ? posicaoDasDatasNulas() : primeiraPosicaoNaoAntesDe(ate.plusDays(1));
+        if (fim < inicio) {
+            fim = inicio;
+        }
+        return new IndiceDataNascimento(new ArrayList<>(alunos.subList(inicio, fim)));
+    }
+
+    /**
+     * Alunos nascidos entre as duas datas (inclusive), como lista.
+     */
+    List<Aluno> listarIntervalo(LocalDate de, LocalDate ate) {
+        return intervalo(de, ate).alunos;
+    }
+
+    // Primeira posição cuja data é >= 'data' (datas nulas contam como maiores que todas).
+    private int primeiraPosicaoNaoAntesDe(LocalDate data) {
+        int baixo = 0;
+        int alto = alunos.size();
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            LocalDate atual = alunos.get(meio).getDataNascimento();
+            if (atual != null && atual.isBefore(data)) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    // Primeira posição com data nula (ou o tamanho, se não houver nenhuma).
+    private int posicaoDasDatasNulas() {
+        int baixo = 0;
+        int alto = alunos.size();
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (alunos.get(meio).getDataNascimento() != null) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+}
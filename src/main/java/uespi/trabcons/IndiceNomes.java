@@ -0,0 +1,299 @@
+package uespi.trabcons;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Índice de nomes para a busca por nome (parte do nome, sem ligar para acentos nem maiúsculas).
+ *
+ * Os nomes são normalizados ("João" e "joao" viram a mesma coisa) e indexados de duas formas:
+ *
+ *   - Palavras: um TreeMap de cada palavra do nome para os alunos que a têm. Busca por
+ *     começo de palavra ("mar" acha "Maria" e "Ana Marques") com um 'subMap', sem varrer nada.
+ *   - Trigramas: cada sequência de 3 caracteres do nome aponta para os alunos que a contêm.
+ *     Uma busca por trecho ("arq") pega a lista do trigrama mais raro da consulta e só
+ *     confere esses candidatos, em vez de olhar os 1M alunos.
+ *
+ * Cada chave guarda referências aos próprios objetos Aluno: numa lista enquanto são poucos,
+ * num conjunto por identidade quando passam de LIMITE_LISTA (uma palavra comum como "maria"
+ * tem dezenas de milhares de alunos, e tirar um deles não pode varrer todos). Cadastros e
+ * exclusões atualizam o índice na hora. Não é thread-safe: quem usa é responsável por sincronizar.
+ */
+class IndiceNomes {
+
+    // Até este tamanho a chave fica numa ArrayList (varrer é barato e gasta 1/3 da memória do conjunto).
+    private static final int LIMITE_LISTA = 32;
+
+    // Palavra normalizada -> alunos que têm essa palavra no nome.
+    private final TreeMap<String, Collection<Aluno>> porPalavra;
+    // Trigrama (3 caracteres num long) -> alunos cujo nome contém o trigrama.
+    private final Map<Long, Collection<Aluno>> porTrigrama = new HashMap<>();
+
+    IndiceNomes(Collection<Aluno> alunos) {
+        // Na carga inicial as palavras vão primeiro para um HashMap (O(1) por palavra);
+        // o TreeMap é montado no fim, uma vez só, com as palavras distintas.
+        Map<String, Collection<Aluno>> palavrasIniciais = new HashMap<>();
+        for (Aluno aluno : alunos) {
+            String nome = aluno.getNomeNormalizado();
+            for (String palavra : palavras(nome)) {
+                colocar(palavrasIniciais, palavra, aluno);
+            }
+            indexarTrigramas(nome, aluno);
+        }
+        this.porPalavra = new TreeMap<>(palavrasIniciais);
+    }
+
+    /**
+     * Tira acentos, passa para minúsculas e junta espaços repetidos.
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        // NFD separa a letra do acento ("é" -> "e" + acento); os acentos são descartados.
+        // Texto só com ASCII não tem acento, então pula a decomposição (a parte mais cara).
+        String decomposto = texto.chars().allMatch(c -> c < 0x80) ? texto : Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposto.length());
+        boolean espacoPendente = false;
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = decomposto.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                espacoPendente = sb.length() > 0;
+                continue;
+            }
+            if (espacoPendente) {
+                sb.append(' ');
+                espacoPendente = false;
+            }
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    void inserir(Aluno aluno) {
+        String nome = aluno.getNomeNormalizado();
+        for (String palavra : palavras(nome)) {
+            colocar(porPalavra, palavra, aluno);
+        }
+        indexarTrigramas(nome, aluno);
+    }
+
+    private void indexarTrigramas(String nome, Aluno aluno) {
+        for (long trigrama : trigramas(nome)) {
+            colocar(porTrigrama, trigrama, aluno);
+        }
+    }
+
+    void remover(Aluno aluno) {
+        String nome = aluno.getNomeNormalizado();
+        for (String palavra : palavras(nome)) {
+            retirar(porPalavra, palavra, aluno);
+        }
+        for (long trigrama : trigramas(nome)) {
+            retirar(porTrigrama, trigrama, aluno);
+        }
+    }
+
+    /**
+     * O mesmo que 'remover' para vários alunos: agrupa por chave e mexe em cada lista uma
+     * vez só, em vez de uma varredura da lista por aluno removido.
+     */
+    void removerTodos(Collection<Aluno> alunos) {
+        if (alunos.size() == 1) {
+            remover(alunos.iterator().next());
+            return;
+        }
+        Map<String, Set<Aluno>> palavrasRemovidas = new HashMap<>();
+        Map<Long, Set<Aluno>> trigramasRemovidos = new HashMap<>();
+        for (Aluno aluno : alunos) {
+            String nome = aluno.getNomeNormalizado();
+            for (String palavra : palavras(nome)) {
+                palavrasRemovidas.computeIfAbsent(palavra, p -> conjuntoPorIdentidade(4)).add(aluno);
+            }
+            for (long trigrama : trigramas(nome)) {
+                trigramasRemovidos.computeIfAbsent(trigrama, t -> conjuntoPorIdentidade(4)).add(aluno);
+            }
+        }
+        palavrasRemovidas.forEach((palavra, removidos) -> retirarTodos(porPalavra, palavra, removidos));
+        trigramasRemovidos.forEach((trigrama, removidos) -> retirarTodos(porTrigrama, trigrama, removidos));
+    }
+
+    /**
+     * Busca alunos cujo nome contém o texto (sem acento e sem diferenciar maiúsculas).
+     * Quem tem uma palavra começando pelo texto vem primeiro.
+     *
+     * @param limite Número máximo de resultados.
+     */
+    List<Aluno> buscar(String texto, int limite) {
+        String consulta = normalizar(texto);
+        Set<Aluno> resultado = new LinkedHashSet<>();
+        if (consulta.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 1. Começo de palavra: só funciona para consultas de uma palavra.
+        if (consulta.indexOf(' ') < 0) {
+            NavigableMap<String, Collection<Aluno>> faixa = porPalavra.subMap(consulta, true, consulta + Character.MAX_VALUE, false);
+            for (Collection<Aluno> alunos : faixa.values()) {
+                for (Aluno aluno : alunos) {
+                    if (resultado.size() >= limite) {
+                        return new ArrayList<>(resultado);
+                    }
+                    resultado.add(aluno);
+                }
+            }
+        }
+
+        // 2. Trecho no meio do nome, pelos trigramas (consultas com menos de 3 letras ficam só no prefixo).
+        if (consulta.length() >= 3) {
+            Collection<Aluno> candidatos = candidatosPorTrigrama(consulta);
+            int espaco = consulta.indexOf(' ');
+            if (espaco >= 0 && porPalavra.containsKey(consulta.substring(0, espaco))) {
+                // Várias palavras ("maria da"): quem começa pela consulta vem primeiro.
+                for (Aluno aluno : candidatos) {
+                    if (resultado.size() >= limite) {
+                        return new ArrayList<>(resultado);
+                    }
+                    if (aluno.getNomeNormalizado().startsWith(consulta)) {
+                        resultado.add(aluno);
+                    }
+                }
+            }
+            for (Aluno aluno : candidatos) {
+                if (resultado.size() >= limite) {
+                    break;
+                }
+                // Confere o trecho inteiro (ter os trigramas não garante que estejam em sequência).
+                if (aluno.getNomeNormalizado().contains(consulta)) {
+                    resultado.add(aluno);
+                }
+            }
+        }
+        return new ArrayList<>(resultado);
+    }
+
+    // Lista do trigrama mais raro da consulta (vazia se algum trigrama não existir no índice).
+    private Collection<Aluno> candidatosPorTrigrama(String consulta) {
+        Collection<Aluno> candidatos = null;
+        for (long trigrama : trigramas(consulta)) {
+            Collection<Aluno> lista = porTrigrama.get(trigrama);
+            if (lista == null) {
+                return List.of(); // Um trigrama que ninguém tem: nenhum nome contém a consulta.
+            }
+            if (candidatos == null || lista.size() < candidatos.size()) {
+                candidatos = lista;
+            }
+        }
+        return candidatos;
+    }
+
+    // Palavras distintas do nome ("ana ana" entra uma vez só na lista de "ana").
+    private static List<String> palavras(String nomeNormalizado) {
+        List<String> distintas = new ArrayList<>(4);
+        if (nomeNormalizado.isEmpty()) {
+            return distintas;
+        }
+        for (String palavra : nomeNormalizado.split(" ")) {
+            if (!distintas.contains(palavra)) {
+                distintas.add(palavra);
+            }
+        }
+        return distintas;
+    }
+
+    // Trigramas distintos do texto, cada um com os três caracteres juntos num long (16 bits cada).
+    private static long[] trigramas(String texto) {
+        if (texto.length() < 3) {
+            return new long[0];
+        }
+        long[] todos = new long[texto.length() - 2];
+        for (int i = 0; i < todos.length; i++) {
+            todos[i] = ((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2);
+        }
+        // Ordena e tira os repetidos sem criar objetos (um nome tem poucas dezenas de trigramas).
+        Arrays.sort(todos);
+        int distintos = 0;
+        for (int i = 0; i < todos.length; i++) {
+            if (i == 0 || todos[i] != todos[i - 1]) {
+                todos[distintos++] = todos[i];
+            }
+        }
+        return Arrays.copyOf(todos, distintos);
+    }
+
+    private static Set<Aluno> conjuntoPorIdentidade(int esperados) {
+        return Collections.newSetFromMap(new IdentityHashMap<>(esperados));
+    }
+
+    // Acrescenta o aluno à chave; a lista vira conjunto por identidade ao passar de LIMITE_LISTA.
+    private static <K> void colocar(Map<K, Collection<Aluno>> mapa, K chave, Aluno aluno) {
+        Collection<Aluno> alunos = mapa.get(chave);
+        if (alunos == null) {
+            alunos = new ArrayList<>(2);
+            mapa.put(chave, alunos);
+        } else if (alunos instanceof ArrayList<Aluno> && alunos.size() == LIMITE_LISTA) {
+            Set<Aluno> conjunto = conjuntoPorIdentidade(LIMITE_LISTA * 2);
+            conjunto.addAll(alunos);
+            alunos = conjunto;
+            mapa.put(chave, alunos);
+        }
+        alunos.add(aluno);
+    }
+
+    // Retira o aluno da chave (comparando a referência) e apaga a chave se ela esvaziar.
+    // No conjunto é O(1); na lista, no máximo LIMITE_LISTA comparações.
+    private static <K> void retirar(Map<K, Collection<Aluno>> mapa, K chave, Aluno aluno) {
+        Collection<Aluno> alunos = mapa.get(chave);
+        if (alunos == null) {
+            return;
+        }
+        if (alunos instanceof ArrayList<Aluno> lista) {
+            for (int i = lista.size() - 1; i >= 0; i--) {
+                if (lista.get(i) == aluno) {
+                    // Troca com o último e remove do fim: a ordem dentro da lista não importa.
+                    int ultimo = lista.size() - 1;
+                    lista.set(i, lista.get(ultimo));
+                    lista.remove(ultimo);
+                    break;
+                }
+            }
+        } else {
+            alunos.remove(aluno);
+        }
+        if (alunos.isEmpty()) {
+            mapa.remove(chave);
+        }
+    }
+
+    // Retira de uma vez os alunos (um conjunto por identidade) da chave.
+    private static <K> void retirarTodos(Map<K, Collection<Aluno>> mapa, K chave, Set<Aluno> removidos) {
+        Collection<Aluno> alunos = mapa.get(chave);
+        if (alunos == null) {
+            return;
+        }
+        if (alunos instanceof ArrayList<Aluno>) {
+            alunos.removeIf(removidos::contains); // Uma passada, O(tamanho da lista).
+        } else {
+            for (Aluno aluno : removidos) {
+                alunos.remove(aluno);
+            }
+        }
+        if (alunos.isEmpty()) {
+            mapa.remove(chave);
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package uespi.trabcons;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV sobre o arquivo mapeado em memória, no layout de 'SwingUtils.HEADERS'.
+ *
+ * O 'LeitorCsvParalelo' decodifica o arquivo como texto e passa cada registro pelo
+ * CSVParser, que cria uma String por campo antes de converter. Este leitor não decodifica
+ * o arquivo: ele mapeia o arquivo em blocos ('FileChannel.map'), acha as vírgulas direto nos bytes e só cria
+ * String para os campos que o Aluno guarda como texto (matrícula, nome, telefone e CPF).
+ * Idade, data e index são convertidos direto dos bytes.
+ *
+ * Os blocos são lidos em paralelo no ForkJoinPool comum, então arquivos maiores que 2 GiB
+ * (o limite de um único mapeamento) também funcionam. Cada bloco termina num fim de
+ * registro: um '\n' fora de aspas (um campo entre aspas pode ter vírgulas e fins de
+ * linha). Os blocos sem nenhuma aspa, o caso comum, são cortados no primeiro '\n' sem
+ * olhar o conteúdo; só os que têm aspas são percorridos em ordem, com as regras do CSV
+ * ('EstadoAspas'), para achar o corte certo. Registros com aspas caem no caminho comum
+ * ('LeitorCsvParalelo.dividirCampos'); registros mal formados vão para o mesmo relatório
+ * de rejeições, com o número da linha onde começam.
+ *
+ * Ligado com a propriedade 'trabcons.csv.mapeado=true' (ver 'SwingUtils.carregarAlunosDoCsv').
+ */
+final class LeitorCsvMapeado {
+
+    // Tamanho dos blocos: pequenos o bastante para dividir o trabalho, grandes o bastante
+    // para o custo de cada mapeamento não aparecer.
+    private static final long TAMANHO_MINIMO_BLOCO = 8L << 20;
+    private static final long TAMANHO_MAXIMO_BLOCO = 256L << 20;
+
+    private static final byte VIRGULA = ',';
+    private static final byte ASPAS = '"';
+    private static final byte FIM_LINHA = '\n';
+    private static final byte RETORNO = '\r';
+
+    private static final byte[] CABECALHO = (SwingUtils.HEADERS[0] + ",").getBytes(StandardCharsets.UTF_8);
+
+    private LeitorCsvMapeado() {
+    }
+
+    /**
+     * Resultado de um bloco: os alunos em ordem, quantas linhas o bloco tinha e as
+     * rejeições com o número da linha contado dentro do bloco.
+     */
+    private record Bloco(List<Aluno> alunos, long linhas, List<LeitorCsvParalelo.Rejeicao> rejeicoes) {
+    }
+
+    /**
+     * Carrega o arquivo inteiro numa lista (ArrayList), na ordem do arquivo.
+     *
+     * @param arquivo O CSV, com ou sem a linha de cabeçalho.
+     * @param rejeicoes Recebe as linhas que não puderam ser convertidas.
+     */
+    static List<Aluno> carregar(Path arquivo, LeitorCsvParalelo.RelatorioRejeicoes rejeicoes) throws IOException {
+        return carregar(arquivo, rejeicoes, 0);
+    }
+
+    /**
+     * Como 'carregar(arquivo, rejeicoes)', com o tamanho dos blocos escolhido por quem chama
+     * (ex: blocos de poucos bytes, para os cortes caírem dentro de registros entre aspas).
+     *
+     * @param tamanhoBloco Bytes por bloco antes do ajuste ao fim da linha; 0 escolhe pelo
+     *        tamanho do arquivo e pelos processadores (entre 8 MiB e 256 MiB).
+     */
+    static List<Aluno> carregar(Path arquivo, LeitorCsvParalelo.RelatorioRejeicoes rejeicoes, long tamanhoBloco) throws IOException {
+        if (tamanhoBloco < 0) {
+            throw new IllegalArgumentException("tamanho de bloco negativo: " + tamanhoBloco);
+        }
+        List<MappedByteBuffer> mapas = new ArrayList<>();
+        long linhasAntes = 0;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            long inicio = pularCabecalho(canal, tamanho);
+            if (inicio > 0) {
+                linhasAntes = 1;
+            }
+            // Os mapeamentos continuam válidos depois que o canal fecha.
+            if (tamanhoBloco == 0) {
+                tamanhoBloco = Math.clamp(tamanho / (4L * Runtime.getRuntime().availableProcessors()),
+                        TAMANHO_MINIMO_BLOCO, TAMANHO_MAXIMO_BLOCO);
+            }
+            // 1. Cortes provisórios, no primeiro '\n' depois do tamanho do bloco.
+            List<Long> cortes = new ArrayList<>();
+            cortes.add(inicio);
+            while (inicio < tamanho) {
+                inicio = fimDaLinha(canal, Math.min(inicio + tamanhoBloco, tamanho), tamanho);
+                mapas.add(canal.map(FileChannel.MapMode.READ_ONLY, cortes.getLast(), inicio - cortes.getLast()));
+                cortes.add(inicio);
+            }
+            // 2. Um corte dentro de aspas é trocado pelo próximo fim de registro.
+            List<Long> cortesCertos = cortesForaDeAspas(mapas, cortes);
+            if (!cortesCertos.equals(cortes)) {
+                mapas.clear();
+                for (int i = 1; i < cortesCertos.size(); i++) {
+                    long tamanhoMapa = cortesCertos.get(i) - cortesCertos.get(i - 1);
+                    if (tamanhoMapa > Integer.MAX_VALUE) {
+                        throw new IOException("registro entre aspas com mais de 2 GiB a partir do byte "
+                                + cortesCertos.get(i - 1) + " (aspas sem fechar?)");
+                    }
+                    mapas.add(canal.map(FileChannel.MapMode.READ_ONLY, cortesCertos.get(i - 1), tamanhoMapa));
+                }
+            }
+        }
+
+        // 'toList' num stream paralelo mantém a ordem dos blocos.
+        List<Bloco> blocos = mapas.parallelStream().map(LeitorCsvMapeado::lerBloco).toList();
+
+        int total = 0;
+        for (Bloco bloco : blocos) {
+            total += bloco.alunos().size();
+        }
+        List<Aluno> alunos = new ArrayList<>(total);
+        for (Bloco bloco : blocos) {
+            alunos.addAll(bloco.alunos());
+            // Converte o número da linha no bloco para o número da linha no arquivo.
+            for (LeitorCsvParalelo.Rejeicao rejeicao : bloco.rejeicoes()) {
+                rejeicoes.adicionar(new LeitorCsvParalelo.Rejeicao(linhasAntes + rejeicao.linha(), rejeicao.conteudo(), rejeicao.motivo()));
+            }
+            linhasAntes += bloco.linhas();
+        }
+        return alunos;
+    }
+
+    // Posição logo depois do cabeçalho, ou 0 se o arquivo não começar com ele.
+    private static long pularCabecalho(FileChannel canal, long tamanho) throws IOException {
+        ByteBuffer inicio = ByteBuffer.allocate(CABECALHO.length);
+        while (inicio.hasRemaining() && canal.read(inicio, inicio.position()) > 0) {
+            // Lê até encher ou o arquivo acabar.
+        }
+        if (inicio.position() < CABECALHO.length || !inicio.flip().equals(ByteBuffer.wrap(CABECALHO))) {
+            return 0;
+        }
+        return fimDaLinha(canal, 0, tamanho);
+    }
+
+    // Primeira posição depois do próximo '\n' a partir de 'posicao' (ou o fim do arquivo).
+    private static long fimDaLinha(FileChannel canal, long posicao, long tamanho) throws IOException {
+        ByteBuffer janela = ByteBuffer.allocate(8 * 1024);
+        while (posicao < tamanho) {
+            janela.clear();
+            int lidos = canal.read(janela, posicao);
+            if (lidos <= 0) {
+                break;
+            }
+            for (int i = 0; i < lidos; i++) {
+                if (janela.get(i) == FIM_LINHA) {
+                    return posicao + i + 1;
+                }
+            }
+            posicao += lidos;
+        }
+        return tamanho;
+    }
+
+    /**
+     * Confere os cortes provisórios: cada um precisa cair logo depois de um '\n' fora de
+     * aspas. Os blocos são vistos em paralelo só para saber se têm alguma aspa; depois, em
+     * ordem, os que têm (ou que começam no meio de um registro) são percorridos com o
+     * 'EstadoAspas'. Um corte que cai dentro de aspas sai, e o primeiro fim de registro
+     * depois dele entra no lugar.
+     *
+     * @param cortes O início do primeiro bloco e o fim de cada um ('mapas.size() + 1' posições).
+     * @return Os cortes certos, no mesmo formato.
+     */
+    private static List<Long> cortesForaDeAspas(List<MappedByteBuffer> mapas, List<Long> cortes) {
+        List<Boolean> temAspas = mapas.parallelStream().map(LeitorCsvMapeado::temAspas).toList();
+        if (!temAspas.contains(true)) {
+            return cortes;
+        }
+        List<Long> certos = new ArrayList<>();
+        certos.add(cortes.getFirst());
+        EstadoAspas estado = new EstadoAspas();
+        for (int k = 0; k < mapas.size(); k++) {
+            ByteBuffer mapa = mapas.get(k);
+            // Começando fora de um registro, um bloco sem aspas termina fora também.
+            if (!estado.emFronteira() || temAspas.get(k)) {
+                boolean procurandoCorte = !estado.emFronteira();
+                for (int i = 0; i < mapa.limit(); i++) {
+                    if (estado.avancar(mapa.get(i)) && procurandoCorte) {
+                        certos.add(cortes.get(k) + i + 1);
+                        procurandoCorte = false;
+                        if (!temAspas.get(k)) {
+                            break; // O resto do bloco não tem aspas.
+                        }
+                    }
+                }
+            }
+            long fim = cortes.get(k + 1);
+            if (estado.emFronteira() && fim > certos.getLast()) {
+                certos.add(fim);
+            }
+        }
+        // Aspas abertas até o fim do arquivo: o último registro vai até lá.
+        if (certos.getLast() < cortes.getLast()) {
+            certos.add(cortes.getLast());
+        }
+        return certos;
+    }
+
+    private static boolean temAspas(ByteBuffer mapa) {
+        for (int i = 0; i < mapa.limit(); i++) {
+            if (mapa.get(i) == ASPAS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * As regras de aspas do CSVParser ('CSVFormat.DEFAULT'), um byte por vez: aspas só abrem
+     * no começo de um campo, "" dentro delas é uma aspa escapada, e vírgulas e fins de
+     * linha entre aspas são texto. Aspas e fins de linha são ASCII, então os bytes bastam.
+     */
+    private static final class EstadoAspas {
+
+        private boolean entreAspas;
+        // Uma aspa dentro das aspas: fecha o campo, a não ser que a próxima também seja aspa.
+        private boolean aspaPendente;
+        private boolean inicioCampo = true;
+
+        /**
+         * @return 'true' se o byte é o '\n' que termina o registro.
+         */
+        boolean avancar(byte c) {
+            if (aspaPendente) {
+                aspaPendente = false;
+                if (c == ASPAS) {
+                    return false; // "" escapada: continua entre aspas.
+                }
+                entreAspas = false;
+            }
+            if (entreAspas) {
+                aspaPendente = c == ASPAS;
+                return false;
+            }
+            if (c == ASPAS && inicioCampo) {
+                entreAspas = true;
+                inicioCampo = false;
+                return false;
+            }
+            inicioCampo = c == VIRGULA || c == FIM_LINHA;
+            return c == FIM_LINHA;
+        }
+
+        boolean emFronteira() {
+            return !entreAspas && !aspaPendente;
+        }
+    }
+
+    // --- CONVERSÃO DE UM BLOCO ---
+
+    private static Bloco lerBloco(ByteBuffer mapa) {
+        int fim = mapa.limit();
+        // Um palpite de ~60 bytes por linha evita a maior parte das realocações da lista.
+        List<Aluno> alunos = new ArrayList<>(fim / 60 + 1);
+        List<LeitorCsvParalelo.Rejeicao> rejeicoes = new ArrayList<>();
+        int[] virgulas = new int[SwingUtils.HEADERS.length];
+        byte[] temporario = new byte[256];
+        long linha = 0;
+        int posicao = 0;
+
+        while (posicao < fim) {
+            linha++;
+            int inicioLinha = posicao;
+            int campos = 1;
+            boolean temAspas = false;
+            // Varre a linha uma vez: guarda onde estão as vírgulas e nota se há aspas.
+            while (posicao < fim) {
+                byte c = mapa.get(posicao);
+                if (c == FIM_LINHA) {
+                    break;
+                }
+                if (c == VIRGULA) {
+                    if (campos < virgulas.length) {
+                        virgulas[campos - 1] = posicao;
+                    }
+                    campos++;
+                } else if (c == ASPAS) {
+                    temAspas = true;
+                }
+                posicao++;
+            }
+            int linhasNoRegistro = 1;
+            if (temAspas) {
+                // Entre aspas pode haver '\n': o registro é relido com as regras do CSV e vai
+                // até o primeiro '\n' fora delas (ou até o fim do bloco, se as aspas não fecharem).
+                EstadoAspas estado = new EstadoAspas();
+                posicao = inicioLinha;
+                while (posicao < fim && !estado.avancar(mapa.get(posicao))) {
+                    if (mapa.get(posicao) == FIM_LINHA) {
+                        linhasNoRegistro++;
+                    }
+                    posicao++;
+                }
+            }
+            int fimLinha = posicao;
+            posicao++; // Pula o '\n'.
+            if (fimLinha > inicioLinha && mapa.get(fimLinha - 1) == RETORNO) {
+                fimLinha--;
+            }
+            if (fimLinha == inicioLinha) {
+                // Linha vazia: o CSVParser também pula. Uma linha só de espaços não é vazia
+                // para ele (é um registro de um campo) e aqui também não: vira rejeição.
+                continue;
+            }
+
+            long linhaDoRegistro = linha;
+            linha += linhasNoRegistro - 1;
+            try {
+                Aluno aluno;
+                if (temAspas) {
+                    // Campos entre aspas (vírgulas, aspas ou fins de linha dentro do texto): caminho comum.
+                    List<String> valores = LeitorCsvParalelo.dividirCampos(texto(mapa, inicioLinha, fimLinha, temporario));
+                    if (valores.size() != SwingUtils.HEADERS.length) {
+                        rejeitar(rejeicoes, linhaDoRegistro, mapa, inicioLinha, fimLinha, valores.size());
+                        continue;
+                    }
+                    aluno = SwingUtils.alunoDosCampos(valores);
+                } else if (campos != SwingUtils.HEADERS.length) {
+                    rejeitar(rejeicoes, linhaDoRegistro, mapa, inicioLinha, fimLinha, campos);
+                    continue;
+                } else {
+                    aluno = converter(mapa, inicioLinha, virgulas, fimLinha, temporario);
+                }
+                alunos.add(aluno);
+            } catch (Exception e) {
+                rejeicoes.add(new LeitorCsvParalelo.Rejeicao(linhaDoRegistro, texto(mapa, inicioLinha, fimLinha, new byte[0]), e.toString()));
+            }
+        }
+        return new Bloco(alunos, linha, rejeicoes);
+    }
+
+    private static void rejeitar(List<LeitorCsvParalelo.Rejeicao> rejeicoes, long linha, ByteBuffer mapa, int inicio, int fim, int campos) {
+        rejeicoes.add(new LeitorCsvParalelo.Rejeicao(linha, texto(mapa, inicio, fim, new byte[0]),
+                "esperava " + SwingUtils.HEADERS.length + " campos, encontrou " + campos));
+    }
+
+    // Converte uma linha sem aspas. 'virgulas' tem a posição das 6 vírgulas da linha.
+    private static Aluno converter(ByteBuffer mapa, int inicio, int[] virgulas, int fim, byte[] temporario) throws Exception {
+        String matricula = texto(mapa, inicio, virgulas[0], temporario);
+        String nome = texto(mapa, virgulas[0] + 1, virgulas[1], temporario);
+        int idade = inteiro(mapa, virgulas[1] + 1, virgulas[2], temporario);
+        LocalDate dataNascimento = data(mapa, virgulas[2] + 1, virgulas[3], temporario);
+        String telefone = texto(mapa, virgulas[3] + 1, virgulas[4], temporario);
+        String cpf = texto(mapa, virgulas[4] + 1, virgulas[5], temporario);
+        int index = inteiro(mapa, virgulas[5] + 1, fim, temporario);
+        return new Aluno(matricula, nome, idade, dataNascimento, telefone, cpf, index);
+    }
+
+    // Bytes [inicio, fim) do mapa como String UTF-8. Cresce o temporário se precisar.
+    private static String texto(ByteBuffer mapa, int inicio, int fim, byte[] temporario) {
+        int tamanho = fim - inicio;
+        byte[] destino = tamanho <= temporario.length ? temporario : new byte[tamanho];
+        mapa.get(inicio, destino, 0, tamanho);
+        return new String(destino, 0, tamanho, StandardCharsets.UTF_8);
+    }
+
+    // Inteiro em decimal (com sinal opcional). Qualquer outra coisa vai para o
+    // 'Integer.parseInt', que dá o mesmo erro do leitor de texto.
+    private static int inteiro(ByteBuffer mapa, int inicio, int fim, byte[] temporario) {
+        int posicao = inicio;
+        boolean negativo = posicao < fim && mapa.get(posicao) == '-';
+        if (negativo) {
+            posicao++;
+        }
+        // Até 9 dígitos não há como estourar um int.
+        if (posicao == fim || fim - posicao > 9) {
+            return Integer.parseInt(texto(mapa, inicio, fim, temporario));
+        }
+        int valor = 0;
+        for (; posicao < fim; posicao++) {
+            int digito = mapa.get(posicao) - '0';
+            if (digito < 0 || digito > 9) {
+                return Integer.parseInt(texto(mapa, inicio, fim, temporario));
+            }
+            valor = valor * 10 + digito;
+        }
+        return negativo ? -valor : valor;
+    }
+
+    // Data "dd/MM/yyyy" lida direto dos bytes. Fora desse formato exato (ou com um dia
+    // que não existe), quem decide é o 'Aluno.FORMATO_DATA', como no leitor de texto.
+    private static LocalDate data(ByteBuffer mapa, int inicio, int fim, byte[] temporario) {
+        if (fim - inicio == 10 && mapa.get(inicio + 2) == '/' && mapa.get(inicio + 5) == '/') {
+            int dia = digitos(mapa, inicio, 2);
+            int mes = digitos(mapa, inicio + 3, 2);
+            int ano = digitos(mapa, inicio + 6, 4);
+            if (dia >= 0 && mes >= 0 && ano > 0) { // Ano 0 não existe no "yyyy" (ano da era).
+                try {
+                    return LocalDate.of(ano, mes, dia);
+                } catch (DateTimeException e) {
+                    // Cai no formatador abaixo.
+                }
+            }
+        }
+        return LocalDate.parse(texto(mapa, inicio, fim, temporario), Aluno.FORMATO_DATA);
+    }
+
+    // 'quantidade' dígitos a partir de 'inicio', ou -1 se algum não for dígito.
+    private static int digitos(ByteBuffer mapa, int inicio, int quantidade) {
+        int valor = 0;
+        for (int i = inicio; i < inicio + quantidade; i++) {
+            int digito = mapa.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+}
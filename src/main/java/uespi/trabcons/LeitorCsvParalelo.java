@@ -0,0 +1,367 @@
+package uespi.trabcons;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * Leitor de CSV em paralelo, no layout de 'SwingUtils.HEADERS'.
+ *
+ * O arquivo não é lido inteiro para a memória: ele é lido em sequência, em blocos de
+ * 'TAMANHO_BLOCO' registros, e cada bloco é convertido com o CSVParser (commons-csv) numa
+ * thread do ForkJoinPool comum, enquanto o próximo bloco já está sendo lido. Linhas mal
+ * formadas não derrubam a carga: vão para o relatório de rejeições, com o número da linha
+ * e o motivo.
+ *
+ * O corte entre blocos acompanha as aspas, então um campo entre aspas com quebra de linha
+ * fica inteiro no mesmo bloco (e no mesmo registro), como o CSVParser o entende.
+ */
+class LeitorCsvParalelo {
+
+    // Registros por bloco: abaixo disso, dividir mais o trabalho custa mais do que ganha.
+    private static final int TAMANHO_BLOCO = 4_096;
+
+    // O formato de 'SwingUtils.salvarAlunosEmCsv' (o cabeçalho é tratado à parte).
+    private static final CSVFormat FORMATO = CSVFormat.DEFAULT;
+
+    /**
+     * Uma linha do CSV que não virou Aluno.
+     */
+    record Rejeicao(long linha, String conteudo, String motivo) {
+    }
+
+    /**
+     * Relatório das linhas rejeitadas. Pode receber rejeições de várias threads ao mesmo tempo.
+     */
+    static class RelatorioRejeicoes {
+
+        private final ConcurrentLinkedQueue<Rejeicao> rejeicoes = new ConcurrentLinkedQueue<>();
+
+        void adicionar(Rejeicao rejeicao) {
+            rejeicoes.add(rejeicao);
+        }
+
+        int total() {
+            return rejeicoes.size();
+        }
+
+        // Rejeições em ordem de linha.
+        List<Rejeicao> listar() {
+            List<Rejeicao> lista = new ArrayList<>(rejeicoes);
+            lista.sort(Comparator.comparingLong(Rejeicao::linha));
+            return lista;
+        }
+    }
+
+    /**
+     * Abre o arquivo como um stream (paralelo) de alunos. O arquivo fica aberto até o
+     * stream ser fechado.
+     *
+     * @param arquivo O CSV, com ou sem a linha de cabeçalho.
+     * @param rejeicoes Recebe as linhas que não puderam ser convertidas.
+     */
+    static Stream<Aluno> stream(Path arquivo, RelatorioRejeicoes rejeicoes) throws IOException {
+        Reader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8);
+        return StreamSupport.stream(new SpliteratorArquivo(leitor, rejeicoes), true)
+                .onClose(() -> {
+                    try {
+                        leitor.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Carrega o arquivo inteiro numa lista (ArrayList), na ordem do arquivo.
+     */
+    static List<Aluno> carregar(Path arquivo, RelatorioRejeicoes rejeicoes) throws IOException {
+        try (Stream<Aluno> alunos = stream(arquivo, rejeicoes)) {
+            // 'toArray' num stream paralelo junta os blocos, em ordem, num array do tamanho final.
+            return new ArrayList<>(Arrays.asList(alunos.toArray(Aluno[]::new)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Divide um registro de CSV (formato padrão: vírgula, aspas duplas, "" como escape) em campos.
+     */
+    static List<String> dividirCampos(String registro) throws IOException {
+        try (CSVParser parser = FORMATO.parse(new StringReader(registro))) {
+            List<CSVRecord> registros = parser.getRecords();
+            if (registros.size() != 1) {
+                throw new IllegalArgumentException("esperava 1 registro, encontrou " + registros.size());
+            }
+            return registros.get(0).toList();
+        }
+    }
+
+    /**
+     * Um trecho do arquivo com registros inteiros, e a linha (a partir de 1) onde ele começa.
+     */
+    private record Bloco(String texto, long primeiraLinha) {
+    }
+
+    /**
+     * Spliterator sobre o arquivo: cada 'trySplit' lê o próximo bloco (em sequência, pela
+     * thread que divide) e o entrega para ser convertido em outra thread. Como o bloco
+     * entregue é sempre o que vem antes do restante do arquivo, a ordem é mantida.
+     */
+    private static final class SpliteratorArquivo implements Spliterator<Aluno> {
+
+        private final Reader leitor;
+        private final RelatorioRejeicoes rejeicoes;
+        private final char[] buffer = new char[64 * 1024];
+        private int posicao = 0;
+        private int limite = 0;
+        private boolean fimArquivo = false;
+        private long proximaLinha = 1;
+        private boolean primeiroBloco = true;
+        // Bloco sendo consumido aqui mesmo, quando o stream não divide mais.
+        private SpliteratorBloco atual;
+
+        SpliteratorArquivo(Reader leitor, RelatorioRejeicoes rejeicoes) {
+            this.leitor = leitor;
+            this.rejeicoes = rejeicoes;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Aluno> acao) {
+            while (true) {
+                if (atual != null && atual.tryAdvance(acao)) {
+                    return true;
+                }
+                Bloco bloco = lerBloco();
+                if (bloco == null) {
+                    return false;
+                }
+                atual = new SpliteratorBloco(bloco, rejeicoes);
+            }
+        }
+
+        @Override
+        public Spliterator<Aluno> trySplit() {
+            // O que sobrou do bloco atual vem antes de qualquer bloco novo.
+            if (atual != null) {
+                SpliteratorBloco resto = atual;
+                atual = null;
+                return resto;
+            }
+            Bloco bloco = lerBloco();
+            return bloco == null ? null : new SpliteratorBloco(bloco, rejeicoes);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE; // Desconhecido até o fim do arquivo.
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+        /**
+         * Lê os próximos 'TAMANHO_BLOCO' registros (ou o que restar do arquivo).
+         *
+         * Um registro termina num '\n' fora de aspas. As aspas só abrem um campo no começo
+         * dele; dentro do campo, "" é uma aspa escapada. É a mesma regra do CSVParser, então
+         * o corte nunca cai no meio de um registro.
+         */
+        private Bloco lerBloco() {
+            StringBuilder texto = new StringBuilder(TAMANHO_BLOCO * 64);
+            long linhas = 0;
+            int registros = 0;
+            boolean entreAspas = false;
+            boolean fechouAspas = false;
+            boolean inicioCampo = true;
+            while (registros < TAMANHO_BLOCO) {
+                if (posicao == limite && !encher()) {
+                    break;
+                }
+                char c = buffer[posicao++];
+                texto.append(c);
+                if (c == '\n') {
+                    linhas++;
+                }
+                if (entreAspas) {
+                    if (c == '"') {
+                        entreAspas = false;
+                        fechouAspas = true;
+                    }
+                    continue;
+                }
+                if (fechouAspas) {
+                    fechouAspas = false;
+                    if (c == '"') {
+                        entreAspas = true; // "" dentro do campo.
+                        continue;
+                    }
+                }
+                if (c == '"' && inicioCampo) {
+                    entreAspas = true;
+                } else if (c == '\n') {
+                    registros++;
+                    inicioCampo = true;
+                } else {
+                    inicioCampo = c == ',';
+                }
+            }
+            if (texto.isEmpty()) {
+                return null;
+            }
+            Bloco bloco = new Bloco(texto.toString(), proximaLinha);
+            proximaLinha += linhas;
+            if (primeiroBloco) {
+                primeiroBloco = false;
+                if (bloco.texto().startsWith(SwingUtils.HEADERS[0] + ",")) {
+                    // Pula o cabeçalho, mantendo a contagem de linhas.
+                    int fimCabecalho = bloco.texto().indexOf('\n');
+                    return fimCabecalho < 0 ? new Bloco("", 2)
+                            : new Bloco(bloco.texto().substring(fimCabecalho + 1), 2);
+                }
+            }
+            return bloco;
+        }
+
+        private boolean encher() {
+            if (fimArquivo) {
+                return false;
+            }
+            try {
+                int lidos = leitor.read(buffer);
+                if (lidos <= 0) {
+                    fimArquivo = true;
+                    return false;
+                }
+                posicao = 0;
+                limite = lidos;
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Um bloco já lido do arquivo. Ele só é convertido (pelo CSVParser) quando começa a ser
+     * consumido, na thread que o recebeu.
+     */
+    private static final class SpliteratorBloco implements Spliterator<Aluno> {
+
+        private final Bloco bloco;
+        private final RelatorioRejeicoes rejeicoes;
+        private Iterator<Aluno> alunos;
+
+        SpliteratorBloco(Bloco bloco, RelatorioRejeicoes rejeicoes) {
+            this.bloco = bloco;
+            this.rejeicoes = rejeicoes;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Aluno> acao) {
+            if (alunos == null) {
+                alunos = converter().iterator();
+            }
+            if (!alunos.hasNext()) {
+                return false;
+            }
+            acao.accept(alunos.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<Aluno> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return TAMANHO_BLOCO;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+        // Converte o bloco inteiro; os registros inválidos vão para o relatório.
+        private List<Aluno> converter() {
+            List<Aluno> convertidos = new ArrayList<>(TAMANHO_BLOCO);
+            String texto = bloco.texto();
+            // Linha do registro: a do bloco mais as quebras antes da posição dele no texto
+            // (o CSVParser pula as linhas em branco, então a contagem dele não serve).
+            long numeroLinha = bloco.primeiraLinha();
+            int contadoAte = 0;
+            try (CSVParser parser = FORMATO.parse(new StringReader(texto))) {
+                Iterator<CSVRecord> registros = parser.iterator();
+                while (true) {
+                    // Linhas já consumidas: o registro seguinte começa depois delas.
+                    long lidas = parser.getCurrentLineNumber();
+                    CSVRecord registro;
+                    try {
+                        if (!registros.hasNext()) {
+                            break;
+                        }
+                        registro = registros.next();
+                    } catch (UncheckedIOException e) {
+                        // Aspas não fechadas: o resto do bloco não tem como ser lido.
+                        rejeicoes.adicionar(new Rejeicao(bloco.primeiraLinha() + lidas, "", e.getCause().getMessage()));
+                        break;
+                    }
+                    // A posição do registro fica antes das linhas em branco que o precedem.
+                    int inicio = (int) registro.getCharacterPosition();
+                    while (inicio < texto.length() && (texto.charAt(inicio) == '\n' || texto.charAt(inicio) == '\r')) {
+                        inicio++;
+                    }
+                    for (; contadoAte < inicio; contadoAte++) {
+                        if (texto.charAt(contadoAte) == '\n') {
+                            numeroLinha++;
+                        }
+                    }
+                    Aluno aluno = converter(registro, numeroLinha);
+                    if (aluno != null) {
+                        convertidos.add(aluno);
+                    }
+                }
+            } catch (IOException e) {
+                rejeicoes.adicionar(new Rejeicao(bloco.primeiraLinha(), "", e.toString()));
+            }
+            return convertidos;
+        }
+
+        // Converte um registro; em caso de erro registra a rejeição e retorna 'null'.
+        private Aluno converter(CSVRecord registro, long numeroLinha) {
+            List<String> campos = registro.toList();
+            try {
+                if (campos.size() != SwingUtils.HEADERS.length) {
+                    rejeicoes.adicionar(new Rejeicao(numeroLinha, String.join(",", campos),
+                            "esperava " + SwingUtils.HEADERS.length + " campos, encontrou " + campos.size()));
+                    return null;
+                }
+                return SwingUtils.alunoDosCampos(campos);
+            } catch (Exception e) {
+                rejeicoes.adicionar(new Rejeicao(numeroLinha, String.join(",", campos), e.toString()));
+                return null;
+            }
+        }
+    }
+}
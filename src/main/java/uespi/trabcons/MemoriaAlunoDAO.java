@@ -0,0 +1,184 @@
+package uespi.trabcons;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Repositório de alunos só em memória.
+ *
+ * Um TreeMap por matrícula (a página é um 'tailMap', em ordem, sem ordenar nada) e um
+ * HashMap pelo CPF normalizado, que faz o papel das restrições UNIQUE do banco.
+ *
+ * Thread-safe: todas as operações são 'synchronized'.
+ */
+class MemoriaAlunoDAO implements AlunoDAO {
+
+    private final NavigableMap<String, Aluno> porMatricula = new TreeMap<>();
+    private final Map<String, Aluno> porCpf = new HashMap<>();
+
+    MemoriaAlunoDAO() {
+    }
+
+    /**
+     * Repositório já com os alunos. Uma matrícula repetida fica com o último da coleção.
+     */
+    MemoriaAlunoDAO(Collection<Aluno> alunos) {
+        for (Aluno aluno : alunos) {
+            retirar(aluno.getMatricula());
+            colocar(aluno);
+        }
+    }
+
+    @Override
+    public synchronized Aluno buscar(String matricula) {
+        return porMatricula.get(matricula);
+    }
+
+    @Override
+    public synchronized Aluno buscarPorCpf(String cpf) {
+        String normalizado = listaAlunos.normalizarCpf(cpf);
+        return normalizado.isEmpty() ? null : porCpf.get(normalizado);
+    }
+
+    @Override
+    public synchronized void inserir(Aluno aluno) {
+        if (porMatricula.containsKey(aluno.getMatricula())) {
+            throw new OperacaoAlunoException(OperacaoAlunoException.Tipo.CONFLITO, "Matrícula Duplicada",
+                    "Erro: Matrícula '" + aluno.getMatricula() + "' já está cadastrada.");
+        }
+        conferirCpf(aluno);
+        colocar(aluno);
+    }
+
+    @Override
+    public synchronized void salvar(Aluno aluno) {
+        conferirCpf(aluno);
+        retirar(aluno.getMatricula());
+        colocar(aluno);
+    }
+
+    @Override
+    public synchronized boolean excluir(String matricula) {
+        return retirar(matricula) != null;
+    }
+
+    @Override
+    public synchronized int excluirTodos(Collection<String> matriculas) {
+        int excluidos = 0;
+        for (String matricula : matriculas) {
+            if (retirar(matricula) != null) {
+                excluidos++;
+            }
+        }
+        return excluidos;
+    }
+
+    // Aplica uma a uma, guardando o que cada matrícula tinha antes; numa recusa, desfaz as
+    // anteriores de trás para frente (tudo ou nada, como a transação do banco).
+    @Override
+    public synchronized void gravarLote(List<Mudanca> mudancas) {
+        List<Map.Entry<String, Aluno>> anteriores = new ArrayList<>(mudancas.size());
+        try {
+            for (Mudanca mudanca : mudancas) {
+                String matricula = mudanca.aluno().getMatricula();
+                Aluno anterior = porMatricula.get(matricula);
+                if (mudanca.remocao()) {
+                    retirar(matricula);
+                } else {
+                    inserir(mudanca.aluno());
+                }
+                anteriores.add(new AbstractMap.SimpleImmutableEntry<>(matricula, anterior));
+            }
+        } catch (RuntimeException e) {
+            for (int i = anteriores.size() - 1; i >= 0; i--) {
+                retirar(anteriores.get(i).getKey());
+                if (anteriores.get(i).getValue() != null) {
+                    colocar(anteriores.get(i).getValue());
+                }
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized List<Aluno> pagina(String depoisDe, int tamanho) {
+        Collection<Aluno> seguintes = depoisDe == null ? porMatricula.values() : porMatricula.tailMap(depoisDe, false).values();
+        List<Aluno> pagina = new ArrayList<>(Math.min(tamanho, seguintes.size()));
+        for (Aluno aluno : seguintes) {
+            if (pagina.size() == tamanho) {
+                break;
+            }
+            pagina.add(aluno);
+        }
+        return pagina;
+    }
+
+    @Override
+    public synchronized long contar() {
+        return porMatricula.size();
+    }
+
+    @Override
+    public synchronized void percorrerTodos(Consumer<? super Aluno> destino) {
+        porMatricula.values().forEach(destino);
+    }
+
+    /**
+     * Cópia de todos os alunos, em ordem de matrícula.
+     */
+    @Override
+    public synchronized List<Aluno> todos() {
+        return new ArrayList<>(porMatricula.values());
+    }
+
+    // Uma varredura de todos os nomes (sem índice: este repositório é para volumes pequenos).
+    @Override
+    public synchronized List<Aluno> buscarPorNome(String texto, int limite) {
+        String termo = IndiceNomes.normalizar(texto).trim();
+        List<Aluno> encontrados = new ArrayList<>();
+        if (termo.isEmpty()) {
+            return encontrados;
+        }
+        for (Aluno aluno : porMatricula.values()) {
+            if (aluno.getNomeNormalizado().contains(termo)) {
+                encontrados.add(aluno);
+            }
+        }
+        encontrados.sort(Comparator.comparing(Aluno::getNomeNormalizado));
+        return new ArrayList<>(encontrados.subList(0, Math.min(limite, encontrados.size())));
+    }
+
+    // O CPF não pode ser de outro aluno (o da mesma matrícula pode, é ele mesmo sendo salvo).
+    private void conferirCpf(Aluno aluno) {
+        String normalizado = listaAlunos.normalizarCpf(aluno.getCpf());
+        Aluno dono = normalizado.isEmpty() ? null : porCpf.get(normalizado);
+        if (dono != null && !dono.getMatricula().equals(aluno.getMatricula())) {
+            throw new OperacaoAlunoException(OperacaoAlunoException.Tipo.CONFLITO, "CPF Duplicado",
+                    "Erro: O CPF '" + aluno.getCpf() + "' já está sendo utilizado por: " + dono.getNome());
+        }
+    }
+
+    private void colocar(Aluno aluno) {
+        porMatricula.put(aluno.getMatricula(), aluno);
+        String normalizado = listaAlunos.normalizarCpf(aluno.getCpf());
+        if (!normalizado.isEmpty()) {
+            porCpf.put(normalizado, aluno);
+        }
+    }
+
+    private Aluno retirar(String matricula) {
+        Aluno antigo = porMatricula.remove(matricula);
+        if (antigo != null) {
+            porCpf.remove(listaAlunos.normalizarCpf(antigo.getCpf()), antigo);
+        }
+        return antigo;
+    }
+}
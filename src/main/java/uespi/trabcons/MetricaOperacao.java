@@ -0,0 +1,187 @@
+package uespi.trabcons;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores e histograma de latência de uma operação (ex: "cadastrar").
+ *
+ * Feito para ficar no caminho de toda operação sem pesar: registrar é um 'System.nanoTime',
+ * alguns LongAdder e um incremento num AtomicLongArray, sem lock e sem alocar nada.
+ *
+ * O histograma é log-linear: cada potência de 2 (em nanossegundos) é dividida em
+ * 'SUBFAIXAS' faixas iguais. Com 4 subfaixas, 256 posições cobrem de 1 ns a séculos
+ * com erro relativo de no máximo 1/4 por faixa.
+ */
+public final class MetricaOperacao implements MetricaOperacaoMBean {
+
+    private static final int BITS_SUBFAIXA = 2;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+
+    private final String nome;
+    private final LongAdder operacoes = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder itens = new LongAdder();
+    private final LongAdder bytesEscritos = new LongAdder();
+    private final LongAdder somaNanos = new LongAdder();
+    private final LongAccumulator maximoNanos = new LongAccumulator(Long::max, 0);
+    private final AtomicLongArray faixas = new AtomicLongArray(64 * SUBFAIXAS);
+
+    MetricaOperacao(String nome) {
+        this.nome = nome;
+    }
+
+    String getNome() {
+        return nome;
+    }
+
+    /**
+     * Registra uma operação que deu certo, iniciada em 'inicioNanos' ('System.nanoTime').
+     */
+    void sucesso(long inicioNanos) {
+        registrar(System.nanoTime() - inicioNanos);
+    }
+
+    /**
+     * Registra uma operação que falhou. O tempo dela também entra no histograma.
+     */
+    void falha(long inicioNanos) {
+        falhas.increment();
+        registrar(System.nanoTime() - inicioNanos);
+    }
+
+    /**
+     * Soma itens processados (ex: alunos carregados ou gravados).
+     */
+    void adicionarItens(long quantidade) {
+        itens.add(quantidade);
+    }
+
+    /**
+     * Soma bytes gravados em disco.
+     */
+    void adicionarBytes(long quantidade) {
+        bytesEscritos.add(quantidade);
+    }
+
+    private void registrar(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        operacoes.increment();
+        somaNanos.add(nanos);
+        maximoNanos.accumulate(nanos);
+        faixas.incrementAndGet(faixa(nanos));
+    }
+
+    // Posição do valor no histograma: potência de 2 (bit mais alto) + os próximos bits.
+    private static int faixa(long nanos) {
+        if (nanos < SUBFAIXAS) {
+            return (int) nanos;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (expoente - BITS_SUBFAIXA)) & (SUBFAIXAS - 1);
+        return (expoente - BITS_SUBFAIXA + 1) * SUBFAIXAS + sub;
+    }
+
+    // Maior valor que cai na faixa (o percentil é informado pelo limite de cima).
+    private static long limiteSuperior(int faixa) {
+        if (faixa < SUBFAIXAS) {
+            return faixa;
+        }
+        int expoente = faixa / SUBFAIXAS + BITS_SUBFAIXA - 1;
+        int sub = faixa % SUBFAIXAS;
+        long base = 1L << expoente;
+        long largura = base >>> BITS_SUBFAIXA;
+        return base + (sub + 1) * largura - 1;
+    }
+
+    private double percentilMs(double percentil) {
+        long[] contagens = new long[faixas.length()];
+        long total = 0;
+        for (int i = 0; i < contagens.length; i++) {
+            contagens[i] = faixas.get(i);
+            total += contagens[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = (long) Math.ceil(total * percentil);
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximoNanos.get()) / 1e6;
+            }
+        }
+        return maximoNanos.get() / 1e6;
+    }
+
+    // --- MBean ---
+
+    @Override
+    public long getOperacoes() {
+        return operacoes.sum();
+    }
+
+    @Override
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    @Override
+    public long getItens() {
+        return itens.sum();
+    }
+
+    @Override
+    public long getBytesEscritos() {
+        return bytesEscritos.sum();
+    }
+
+    @Override
+    public double getLatenciaMediaMs() {
+        long quantidade = operacoes.sum();
+        return quantidade == 0 ? 0 : somaNanos.sum() / 1e6 / quantidade;
+    }
+
+    @Override
+    public double getLatenciaP50Ms() {
+        return percentilMs(0.50);
+    }
+
+    @Override
+    public double getLatenciaP95Ms() {
+        return percentilMs(0.95);
+    }
+
+    @Override
+    public double getLatenciaP99Ms() {
+        return percentilMs(0.99);
+    }
+
+    @Override
+    public double getLatenciaMaximaMs() {
+        return maximoNanos.get() / 1e6;
+    }
+
+    @Override
+    public void zerar() {
+        operacoes.reset();
+        falhas.reset();
+        itens.reset();
+        bytesEscritos.reset();
+        somaNanos.reset();
+        maximoNanos.reset();
+        for (int i = 0; i < faixas.length(); i++) {
+            faixas.set(i, 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d ops (%d falhas), média %.3f ms, p99 %.3f ms, máx %.3f ms",
+                nome, getOperacoes(), getFalhas(), getLatenciaMediaMs(), getLatenciaP99Ms(), getLatenciaMaximaMs());
+    }
+}
@@ -0,0 +1,31 @@
+package uespi.trabcons;
+
+/**
+ * Interface JMX de uma 'MetricaOperacao' (o que aparece no JConsole/VisualVM).
+ * Os tempos são em milissegundos; os percentis são aproximados (arredondados para cima, erro de até 25%).
+ */
+public interface MetricaOperacaoMBean {
+
+    long getOperacoes();
+
+    long getFalhas();
+
+    long getItens();
+
+    long getBytesEscritos();
+
+    double getLatenciaMediaMs();
+
+    double getLatenciaP50Ms();
+
+    double getLatenciaP95Ms();
+
+    double getLatenciaP99Ms();
+
+    double getLatenciaMaximaMs();
+
+    /**
+     * Zera todos os contadores e o histograma.
+     */
+    void zerar();
+}
@@ -0,0 +1,60 @@
+package uespi.trabcons;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registro das métricas das operações com alunos, publicadas como MBeans JMX.
+ *
+ * Cada métrica aparece no JConsole/VisualVM em "uespi.trabcons" > "Operacao" > nome; o
+ * pool de conexões, em "uespi.trabcons" > "Pool" > "conexoes" ('PoolConexoes').
+ * Uso típico:
+ *
+ *   long inicio = System.nanoTime();
+ *   try { ...; Metricas.CADASTRAR.sucesso(inicio); }
+ *   catch (RuntimeException e) { Metricas.CADASTRAR.falha(inicio); throw e; }
+ */
+final class Metricas {
+
+    static final MetricaOperacao CADASTRAR = registrar("cadastrar");
+    static final MetricaOperacao EXCLUIR = registrar("excluirAluno");
+    static final MetricaOperacao EXCLUIR_EM_MASSA = registrar("excluirAlunos");
+    static final MetricaOperacao BUSCAR_MATRICULA = registrar("buscarPorMatricula");
+    static final MetricaOperacao CARGA_INICIAL = registrar("cargaInicial");
+    static final MetricaOperacao SALVAR_CSV = registrar("salvarCsv");
+    static final MetricaOperacao CARREGAR_CSV = registrar("carregarCsv");
+    static final MetricaOperacao DIARIO_CSV = registrar("diarioCsv");
+    static final MetricaOperacao SALVAR_FOTO_BINARIA = registrar("salvarFotoBinaria");
+    static final MetricaOperacao CARREGAR_FOTO_BINARIA = registrar("carregarFotoBinaria");
+    // Um lote da gravação adiada (itens = mudanças confirmadas; falhas = tentativas recusadas).
+    static final MetricaOperacao GRAVACAO_ADIADA = registrar("gravacaoAdiada");
+    // Uma rodada do 'SincronizadorAlunos' (itens = mudanças do banco aplicadas na lista).
+    static final MetricaOperacao SINCRONIZACAO = registrar("sincronizacao");
+
+    private Metricas() {
+    }
+
+    private static MetricaOperacao registrar(String nome) {
+        MetricaOperacao metrica = new MetricaOperacao(nome);
+        publicar(metrica, "Operacao", nome);
+        return metrica;
+    }
+
+    /**
+     * Publica um MBean em "uespi.trabcons:type=tipo,name=nome", se ainda não houver um lá.
+     */
+    static void publicar(Object mbean, String tipo, String nome) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objeto = new ObjectName("uespi.trabcons:type=" + tipo + ",name=" + nome);
+            if (!servidor.isRegistered(objeto)) {
+                servidor.registerMBean(mbean, objeto);
+            }
+        } catch (JMException | SecurityException e) {
+            // Sem JMX a métrica continua contando; só não fica visível de fora.
+            System.err.println("Não foi possível publicar a métrica '" + nome + "' no JMX: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package uespi.trabcons;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+/**
+ * Migrações do esquema do MySQL, aplicadas em ordem e uma única vez por banco.
+ *
+ * O "hbm2ddl.auto=update" do hibernate.cfg.xml só acrescenta: cria o que falta, mas nunca
+ * remove uma restrição antiga, não cria triggers e, se um índice UNIQUE não puder ser criado
+ * (dados repetidos), só registra o erro no log e segue. As mudanças que precisam de mais do que
+ * isso ficam aqui, numeradas; as já aplicadas são anotadas na tabela "esquema_versao".
+ *
+ * No MySQL cada comando de DDL confirma sozinho, então uma migração não é atômica. Por isso
+ * todo passo confere antes se já foi feito (information_schema): se o programa cair no meio,
+ * a migração roda de novo do começo na próxima inicialização, sem erro.
+ *
+ * Duas instâncias iniciando juntas não aplicam a mesma migração duas vezes: o trabalho é feito
+ * segurando um lock nomeado do MySQL ('GET_LOCK').
+ *
+ * Uma migração que falha é deixada pendente (junto com as seguintes) e o programa continua
+ * com o esquema que houver; o motivo aparece na saída de erro.
+ */
+final class MigracoesBanco {
+
+    // A coluna "cpf_normalizado": o CPF só com os dígitos, calculado pelo MySQL a partir de "cpf".
+    // CPF vazio vira NULL, que a restrição UNIQUE não compara. Não é mapeada no 'Aluno'.
+    private static final String DEFINICAO_CPF_NORMALIZADO =
+            "VARCHAR(255) GENERATED ALWAYS AS (NULLIF(REGEXP_REPLACE(cpf, '[^0-9]', ''), '')) STORED";
+
+    private static final String NOME_LOCK = "trabcons_migracoes";
+    private static final int ESPERA_LOCK_SEGUNDOS = 60;
+
+    // Quantos CPFs repetidos aparecem na mensagem de erro da migração do índice único.
+    private static final int CPFS_REPETIDOS_NA_MENSAGEM = 10;
+
+    /**
+     * Um passo de migração, executado numa conexão em modo auto-commit.
+     */
+    @FunctionalInterface
+    private interface Passo {
+        void aplicar(Connection conexao) throws SQLException;
+    }
+
+    private record Migracao(int versao, String descricao, Passo passo) {
+    }
+
+    // Em ordem de versão. Uma migração publicada nunca muda: correções entram como uma nova.
+    private static final List<Migracao> MIGRACOES = List.of(
+            new Migracao(1, "Trigger das lápides de alunos excluídos", MigracoesBanco::criarTriggerLapide),
+            new Migracao(2, "Índices de nome e data de nascimento", MigracoesBanco::criarIndicesDeBusca),
+            new Migracao(3, "CPF normalizado com restrição UNIQUE", MigracoesBanco::criarCpfNormalizadoUnico),
+            new Migracao(4, "Coluna atualizado_em fora do mapeamento do Aluno", MigracoesBanco::criarColunaAtualizadoEm)
+    );
+
+    private MigracoesBanco() {
+    }
+
+    /**
+     * Aplica as migrações pendentes. Nunca lança: problemas são informados na saída de erro.
+     */
+    static void aplicar(SessionFactory fabrica) {
+        try (Session session = fabrica.openSession()) {
+            session.doWork(MigracoesBanco::aplicar);
+        } catch (Exception e) {
+            System.err.println("Migrações do banco não aplicadas: " + e.getMessage());
+        }
+    }
+
+    private static void aplicar(Connection conexao) throws SQLException {
+        boolean autoCommit = conexao.getAutoCommit();
+        conexao.setAutoCommit(true);
+        try {
+            if (!obterLock(conexao)) {
+                System.err.println("Migrações do banco adiadas: outra instância está migrando há mais de "
+                        + ESPERA_LOCK_SEGUNDOS + "s.");
+                return;
+            }
+            try {
+                criarTabelaVersoes(conexao);
+                Set<Integer> aplicadas = versoesAplicadas(conexao);
+                for (Migracao migracao : MIGRACOES) {
+                    if (aplicadas.contains(migracao.versao())) {
+                        continue;
+                    }
+                    long inicio = System.nanoTime();
+                    try {
+                        migracao.passo().aplicar(conexao);
+                    } catch (SQLException e) {
+                        // As seguintes podem depender desta: ficam todas para a próxima inicialização.
+                        System.err.println("Migração " + migracao.versao() + " (" + migracao.descricao()
+                                + ") falhou e ficou pendente: " + e.getMessage());
+                        return;
+                    }
+                    long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+                    registrar(conexao, migracao, duracaoMs);
+                    System.out.println("Migração " + migracao.versao() + " aplicada: " + migracao.descricao()
+                            + " (" + duracaoMs + " ms).");
+                }
+            } finally {
+                liberarLock(conexao);
+            }
+        } finally {
+            conexao.setAutoCommit(autoCommit);
+        }
+    }
+
+    // --- MIGRAÇÕES ---
+
+    // 1. Grava a lápide de toda linha que sai da tabela, venha a exclusão de onde vier
+    //    (lida pelo 'SincronizadorAlunos').
+    private static void criarTriggerLapide(Connection conexao) throws SQLException {
+        executar(conexao, "CREATE TRIGGER IF NOT EXISTS trg_alunos_lapide AFTER DELETE ON alunos FOR EACH ROW "
+                + "INSERT INTO alunos_removidos (matricula, removido_em) VALUES (OLD.matricula, CURRENT_TIMESTAMP(6)) "
+                + "ON DUPLICATE KEY UPDATE removido_em = CURRENT_TIMESTAMP(6)");
+    }
+
+    // 2. A busca por nome ("ORDER BY nome" com LIMIT) percorre o índice em ordem e para no limite,
+    //    em vez de ordenar a tabela inteira; o de nascimento serve às consultas por intervalo.
+    private static void criarIndicesDeBusca(Connection conexao) throws SQLException {
+        criarIndiceSeFaltar(conexao, "idx_alunos_nome", "CREATE INDEX idx_alunos_nome ON alunos (nome)");
+        criarIndiceSeFaltar(conexao, "idx_alunos_data_nascimento",
+                "CREATE INDEX idx_alunos_data_nascimento ON alunos (data_nascimento)");
+    }
+
+    // 3. A unicidade passa do texto digitado para os dígitos do CPF. A restrição antiga
+    //    ("uk_alunos_cpf", sobre o texto) só sai depois que a nova existir.
+    private static void criarCpfNormalizadoUnico(Connection conexao) throws SQLException {
+        if (!existeColuna(conexao, "alunos", "cpf_normalizado")) {
+            executar(conexao, "ALTER TABLE alunos ADD COLUMN cpf_normalizado " + DEFINICAO_CPF_NORMALIZADO);
+        }
+        if (!existeIndice(conexao, "alunos", "uk_alunos_cpf_normalizado")) {
+            List<String> repetidos = cpfsRepetidos(conexao);
+            if (!repetidos.isEmpty()) {
+                throw new SQLException("há alunos diferentes com o mesmo CPF (" + String.join(", ", repetidos)
+                        + "); corrija os cadastros e reinicie o programa.");
+            }
+            executar(conexao, "ALTER TABLE alunos ADD CONSTRAINT uk_alunos_cpf_normalizado UNIQUE (cpf_normalizado)");
+        }
+        if (existeIndice(conexao, "alunos", "uk_alunos_cpf")) {
+            executar(conexao, "ALTER TABLE alunos DROP INDEX uk_alunos_cpf");
+        }
+    }
+
+    // 4. "atualizado_em" deixou de ser mapeada no 'Aluno' (ver o campo lá), então o
+    //    hbm2ddl não a cria mais num banco novo. Em bancos antigos ela já existe.
+    private static void criarColunaAtualizadoEm(Connection conexao) throws SQLException {
+        if (!existeColuna(conexao, "alunos", "atualizado_em")) {
+            executar(conexao, "ALTER TABLE alunos ADD COLUMN atualizado_em "
+                    + "TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)");
+        }
+        criarIndiceSeFaltar(conexao, "idx_alunos_atualizado_em",
+                "CREATE INDEX idx_alunos_atualizado_em ON alunos (atualizado_em)");
+    }
+
+    private static List<String> cpfsRepetidos(Connection conexao) throws SQLException {
+        List<String> repetidos = new ArrayList<>();
+        try (Statement comando = conexao.createStatement();
+             ResultSet linhas = comando.executeQuery("SELECT cpf_normalizado FROM alunos "
+                     + "WHERE cpf_normalizado IS NOT NULL GROUP BY cpf_normalizado HAVING COUNT(*) > 1 "
+                     + "LIMIT " + CPFS_REPETIDOS_NA_MENSAGEM)) {
+            while (linhas.next()) {
+                repetidos.add(linhas.getString(1));
+            }
+        }
+        return repetidos;
+    }
+
+    // --- CONTROLE ---
+
+    private static void criarTabelaVersoes(Connection conexao) throws SQLException {
+        executar(conexao, "CREATE TABLE IF NOT EXISTS esquema_versao ("
+                + "versao INT NOT NULL PRIMARY KEY, "
+                + "descricao VARCHAR(200) NOT NULL, "
+                + "duracao_ms BIGINT NOT NULL, "
+                + "aplicada_em TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6))");
+    }
+
+    private static Set<Integer> versoesAplicadas(Connection conexao) throws SQLException {
+        Set<Integer> versoes = new HashSet<>();
+        try (Statement comando = conexao.createStatement();
+             ResultSet linhas = comando.executeQuery("SELECT versao FROM esquema_versao")) {
+            while (linhas.next()) {
+                versoes.add(linhas.getInt(1));
+            }
+        }
+        return versoes;
+    }
+
+    private static void registrar(Connection conexao, Migracao migracao, long duracaoMs) throws SQLException {
+        try (PreparedStatement comando = conexao.prepareStatement(
+                "INSERT INTO esquema_versao (versao, descricao, duracao_ms) VALUES (?, ?, ?)")) {
+            comando.setInt(1, migracao.versao());
+            comando.setString(2, migracao.descricao());
+            comando.setLong(3, duracaoMs);
+            comando.executeUpdate();
+        }
+    }
+
+    private static boolean obterLock(Connection conexao) throws SQLException {
+        try (PreparedStatement comando = conexao.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            comando.setString(1, NOME_LOCK);
+            comando.setInt(2, ESPERA_LOCK_SEGUNDOS);
+            try (ResultSet linha = comando.executeQuery()) {
+                return linha.next() && linha.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void liberarLock(Connection conexao) throws SQLException {
+        try (PreparedStatement comando = conexao.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            comando.setString(1, NOME_LOCK);
+            comando.executeQuery().close();
+        }
+    }
+
+    // --- AUXILIARES ---
+
+    private static void executar(Connection conexao, String sql) throws SQLException {
+        try (Statement comando = conexao.createStatement()) {
+            comando.execute(sql);
+        }
+    }
+
+    private static void criarIndiceSeFaltar(Connection conexao, String indice, String sql) throws SQLException {
+        if (!existeIndice(conexao, "alunos", indice)) {
+            executar(conexao, sql);
+        }
+    }
+
+    private static boolean existeColuna(Connection conexao, String tabela, String coluna) throws SQLException {
+        return existe(conexao, "SELECT 1 FROM information_schema.columns "
+                + "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?", tabela, coluna);
+    }
+
+    private static boolean existeIndice(Connection conexao, String tabela, String indice) throws SQLException {
+        return existe(conexao, "SELECT 1 FROM information_schema.statistics "
+                + "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?", tabela, indice);
+    }
+
+    private static boolean existe(Connection conexao, String sql, String... parametros) throws SQLException {
+        try (PreparedStatement comando = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                comando.setString(i + 1, parametros[i]);
+            }
+            try (ResultSet linha = comando.executeQuery()) {
+                return linha.next();
+            }
+        }
+    }
+}
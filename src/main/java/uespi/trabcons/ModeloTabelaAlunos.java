@@ -0,0 +1,398 @@
+package uespi.trabcons;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo da JTable de alunos.
+ *
+ * Em vez de montar um DefaultTableModel novo (com um Object[] por linha) a cada mudança,
+ * este modelo guarda só as referências aos objetos Aluno e formata cada célula na hora
+ * em que a tabela pede, ou seja, só as células visíveis. Um cadastro ou uma exclusão
+ * vira um único 'fireTableRowsInserted/Deleted', sem perder a seleção nem redesenhar tudo.
+ *
+ * As linhas da ordem original e da busca ficam em 'Linhas': a lista recebida é usada como
+ * está (sem cópia), e uma exclusão acha a linha do aluno pela matrícula, sem percorrer a lista.
+ *
+ * As ordens por data de nascimento são servidas por um 'IndiceDataNascimento' copiado
+ * do gerenciador (já ordenado) e mantido aqui a cada mudança, sem nunca ordenar a lista.
+ * A busca por nome mostra o resultado que veio do índice de nomes do gerenciador.
+ *
+ * Assim como todo modelo do Swing, só deve ser usado na thread do Swing (EDT).
+ */
+class ModeloTabelaAlunos extends AbstractTableModel {
+
+    /**
+     * Ordem de exibição das linhas.
+     */
+    enum Ordem {
+        ORIGINAL,   // Ordem da lista principal (ordem de cadastro).
+        MAIS_NOVO,  // Maior data de nascimento primeiro.
+        MAIS_VELHO, // Menor data de nascimento primeiro.
+        INTERVALO,  // Só os nascidos entre duas datas, do mais velho para o mais novo.
+        NOME        // Resultado de uma busca por parte do nome.
+    }
+
+    private static final String[] COLUNAS = {"Nome", "Matricula", "Data de Nacimento", "CPF"};
+
+    // Todos os alunos, na ordem da lista principal.
+    private final Linhas original;
+    // Índice por nascimento usado nas outras ordens ('null' na ordem original).
+    private IndiceDataNascimento indice;
+    private Ordem ordem = Ordem.ORIGINAL;
+    // Limites do intervalo, quando a ordem é INTERVALO.
+    private LocalDate de;
+    private LocalDate ate;
+    // Resultado e texto (normalizado) da busca, quando a ordem é NOME.
+    private Linhas resultadoBusca;
+    private String termoBusca;
+
+    /**
+     * @param alunos Cópia da lista de alunos no momento em que a janela abriu
+     *               (ex: a de 'registerView'). Passa a ser do modelo, que a altera.
+     */
+    ModeloTabelaAlunos(List<Aluno> alunos) {
+        this.original = new Linhas(alunos);
+    }
+
+    /**
+     * Volta para a ordem original (ordem de cadastro).
+     */
+    void ordemOriginal() {
+        ordem = Ordem.ORIGINAL;
+        indice = null;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Ordena por nascimento usando uma cópia do índice do gerenciador.
+     *
+     * @param maisNovoPrimeiro 'true' para "Mais Novo", 'false' para "Mais Velho".
+     * @param indiceAtual Cópia do índice (já ordenada) tirada agora.
+     */
+    void ordenarPorNascimento(boolean maisNovoPrimeiro, IndiceDataNascimento indiceAtual) {
+        ordem = maisNovoPrimeiro ? Ordem.MAIS_NOVO : Ordem.MAIS_VELHO;
+        indice = indiceAtual;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Mostra só os alunos nascidos entre as duas datas (inclusive).
+     *
+     * @param faixa Resultado da consulta por intervalo no índice do gerenciador.
+     */
+    void filtrarIntervalo(LocalDate de, LocalDate ate, IndiceDataNascimento faixa) {
+        ordem = Ordem.INTERVALO;
+        this.de = de;
+        this.ate = ate;
+        indice = faixa;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Mostra só o resultado de uma busca por nome.
+     *
+     * @param texto O texto buscado (como o usuário digitou).
+     * @param resultado Alunos encontrados pelo índice de nomes. Passa a ser do modelo.
+     */
+    void mostrarBusca(String texto, List<Aluno> resultado) {
+        ordem = Ordem.NOME;
+        termoBusca = IndiceNomes.normalizar(texto);
+        resultadoBusca = new Linhas(resultado);
+        indice = null;
+        fireTableDataChanged();
+    }
+
+    Ordem getOrdem() {
+        return ordem;
+    }
+
+    /**
+     * Total de alunos, independente do filtro.
+     */
+    int getTotal() {
+        return original.tamanho();
+    }
+
+    /**
+     * Adiciona um aluno recém cadastrado, na posição certa para a ordem atual.
+     */
+    void inserir(Aluno aluno) {
+        int linhaOriginal = original.adicionar(aluno);
+        if (ordem == Ordem.ORIGINAL) {
+            fireTableRowsInserted(linhaOriginal, linhaOriginal);
+            return;
+        }
+        if (ordem == Ordem.NOME) {
+            // Um aluno novo que bate com a busca aparece no fim do resultado.
+            if (aluno.getNomeNormalizado().contains(termoBusca) && !resultadoBusca.contem(aluno)) {
+                int linha = resultadoBusca.adicionar(aluno);
+                fireTableRowsInserted(linha, linha);
+            }
+            return;
+        }
+        if (ordem == Ordem.INTERVALO && !dentroDoIntervalo(aluno)) {
+            return;
+        }
+        // A cópia do índice pode ter sido tirada depois do cadastro; nesse caso ele já está lá.
+        int posicao = indice.inserir(aluno);
+        if (posicao >= 0) {
+            int linha = linhaDaPosicao(posicao, indice.tamanho());
+            fireTableRowsInserted(linha, linha);
+        }
+    }
+
+    /**
+     * Retira um aluno excluído, avisando a tabela só sobre aquela linha.
+     */
+    void remover(Aluno aluno) {
+        int linhaOriginal = original.remover(aluno);
+        if (ordem == Ordem.ORIGINAL) {
+            if (linhaOriginal >= 0) {
+                fireTableRowsDeleted(linhaOriginal, linhaOriginal);
+            }
+            return;
+        }
+        if (ordem == Ordem.NOME) {
+            int linha = resultadoBusca.remover(aluno);
+            if (linha >= 0) {
+                fireTableRowsDeleted(linha, linha);
+            }
+            return;
+        }
+        int tamanhoAntes = indice.tamanho();
+        int posicao = indice.remover(aluno);
+        if (posicao >= 0) {
+            int linha = linhaDaPosicao(posicao, tamanhoAntes);
+            fireTableRowsDeleted(linha, linha);
+        }
+    }
+
+    /**
+     * Retira vários alunos excluídos de uma vez (exclusão das linhas selecionadas).
+     * Uma passada por lista e um único aviso para a tabela redesenhar.
+     */
+    void removerTodos(Collection<Aluno> alunos) {
+        if (alunos.size() <= 1) {
+            alunos.forEach(this::remover);
+            return;
+        }
+        Set<Aluno> alvos = new HashSet<>(alunos);
+        original.removerTodos(alvos);
+        if (ordem == Ordem.NOME) {
+            resultadoBusca.removerTodos(alvos);
+        } else if (indice != null) {
+            indice.removerTodos(alvos);
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Retorna o aluno exibido na linha informada.
+     */
+    Aluno getAluno(int linha) {
+        return switch (ordem) {
+            case ORIGINAL -> original.get(linha);
+            case NOME -> resultadoBusca.get(linha);
+            default -> indice.get(linha, ordem == Ordem.MAIS_NOVO);
+        };
+    }
+
+    // Converte a posição no índice (crescente) na linha da tabela.
+    private int linhaDaPosicao(int posicao, int tamanho) {
+        return ordem == Ordem.MAIS_NOVO ? tamanho - 1 - posicao : posicao;
+    }
+
+    private boolean dentroDoIntervalo(Aluno aluno) {
+        LocalDate data = aluno.getDataNascimento();
+        if (data == null) {
+            return false;
+        }
+        return (de == null || !data.isBefore(de)) && (ate == null || !data.isAfter(ate));
+    }
+
+    // --- Métodos do AbstractTableModel ---
+
+    @Override
+    public int getRowCount() {
+        return switch (ordem) {
+            case ORIGINAL -> original.tamanho();
+            case NOME -> resultadoBusca.tamanho();
+            default -> indice.tamanho();
+        };
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int coluna) {
+        return COLUNAS[coluna];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int coluna) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int linha, int coluna) {
+        // A formatação acontece aqui, só para as células que a tabela está desenhando.
+        Aluno aluno = getAluno(linha);
+        return switch (coluna) {
+            case 0 -> aluno.getNome();
+            case 1 -> aluno.getMatricula();
+            case 2 -> aluno.getDataNascimentoFormatadaCsv();
+            case 3 -> aluno.getCpf();
+            default -> null;
+        };
+    }
+
+    /**
+     * Linhas de uma ordem fixa (a de cadastro, ou a da busca), com inclusão no fim e
+     * exclusão em qualquer ponto.
+     *
+     * Cada aluno ocupa uma vaga fixa na lista; a exclusão só esvazia a vaga ('null') e a
+     * matrícula leva direto à vaga. Uma árvore de Fenwick conta as vagas ocupadas, o que
+     * converte linha da tabela em vaga (e vaga em linha) em O(log n), sem deslocar nada.
+     * Quando as vagas vazias passam das ocupadas, a lista é compactada de uma vez.
+     */
+    private static final class Linhas {
+
+        private final List<Aluno> vagas;
+        private final Map<String, Integer> vagaPorMatricula;
+        // Árvore de Fenwick (base 1) com 1 para cada vaga ocupada; capacidade = length - 1.
+        private int[] ocupadas;
+        private int tamanho;
+
+        // A lista recebida vira a lista de vagas, sem cópia.
+        Linhas(List<Aluno> alunos) {
+            this.vagas = alunos;
+            this.vagaPorMatricula = new HashMap<>(alunos.size() * 4 / 3 + 1);
+            for (int vaga = 0; vaga < alunos.size(); vaga++) {
+                vagaPorMatricula.put(alunos.get(vaga).getMatricula(), vaga);
+            }
+            reconstruir(alunos.size());
+        }
+
+        int tamanho() {
+            return tamanho;
+        }
+
+        boolean contem(Aluno aluno) {
+            return vagaPorMatricula.containsKey(aluno.getMatricula());
+        }
+
+        Aluno get(int linha) {
+            if (linha < 0 || linha >= tamanho) {
+                throw new IndexOutOfBoundsException("linha " + linha + " de " + tamanho);
+            }
+            // Desce a árvore atrás da vaga com exatamente 'linha' vagas ocupadas antes dela.
+            int vaga = 0;
+            int restante = linha + 1;
+            for (int passo = Integer.highestOneBit(ocupadas.length - 1); passo > 0; passo >>= 1) {
+                int proxima = vaga + passo;
+                if (proxima < ocupadas.length && ocupadas[proxima] < restante) {
+                    vaga = proxima;
+                    restante -= ocupadas[proxima];
+                }
+            }
+            return vagas.get(vaga);
+        }
+
+        /**
+         * @return A linha do aluno (a última).
+         */
+        int adicionar(Aluno aluno) {
+            int vaga = vagas.size();
+            vagas.add(aluno);
+            vagaPorMatricula.put(aluno.getMatricula(), vaga);
+            if (vaga + 1 >= ocupadas.length) {
+                reconstruir(Math.max(16, vagas.size() * 2)); // Já conta a vaga nova.
+            } else {
+                somar(vaga, 1);
+                tamanho++;
+            }
+            return tamanho - 1;
+        }
+
+        /**
+         * @return A linha que o aluno ocupava, ou -1 se ele não estava aqui.
+         */
+        int remover(Aluno aluno) {
+            Integer vaga = vagaPorMatricula.remove(aluno.getMatricula());
+            if (vaga == null) {
+                return -1;
+            }
+            int linha = ocupadasAntes(vaga);
+            vagas.set(vaga, null);
+            somar(vaga, -1);
+            tamanho--;
+            if (vagas.size() - tamanho > Math.max(tamanho, 1_024)) {
+                compactar();
+            }
+            return linha;
+        }
+
+        void removerTodos(Set<Aluno> alunos) {
+            for (Aluno aluno : alunos) {
+                Integer vaga = vagaPorMatricula.remove(aluno.getMatricula());
+                if (vaga != null) {
+                    vagas.set(vaga, null);
+                }
+            }
+            compactar();
+        }
+
+        // Tira as vagas vazias e refaz o mapa e a árvore (O(n), uma vez só).
+        private void compactar() {
+            vagas.removeIf(aluno -> aluno == null);
+            vagaPorMatricula.clear();
+            for (int vaga = 0; vaga < vagas.size(); vaga++) {
+                vagaPorMatricula.put(vagas.get(vaga).getMatricula(), vaga);
+            }
+            reconstruir(vagas.size());
+        }
+
+        // Monta a árvore em O(n) para a capacidade pedida.
+        private void reconstruir(int capacidade) {
+            ocupadas = new int[Math.max(capacidade, vagas.size()) + 1];
+            tamanho = 0;
+            for (int vaga = 0; vaga < vagas.size(); vaga++) {
+                if (vagas.get(vaga) != null) {
+                    ocupadas[vaga + 1]++;
+                    tamanho++;
+                }
+            }
+            for (int i = 1; i < ocupadas.length; i++) {
+                int pai = i + (i & -i);
+                if (pai < ocupadas.length) {
+                    ocupadas[pai] += ocupadas[i];
+                }
+            }
+        }
+
+        private void somar(int vaga, int valor) {
+            for (int i = vaga + 1; i < ocupadas.length; i += i & -i) {
+                ocupadas[i] += valor;
+            }
+        }
+
+        // Quantas vagas ocupadas há antes da vaga informada (= a linha dela).
+        private int ocupadasAntes(int vaga) {
+            int soma = 0;
+            for (int i = vaga; i > 0; i -= i & -i) {
+                soma += ocupadas[i];
+            }
+            return soma;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package uespi.trabcons;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo da JTable para o modo compacto.
+ *
+ * Lê as células direto do 'ArmazemAlunos' por uma única 'VistaAluno', reposicionada a
+ * cada célula: só as linhas visíveis são lidas, e nenhum Aluno é criado para desenhar a
+ * tabela. As linhas seguem a ordem de cadastro.
+ *
+ * O número de linhas só muda em 'atualizar', chamado depois de cada cadastro ou exclusão,
+ * para que a JTable nunca veja o tamanho mudar sem aviso.
+ *
+ * Só deve ser usado na thread do Swing (EDT).
+ */
+class ModeloTabelaCompacta extends AbstractTableModel {
+
+    private static final String[] COLUNAS = {"Nome", "Matricula", "Data de Nacimento", "CPF"};
+
+    private final ArmazemAlunos armazem;
+    private final VistaAluno vista;
+    private int total;
+
+    ModeloTabelaCompacta(ArmazemAlunos armazem) {
+        this.armazem = armazem;
+        this.vista = new VistaAluno(armazem);
+        this.total = armazem.tamanho();
+    }
+
+    /**
+     * Relê o tamanho do armazém e redesenha a tabela.
+     */
+    void atualizar() {
+        total = armazem.tamanho();
+        fireTableDataChanged();
+    }
+
+    int getTotal() {
+        return total;
+    }
+
+    // --- Métodos do AbstractTableModel ---
+
+    @Override
+    public int getRowCount() {
+        return total;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int coluna) {
+        return COLUNAS[coluna];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int coluna) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int linha, int coluna) {
+        // A linha pode ter sido excluída há pouco; o 'atualizar' a caminho acerta a tabela.
+        if (!vista.posicionar(linha)) {
+            return null;
+        }
+        return switch (coluna) {
+            case 0 -> vista.getNome();
+            case 1 -> vista.getMatricula();
+            case 2 -> vista.getDataNascimentoFormatadaCsv();
+            case 3 -> vista.getCpf();
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,185 @@
+package uespi.trabcons;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo da JTable para o modo paginado.
+ *
+ * O número de linhas vem de um "SELECT COUNT" e as linhas em si só são buscadas quando a
+ * tabela pede para desenhá-las, página por página (paginação por chave, em ordem de
+ * matrícula). Enquanto uma página não chega, a célula mostra "Carregando...". A busca roda
+ * em segundo plano e a página é entregue na thread do Swing.
+ *
+ * Como cada página começa depois da última matrícula da anterior, as páginas são buscadas
+ * em sequência: pular direto para o fim da tabela busca as páginas do meio no caminho.
+ * Uma página incompleta é a última: nenhuma outra é pedida até a próxima recarga, e se a
+ * contagem estava à frente (exclusões feitas por outro programa) a tabela encolhe até ela.
+ *
+ * Só deve ser usado na thread do Swing (EDT).
+ */
+class ModeloTabelaPaginada extends AbstractTableModel {
+
+    private static final String[] COLUNAS = {"Nome", "Matricula", "Data de Nacimento", "CPF"};
+
+    private final PaginadorAlunos paginador;
+    // Avisado sempre que a contagem do banco chega (para o campo "Total de Alunos").
+    private final LongConsumer aoContar;
+
+    // Páginas já carregadas, em ordem.
+    private final List<List<Aluno>> paginas = new ArrayList<>();
+    private int total = 0;
+    // Maior página que a tabela já pediu.
+    private int paginaDesejada = 0;
+    private boolean carregando = false;
+    // Última matrícula já carregada: a próxima página começa depois dela.
+    private String cursor = null;
+    // Uma página veio incompleta: não há mais nada depois dela.
+    private boolean fimAlcancado = false;
+    // Muda a cada recarga, para descartar páginas de uma busca antiga que chegarem atrasadas.
+    private int geracao = 0;
+
+    ModeloTabelaPaginada(PaginadorAlunos paginador, LongConsumer aoContar) {
+        this.paginador = paginador;
+        this.aoContar = aoContar;
+        recarregar();
+    }
+
+    /**
+     * Descarta as páginas e conta de novo (usado na abertura e depois de cadastros/exclusões).
+     */
+    void recarregar() {
+        int minhaGeracao = ++geracao;
+        paginas.clear();
+        carregando = false;
+        paginaDesejada = 0;
+        cursor = null;
+        fimAlcancado = false;
+        OperacoesAssincronas.quandoConcluir(OperacoesAssincronas.emSegundoPlano(paginador::contar),
+            quantidade -> {
+                if (minhaGeracao != geracao) {
+                    return;
+                }
+                total = (int) Math.min(Integer.MAX_VALUE, quantidade);
+                if (fimAlcancado) {
+                    // As páginas chegaram ao fim antes da contagem: vale o que elas trouxeram.
+                    total = Math.min(total, linhasCarregadas());
+                }
+                aoContar.accept(quantidade);
+                fireTableDataChanged();
+            },
+            erro -> System.err.println("Erro ao contar alunos no banco: " + erro.getMessage()));
+        fireTableDataChanged();
+    }
+
+    /**
+     * Retorna o aluno da linha, ou 'null' se a página dele ainda não foi carregada.
+     */
+    Aluno getAluno(int linha) {
+        int tamanho = paginador.getTamanhoPagina();
+        int pagina = linha / tamanho;
+        if (pagina >= paginas.size()) {
+            if (!fimAlcancado) {
+                pedirPagina(pagina);
+            }
+            return null;
+        }
+        List<Aluno> alunos = paginas.get(pagina);
+        int posicao = linha % tamanho;
+        // A contagem pode estar um pouco à frente das páginas (ex: exclusão feita por outro programa).
+        return posicao < alunos.size() ? alunos.get(posicao) : null;
+    }
+
+    private void pedirPagina(int pagina) {
+        paginaDesejada = Math.max(paginaDesejada, pagina);
+        if (!carregando) {
+            carregarProximaPagina();
+        }
+    }
+
+    // Busca a página seguinte à última carregada e continua até alcançar a página desejada.
+    private void carregarProximaPagina() {
+        carregando = true;
+        int minhaGeracao = geracao;
+        String depoisDe = cursor;
+
+        OperacoesAssincronas.quandoConcluir(OperacoesAssincronas.emSegundoPlano(() -> paginador.pagina(depoisDe)),
+            pagina -> {
+                if (minhaGeracao != geracao) {
+                    return;
+                }
+                carregando = false;
+                int tamanho = paginador.getTamanhoPagina();
+                int primeira = paginas.size() * tamanho;
+                if (!pagina.isEmpty()) {
+                    paginas.add(pagina);
+                    cursor = pagina.get(pagina.size() - 1).getMatricula();
+                    int ultima = Math.min(total, primeira + tamanho) - 1;
+                    if (ultima >= primeira) {
+                        fireTableRowsUpdated(primeira, ultima);
+                    }
+                }
+                if (pagina.size() < tamanho) {
+                    // Página incompleta (ou vazia): é o fim da tabela, e a contagem passa a ser o que veio.
+                    fimAlcancado = true;
+                    int existentes = linhasCarregadas();
+                    if (existentes < total) {
+                        int antes = total;
+                        total = existentes;
+                        aoContar.accept(total);
+                        fireTableRowsDeleted(existentes, antes - 1);
+                    }
+                } else if (paginas.size() <= paginaDesejada) {
+                    // Página cheia indica que há mais; continua se a tabela já pediu além dela.
+                    carregarProximaPagina();
+                }
+            },
+            erro -> {
+                carregando = false;
+                System.err.println("Erro ao carregar página de alunos: " + erro.getMessage());
+            });
+    }
+
+    private int linhasCarregadas() {
+        return paginas.isEmpty() ? 0 : (paginas.size() - 1) * paginador.getTamanhoPagina() + paginas.getLast().size();
+    }
+
+    // --- Métodos do AbstractTableModel ---
+
+    @Override
+    public int getRowCount() {
+        return total;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int coluna) {
+        return COLUNAS[coluna];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int coluna) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int linha, int coluna) {
+        Aluno aluno = getAluno(linha);
+        if (aluno == null) {
+            return coluna == 0 ? "Carregando..." : "";
+        }
+        return switch (coluna) {
+            case 0 -> aluno.getNome();
+            case 1 -> aluno.getMatricula();
+            case 2 -> aluno.getDataNascimentoFormatadaCsv();
+            case 3 -> aluno.getCpf();
+            default -> null;
+        };
+    }
+}
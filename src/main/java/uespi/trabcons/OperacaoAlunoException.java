@@ -0,0 +1,61 @@
+package uespi.trabcons;
+
+/**
+ * Erro de uma operação sobre alunos (cadastro, exclusão...).
+ *
+ * Carrega também o título da janela de erro, para que a interface
+ * mostre a mesma mensagem de antes sem precisar saber o que deu errado.
+ * Quem precisa saber (ex: a API HTTP, para escolher o status) usa o 'Tipo',
+ * e nunca o título, que é só texto para o usuário.
+ */
+public class OperacaoAlunoException extends RuntimeException {
+
+    /**
+     * O que deu errado, do ponto de vista de quem pediu a operação.
+     */
+    public enum Tipo {
+        /** Os dados informados são inválidos. */
+        VALIDACAO,
+        /** O aluno pedido não existe. */
+        NAO_ENCONTRADO,
+        /** A matrícula ou o CPF já estão em uso. */
+        CONFLITO,
+        /** O programa não está aceitando a operação agora (ex: está sendo encerrado). */
+        INDISPONIVEL,
+        /** Qualquer outra falha (banco, backup...). */
+        FALHA
+    }
+
+    private final Tipo tipo;
+
+    // Título usado no JOptionPane (ex: "CPF Duplicado").
+    private final String titulo;
+
+    public OperacaoAlunoException(String titulo, String mensagem) {
+        this(Tipo.FALHA, titulo, mensagem);
+    }
+
+    public OperacaoAlunoException(String titulo, String mensagem, Throwable causa) {
+        this(Tipo.FALHA, titulo, mensagem, causa);
+    }
+
+    public OperacaoAlunoException(Tipo tipo, String titulo, String mensagem) {
+        super(mensagem);
+        this.tipo = tipo;
+        this.titulo = titulo;
+    }
+
+    public OperacaoAlunoException(Tipo tipo, String titulo, String mensagem, Throwable causa) {
+        super(mensagem, causa);
+        this.tipo = tipo;
+        this.titulo = titulo;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+}
@@ -0,0 +1,94 @@
+package uespi.trabcons;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+
+/**
+ * Camada assíncrona das operações sobre alunos.
+ *
+ * O trabalho pesado (sessão do Hibernate, commit no MySQL, diário do CSV) roda em
+ * threads virtuais, fora da Event Dispatch Thread (EDT) do Swing, para a janela
+ * não congelar. Cada operação devolve um 'CompletableFuture', e o resultado
+ * (ou o erro) volta para a EDT através de 'quandoConcluir'.
+ */
+class OperacoesAssincronas {
+
+    // Uma thread virtual por operação: baratas, e ficam bloqueadas no banco sem custo.
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    // "Executor" que entrega as tarefas na thread do Swing.
+    private static final Executor EDT = SwingUtilities::invokeLater;
+
+    // O gerenciador pode ainda estar carregando (banco iniciando em segundo plano);
+    // as operações pedidas antes disso ficam na fila e rodam assim que ele ficar pronto.
+    private final CompletableFuture<listaAlunos> gerenciaAlunos;
+
+    OperacoesAssincronas(listaAlunos gerenciaAlunos) {
+        this(CompletableFuture.completedFuture(gerenciaAlunos));
+    }
+
+    OperacoesAssincronas(CompletableFuture<listaAlunos> gerenciaAlunos) {
+        this.gerenciaAlunos = gerenciaAlunos;
+    }
+
+    /**
+     * Cadastra o aluno em segundo plano.
+     * Com a gravação adiada, o futuro termina quando o lote do aluno for confirmado no banco.
+     */
+    CompletableFuture<ResultadoOperacao> cadastrar(Aluno novoAluno) {
+        return gerenciaAlunos.thenComposeAsync(gerenciador -> gerenciador.cadastrarAdiado(novoAluno), EXECUTOR);
+    }
+
+    /**
+     * Exclui o aluno da matrícula informada em segundo plano.
+     */
+    CompletableFuture<ResultadoOperacao> excluir(String matricula) {
+        return gerenciaAlunos.thenComposeAsync(gerenciador -> gerenciador.excluirAdiado(matricula), EXECUTOR);
+    }
+
+    /**
+     * Exclui de uma vez os alunos das matrículas informadas, em segundo plano.
+     */
+    CompletableFuture<ResultadoExclusaoEmMassa> excluirVarios(java.util.Collection<String> matriculas) {
+        return gerenciaAlunos.thenApplyAsync(gerenciador -> gerenciador.excluirAlunos(matriculas), EXECUTOR);
+    }
+
+    /**
+     * Executa qualquer trabalho bloqueante (ex: uma consulta) numa thread virtual.
+     */
+    static <T> CompletableFuture<T> emSegundoPlano(Supplier<T> trabalho) {
+        return CompletableFuture.supplyAsync(trabalho, EXECUTOR);
+    }
+
+    /**
+     * Executa um dos dois callbacks na EDT quando a operação terminar.
+     * O erro chega já "desembrulhado" da CompletionException.
+     */
+    static <T> void quandoConcluir(CompletableFuture<T> futuro, Consumer<T> sucesso, Consumer<Throwable> erro) {
+        futuro.whenCompleteAsync((resultado, ex) -> {
+            if (ex == null) {
+                sucesso.accept(resultado);
+            } else {
+                erro.accept(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            }
+        }, EDT);
+    }
+
+    /**
+     * Mostra o erro de uma operação numa janela, usando o título que veio na exceção.
+     */
+    static void mostrarErro(java.awt.Component pai, Throwable erro) {
+        if (erro instanceof OperacaoAlunoException opEx) {
+            javax.swing.JOptionPane.showMessageDialog(pai, opEx.getMessage(), opEx.getTitulo(), javax.swing.JOptionPane.ERROR_MESSAGE);
+        } else {
+            javax.swing.JOptionPane.showMessageDialog(pai, "Erro inesperado: " + erro.getMessage(), "Erro", javax.swing.JOptionPane.ERROR_MESSAGE);
+            erro.printStackTrace();
+        }
+    }
+}
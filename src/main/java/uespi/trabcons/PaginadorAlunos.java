@@ -0,0 +1,85 @@
+package uespi.trabcons;
+
+import java.util.List;
+
+/**
+ * Acesso paginado à tabela "alunos".
+ *
+ * Usa paginação por chave (keyset): cada página começa depois da última matrícula da
+ * página anterior ("WHERE matricula > :ultima ORDER BY matricula LIMIT n"). Diferente de
+ * OFFSET, o banco não precisa ler e descartar as linhas anteriores, então a página
+ * 10.000 custa o mesmo que a primeira (a matrícula é a chave primária).
+ *
+ * O modo paginado é ligado com a propriedade 'trabcons.modoPaginado=true'; o tamanho da
+ * página vem de 'trabcons.paginacao.tamanho' e o fetch size JDBC de 'trabcons.paginacao.fetch'.
+ *
+ * As consultas ficam no repositório ('HibernateAlunoDAO'). Os alunos das páginas entram
+ * no cache do repositório, então abrir um aluno que acabou de aparecer na tabela não vai
+ * ao MySQL.
+ */
+class PaginadorAlunos {
+
+    private final int tamanhoPagina;
+    // As páginas, a contagem e a busca por matrícula vêm do repositório do banco.
+    private final AlunoDAO repositorio;
+
+    PaginadorAlunos(int tamanhoPagina, AlunoDAO repositorio) {
+        this.tamanhoPagina = tamanhoPagina;
+        this.repositorio = repositorio;
+    }
+
+    /**
+     * Paginador com os valores das propriedades do sistema (página de 500 linhas por padrão).
+     */
+    static PaginadorAlunos padrao() {
+        return new PaginadorAlunos(Integer.getInteger("trabcons.paginacao.tamanho", 500), HibernateAlunoDAO.padrao());
+    }
+
+    /**
+     * Indica se o programa foi iniciado no modo paginado.
+     */
+    static boolean modoPaginadoAtivo() {
+        return Boolean.getBoolean("trabcons.modoPaginado");
+    }
+
+    int getTamanhoPagina() {
+        return tamanhoPagina;
+    }
+
+    /**
+     * Busca a página seguinte à matrícula informada, em ordem de matrícula.
+     *
+     * @param depoisDe Última matrícula da página anterior, ou 'null' para a primeira página.
+     */
+    List<Aluno> pagina(String depoisDe) {
+        return pagina(depoisDe, tamanhoPagina);
+    }
+
+    /**
+     * Igual a 'pagina(String)', mas com um limite de linhas escolhido por quem chama.
+     */
+    List<Aluno> pagina(String depoisDe, int limite) {
+        return repositorio.pagina(depoisDe, limite);
+    }
+
+    /**
+     * Conta os alunos direto no banco ("SELECT COUNT").
+     */
+    long contar() {
+        return repositorio.contar();
+    }
+
+    /**
+     * Busca alunos cujo nome contém o texto, em ordem de nome (no banco, um "LIKE %texto%").
+     */
+    List<Aluno> buscarPorNome(String texto, int limite) {
+        return repositorio.buscarPorNome(texto, limite);
+    }
+
+    /**
+     * Busca um aluno pela chave primária (passa pelo cache do repositório).
+     */
+    Aluno buscar(String matricula) {
+        return repositorio.buscar(matricula);
+    }
+}
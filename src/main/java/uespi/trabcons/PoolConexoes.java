@@ -0,0 +1,59 @@
+package uespi.trabcons;
+
+/**
+ * As estatísticas de 'ProvedorConexoesPool.estatisticas()' publicadas no JMX. Cada leitura
+ * pergunta ao pool em uso, então o MBean continua valendo se o SessionFactory for recriado.
+ */
+public final class PoolConexoes implements PoolConexoesMBean {
+
+    private static final ProvedorConexoesPool.EstatisticasPool SEM_POOL =
+            new ProvedorConexoesPool.EstatisticasPool(0, 0, 0, 0, 0, 0, 0, 0);
+
+    PoolConexoes() {
+    }
+
+    private static ProvedorConexoesPool.EstatisticasPool atual() {
+        ProvedorConexoesPool.EstatisticasPool estatisticas = ProvedorConexoesPool.estatisticas();
+        return estatisticas == null ? SEM_POOL : estatisticas;
+    }
+
+    @Override
+    public int getAtivas() {
+        return atual().ativas();
+    }
+
+    @Override
+    public int getOciosas() {
+        return atual().ociosas();
+    }
+
+    @Override
+    public int getPendentes() {
+        return atual().pendentes();
+    }
+
+    @Override
+    public int getTotal() {
+        return atual().total();
+    }
+
+    @Override
+    public long getAquisicoes() {
+        return atual().aquisicoes();
+    }
+
+    @Override
+    public long getTimeouts() {
+        return atual().timeouts();
+    }
+
+    @Override
+    public double getEsperaMediaMs() {
+        return atual().esperaMediaMs();
+    }
+
+    @Override
+    public double getEsperaMaximaMs() {
+        return atual().esperaMaximaMs();
+    }
+}
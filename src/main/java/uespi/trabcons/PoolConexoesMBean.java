@@ -0,0 +1,24 @@
+package uespi.trabcons;
+
+/**
+ * Interface JMX do pool de conexões (o que aparece no JConsole/VisualVM em
+ * "uespi.trabcons" > "Pool" > "conexoes"). Tudo é zero enquanto o pool não existe.
+ */
+public interface PoolConexoesMBean {
+
+    int getAtivas();
+
+    int getOciosas();
+
+    int getPendentes();
+
+    int getTotal();
+
+    long getAquisicoes();
+
+    long getTimeouts();
+
+    double getEsperaMediaMs();
+
+    double getEsperaMaximaMs();
+}
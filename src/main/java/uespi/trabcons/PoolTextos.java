@@ -0,0 +1,182 @@
+package uespi.trabcons;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Conjunto de textos sem repetição, guardados em UTF-8 num único byte[].
+ *
+ * Cada texto distinto recebe um id (int) e um contador de referências: o mesmo nome
+ * usado por mil alunos ocupa o espaço de um só. Quando a última referência é liberada,
+ * o id volta para ser reaproveitado, e os bytes esquecidos são recuperados de tempos em
+ * tempos, reescrevendo o byte[] sem os buracos (os ids não mudam).
+ *
+ * Não é thread-safe: quem usa é responsável por sincronizar.
+ */
+final class PoolTextos {
+
+    // Só vale a pena reescrever o byte[] quando os buracos já somam isso e são metade dele.
+    private static final int MINIMO_PARA_COMPACTAR = 1 << 20;
+
+    private byte[] bytes;
+    private int bytesUsados;
+    private int bytesLiberados;
+
+    // Por id: onde o texto começa no byte[], quantos bytes tem, hash e referências.
+    private int[] inicio;
+    private int[] tamanho;
+    private int[] hashes;
+    private int[] referencias;
+    private int proximoId;
+
+    // Ids liberados, prontos para reuso.
+    private int[] idsLivres = new int[16];
+    private int quantidadeLivres;
+
+    private final TabelaSlots tabela;
+
+    PoolTextos(int capacidadeInicial) {
+        int capacidade = Math.max(16, capacidadeInicial);
+        this.bytes = new byte[capacidade * 16];
+        this.inicio = new int[capacidade];
+        this.tamanho = new int[capacidade];
+        this.hashes = new int[capacidade];
+        this.referencias = new int[capacidade];
+        this.tabela = new TabelaSlots(capacidade, id -> hashes[id]);
+    }
+
+    // Cópia para leitura (a tabela hash não é copiada: a cópia só lê textos pelo id).
+    private PoolTextos(PoolTextos original) {
+        this.bytes = Arrays.copyOf(original.bytes, original.bytesUsados);
+        this.bytesUsados = original.bytesUsados;
+        this.inicio = Arrays.copyOf(original.inicio, original.proximoId);
+        this.tamanho = Arrays.copyOf(original.tamanho, original.proximoId);
+        this.hashes = new int[0];
+        this.referencias = new int[0];
+        this.proximoId = original.proximoId;
+        this.tabela = null;
+    }
+
+    /**
+     * Cópia só para leitura ('texto'); não aceita 'adicionar' nem 'liberar'.
+     */
+    PoolTextos copiarParaLeitura() {
+        return new PoolTextos(this);
+    }
+
+    /**
+     * Acrescenta uma referência ao texto, guardando-o se for novo.
+     *
+     * @return O id do texto.
+     */
+    int adicionar(String texto) {
+        byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+        int hash = Arrays.hashCode(utf8);
+        int id = tabela.buscar(hash, candidato -> hashes[candidato] == hash && igual(candidato, utf8));
+        if (id >= 0) {
+            referencias[id]++;
+            return id;
+        }
+        id = novoId();
+        if (bytesUsados + utf8.length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytesUsados + utf8.length, bytes.length + (bytes.length >> 1)));
+        }
+        System.arraycopy(utf8, 0, bytes, bytesUsados, utf8.length);
+        inicio[id] = bytesUsados;
+        tamanho[id] = utf8.length;
+        hashes[id] = hash;
+        referencias[id] = 1;
+        bytesUsados += utf8.length;
+        tabela.inserir(hash, id);
+        return id;
+    }
+
+    /**
+     * Id do texto, sem acrescentar referência.
+     *
+     * @return O id, ou -1 se o texto não estiver guardado.
+     */
+    int buscar(String texto) {
+        byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+        int hash = Arrays.hashCode(utf8);
+        return tabela.buscar(hash, candidato -> hashes[candidato] == hash && igual(candidato, utf8));
+    }
+
+    /**
+     * Retira uma referência; na última, o texto sai do conjunto.
+     */
+    void liberar(int id) {
+        if (--referencias[id] > 0) {
+            return;
+        }
+        tabela.remover(hashes[id], id);
+        bytesLiberados += tamanho[id];
+        if (quantidadeLivres == idsLivres.length) {
+            idsLivres = Arrays.copyOf(idsLivres, idsLivres.length * 2);
+        }
+        idsLivres[quantidadeLivres++] = id;
+        if (bytesLiberados >= MINIMO_PARA_COMPACTAR && bytesLiberados * 2 > bytesUsados) {
+            compactar();
+        }
+    }
+
+    String texto(int id) {
+        return new String(bytes, inicio[id], tamanho[id], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maior id já usado + 1 (os ids vão de 0 até aqui, com possíveis buracos liberados).
+     */
+    int limiteIds() {
+        return proximoId;
+    }
+
+    /**
+     * Quantos textos distintos estão guardados.
+     */
+    int quantidade() {
+        return tabela.tamanho();
+    }
+
+    /**
+     * Estimativa dos bytes ocupados (byte[] e as colunas por id).
+     */
+    long bytes() {
+        return bytes.length + 16L * inicio.length + 4L * idsLivres.length + (tabela == null ? 0 : tabela.bytes());
+    }
+
+    private boolean igual(int id, byte[] utf8) {
+        return tamanho[id] == utf8.length
+                && Arrays.equals(bytes, inicio[id], inicio[id] + utf8.length, utf8, 0, utf8.length);
+    }
+
+    private int novoId() {
+        if (quantidadeLivres > 0) {
+            return idsLivres[--quantidadeLivres];
+        }
+        if (proximoId == inicio.length) {
+            int capacidade = inicio.length + (inicio.length >> 1);
+            inicio = Arrays.copyOf(inicio, capacidade);
+            tamanho = Arrays.copyOf(tamanho, capacidade);
+            hashes = Arrays.copyOf(hashes, capacidade);
+            referencias = Arrays.copyOf(referencias, capacidade);
+        }
+        return proximoId++;
+    }
+
+    // Reescreve o byte[] só com os textos ainda referenciados; os ids continuam os mesmos.
+    private void compactar() {
+        byte[] novo = new byte[Math.max(16, (bytesUsados - bytesLiberados) * 5 / 4)];
+        int usados = 0;
+        for (int id = 0; id < proximoId; id++) {
+            if (referencias[id] > 0) {
+                System.arraycopy(bytes, inicio[id], novo, usados, tamanho[id]);
+                inicio[id] = usados;
+                usados += tamanho[id];
+            }
+        }
+        bytes = novo;
+        bytesUsados = usados;
+        bytesLiberados = 0;
+    }
+}
@@ -0,0 +1,188 @@
+package uespi.trabcons;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+/**
+ * Provedor de conexões com pool (HikariCP) para o Hibernate.
+ *
+ * Substitui o pool embutido do Hibernate, que não é feito para produção. É ligado no
+ * hibernate.cfg.xml com 'hibernate.connection.provider_class' e lê de lá a URL, o usuário,
+ * a senha e as propriedades do pool:
+ *
+ *   trabcons.pool.minimo       conexões ociosas mantidas abertas (padrão 2)
+ *   trabcons.pool.maximo       tamanho máximo do pool (padrão 10)
+ *   trabcons.pool.timeoutMs    quanto tempo esperar por uma conexão livre (padrão 10000)
+ *   trabcons.pool.validacaoMs  tempo máximo para validar uma conexão antes de entregar (padrão 3000)
+ *   trabcons.pool.vazamentoMs  avisa no log se uma conexão ficar emprestada mais que isso (0 desliga)
+ *
+ * Além do que o próprio pool informa (ativas, ociosas, threads esperando), mede quanto
+ * tempo cada chamador esperou por uma conexão. Veja 'estatisticas()', que também fica no
+ * JMX em "uespi.trabcons" > "Pool" > "conexoes" ('PoolConexoes').
+ */
+public class ProvedorConexoesPool implements ConnectionProvider, Configurable, Stoppable {
+
+    /**
+     * Fotografia das estatísticas do pool.
+     *
+     * @param ativas Conexões emprestadas agora.
+     * @param ociosas Conexões abertas e livres.
+     * @param pendentes Threads esperando uma conexão.
+     * @param total Conexões abertas (ativas + ociosas).
+     * @param aquisicoes Quantas conexões já foram entregues.
+     * @param timeouts Quantos pedidos desistiram por tempo esgotado.
+     * @param esperaMediaMs Espera média por uma conexão.
+     * @param esperaMaximaMs Maior espera registrada.
+     */
+    public record EstatisticasPool(int ativas, int ociosas, int pendentes, int total,
+                                   long aquisicoes, long timeouts, double esperaMediaMs, double esperaMaximaMs) {
+    }
+
+    // O pool em uso (só existe um SessionFactory no programa).
+    private static volatile ProvedorConexoesPool ativo;
+
+    private HikariDataSource dataSource;
+
+    // Medição do tempo de espera, alimentada pelo próprio HikariCP.
+    private final LongAdder aquisicoes = new LongAdder();
+    private final LongAdder esperaTotalNanos = new LongAdder();
+    private final LongAccumulator esperaMaximaNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+
+    @Override
+    public void configure(Map<String, Object> propriedades) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("trabcons");
+        config.setDriverClassName(texto(propriedades, "hibernate.connection.driver_class", null));
+        config.setJdbcUrl(texto(propriedades, "hibernate.connection.url", null));
+        config.setUsername(texto(propriedades, "hibernate.connection.username", null));
+        config.setPassword(texto(propriedades, "hibernate.connection.password", null));
+
+        // Dimensionamento.
+        config.setMinimumIdle(inteiro(propriedades, "trabcons.pool.minimo", 2));
+        config.setMaximumPoolSize(inteiro(propriedades, "trabcons.pool.maximo", 10));
+        config.setConnectionTimeout(inteiro(propriedades, "trabcons.pool.timeoutMs", 10_000));
+        // Validação: a conexão é testada (Connection.isValid) antes de ser entregue.
+        config.setValidationTimeout(inteiro(propriedades, "trabcons.pool.validacaoMs", 3_000));
+        // Detecção de vazamento: conexão que não voltou para o pool a tempo gera um aviso com a pilha.
+        config.setLeakDetectionThreshold(inteiro(propriedades, "trabcons.pool.vazamentoMs", 30_000));
+
+        // O Hibernate controla as transações.
+        config.setAutoCommit(false);
+
+        // Cache de PreparedStatements no driver do MySQL (as mesmas consultas são repetidas sempre).
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+
+        config.setMetricsTrackerFactory((nomePool, estatisticas) -> new MedidorEspera());
+
+        this.dataSource = new HikariDataSource(config);
+        ativo = this;
+        Metricas.publicar(new PoolConexoes(), "Pool", "conexoes");
+    }
+
+    /**
+     * Estatísticas do pool em uso, ou 'null' se o pool ainda não foi criado.
+     */
+    public static EstatisticasPool estatisticas() {
+        ProvedorConexoesPool pool = ativo;
+        if (pool == null || pool.dataSource == null || pool.dataSource.getHikariPoolMXBean() == null) {
+            return null;
+        }
+        HikariPoolMXBean mx = pool.dataSource.getHikariPoolMXBean();
+        long quantidade = pool.aquisicoes.sum();
+        double mediaMs = quantidade == 0 ? 0 : pool.esperaTotalNanos.sum() / 1e6 / quantidade;
+        return new EstatisticasPool(
+                mx.getActiveConnections(),
+                mx.getIdleConnections(),
+                mx.getThreadsAwaitingConnection(),
+                mx.getTotalConnections(),
+                quantidade,
+                pool.timeouts.sum(),
+                mediaMs,
+                pool.esperaMaximaNanos.get() / 1e6);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void closeConnection(Connection conexao) throws SQLException {
+        // Com pool, "fechar" é devolver a conexão para ser reaproveitada.
+        conexao.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> tipo) {
+        return ConnectionProvider.class.equals(tipo) || ProvedorConexoesPool.class.isAssignableFrom(tipo)
+                || DataSource.class.isAssignableFrom(tipo);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> tipo) {
+        if (ConnectionProvider.class.equals(tipo) || ProvedorConexoesPool.class.isAssignableFrom(tipo)) {
+            return (T) this;
+        }
+        if (DataSource.class.isAssignableFrom(tipo)) {
+            return (T) dataSource;
+        }
+        throw new IllegalArgumentException("Tipo não suportado: " + tipo);
+    }
+
+    @Override
+    public void stop() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        if (ativo == this) {
+            ativo = null;
+        }
+    }
+
+    // Recebe do HikariCP o tempo que cada pedido levou para conseguir uma conexão.
+    private final class MedidorEspera implements IMetricsTracker {
+
+        @Override
+        public void recordConnectionAcquiredNanos(long nanos) {
+            aquisicoes.increment();
+            esperaTotalNanos.add(nanos);
+            esperaMaximaNanos.accumulate(nanos);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+    }
+
+    private static String texto(Map<String, Object> propriedades, String nome, String padrao) {
+        Object valor = propriedades.get(nome);
+        return valor == null ? padrao : valor.toString();
+    }
+
+    private static int inteiro(Map<String, Object> propriedades, String nome, int padrao) {
+        Object valor = propriedades.get(nome);
+        return valor == null ? padrao : Integer.parseInt(valor.toString().trim());
+    }
+}
@@ -0,0 +1,17 @@
+package uespi.trabcons;
+
+import java.util.List;
+
+/**
+ * Resultado de uma exclusão de vários alunos que deu certo no banco de dados.
+ *
+ * @param excluidosNoBanco Quantas linhas saíram da tabela (matrículas inexistentes não contam).
+ * @param removidos Os alunos que saíram da lista em memória.
+ * @param falhaBackup Mensagem da falha ao gravar o backup em CSV, ou 'null' se o backup também deu certo.
+ */
+public record ResultadoExclusaoEmMassa(int excluidosNoBanco, List<Aluno> removidos, String falhaBackup) {
+
+    public boolean backupOk() {
+        return falhaBackup == null;
+    }
+}
@@ -0,0 +1,14 @@
+package uespi.trabcons;
+
+/**
+ * Resultado de uma operação que deu certo no banco de dados.
+ *
+ * @param aluno O aluno cadastrado ou excluído.
+ * @param falhaBackup Mensagem da falha ao gravar o backup em CSV, ou 'null' se o backup também deu certo.
+ */
+public record ResultadoOperacao(Aluno aluno, String falhaBackup) {
+
+    public boolean backupOk() {
+        return falhaBackup == null;
+    }
+}
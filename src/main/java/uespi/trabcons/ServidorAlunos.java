@@ -0,0 +1,400 @@
+package uespi.trabcons;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Modo servidor: API HTTP (JSON) sobre o mesmo 'listaAlunos' usado pela interface gráfica.
+ *
+ * Usa o servidor HTTP que vem no JDK com uma thread virtual por requisição: cada
+ * requisição pode ficar bloqueada no MySQL sem segurar uma thread do sistema, então
+ * milhares de clientes simultâneos cabem sem um pool para dimensionar.
+ *
+ *   POST   /alunos                        cadastra (corpo JSON com os campos do aluno)
+ *   GET    /alunos/{matricula}            busca pela matrícula
+ *   DELETE /alunos/{matricula}            exclui
+ *   GET    /alunos?depoisDe=X&limite=N    lista em ordem de matrícula, por páginas (keyset)
+ *   GET    /saude                         responde 200 se o servidor está de pé
+ *
+ * A data de nascimento usa o mesmo formato do CSV (dd/MM/aaaa). Os erros voltam como
+ * {"erro": título, "mensagem": texto}, com 400, 404, 409, 413, 503 ou 500.
+ *
+ * Só atende a própria máquina, a menos que 'trabcons.http.expor=true' (ver 'iniciar').
+ */
+class ServidorAlunos {
+
+    // Maior página que um cliente pode pedir.
+    private static final int LIMITE_MAXIMO = 1_000;
+    // Maior corpo de requisição aceito ('trabcons.http.corpoMaximo', em bytes); um aluno cabe com folga.
+    private static final int CORPO_MAXIMO = Integer.getInteger("trabcons.http.corpoMaximo", 64 * 1_024);
+
+    private final listaAlunos gerenciaAlunos;
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+
+    private ServidorAlunos(listaAlunos gerenciaAlunos, HttpServer servidor, ExecutorService executor) {
+        this.gerenciaAlunos = gerenciaAlunos;
+        this.servidor = servidor;
+        this.executor = executor;
+    }
+
+    /**
+     * Sobe o servidor na porta informada.
+     *
+     * A API não tem autenticação, então por padrão só atende a própria máquina (loopback).
+     * Para aceitar conexões de fora é preciso pedir: 'trabcons.http.expor=true' (todas as
+     * interfaces). A fila de conexões pendentes vem de 'trabcons.http.backlog' (padrão 1024).
+     */
+    static ServidorAlunos iniciar(listaAlunos gerenciaAlunos, int porta) throws IOException {
+        InetSocketAddress endereco = Boolean.getBoolean("trabcons.http.expor")
+                ? new InetSocketAddress(porta)
+                : new InetSocketAddress(InetAddress.getLoopbackAddress(), porta);
+        HttpServer servidor = HttpServer.create(endereco, Integer.getInteger("trabcons.http.backlog", 1_024));
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        servidor.setExecutor(executor);
+
+        ServidorAlunos api = new ServidorAlunos(gerenciaAlunos, servidor, executor);
+        servidor.createContext("/alunos", api::tratarAlunos);
+        servidor.createContext("/saude", troca -> api.responder(troca, 200, "{\"status\":\"ok\"}"));
+        servidor.start();
+        return api;
+    }
+
+    /**
+     * Para de aceitar conexões e espera até 'segundos' pelas requisições em andamento.
+     */
+    void parar(int segundos) {
+        servidor.stop(segundos);
+        executor.shutdown();
+    }
+
+    int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    // --- ROTAS ---
+
+    private void tratarAlunos(HttpExchange troca) throws IOException {
+        try {
+            // O caminho cru: 'getPath' já decodifica, e a matrícula seria decodificada duas vezes.
+            String caminho = troca.getRequestURI().getRawPath();
+            String matricula = caminho.length() > "/alunos/".length()
+                    ? decodificar(caminho.substring("/alunos/".length()))
+                    : null;
+            String metodo = troca.getRequestMethod();
+
+            if (matricula == null && metodo.equals("POST")) {
+                cadastrar(troca);
+            } else if (matricula == null && metodo.equals("GET")) {
+                listar(troca);
+            } else if (matricula != null && metodo.equals("GET")) {
+                Aluno aluno = gerenciaAlunos.buscarPorMatricula(matricula);
+                if (aluno == null) {
+                    responderErro(troca, 404, "Não Encontrado", "Nenhum aluno encontrado com a matrícula: " + matricula);
+                } else {
+                    responder(troca, 200, json(aluno));
+                }
+            } else if (matricula != null && metodo.equals("DELETE")) {
+                ResultadoOperacao resultado = gerenciaAlunos.excluirAluno(matricula);
+                responder(troca, 200, jsonResultado(resultado));
+            } else {
+                troca.getResponseHeaders().set("Allow", matricula == null ? "GET, POST" : "GET, DELETE");
+                responderErro(troca, 405, "Método Não Permitido", metodo + " " + caminho);
+            }
+        } catch (OperacaoAlunoException e) {
+            responderErro(troca, statusDoErro(e), e.getTitulo(), e.getMessage());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            responderErro(troca, 500, "Erro", "Erro inesperado: " + e.getMessage());
+        } finally {
+            troca.close();
+        }
+    }
+
+    private void cadastrar(HttpExchange troca) throws IOException {
+        Map<String, String> campos;
+        try (InputStream corpo = troca.getRequestBody()) {
+            // Lê no máximo um byte além do limite: o suficiente para saber que passou.
+            byte[] bytes = corpo.readNBytes(CORPO_MAXIMO + 1);
+            if (bytes.length > CORPO_MAXIMO) {
+                responderErro(troca, 413, "Corpo Muito Grande", "O corpo da requisição passa de " + CORPO_MAXIMO + " bytes.");
+                return;
+            }
+            campos = lerObjetoJson(new String(bytes, StandardCharsets.UTF_8));
+        }
+        ResultadoOperacao resultado = gerenciaAlunos.cadastrar(alunoDosCampos(campos));
+        responder(troca, 201, jsonResultado(resultado));
+    }
+
+    private void listar(HttpExchange troca) throws IOException {
+        Map<String, String> parametros = parametrosDaUrl(troca.getRequestURI().getRawQuery());
+        int limite;
+        try {
+            limite = Math.min(Integer.parseInt(parametros.getOrDefault("limite", "100")), LIMITE_MAXIMO);
+        } catch (NumberFormatException e) {
+            throw invalido("O parâmetro 'limite' deve ser um número.");
+        }
+        if (limite < 1) {
+            throw invalido("O parâmetro 'limite' deve ser maior que zero.");
+        }
+        List<Aluno> pagina = gerenciaAlunos.getPaginador().pagina(parametros.get("depoisDe"), limite);
+
+        StringBuilder sb = new StringBuilder("{\"alunos\":[");
+        for (int i = 0; i < pagina.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(json(pagina.get(i)));
+        }
+        sb.append("],\"proxima\":");
+        // A matrícula da última linha é o cursor da página seguinte (não há próxima se a página veio incompleta).
+        sb.append(pagina.size() < limite ? "null" : texto(pagina.get(pagina.size() - 1).getMatricula()));
+        sb.append('}');
+        responder(troca, 200, sb.toString());
+    }
+
+    // --- CONVERSÕES ---
+
+    // Monta o Aluno a partir do JSON, com as mesmas validações da tela de cadastro.
+    private static Aluno alunoDosCampos(Map<String, String> campos) {
+        String matricula = campos.get("matricula");
+        String nome = campos.get("nome");
+        String cpf = campos.get("cpf");
+        String data = campos.get("dataNascimento");
+        if (cpf == null || cpf.isBlank()) {
+            throw invalido("O campo CPF é obrigatório.");
+        }
+        if (data == null || matricula == null || matricula.isBlank() || nome == null || nome.isBlank()) {
+            throw invalido("Matrícula, Nome e Data são obrigatórios.");
+        }
+        try {
+            LocalDate dataNascimento = LocalDate.parse(data, Aluno.FORMATO_DATA);
+            int idade = Integer.parseInt(campos.getOrDefault("idade", "0"));
+            int index = Integer.parseInt(campos.getOrDefault("index", "0"));
+            return new Aluno(matricula, nome, idade, dataNascimento, campos.getOrDefault("telefone", ""), cpf, index);
+        } catch (NumberFormatException e) {
+            throw invalido("Idade ou Index deve ser um número válido.");
+        } catch (DateTimeParseException | ParseException e) {
+            throw invalido("A data de nascimento deve estar no formato dd/MM/aaaa.");
+        }
+    }
+
+    private static int statusDoErro(OperacaoAlunoException e) {
+        return switch (e.getTipo()) {
+            case VALIDACAO -> 400;
+            case NAO_ENCONTRADO -> 404;
+            case CONFLITO -> 409;
+            case INDISPONIVEL -> 503;
+            case FALHA -> 500;
+        };
+    }
+
+    private static OperacaoAlunoException invalido(String mensagem) {
+        return new OperacaoAlunoException(OperacaoAlunoException.Tipo.VALIDACAO, "Erro de Validação", mensagem);
+    }
+
+    private static String json(Aluno aluno) {
+        return "{\"matricula\":" + texto(aluno.getMatricula())
+                + ",\"nome\":" + texto(aluno.getNome())
+                + ",\"idade\":" + aluno.getIdade()
+                + ",\"dataNascimento\":" + texto(aluno.getDataNascimento() == null ? null : aluno.getDataNascimentoFormatadaCsv())
+                + ",\"telefone\":" + texto(aluno.getTelefone())
+                + ",\"cpf\":" + texto(aluno.getCpf())
+                + '}';
+    }
+
+    private static String jsonResultado(ResultadoOperacao resultado) {
+        return "{\"aluno\":" + json(resultado.aluno())
+                + ",\"backupOk\":" + resultado.backupOk()
+                + ",\"falhaBackup\":" + texto(resultado.falhaBackup())
+                + '}';
+    }
+
+    // String JSON, com os escapes obrigatórios ('null' se o valor for nulo).
+    private static String texto(String valor) {
+        if (valor == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(valor.length() + 2).append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Lê um objeto JSON "plano" ({"chave": valor, ...}) onde os valores são textos,
+     * números, booleanos ou null. É o único formato que a API recebe, então não há
+     * necessidade de uma biblioteca de JSON. Números e booleanos voltam como texto.
+     */
+    static Map<String, String> lerObjetoJson(String json) {
+        Map<String, String> campos = new HashMap<>();
+        int[] pos = {pularEspacos(json, 0)};
+        esperar(json, pos, '{');
+        pos[0] = pularEspacos(json, pos[0]);
+        if (pos[0] < json.length() && json.charAt(pos[0]) == '}') {
+            return campos;
+        }
+        while (true) {
+            pos[0] = pularEspacos(json, pos[0]);
+            String chave = lerTexto(json, pos);
+            pos[0] = pularEspacos(json, pos[0]);
+            esperar(json, pos, ':');
+            pos[0] = pularEspacos(json, pos[0]);
+            String valor;
+            if (pos[0] < json.length() && json.charAt(pos[0]) == '"') {
+                valor = lerTexto(json, pos);
+            } else {
+                int inicio = pos[0];
+                while (pos[0] < json.length() && ",} \t\r\n".indexOf(json.charAt(pos[0])) < 0) {
+                    pos[0]++;
+                }
+                valor = json.substring(inicio, pos[0]);
+                if (valor.isEmpty()) {
+                    throw erroJson("valor esperado na posição " + inicio);
+                }
+                if (valor.equals("null")) {
+                    valor = null;
+                }
+            }
+            if (valor != null) {
+                campos.put(chave, valor);
+            }
+            pos[0] = pularEspacos(json, pos[0]);
+            if (pos[0] < json.length() && json.charAt(pos[0]) == ',') {
+                pos[0]++;
+                continue;
+            }
+            esperar(json, pos, '}');
+            return campos;
+        }
+    }
+
+    private static String lerTexto(String json, int[] pos) {
+        esperar(json, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        while (pos[0] < json.length()) {
+            char c = json.charAt(pos[0]++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos[0] >= json.length()) {
+                break;
+            }
+            char escape = json.charAt(pos[0]++);
+            switch (escape) {
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (pos[0] + 4 > json.length()) {
+                        throw erroJson("escape \\u incompleto");
+                    }
+                    int codigo = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digito = Character.digit(json.charAt(pos[0]++), 16);
+                        if (digito < 0) {
+                            throw erroJson("escape \\u com dígito não hexadecimal na posição " + (pos[0] - 1));
+                        }
+                        codigo = codigo * 16 + digito;
+                    }
+                    sb.append((char) codigo);
+                }
+                default -> sb.append(escape); // \" \\ \/
+            }
+        }
+        throw erroJson("texto sem aspas de fechamento");
+    }
+
+    private static void esperar(String json, int[] pos, char esperado) {
+        if (pos[0] >= json.length() || json.charAt(pos[0]) != esperado) {
+            throw erroJson("'" + esperado + "' esperado na posição " + pos[0]);
+        }
+        pos[0]++;
+    }
+
+    private static int pularEspacos(String json, int pos) {
+        while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static OperacaoAlunoException erroJson(String detalhe) {
+        return invalido("JSON inválido: " + detalhe);
+    }
+
+    // Um '%' sem os dois dígitos hexadecimais é erro de quem chamou (400), não do servidor.
+    private static String decodificar(String trecho) {
+        try {
+            return URLDecoder.decode(trecho, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalido("Escape '%' inválido na URL: " + trecho);
+        }
+    }
+
+    private static Map<String, String> parametrosDaUrl(String query) {
+        Map<String, String> parametros = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parametros;
+        }
+        for (String par : query.split("&")) {
+            int igual = par.indexOf('=');
+            String nome = decodificar(igual < 0 ? par : par.substring(0, igual));
+            String valor = igual < 0 ? "" : decodificar(par.substring(igual + 1));
+            parametros.put(nome, valor);
+        }
+        return parametros;
+    }
+
+    // --- RESPOSTA ---
+
+    private void responder(HttpExchange troca, int status, String json) throws IOException {
+        byte[] corpo = json.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        troca.sendResponseHeaders(status, corpo.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(corpo);
+        }
+    }
+
+    private void responderErro(HttpExchange troca, int status, String titulo, String mensagem) throws IOException {
+        responder(troca, status, "{\"erro\":" + texto(titulo) + ",\"mensagem\":" + texto(mensagem) + "}");
+    }
+}
@@ -0,0 +1,223 @@
+package uespi.trabcons;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Mantém a lista em memória igual ao banco sem recarregar tudo.
+ *
+ * De tempos em tempos busca só o que mudou desde a última vez:
+ *
+ *   - alunos com 'atualizado_em' maior que o cursor (inseridos ou alterados), e
+ *   - lápides em "alunos_removidos" com 'removido_em' maior que o cursor (excluídos),
+ *
+ * e entrega esse delta para 'listaAlunos.aplicarAlteracoes'. As duas colunas são
+ * preenchidas pelo MySQL, então mudanças feitas por outra instância ou direto no banco
+ * também são vistas.
+ *
+ * Uma transação pode gravar um horário e só confirmar um pouco depois, quando o cursor
+ * já passou dele. Por isso cada consulta volta 'margem' para trás do cursor; as linhas
+ * repetidas são descartadas pelo 'aplicarAlteracoes', que é idempotente.
+ *
+ * As lápides já lidas são apagadas de tempos em tempos ('limparLapides'): as anteriores
+ * ao cursor menos a margem e também mais velhas que 'retencaoLapidesMs', o prazo que as
+ * outras instâncias, cada uma com o seu cursor, têm para vê-las.
+ *
+ * Só roda quando a lista foi carregada inteira do banco: no modo paginado a tela já lê
+ * do banco a cada página, e sem banco (lista vinda do CSV) não há o que sincronizar.
+ * As rodadas aparecem na métrica JMX 'sincronizacao' (ver 'Metricas').
+ *
+ * Propriedades: 'trabcons.sync.intervaloMs' (padrão 5000; 0 desliga),
+ * 'trabcons.sync.margemMs' (padrão 5000) e 'trabcons.sync.retencaoLapidesMs'
+ * (padrão 600000, 10 minutos).
+ */
+class SincronizadorAlunos {
+
+    // Intervalo mínimo entre duas limpezas de lápides (um DELETE por rodada seria desperdício).
+    private static final long INTERVALO_LIMPEZA_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final listaAlunos gerenciaAlunos;
+    private final long margemMs;
+    private final long retencaoLapidesMs;
+    private final ScheduledExecutorService agendador;
+
+    // Maiores horários já vistos (só mexidos pela thread do agendador).
+    private LocalDateTime cursorAlunos;
+    private LocalDateTime cursorRemocoes;
+    private long ultimaLimpeza = System.nanoTime();
+    // Evita repetir a mesma mensagem de erro a cada rodada enquanto o banco estiver fora.
+    private boolean falhando = false;
+
+    private SincronizadorAlunos(listaAlunos gerenciaAlunos, long margemMs, long retencaoLapidesMs) {
+        this.gerenciaAlunos = gerenciaAlunos;
+        this.margemMs = margemMs;
+        this.retencaoLapidesMs = retencaoLapidesMs;
+        this.agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "sincronizador-alunos");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Começa a sincronizar com os valores das propriedades do sistema.
+     *
+     * @return O sincronizador, ou 'null' se estiver desligado ('trabcons.sync.intervaloMs=0')
+     *         ou se a lista não veio do banco.
+     */
+    static SincronizadorAlunos iniciarPadrao(listaAlunos gerenciaAlunos) {
+        long intervaloMs = Long.getLong("trabcons.sync.intervaloMs", 5_000);
+        if (intervaloMs <= 0 || !gerenciaAlunos.isCarregadoDoBanco()) {
+            return null;
+        }
+        SincronizadorAlunos sincronizador = new SincronizadorAlunos(gerenciaAlunos, Long.getLong("trabcons.sync.margemMs", 5_000),
+                Long.getLong("trabcons.sync.retencaoLapidesMs", 600_000));
+        // A preparação (cursores) também roda na thread do agendador, sem atrasar quem chamou.
+        sincronizador.agendador.execute(sincronizador::preparar);
+        sincronizador.agendador.scheduleWithFixedDelay(sincronizador::sincronizarComSeguranca, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        return sincronizador;
+    }
+
+    void parar() {
+        agendador.shutdownNow();
+    }
+
+    // Posiciona os cursores no estado atual do banco.
+    // O trigger que grava as lápides é criado pelo 'MigracoesBanco', junto com a SessionFactory.
+    private void preparar() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            // Os alunos da carga inicial já estão na memória; as lápides antigas não interessam.
+            cursorAlunos = session.createNativeQuery("SELECT MAX(atualizado_em) FROM alunos", LocalDateTime.class).uniqueResult();
+            cursorRemocoes = session.createQuery("SELECT MAX(r.removidoEm) FROM AlunoRemovido r", LocalDateTime.class).uniqueResult();
+        } catch (Exception e) {
+            System.err.println("Sincronização: não foi possível preparar o banco: " + e.getMessage());
+        }
+    }
+
+    // Uma rodada do agendador. Exceções não podem escapar, senão o agendamento para.
+    // Nada vai para o console a cada rodada: o andamento fica na métrica 'sincronizacao'.
+    private void sincronizarComSeguranca() {
+        long inicio = System.nanoTime();
+        try {
+            Metricas.SINCRONIZACAO.adicionarItens(sincronizar());
+            Metricas.SINCRONIZACAO.sucesso(inicio);
+            if (inicio - ultimaLimpeza >= INTERVALO_LIMPEZA_NANOS) {
+                ultimaLimpeza = inicio;
+                limparLapides();
+            }
+            falhando = false;
+        } catch (Exception e) {
+            Metricas.SINCRONIZACAO.falha(inicio);
+            if (!falhando) {
+                System.err.println("Sincronização com o banco falhou: " + e.getMessage());
+                falhando = true;
+            }
+        }
+    }
+
+    /**
+     * Busca e aplica o delta desde a última rodada.
+     *
+     * @return Quantas linhas entraram ou saíram da lista.
+     */
+    int sincronizar() {
+        SessionFactory fabrica = HibernateUtil.getSessionFactory();
+        List<Aluno> alterados = new ArrayList<>();
+        List<AlunoRemovido> removidos;
+        try (Session session = fabrica.openSession()) {
+            // REFRESH: o que vier do banco substitui o que estiver no cache de segundo nível.
+            session.setCacheMode(CacheMode.REFRESH);
+            // "atualizado_em" não é mapeada no 'Aluno': vem ao lado da entidade e é copiada para ela.
+            List<Object[]> linhas = session.createNativeQuery(cursorAlunos == null
+                            ? "SELECT {a.*}, a.atualizado_em AS atualizado FROM alunos a ORDER BY a.atualizado_em"
+                            : "SELECT {a.*}, a.atualizado_em AS atualizado FROM alunos a "
+                                    + "WHERE a.atualizado_em >= :desde ORDER BY a.atualizado_em", Object[].class)
+                    .addEntity("a", Aluno.class)
+                    .addScalar("atualizado", StandardBasicTypes.LOCAL_DATE_TIME)
+                    .setProperties(parametros(cursorAlunos))
+                    .setReadOnly(true)
+                    .list();
+            for (Object[] linha : linhas) {
+                Aluno aluno = (Aluno) linha[0];
+                aluno.setAtualizadoEm((LocalDateTime) linha[1]);
+                alterados.add(aluno);
+            }
+            removidos = session.createQuery(cursorRemocoes == null
+                            ? "FROM AlunoRemovido r ORDER BY r.removidoEm"
+                            : "FROM AlunoRemovido r WHERE r.removidoEm >= :desde ORDER BY r.removidoEm", AlunoRemovido.class)
+                    .setProperties(parametros(cursorRemocoes))
+                    .setReadOnly(true)
+                    .list();
+        }
+
+        if (!alterados.isEmpty()) {
+            cursorAlunos = maximo(cursorAlunos, alterados.get(alterados.size() - 1).getAtualizadoEm());
+        }
+        if (!removidos.isEmpty()) {
+            cursorRemocoes = maximo(cursorRemocoes, removidos.get(removidos.size() - 1).getRemovidoEm());
+            // Alunos excluídos por fora podem ter ficado no cache de segundo nível.
+            for (AlunoRemovido removido : removidos) {
+                fabrica.getCache().evictEntityData(Aluno.class, removido.getMatricula());
+            }
+        }
+
+        int aplicadas = gerenciaAlunos.aplicarAlteracoes(alterados, removidos);
+        if (aplicadas > 0) {
+            // Contagens e páginas em cache podem não refletir as mudanças feitas por fora.
+            fabrica.getCache().evictQueryRegions();
+        }
+        return aplicadas;
+    }
+
+    /**
+     * Apaga as lápides que esta instância já leu (anteriores ao cursor menos a margem) e que
+     * também passaram da retenção, contada no relógio do banco.
+     *
+     * @return Quantas lápides foram apagadas.
+     */
+    int limparLapides() {
+        if (cursorRemocoes == null) {
+            return 0; // Nenhuma lápide lida ainda.
+        }
+        org.hibernate.Transaction transaction = null;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            transaction = session.beginTransaction();
+            // O prazo é contado no relógio do banco, o mesmo que carimba 'removido_em'.
+            LocalDateTime agora = session.createNativeQuery("SELECT CURRENT_TIMESTAMP(6)", LocalDateTime.class).uniqueResult();
+            LocalDateTime limite = minimo(cursorRemocoes.minusNanos(margemMs * 1_000_000),
+                    agora.minusNanos(retencaoLapidesMs * 1_000_000));
+            // Pela entidade (HQL): o Hibernate sabe que só a tabela das lápides muda.
+            int apagadas = session.createMutationQuery("DELETE FROM AlunoRemovido r WHERE r.removidoEm < :limite")
+                    .setParameter("limite", limite)
+                    .executeUpdate();
+            transaction.commit();
+            return apagadas;
+        } catch (RuntimeException e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        }
+    }
+
+    // Parâmetro ':desde' (cursor menos a margem), ou nenhum na primeira rodada sem cursor.
+    private java.util.Map<String, Object> parametros(LocalDateTime cursor) {
+        return cursor == null ? java.util.Map.of() : java.util.Map.of("desde", cursor.minusNanos(margemMs * 1_000_000));
+    }
+
+    private static LocalDateTime minimo(LocalDateTime a, LocalDateTime b) {
+        return b.isBefore(a) ? b : a;
+    }
+
+    private static LocalDateTime maximo(LocalDateTime a, LocalDateTime b) {
+        return a == null || b.isAfter(a) ? b : a;
+    }
+}
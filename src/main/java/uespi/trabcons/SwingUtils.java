@@ -6,17 +6,15 @@ import javax.swing.JTextField;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.FileReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.LinkedList;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 
 
 /**
@@ -66,13 +64,11 @@ public class SwingUtils {
     // 2. PERSISTÊNCIA DE DADOS (CSV)
 
     // Constante que define o nome do arquivo para gravação.
-    private static final String CSV_FILE = "ListagemAlunos.csv";
+    static final String CSV_FILE = "ListagemAlunos.csv";
 
     // Array com os cabeçalhos das colunas do arquivo CSV.
-    private static final String[] HEADERS = { "Matricula", "Nome", "Idade", "DataNascimento", "Telefone", "CPF", "Index" };
+    static final String[] HEADERS = { "Matricula", "Nome", "Idade", "DataNascimento", "Telefone", "CPF", "Index" };
 
-    // Formatador de data padronizado para "dd/MM/yyyy".
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("dd/MM/yyyy");
 
 
     /**
@@ -81,6 +77,19 @@ public class SwingUtils {
      * @throws java.io.IOException
      */
     public static void salvarAlunosEmCsv(List<Aluno> listaAlunos) throws IOException {
+        salvarAlunosEmCsv(listaAlunos, Paths.get(CSV_FILE));
+    }
+
+    /**
+     * Grava os alunos em um arquivo CSV qualquer (usado pela compactação do diário,
+     * que escreve primeiro num arquivo temporário). Percorre 'listaAlunos' uma vez só.
+     * @param listaAlunos
+     * @param arquivo
+     * @throws java.io.IOException
+     */
+    public static void salvarAlunosEmCsv(Iterable<Aluno> listaAlunos, Path arquivo) throws IOException {
+        long inicio = System.nanoTime();
+        int quantidade = 0;
 
         // 1. Configuração do formato CSV, incluindo os cabeçalhos.
         CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
@@ -89,27 +98,24 @@ public class SwingUtils {
 
         // 2. Abertura dos fluxos de escrita de arquivo e do printer CSV.
         // O 'try-with-resources' garante que os recursos sejam fechados automaticamente.
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(CSV_FILE));
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(arquivo.toFile()));
              CSVPrinter csvPrinter = new CSVPrinter(writer, csvFormat)) {
 
             // 3. Iteração sobre cada aluno na lista.
             for (Aluno aluno : listaAlunos) {
                 // Gravação dos atributos do aluno como um novo registro (linha) no CSV.
-                csvPrinter.printRecord(
-                    aluno.getMatricula(),
-                    aluno.getNome(),
-                    aluno.getIdade(),
-                    aluno.getDataNascimentoFormatadaCsv(), // Uso do formato "dd/MM/yyyy"
-                    aluno.getTelefone(),
-                    aluno.getCpf(),
-                    aluno.getIndex() // Gravação do campo 'Index' para manutenção de ordem
-                );
+                csvPrinter.printRecord(camposDoAluno(aluno));
+                quantidade++;
             }
         } catch (IOException e) {
+            Metricas.SALVAR_CSV.falha(inicio);
             System.err.println("Erro ao salvar dados no CSV: " + e.getMessage());
             // Relança a exceção para que o chamador trate o problema de I/O.
             throw e;
         }
+        Metricas.SALVAR_CSV.sucesso(inicio);
+        Metricas.SALVAR_CSV.adicionarItens(quantidade);
+        Metricas.SALVAR_CSV.adicionarBytes(Files.size(arquivo));
     }
 
     /**
@@ -117,50 +123,81 @@ public class SwingUtils {
      * @return 
      */
     public static List<Aluno> carregarAlunosDoCsv() {
-        // Inicialização da lista que receberá os dados.
-        List<Aluno> listaAlunos = new LinkedList<>();
-
-        // 1. Configuração do formato CSV para leitura: usa cabeçalhos e ignora a linha inicial.
-        CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
-                .setHeader(HEADERS)
-                .setSkipHeaderRecord(true)
-                .build();
-
-        // 2. Abertura dos fluxos de leitura de arquivo e do parser CSV.
-        try (Reader reader = new FileReader(CSV_FILE);
-             CSVParser csvParser = new CSVParser(reader, csvFormat)) {
-
-            // 3. Iteração sobre cada registro (linha de dado) lido pelo parser.
-            for (CSVRecord csvRecord : csvParser) {
-
-                // Leitura dos campos pelo nome do cabeçalho.
-                String matricula = csvRecord.get("Matricula");
-                String nome = csvRecord.get("Nome");
-                int idade = Integer.parseInt(csvRecord.get("Idade")); // Conversão explícita para inteiro
-                String telefone = csvRecord.get("Telefone");
-                String cpf = csvRecord.get("CPF");
-                int index = Integer.parseInt(csvRecord.get("Index"));
+        return carregarAlunosDoCsv(Paths.get(CSV_FILE));
+    }
 
-                // Conversão da string de data lida para um objeto Date.
-                String dataStr = csvRecord.get("DataNascimento");
-                Date dataNascimento = DATE_FORMAT.parse(dataStr);
+    /**
+     * Efetua a leitura de um arquivo CSV qualquer no layout de 'HEADERS'.
+     * @param arquivo
+     * @return
+     */
+    public static List<Aluno> carregarAlunosDoCsv(Path arquivo) {
+        // 1. Leitura em paralelo: as linhas são convertidas em blocos no ForkJoinPool,
+        // e as mal formadas vão para o relatório em vez de abortar a carga.
+        // Com 'trabcons.csv.mapeado=true' o arquivo é lido mapeado em memória, direto dos bytes.
+        long inicio = System.nanoTime();
+        LeitorCsvParalelo.RelatorioRejeicoes rejeicoes = new LeitorCsvParalelo.RelatorioRejeicoes();
+        List<Aluno> listaAlunos;
+        try {
+            listaAlunos = Boolean.getBoolean("trabcons.csv.mapeado")
+                    ? LeitorCsvMapeado.carregar(arquivo, rejeicoes)
+                    : LeitorCsvParalelo.carregar(arquivo, rejeicoes);
+            Metricas.CARREGAR_CSV.sucesso(inicio);
+            Metricas.CARREGAR_CSV.adicionarItens(listaAlunos.size());
+        } catch (IOException e) {
+            Metricas.CARREGAR_CSV.falha(inicio);
+            System.err.println("Erro ao carregar dados do CSV: " + e.getMessage());
+            // Se houver erros graves, retorna uma lista vazia, evitando a falha total do sistema.
+            return new ArrayList<>();
+        }
 
-                // 4. Criação do novo objeto Aluno e adição à lista.
-                Aluno aluno = new Aluno(matricula, nome, idade, dataNascimento, telefone, cpf, index);
-                listaAlunos.add(aluno);
+        // 2. Relatório das linhas ignoradas.
+        if (rejeicoes.total() > 0) {
+            System.err.println(rejeicoes.total() + " linha(s) do CSV ignorada(s):");
+            for (LeitorCsvParalelo.Rejeicao rejeicao : rejeicoes.listar()) {
+                System.err.println("  linha " + rejeicao.linha() + ": " + rejeicao.motivo());
             }
-        // Tratamento de exceções na leitura e conversão.
-        } catch (IOException | ParseException | NumberFormatException e) {
-             System.err.println("Erro ao carregar dados do CSV: " + e.getMessage());
-             // Se houver erros graves, retorna uma lista vazia, evitando a falha total do sistema.
-             return new LinkedList<>();
-        } catch (Exception e) {
-             // Captura de outras exceções, como erro na construção do objeto Aluno.
-             System.err.println("Erro ao criar objeto Aluno durante o carregamento: " + e.getMessage());
-             return new LinkedList<>();
         }
 
         // Retorna a lista de alunos populada.
         return listaAlunos;
     }
+
+    /**
+     * Converte um aluno nos valores de uma linha do CSV, na ordem de 'HEADERS'.
+     * @param aluno
+     * @return
+     */
+    static Object[] camposDoAluno(Aluno aluno) {
+        return new Object[] {
+            aluno.getMatricula(),
+            aluno.getNome(),
+            aluno.getIdade(),
+            aluno.getDataNascimentoFormatadaCsv(), // Uso do formato "dd/MM/yyyy"
+            aluno.getTelefone(),
+            aluno.getCpf(),
+            aluno.getIndex() // Gravação do campo 'Index' para manutenção de ordem
+        };
+    }
+
+    /**
+     * Monta um aluno a partir dos valores de uma linha do CSV, na ordem de 'HEADERS'.
+     * @param campos
+     * @return
+     * @throws java.text.ParseException
+     */
+    static Aluno alunoDosCampos(List<String> campos) throws ParseException {
+        // Leitura dos campos pela posição do cabeçalho.
+        String matricula = campos.get(0);
+        String nome = campos.get(1);
+        int idade = Integer.parseInt(campos.get(2)); // Conversão explícita para inteiro
+        String telefone = campos.get(4);
+        String cpf = campos.get(5);
+        int index = Integer.parseInt(campos.get(6));
+
+        // Conversão da string de data lida para LocalDate, no formato "dd/MM/yyyy" do Aluno.
+        LocalDate dataNascimento = LocalDate.parse(campos.get(3), Aluno.FORMATO_DATA);
+
+        return new Aluno(matricula, nome, idade, dataNascimento, telefone, cpf, index);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package uespi.trabcons;
+
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Tabela hash de endereçamento aberto que guarda só números de slot (int).
+ *
+ * É o "HashMap" do 'ArmazemAlunos' e do 'PoolTextos': a chave não fica na tabela,
+ * fica nas colunas de quem usa. Quem chama passa o hash da chave e um teste de igualdade
+ * sobre o slot candidato; para crescer ou remover, a tabela pergunta o hash de cada
+ * slot ('hashDoSlot'). Assim cada entrada custa um int, sem objeto nenhum.
+ *
+ * Sondagem linear; a remoção recua as entradas seguintes (sem marcas de "apagado"),
+ * então a tabela nunca se degrada com cadastros e exclusões.
+ *
+ * Não é thread-safe: quem usa é responsável por sincronizar.
+ */
+final class TabelaSlots {
+
+    // Slot + 1; 0 é posição vazia.
+    private int[] tabela;
+    private int ocupados;
+    private final IntUnaryOperator hashDoSlot;
+
+    /**
+     * @param capacidadeInicial Quantas entradas devem caber sem a tabela crescer.
+     * @param hashDoSlot Hash da chave guardada em cada slot (o mesmo passado em 'inserir').
+     */
+    TabelaSlots(int capacidadeInicial, IntUnaryOperator hashDoSlot) {
+        this.tabela = new int[tamanhoPara(capacidadeInicial)];
+        this.hashDoSlot = hashDoSlot;
+    }
+
+    // Potência de 2 que mantém a ocupação abaixo de 3/4.
+    private static int tamanhoPara(int entradas) {
+        long minimo = Math.max(16, (long) entradas * 4 / 3 + 1);
+        return (int) Math.min(1 << 30, Long.highestOneBit(minimo - 1) << 1);
+    }
+
+    // Espalha os bits do hash (hashes de números seguidos caem em posições seguidas).
+    private static int espalhar(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Procura o slot com a chave.
+     *
+     * @param hash Hash da chave procurada.
+     * @param igual Diz se o slot candidato guarda a chave procurada.
+     * @return O slot, ou -1 se não houver.
+     */
+    int buscar(int hash, IntPredicate igual) {
+        int mascara = tabela.length - 1;
+        for (int i = espalhar(hash) & mascara; tabela[i] != 0; i = (i + 1) & mascara) {
+            if (igual.test(tabela[i] - 1)) {
+                return tabela[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Acrescenta o slot. Chaves repetidas são aceitas (ex: o mesmo CPF vindo de um CSV);
+     * nesse caso 'buscar' devolve qualquer um dos slots.
+     */
+    void inserir(int hash, int slot) {
+        if ((ocupados + 1) * 4L > tabela.length * 3L) {
+            crescer();
+        }
+        colocar(tabela, hash, slot);
+        ocupados++;
+    }
+
+    /**
+     * Retira o slot (que foi inserido com este hash).
+     *
+     * @return 'false' se o slot não estava na tabela.
+     */
+    boolean remover(int hash, int slot) {
+        int mascara = tabela.length - 1;
+        int i = espalhar(hash) & mascara;
+        while (tabela[i] != slot + 1) {
+            if (tabela[i] == 0) {
+                return false;
+            }
+            i = (i + 1) & mascara;
+        }
+        // Recua as entradas seguintes que ficariam inalcançáveis com o buraco em 'i'.
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            if (tabela[j] == 0) {
+                break;
+            }
+            int ideal = espalhar(hashDoSlot.applyAsInt(tabela[j] - 1)) & mascara;
+            boolean podeFicar = i <= j ? (i < ideal && ideal <= j) : (i < ideal || ideal <= j);
+            if (!podeFicar) {
+                tabela[i] = tabela[j];
+                i = j;
+            }
+        }
+        tabela[i] = 0;
+        ocupados--;
+        return true;
+    }
+
+    int tamanho() {
+        return ocupados;
+    }
+
+    /**
+     * Bytes ocupados pela tabela (para as estimativas de memória).
+     */
+    long bytes() {
+        return 4L * tabela.length;
+    }
+
+    private void crescer() {
+        int[] nova = new int[tabela.length * 2];
+        for (int entrada : tabela) {
+            if (entrada != 0) {
+                colocar(nova, hashDoSlot.applyAsInt(entrada - 1), entrada - 1);
+            }
+        }
+        tabela = nova;
+    }
+
+    private static void colocar(int[] destino, int hash, int slot) {
+        int mascara = destino.length - 1;
+        int i = espalhar(hash) & mascara;
+        while (destino[i] != 0) {
+            i = (i + 1) & mascara;
+        }
+        destino[i] = slot + 1;
+    }
+}
@@ -10,14 +10,111 @@ package uespi.trabcons;
 public class TrabCons {
 
     // Este é o método principal que inicia o programa.
+    // Com os argumentos "importar <arquivo.csv>", roda a importação em massa sem abrir a interface.
+    // Com "servidor [porta]", sobe a API HTTP sem interface gráfica.
     public static void main(String[] args) {
+        if (args.length >= 2 && args[0].equals("importar")) {
+            importar(java.nio.file.Paths.get(args[1]));
+            return;
+        }
+        if (args.length >= 1 && args[0].equals("servidor")) {
+            int porta = args.length >= 2 ? lerPorta(args[1]) : Integer.getInteger("trabcons.http.porta", 8080);
+            if (porta < 0) {
+                System.err.println("Porta inválida: " + args[1]);
+                System.err.println("Uso: TrabCons servidor [porta]   (porta de 0 a 65535; 0 escolhe uma livre)");
+                return;
+            }
+            servidor(porta);
+            return;
+        }
+
+        // O Hibernate começa a subir em segundo plano, sem segurar a abertura da janela.
+        HibernateUtil.iniciar();
+        // Com '-Dtrabcons.cache.estatisticas=true', mostra ao sair como os caches se saíram.
+        if (EstatisticasCache.ligadas()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (HibernateUtil.isPronta()) {
+                    System.out.println(EstatisticasCache.atual());
+                    if (HibernateAlunoDAO.padrao() instanceof CacheAlunoDAO cache) {
+                        System.out.println(cache);
+                    }
+                }
+            }));
+        }
+
         // Criação de uma instância unica da classe que gerencia os alunos.
         // Isso garante que todos os dados operem sobre a mesma lista.
-        final listaAlunos gerenciaAlunos = new listaAlunos();
+        // Ela é carregada em segundo plano (precisa do banco), enquanto a tela já aparece.
+        final java.util.concurrent.CompletableFuture<listaAlunos> gerenciaAlunos =
+            OperacoesAssincronas.emSegundoPlano(listaAlunos::new);
+        // Depois de carregada, a lista passa a receber as mudanças feitas no banco por fora.
+        gerenciaAlunos.thenAccept(SincronizadorAlunos::iniciarPadrao);
 
         // Inicialização da interface grafica (a tela principal).
-        // A instância de 'gerenciaAlunos' é passada para a tela
-        // para que a tela possa manipular os dados.
+        // O futuro de 'gerenciaAlunos' é passado para a tela: as operações feitas
+        // antes do carregamento terminar esperam por ele.
         TrabConsFrame.Tela(gerenciaAlunos);
     }
+
+    // A porta da linha de comando, ou -1 se não for um número de 0 a 65535.
+    private static int lerPorta(String texto) {
+        try {
+            int porta = Integer.parseInt(texto.trim());
+            return porta >= 0 && porta <= 65_535 ? porta : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Modo servidor: carrega os alunos e atende a API HTTP até o processo ser encerrado (Ctrl+C).
+    private static void servidor(int porta) {
+        // Um log por requisição derrubaria a vazão; o -D do usuário ainda pode religar.
+        if (System.getProperty("hibernate.show_sql") == null) {
+            System.setProperty("hibernate.show_sql", "false");
+        }
+        final listaAlunos gerenciaAlunos = new listaAlunos();
+        // Outras instâncias podem gravar no mesmo banco; a lista acompanha as mudanças delas.
+        SincronizadorAlunos.iniciarPadrao(gerenciaAlunos);
+        try {
+            ServidorAlunos api = ServidorAlunos.iniciar(gerenciaAlunos, porta);
+            System.out.println("Servidor de alunos ouvindo em http://localhost:" + api.getPorta() + "/alunos");
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                api.parar(2);
+                // A fila da gravação adiada precisa do banco: vai antes de fechar a SessionFactory.
+                gerenciaAlunos.descarregarGravacoes();
+                HibernateUtil.shutdown();
+            }));
+        } catch (java.io.IOException e) {
+            System.err.println("Não foi possível abrir a porta " + porta + ": " + e.getMessage());
+            HibernateUtil.shutdown();
+        }
+    }
+
+    // Modo de importação em massa: lê o CSV e grava no banco, mostrando o andamento no console.
+    private static void importar(java.nio.file.Path arquivo) {
+        System.out.println("Importando " + arquivo + "...");
+        // Imprimir cada INSERT no console derrubaria a vazão; o -D do usuário ainda pode religar.
+        if (System.getProperty("hibernate.show_sql") == null) {
+            System.setProperty("hibernate.show_sql", "false");
+        }
+        try {
+            ImportacaoEmMassa.Resultado resultado = ImportacaoEmMassa.padrao().importar(arquivo,
+                (inseridos, rejeitados, linhasPorSegundo) -> System.out.printf(
+                    "  %,d alunos inseridos, %,d rejeitados (%,.0f linhas/s)%n", inseridos, rejeitados, linhasPorSegundo));
+            System.out.printf("Importação concluída: %,d alunos em %,d ms (%,.0f linhas/s), %,d linhas rejeitadas.%n",
+                resultado.inseridos(), resultado.millis(), resultado.linhasPorSegundo(), resultado.rejeitados());
+            // As primeiras rejeições, para o usuário saber o que corrigir no arquivo.
+            java.util.List<LeitorCsvParalelo.Rejeicao> rejeicoes = resultado.rejeicoes();
+            for (LeitorCsvParalelo.Rejeicao rejeicao : rejeicoes.subList(0, Math.min(rejeicoes.size(), 50))) {
+                System.err.println("  linha " + rejeicao.linha() + " (" + rejeicao.conteudo() + "): " + rejeicao.motivo());
+            }
+            if (rejeicoes.size() > 50) {
+                System.err.println("  ... e mais " + (rejeicoes.size() - 50) + " linhas rejeitadas.");
+            }
+        } catch (java.io.IOException | OperacaoAlunoException e) {
+            System.err.println("Falha na importação: " + e.getMessage());
+        } finally {
+            HibernateUtil.shutdown();
+        }
+    }
 }
\ No newline at end of file
@@ -3,8 +3,6 @@
  * Click nbfs://nbhost/SystemFileSystem/Templates/GUIForms/JFrame.java to edit this template
  */
 package uespi.trabcons;
-import javax.swing.table.DefaultTableModel;
-import java.util.*;
 import javax.swing.event.*;
 
 /**
@@ -15,11 +13,22 @@ public class TrabConsData extends javax.swing.JFrame {
 
     // Referência obrigatória ao gerenciador de dados. É 'final' porque não pode mudar.
     private final listaAlunos gerenciaAlunos;
+    // Executa a exclusão fora da thread do Swing.
+    private final OperacoesAssincronas operacoes;
+    // Modelo da tabela: lê os alunos direto, sem copiar para um Object[] por linha ('null' no modo paginado).
+    private final ModeloTabelaAlunos modelo;
+    // Modelo do modo paginado: busca as páginas do banco conforme a rolagem ('null' fora dele).
+    private final ModeloTabelaPaginada modeloPaginado;
+    // Modelo do modo compacto: lê as colunas do armazém, uma linha por vez ('null' fora dele).
+    private final ModeloTabelaCompacta modeloCompacto;
+    // Máximo de alunos mostrados numa busca por nome.
+    private static final int LIMITE_BUSCA_NOME = 500;
 
     // Construtor: RECEBE a instância do gerenciador de dados.
     public TrabConsData(listaAlunos gerenciaAlunos) {
         // Atribui a instância para que esta janela possa usá-la.
         this.gerenciaAlunos = gerenciaAlunos;
+        this.operacoes = new OperacoesAssincronas(gerenciaAlunos);
 
         initComponents();
         // Configura o texto de dica no campo de matrícula.
@@ -48,13 +57,43 @@ public class TrabConsData extends javax.swing.JFrame {
             }
         });
 
-        // Exibe o número total de alunos no campo de texto.
-        displayQnt.setText(this.gerenciaAlunos.getTamanho());
+        // Várias linhas podem ser selecionadas (com Ctrl/Shift) para excluir de uma vez.
+        tabela.setSelectionMode(javax.swing.ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        tabela.setToolTipText("Selecione linhas (Ctrl/Shift) e clique em Excluir para excluir várias de uma vez.");
 
-        // Carregamento inicial dos dados na tabela.
-        atualizarTabela();
         // Registra esta janela no gerenciador para receber atualizações futuras.
-        this.gerenciaAlunos.registerView(this);
+        // O registro devolve a lista naquele instante, então nenhum cadastro fica de fora ou aparece duas vezes.
+        java.util.List<Aluno> alunosAtuais = this.gerenciaAlunos.registerView(this);
+
+        if (this.gerenciaAlunos.isModoPaginado()) {
+            // O total vem de um "SELECT COUNT" e as linhas são buscadas conforme a rolagem.
+            this.modelo = null;
+            this.modeloCompacto = null;
+            this.modeloPaginado = new ModeloTabelaPaginada(this.gerenciaAlunos.getPaginador(),
+                total -> displayQnt.setText(String.valueOf(total)));
+            tabela.setModel(this.modeloPaginado);
+            // As ordens por nascimento precisam da lista inteira na memória.
+            listaFiltro.setEnabled(false);
+            listaFiltro.setToolTipText("Filtros indisponíveis no modo paginado (ordem por matrícula).");
+            displayQnt.setText("...");
+        } else if (this.gerenciaAlunos.isModoCompacto()) {
+            // As linhas são montadas das colunas conforme aparecem; não há lista de objetos para ordenar.
+            this.modelo = null;
+            this.modeloPaginado = null;
+            this.modeloCompacto = new ModeloTabelaCompacta(this.gerenciaAlunos.getArmazem());
+            tabela.setModel(this.modeloCompacto);
+            listaFiltro.setEnabled(false);
+            listaFiltro.setToolTipText("Filtros indisponíveis no modo compacto (ordem de cadastro).");
+            displayQnt.setText(String.valueOf(modeloCompacto.getTotal()));
+        } else {
+            this.modeloPaginado = null;
+            this.modeloCompacto = null;
+            this.modelo = new ModeloTabelaAlunos(alunosAtuais);
+            tabela.setModel(this.modelo);
+
+            // Exibe o número total de alunos no campo de texto.
+            displayQnt.setText(String.valueOf(modelo.getTotal()));
+        }
     }
 
     /**
@@ -116,7 +155,7 @@ public class TrabConsData extends javax.swing.JFrame {
         jScrollPane3.setViewportView(tabela);
 
         listaFiltro.setModel(new javax.swing.AbstractListModel<String>() {
-            String[] strings = { "Mais Novo", "Mais Velho" };
+            String[] strings = { "Mais Novo", "Mais Velho", "Nascidos Entre" };
             public int getSize() { return strings.length; }
             public String getElementAt(int i) { return strings[i]; }
         });
@@ -251,10 +290,28 @@ public class TrabConsData extends javax.swing.JFrame {
             return;
         }
 
-        // 3. Chama o método de busca que criamos no 'gerenciaAlunos'
-        Aluno alunoEncontrado = this.gerenciaAlunos.buscarPorMatricula(matricula);
+        // Texto com letras é busca por nome: o resultado aparece na própria tabela.
+        if (matricula.chars().anyMatch(Character::isLetter)) {
+            buscarPorNome(matricula);
+            matFieldData.setText("");
+            SwingUtils.configurarPlaceholder(matFieldData, placeholder);
+            return;
+        }
+
+        // 3. Chama o método de busca que criamos no 'gerenciaAlunos', em segundo plano
+        // (no modo paginado a busca pode ir ao banco).
+        OperacoesAssincronas.quandoConcluir(
+            OperacoesAssincronas.emSegundoPlano(() -> this.gerenciaAlunos.buscarPorMatricula(matricula)),
+            alunoEncontrado -> mostrarResultadoPesquisa(matricula, alunoEncontrado),
+            erro -> OperacoesAssincronas.mostrarErro(this, erro));
 
-        // 4. Verifica o resultado
+        // 5. Limpa o campo de texto após a pesquisa
+        matFieldData.setText("");
+        SwingUtils.configurarPlaceholder(matFieldData, placeholder); // Recarrega o placeholder
+    }//GEN-LAST:event_pesquisarActionPerformed
+
+    // 4. Verifica o resultado da pesquisa e mostra numa janela.
+    private void mostrarResultadoPesquisa(String matricula, Aluno alunoEncontrado) {
         if (alunoEncontrado == null) {
             // Caso NÃO encontre o aluno
             javax.swing.JOptionPane.showMessageDialog(this,
@@ -276,24 +333,77 @@ public class TrabConsData extends javax.swing.JFrame {
                 "Resultado da Pesquisa",
                 javax.swing.JOptionPane.INFORMATION_MESSAGE);
         }
+    }
 
-        // 5. Limpa o campo de texto após a pesquisa
-        matFieldData.setText("");
-        SwingUtils.configurarPlaceholder(matFieldData, placeholder); // Recarrega o placeholder
-    }//GEN-LAST:event_pesquisarActionPerformed
+    /**
+     * Busca por parte do nome (sem ligar para acentos) e mostra o resultado na tabela.
+     * Escolher um filtro na lista volta a mostrar todos os alunos.
+     */
+    private void buscarPorNome(String texto) {
+        OperacoesAssincronas.quandoConcluir(
+            OperacoesAssincronas.emSegundoPlano(() -> this.gerenciaAlunos.buscarPorNome(texto, LIMITE_BUSCA_NOME)),
+            encontrados -> {
+                if (encontrados.isEmpty()) {
+                    javax.swing.JOptionPane.showMessageDialog(this,
+                        "Nenhum aluno encontrado com o nome: " + texto,
+                        "Não Encontrado",
+                        javax.swing.JOptionPane.ERROR_MESSAGE);
+                } else if (modelo == null) {
+                    // Modos paginado e compacto: a tabela não filtra, então o resultado vai numa janela.
+                    StringBuilder lista = new StringBuilder("--- Alunos Encontrados ---\n\n");
+                    for (Aluno aluno : encontrados.subList(0, Math.min(encontrados.size(), 30))) {
+                        lista.append(aluno.getMatricula()).append(" - ").append(aluno.getNome()).append('\n');
+                    }
+                    if (encontrados.size() > 30) {
+                        lista.append("... e mais ").append(encontrados.size() - 30).append(" alunos.");
+                    }
+                    javax.swing.JOptionPane.showMessageDialog(this, lista.toString(), "Resultado da Pesquisa",
+                        javax.swing.JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    // A seleção do filtro é limpa antes, senão o listener voltaria para a ordem original.
+                    listaFiltro.clearSelection();
+                    modelo.mostrarBusca(texto, encontrados);
+                }
+            },
+            erro -> OperacoesAssincronas.mostrarErro(this, erro));
+    }
 
     private void excluirActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_excluirActionPerformed
          // 1. Pega a matrícula do campo de texto
         String matricula = matFieldData.getText();
 
-        // 2. Validação simples
+        // 2. Validação simples: sem matrícula digitada, valem as linhas selecionadas na tabela.
         if (matricula.isEmpty() || matricula.equals("Ex: 12345678")) {
-            javax.swing.JOptionPane.showMessageDialog(this, "Por favor, digite uma matrícula para excluir.", "Erro", javax.swing.JOptionPane.ERROR_MESSAGE);
+            if (tabela.getSelectedRowCount() > 0) {
+                excluirSelecionados();
+                return;
+            }
+            javax.swing.JOptionPane.showMessageDialog(this, "Por favor, digite uma matrícula ou selecione linhas na tabela para excluir.", "Erro", javax.swing.JOptionPane.ERROR_MESSAGE);
             return;
         }
 
-        // 3. Apenas chama a exclusão.
-        this.gerenciaAlunos.excluirAluno(matricula);
+        // 3. Chama a exclusão em segundo plano, com o botão indicando que ela está em andamento.
+        excluir.setEnabled(false);
+        excluir.setText("Excluindo...");
+        OperacoesAssincronas.quandoConcluir(operacoes.excluir(matricula),
+            resultado -> {
+                excluir.setEnabled(true);
+                excluir.setText("Excluir");
+                if (resultado.backupOk()) {
+                    javax.swing.JOptionPane.showMessageDialog(this, "Aluno " + matricula + " excluído com sucesso do MySQL e do CSV.");
+                } else {
+                    // Aviso se o banco excluiu, mas o backup CSV falhou.
+                    javax.swing.JOptionPane.showMessageDialog(this,
+                        "Aluno excluído do MySQL com SUCESSO.\n\nFALHA ao atualizar o CSV: " + resultado.falhaBackup(),
+                        "Aviso de Backup",
+                        javax.swing.JOptionPane.WARNING_MESSAGE);
+                }
+            },
+            erro -> {
+                excluir.setEnabled(true);
+                excluir.setText("Excluir");
+                OperacoesAssincronas.mostrarErro(this, erro);
+            });
 
         // 4. Limpa o campo de texto
         matFieldData.setText("");
@@ -302,6 +412,51 @@ public class TrabConsData extends javax.swing.JFrame {
         SwingUtils.configurarPlaceholder(matFieldData, "Ex: 12345678"); 
     }//GEN-LAST:event_excluirActionPerformed
 
+    /**
+     * Exclui de uma vez os alunos das linhas selecionadas, depois de confirmar.
+     */
+    private void excluirSelecionados() {
+        java.util.List<String> matriculas = new java.util.ArrayList<>();
+        for (int linha : tabela.getSelectedRows()) {
+            // Coluna 1 = Matricula (em todos os modelos). Linhas ainda "Carregando..." vêm vazias.
+            Object valor = tabela.getModel().getValueAt(tabela.convertRowIndexToModel(linha), 1);
+            if (valor != null && !valor.toString().isEmpty()) {
+                matriculas.add(valor.toString());
+            }
+        }
+        if (matriculas.isEmpty()) {
+            return;
+        }
+        int escolha = javax.swing.JOptionPane.showConfirmDialog(this,
+            "Excluir os " + matriculas.size() + " alunos selecionados?", "Excluir Selecionados",
+            javax.swing.JOptionPane.YES_NO_OPTION, javax.swing.JOptionPane.WARNING_MESSAGE);
+        if (escolha != javax.swing.JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        excluir.setEnabled(false);
+        excluir.setText("Excluindo...");
+        OperacoesAssincronas.quandoConcluir(operacoes.excluirVarios(matriculas),
+            resultado -> {
+                excluir.setEnabled(true);
+                excluir.setText("Excluir");
+                tabela.clearSelection();
+                if (resultado.backupOk()) {
+                    javax.swing.JOptionPane.showMessageDialog(this, resultado.excluidosNoBanco() + " aluno(s) excluído(s) com sucesso do MySQL e do CSV.");
+                } else {
+                    javax.swing.JOptionPane.showMessageDialog(this,
+                        resultado.excluidosNoBanco() + " aluno(s) excluído(s) do MySQL com SUCESSO.\n\nFALHA ao atualizar o CSV: " + resultado.falhaBackup(),
+                        "Aviso de Backup",
+                        javax.swing.JOptionPane.WARNING_MESSAGE);
+                }
+            },
+            erro -> {
+                excluir.setEnabled(true);
+                excluir.setText("Excluir");
+                OperacoesAssincronas.mostrarErro(this, erro);
+            });
+    }
+
     public static void Table(listaAlunos gerenciaAlunos) {
         // ... (código de Look and Feel)
 
@@ -310,74 +465,104 @@ public class TrabConsData extends javax.swing.JFrame {
     }
 
     /**
-     * Preenche a JTable 'tabela' com os dados mais recentes 
-     * da lista 'gerenciaAlunos'.
+     * Aplica na tabela a ordem escolhida no filtro.
+     * Nada é ordenado aqui: as ordens por nascimento vêm do índice mantido pelo gerenciador.
      */
     private void atualizarTabela() {
-        // 1. Define os nomes das colunas
-        String[] colunas = {"Nome", "Matricula", "Data de Nacimento", "CPF"};
-
-        // 2. Cria um DefaultTableModel, iniciando com 0 linhas.
-        DefaultTableModel model = new DefaultTableModel(colunas, 0);
-
-        
-        // --FILTRO/ORDENAÇÃO ---
-        
-        // 3. Pega a lista original
-        List<Aluno> listaOriginal = this.gerenciaAlunos.listaAlunos;
-        
-        // 4. Cria uma copia mutavel para exibir (para não bagunçar a original)
-        List<Aluno> alunosParaExibir = new ArrayList<>(listaOriginal);
-
-        // 5. Verifica o que está selecionado no filtro
-        String filtroSelecionado = listaFiltro.getSelectedValue();// 
-
-        if (filtroSelecionado != null) {
-            
-            if (filtroSelecionado.equals("Mais Novo")) { 
-            // "Mais novo" = maior data de nascimento (ordem decrescente)
-                alunosParaExibir.sort(Comparator.comparing(
-                aluno -> aluno.getDataNascimento(), // <-- MUDANÇA AQUI
-                Comparator.nullsLast(Comparator.reverseOrder())
-            ));
-               
-            } else if (filtroSelecionado.equals("Mais Velho")) { 
-                // "Mais velho" = menor data de nascimento (ordem crescente)
-                alunosParaExibir.sort(Comparator.comparing(
-                aluno -> aluno.getDataNascimento(), // <-- MUDANÇA AQUI
-                Comparator.nullsLast(Comparator.naturalOrder())
-                ));
-            }
+        // Verifica o que está selecionado no filtro
+        String filtroSelecionado = listaFiltro.getSelectedValue();
+
+        if ("Mais Novo".equals(filtroSelecionado)) {
+            // "Mais novo" = maior data de nascimento (índice lido do fim)
+            modelo.ordenarPorNascimento(true, this.gerenciaAlunos.copiarIndiceNascimento());
+        } else if ("Mais Velho".equals(filtroSelecionado)) {
+            // "Mais velho" = menor data de nascimento (índice lido do começo)
+            modelo.ordenarPorNascimento(false, this.gerenciaAlunos.copiarIndiceNascimento());
+        } else if ("Nascidos Entre".equals(filtroSelecionado)) {
+            filtrarPorIntervalo();
+        } else {
+            // Se nada estiver selecionado, a tabela fica na ordem original (da lista principal)
+            modelo.ordemOriginal();
         }
-        // Se nada estiver selecionado, 'alunosParaExibir' 
-        // permanece na ordem original (da lista principal)
-        
+    }
 
+    /**
+     * Pergunta as duas datas e mostra só os alunos nascidos entre elas.
+     * Deixar uma das datas em branco deixa o intervalo aberto daquele lado.
+     */
+    private void filtrarPorIntervalo() {
+        try {
+            java.time.LocalDate de = pedirData("Nascidos a partir de (dd/MM/aaaa):");
+            java.time.LocalDate ate = pedirData("Nascidos até (dd/MM/aaaa):");
+            modelo.filtrarIntervalo(de, ate, this.gerenciaAlunos.buscarPorNascimento(de, ate));
+        } catch (java.time.format.DateTimeParseException e) {
+            javax.swing.JOptionPane.showMessageDialog(this,
+                "Data inválida: " + e.getParsedString() + "\nUse o formato dd/MM/aaaa.",
+                "Erro de Data",
+                javax.swing.JOptionPane.ERROR_MESSAGE);
+            listaFiltro.clearSelection();
+        }
+    }
 
+    // Mostra uma caixa pedindo uma data; retorna 'null' se o usuário deixar em branco ou cancelar.
+    private java.time.LocalDate pedirData(String pergunta) {
+        String texto = javax.swing.JOptionPane.showInputDialog(this, pergunta, "Filtro por Nascimento", javax.swing.JOptionPane.QUESTION_MESSAGE);
+        if (texto == null || texto.isBlank()) {
+            return null;
+        }
+        return java.time.LocalDate.parse(texto.trim(), Aluno.FORMATO_DATA);
+    }
 
-        // 6. Itera sobre a lista ja filtrada
-        for (Aluno aluno : alunosParaExibir) {
-            
-            // Cria um array de Objetos para a linha
-            Object[] row = {
-                aluno.getNome(),
-                aluno.getMatricula(),
-                aluno.getDataNascimentoFormatadaCsv(), //
-                aluno.getCpf()
-            };
-            
-            // Adiciona a linha ao modelo
-            model.addRow(row);
+    /**
+     * Chamado (na thread do Swing) quando um aluno é cadastrado: acrescenta só a linha dele.
+     */
+    public void alunoInserido(Aluno aluno) {
+        if (modeloPaginado != null) {
+            // A posição dele na ordem de matrícula pode cair em qualquer página: conta e busca de novo.
+            modeloPaginado.recarregar();
+            return;
+        }
+        if (modeloCompacto != null) {
+            modeloCompacto.atualizar();
+            displayQnt.setText(String.valueOf(modeloCompacto.getTotal()));
+            return;
         }
+        modelo.inserir(aluno);
+        displayQnt.setText(String.valueOf(modelo.getTotal()));
+    }
 
-        // 7.define este modelo populado na sua JTable
-        tabela.setModel(model);
+    /**
+     * Chamado (na thread do Swing) depois de uma exclusão em massa: retira as linhas de uma vez.
+     */
+    public void alunosRemovidos(java.util.List<Aluno> alunos) {
+        if (modeloPaginado != null) {
+            modeloPaginado.recarregar();
+            return;
+        }
+        if (modeloCompacto != null) {
+            modeloCompacto.atualizar();
+            displayQnt.setText(String.valueOf(modeloCompacto.getTotal()));
+            return;
+        }
+        modelo.removerTodos(alunos);
+        displayQnt.setText(String.valueOf(modelo.getTotal()));
     }
-    
-   
-    public void atualizarTudo() {
-        atualizarTabela();
-        displayQnt.setText(this.gerenciaAlunos.getTamanho());
+
+    /**
+     * Chamado (na thread do Swing) quando um aluno é excluído: retira só a linha dele.
+     */
+    public void alunoRemovido(Aluno aluno) {
+        if (modeloPaginado != null) {
+            modeloPaginado.recarregar();
+            return;
+        }
+        if (modeloCompacto != null) {
+            modeloCompacto.atualizar();
+            displayQnt.setText(String.valueOf(modeloCompacto.getTotal()));
+            return;
+        }
+        modelo.remover(aluno);
+        displayQnt.setText(String.valueOf(modelo.getTotal()));
     }
     
     // Variables declaration - do not modify//GEN-BEGIN:variables
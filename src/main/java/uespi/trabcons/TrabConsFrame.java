@@ -13,14 +13,20 @@ public class TrabConsFrame extends javax.swing.JFrame {
     private static final java.util.logging.Logger logger = java.util.logging.Logger.getLogger(TrabConsFrame.class.getName());
 
     // Referência obrigatória ao gerenciador de dados. É 'final' para garantir que seja a instância única.
-    private final listaAlunos gerenciaAlunos;
+    // É um futuro porque o gerenciador ainda pode estar carregando quando a janela abre.
+    private final java.util.concurrent.CompletableFuture<listaAlunos> gerenciaAlunos;
+    // Executa o cadastro fora da thread do Swing (e espera o gerenciador, se preciso).
+    private final OperacoesAssincronas operacoes;
 
-    // Construtor: RECEBE a instância do gerenciador de dados.
-    public TrabConsFrame(listaAlunos gerenciaAlunos) {
+    // Construtor: RECEBE a instância (futura) do gerenciador de dados.
+    public TrabConsFrame(java.util.concurrent.CompletableFuture<listaAlunos> gerenciaAlunos) {
         // A instância compartilhada é atribuida.
         this.gerenciaAlunos = gerenciaAlunos;
+        this.operacoes = new OperacoesAssincronas(gerenciaAlunos);
 
         initComponents();
+        // O rótulo de status mostra se o banco de dados já está pronto.
+        acompanharInicializacao();
         // Configuração dos textos de dica (placeholders) nos campos de entrada.
         SwingUtils.configurarPlaceholder(matFieldCad, "Ex: 12345678");
         SwingUtils.configurarPlaceholder(nomeField, "Ex: Marcelo Melo Pinto");
@@ -243,14 +249,16 @@ public class TrabConsFrame extends javax.swing.JFrame {
     }//GEN-LAST:event_rformed
 
     private void proximaPagActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_proximaPagActionPerformed
-        TrabConsData.Table(this.gerenciaAlunos);
+        // Se o gerenciador ainda estiver carregando, a janela de dados abre assim que ele ficar pronto.
+        OperacoesAssincronas.quandoConcluir(this.gerenciaAlunos,
+            TrabConsData::Table,
+            erro -> OperacoesAssincronas.mostrarErro(this, erro));
     }//GEN-LAST:event_proximaPagActionPerformed
 
     private void addAlunoActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_addAlunoActionPerformed
         // Ação do botão "Adicionar Aluno".
-        // Todos os campos de texto da interface são passados
-        // para o método 'cadastrar' do gerenciador de alunos.
-        this.gerenciaAlunos.cadastrar(
+        // Todos os campos de texto da interface são lidos e validados aqui, na thread do Swing.
+        Aluno novoAluno = listaAlunos.montarAluno(
                 nomeField,
                 indexField,
                 matFieldCad,
@@ -259,10 +267,65 @@ public class TrabConsFrame extends javax.swing.JFrame {
                 teleField,
                 cpfField
         );
+        if (novoAluno == null) {
+            return; // A validação já mostrou o erro.
+        }
+
+        // O cadastro em si (banco + CSV) roda em segundo plano.
+        // Enquanto isso, o botão fica desabilitado para indicar que há um cadastro em andamento.
+        indicarCadastroEmAndamento(true);
+        OperacoesAssincronas.quandoConcluir(operacoes.cadastrar(novoAluno),
+            resultado -> {
+                indicarCadastroEmAndamento(false);
+                if (resultado.backupOk()) {
+                    javax.swing.JOptionPane.showMessageDialog(this, "Aluno salvo com SUCESSO no MySQL e no CSV!");
+                } else {
+                    // Aviso se o banco salvou, mas o backup falhou.
+                    javax.swing.JOptionPane.showMessageDialog(this,
+                        "Aluno salvo no MySQL com SUCESSO.\n\nFALHA ao salvar backup no CSV: " + resultado.falhaBackup(),
+                        "Aviso de Backup",
+                        javax.swing.JOptionPane.WARNING_MESSAGE);
+                }
+                limparCampos();
+            },
+            erro -> {
+                indicarCadastroEmAndamento(false);
+                OperacoesAssincronas.mostrarErro(this, erro);
+            });
     }//GEN-LAST:event_addAlunoActionPerformed
 
+    // Liga/desliga o indicador de cadastro em andamento (botão e cursor).
+    private void indicarCadastroEmAndamento(boolean emAndamento) {
+        addAluno.setEnabled(!emAndamento);
+        addAluno.setText(emAndamento ? "Salvando..." : "Adicionar Aluno");
+        setCursor(emAndamento ? java.awt.Cursor.getPredefinedCursor(java.awt.Cursor.WAIT_CURSOR) : java.awt.Cursor.getDefaultCursor());
+    }
+
+    // Atualiza o rótulo de status conforme o carregamento do gerenciador (e do banco) avança.
+    private void acompanharInicializacao() {
+        if (!this.gerenciaAlunos.isDone()) {
+            jLabel1.setText("Conectando ao banco de dados...");
+        }
+        OperacoesAssincronas.quandoConcluir(this.gerenciaAlunos,
+            gerenciador -> jLabel1.setText(HibernateUtil.isPronta()
+                ? "Banco de dados pronto."
+                : "Banco de dados indisponível: usando o backup em CSV."),
+            erro -> jLabel1.setText("Erro ao carregar os alunos: " + erro.getMessage()));
+    }
+
+    // Limpa os campos da interface gráfica após o sucesso.
+    private void limparCampos() {
+        nomeField.setText("");
+        matFieldCad.setText("");
+        idadeField.setText("");
+        nascField.setValue(null);
+        teleField.setText("");
+        cpfField.setText("");
+        indexField.setText("");
+    }
+
 
-public static void Tela(listaAlunos gerenciaAlunos) {
+public static void Tela(java.util.concurrent.CompletableFuture<listaAlunos> gerenciaAlunos) {
         /* Set the Nimbus look and feel */
         //<editor-fold defaultstate="collapsed" desc=" Look and feel setting code (optional) ">
         /* If Nimbus (introduced in Java SE 6) is not available, stay with the default look and feel.
@@ -0,0 +1,112 @@
+package uespi.trabcons;
+
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Vista "flyweight" de uma linha do 'ArmazemAlunos'.
+ *
+ * Em vez de montar um Aluno para cada linha lida, um único objeto é reposicionado de
+ * linha em linha ('posicionar'). A linha é copiada do armazém numa única chamada
+ * sincronizada ('ArmazemAlunos.copiarLinha'), e os getters leem só essa cópia: mesmo com
+ * cadastros e exclusões no meio, todos os campos são do mesmo aluno. Reposicionar na
+ * mesma linha, sem escrita no armazém desde a cópia, não copia de novo (a tabela pede
+ * uma célula por vez). É o que a tabela do modo compacto usa para desenhar as células.
+ *
+ * Não é thread-safe (a posição é do objeto); cada thread deve ter a sua.
+ */
+final class VistaAluno {
+
+    private final ArmazemAlunos armazem;
+    private int posicao = -1;
+    // 'versao' do armazém quando a linha foi copiada (-1: nada copiado ainda).
+    private long versao = -1;
+    private boolean existe;
+
+    // A cópia da linha.
+    private String matricula;
+    private String nome;
+    private int idade;
+    private LocalDate dataNascimento;
+    private String telefone;
+    private String cpf;
+    private int index;
+    private LocalDateTime atualizadoEm;
+
+    VistaAluno(ArmazemAlunos armazem) {
+        this.armazem = armazem;
+    }
+
+    /**
+     * Aponta a vista para a posição informada da ordem de cadastro.
+     *
+     * @return 'false' se a posição não existe mais (ex: exclusão ainda não vista pela tabela).
+     */
+    boolean posicionar(int posicao) {
+        if (posicao != this.posicao || versao != armazem.versao()) {
+            this.posicao = posicao;
+            existe = armazem.copiarLinha(posicao, this);
+        }
+        return existe;
+    }
+
+    // Chamados pelo 'copiarLinha', com a trava do armazém.
+    void preencher(long versao, String matricula, String nome, int idade, LocalDate dataNascimento,
+                   String telefone, String cpf, int index, LocalDateTime atualizadoEm) {
+        this.versao = versao;
+        this.matricula = matricula;
+        this.nome = nome;
+        this.idade = idade;
+        this.dataNascimento = dataNascimento;
+        this.telefone = telefone;
+        this.cpf = cpf;
+        this.index = index;
+        this.atualizadoEm = atualizadoEm;
+    }
+
+    void preencherVazia(long versao) {
+        preencher(versao, null, null, 0, null, null, null, 0, null);
+    }
+
+    String getMatricula() {
+        return matricula;
+    }
+
+    String getNome() {
+        return nome;
+    }
+
+    int getIdade() {
+        return idade;
+    }
+
+    LocalDate getDataNascimento() {
+        return dataNascimento;
+    }
+
+    String getDataNascimentoFormatadaCsv() {
+        return dataNascimento == null ? "Data Inválida" : dataNascimento.format(Aluno.FORMATO_DATA);
+    }
+
+    String getTelefone() {
+        return telefone;
+    }
+
+    String getCpf() {
+        return cpf;
+    }
+
+    /**
+     * Monta um Aluno com os dados da linha atual (para quando um objeto é mesmo necessário).
+     */
+    Aluno paraAluno() {
+        try {
+            Aluno aluno = new Aluno(matricula, nome, idade, dataNascimento, telefone, cpf, index);
+            aluno.setAtualizadoEm(atualizadoEm);
+            return aluno;
+        } catch (ParseException e) {
+            throw new IllegalStateException(e); // O construtor não converte nada; só declara a exceção.
+        }
+    }
+}
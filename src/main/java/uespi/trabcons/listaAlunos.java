@@ -1,15 +1,20 @@
 package uespi.trabcons;
 
 import java.awt.HeadlessException;
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javax.swing.JFormattedTextField;
 import javax.swing.JTextField;
-import org.hibernate.Session;
-import org.hibernate.Transaction;
 import org.hibernate.exception.ConstraintViolationException;
-import org.hibernate.query.Query;
 
 /**
  * Gerenciador de dados de alunos.
@@ -20,143 +25,414 @@ class listaAlunos {
 
     // A lista local de alunos. É 'final' e só pode ser carregada no construtor.
     public final java.util.List<Aluno> listaAlunos;
+
+    // Índice primário: matrícula -> Aluno. Permite buscas em O(1) em vez de percorrer a lista.
+    private final Map<String, Aluno> indicePorMatricula = new HashMap<>();
+    // Índice ordenado por data de nascimento (para "Mais Novo"/"Mais Velho" e intervalos).
+    private final IndiceDataNascimento indiceNascimento;
+    // Índice de nomes (prefixo de palavra e trigramas), para a busca por parte do nome.
+    private final IndiceNomes indiceNomes;
+    // Índice secundário e guarda de unicidade: CPF normalizado (só os dígitos) -> Aluno.
+    private final GuardaCpfUnico guardaCpf = new GuardaCpfUnico();
+    // Remoção de vários alunos da lista numa passada só (exclusão em massa).
+    private final AlunoDAO remocao = new RemocaoAlunoDAO();
+    // O repositório do banco (Hibernate, com o cache de leitura do 'CacheAlunoDAO'). Toda leitura
+    // e gravação no banco passa por ele: a carga inicial, os cadastros e os lotes da gravação adiada.
+    private final AlunoDAO banco;
+    // Indica se a lista veio do banco (e não do CSV de fallback).
+    private boolean carregadoDoBanco = false;
+    // Modo paginado: a tabela não é carregada inteira; a janela de dados busca páginas sob demanda.
+    private final boolean modoPaginado = PaginadorAlunos.modoPaginadoAtivo();
+    private final PaginadorAlunos paginador = PaginadorAlunos.padrao();
+    // Modo compacto ('trabcons.modoCompacto=true'): a lista inteira fica num armazém colunar,
+    // sem um objeto Aluno por linha. 'null' fora desse modo.
+    private final ArmazemAlunos armazem;
+    // Diário do backup em CSV: cada mudança é anexada, sem reescrever o arquivo inteiro.
+    private final DiarioCsv diario;
+    // Linhas por página na leitura da tabela que vira a foto do backup no modo paginado.
+    private static final int PAGINA_COMPACTACAO = 5_000;
+    // Gravação adiada ('trabcons.gravacaoAdiada=true'): cadastros e exclusões vão para o banco
+    // em lotes, por uma thread de fundo. 'null' fora desse modo (e no modo paginado).
+    private final GravacaoAdiada gravacaoAdiada;
     // Referência para a interface gráfica, usada para atualizar a tabela após mudanças.
+    // Protegida pelo mesmo 'synchronized' da lista, para que cada mudança seja notificada exatamente uma vez.
     private TrabConsData dataView = null;
 
-    // Associa a interface (view) a este controlador de dados.
-    public void registerView(TrabConsData view) {
+    // Associa a interface (view) a este controlador de dados e devolve os alunos atuais.
+    // As duas coisas acontecem juntas: mudanças anteriores já estão na cópia, e as posteriores serão notificadas.
+    public synchronized java.util.List<Aluno> registerView(TrabConsData view) {
         this.dataView = view;
+        // No modo compacto a janela lê direto do armazém, sem cópia.
+        return armazem == null ? new java.util.ArrayList<>(this.listaAlunos) : java.util.List.of();
     }
 
     // Remove a associação com a interface.
-    public void unregisterView() {
+    public synchronized void unregisterView() {
         this.dataView = null;
     }
 
     // Construtor: Inicia o gerenciador carregando os dados do banco.
+    // No modo paginado nada é carregado aqui: a lista guarda só os cadastros desta execução.
     public listaAlunos() {
-        this.listaAlunos = carregarAlunosDoBanco();
+        this(null, HibernateAlunoDAO.padrao(), true);
+    }
+
+    /**
+     * Gerenciador sobre alunos já carregados, sem banco, sem diário do CSV e sem gravação
+     * adiada: só as estruturas em memória, com um 'MemoriaAlunoDAO' no lugar do banco. O
+     * programa não usa; é o ponto de entrada do módulo 'benchmarks' (ver
+     * 'DadosBenchmark.gerenciadorEmMemoria') e dos testes.
+     */
+    static listaAlunos emMemoria(java.util.List<Aluno> alunos) {
+        return emMemoria(alunos, new MemoriaAlunoDAO(alunos), false);
+    }
+
+    /**
+     * Como 'emMemoria(alunos)', mas sobre o repositório dado e, se pedido, com a gravação
+     * adiada ligada (lotes pequenos e janela curta, para os testes não esperarem).
+     */
+    static listaAlunos emMemoria(java.util.List<Aluno> alunos, AlunoDAO repositorio, boolean comGravacaoAdiada) {
+        return new listaAlunos(java.util.Objects.requireNonNull(alunos), repositorio, comGravacaoAdiada);
+    }
+
+    // 'null' carrega do repositório (ou do CSV); uma lista é usada como está (ver 'emMemoria').
+    private listaAlunos(java.util.List<Aluno> alunosCarregados, AlunoDAO repositorio, boolean comGravacaoAdiada) {
+        this.banco = repositorio;
+        if (alunosCarregados != null) {
+            this.armazem = null;
+            this.listaAlunos = alunosCarregados;
+        } else {
+            long inicio = System.nanoTime();
+            if (!modoPaginado && Boolean.getBoolean("trabcons.modoCompacto")) {
+                this.armazem = carregarAlunosNoArmazem();
+                this.listaAlunos = armazem.comoLista();
+            } else {
+                this.armazem = null;
+                this.listaAlunos = modoPaginado ? new java.util.ArrayList<>() : carregarAlunosDoBanco();
+            }
+            Metricas.CARGA_INICIAL.adicionarItens(this.listaAlunos.size());
+            // Cair no CSV conta como falha da carga (o banco não respondeu).
+            if (carregadoDoBanco || modoPaginado) {
+                Metricas.CARGA_INICIAL.sucesso(inicio);
+            } else {
+                Metricas.CARGA_INICIAL.falha(inicio);
+            }
+        }
+        // Os índices são montados uma única vez a partir da lista carregada.
+        // No modo compacto a matrícula e o CPF são buscados no próprio armazém, e os índices
+        // de nascimento e de nomes ficam vazios (a janela mostra só a ordem de cadastro).
+        java.util.List<Aluno> indexados = armazem == null ? this.listaAlunos : java.util.List.of();
+        for (Aluno aluno : indexados) {
+            indicePorMatricula.put(aluno.getMatricula(), aluno);
+        }
+        if (armazem == null) {
+            // Uma lista recebida pronta é tratada como completa (o guarda não consulta o banco).
+            guardaCpf.carregar(this.listaAlunos, carregadoDoBanco || alunosCarregados != null);
+        } else {
+            guardaCpf.carregar(armazem, carregadoDoBanco);
+        }
+        this.indiceNascimento = new IndiceDataNascimento(indexados);
+        this.indiceNomes = new IndiceNomes(indexados);
+        // No modo paginado a tabela lê as páginas do banco, então a mudança precisa estar lá antes.
+        if (alunosCarregados == null) {
+            this.gravacaoAdiada = modoPaginado ? null : GravacaoAdiada.padrao(banco, new DestinoGravacao());
+        } else {
+            this.gravacaoAdiada = comGravacaoAdiada ? new GravacaoAdiada(banco, new DestinoGravacao(), 200, 5, 1) : null;
+        }
+        this.diario = alunosCarregados == null ? abrirDiario() : null;
+    }
+
+    /**
+     * Abre o diário do CSV. Se os dados vieram do banco, a foto em CSV é refeita
+     * uma vez aqui, para que o backup comece igual ao banco.
+     */
+    private DiarioCsv abrirDiario() {
+        try {
+            DiarioCsv novoDiario = DiarioCsv.abrirPadrao();
+            if (carregadoDoBanco) {
+                novoDiario.compactar(this, this::copiarAlunos);
+            }
+            // Garante que o último grupo pendente vá para o disco ao fechar o programa.
+            // Antes, a fila da gravação adiada termina de ir para o banco (e para o diário).
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                descarregarGravacoes();
+                try {
+                    novoDiario.close();
+                } catch (IOException e) {
+                    System.err.println("Erro ao fechar o diário do CSV: " + e.getMessage());
+                }
+            }));
+            return novoDiario;
+        } catch (IOException e) {
+            System.err.println("Não foi possível abrir o diário do CSV: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Registra a mudança no diário do CSV e, se ele já estiver grande, pede uma compactação
+     * (feita em segundo plano). Usa a trava da lista, como as mudanças na memória: quem chama
+     * logo depois de mudar a lista, ainda com a trava, garante que o diário fique na mesma ordem.
+     */
+    private synchronized void registrarNoBackup(Aluno inserido, String matriculaRemovida) throws IOException {
+        if (diario == null) {
+            throw new IOException("diário do CSV indisponível");
+        }
+        if (inserido != null) {
+            diario.registrarInsercao(inserido);
+        } else {
+            diario.registrarRemocao(matriculaRemovida);
+        }
+        // No modo paginado a lista local não tem todos os alunos: a foto vem da própria tabela,
+        // lida página a página pela compactação (as mudanças já foram ao banco antes de chegar aqui).
+        if (modoPaginado) {
+            diario.compactarSeNecessario(this, () -> HibernateAlunoDAO.direto().todos(PAGINA_COMPACTACAO));
+        } else {
+            diario.compactarSeNecessario(this, this::copiarAlunos);
+        }
+    }
+
+    // --- SINCRONIZAÇÃO ---
+
+    /**
+     * Aplica as mudanças que o 'SincronizadorAlunos' trouxe do banco (feitas por outra
+     * instância ou direto no MySQL). É idempotente: mudanças que a lista já tem, inclusive
+     * as feitas por este próprio programa, são ignoradas. Um cadastro feito aqui volta do
+     * banco com os mesmos campos: a linha da memória fica onde está e só ganha o
+     * 'atualizadoEm' do banco (que só a sincronização conhece). Matrículas com mudança ainda na
+     * fila da gravação adiada também: a memória está à frente do banco para elas.
+     *
+     * @param alterados Alunos inseridos ou alterados desde a última sincronização.
+     * @param removidos Lápides das exclusões desde a última sincronização.
+     * @return Quantas linhas entraram ou saíram da lista (uma alteração conta as duas).
+     */
+    int aplicarAlteracoes(java.util.List<Aluno> alterados, java.util.List<AlunoRemovido> removidos) {
+        java.util.List<Aluno> inseridos = new java.util.ArrayList<>();
+        java.util.List<Aluno> retirados = new java.util.ArrayList<>();
+        TrabConsData view;
+        synchronized (this) {
+            Map<String, java.time.LocalDateTime> versoesNovas = new HashMap<>();
+            for (Aluno alterado : alterados) {
+                versoesNovas.put(alterado.getMatricula(), alterado.getAtualizadoEm());
+            }
+            // Primeiro as exclusões: se a mesma matrícula foi excluída e cadastrada de novo,
+            // o cadastro (mais novo) é aplicado depois e prevalece. A exclusão nem é aplicada
+            // nesse caso, para a linha não sair e voltar igual (ex: um cadastro feito aqui).
+            for (AlunoRemovido removido : removidos) {
+                java.time.LocalDateTime versaoNova = versoesNovas.get(removido.getMatricula());
+                if (gravacaoPendente(removido.getMatricula())
+                        || (versaoNova != null && versaoNova.isAfter(removido.getRemovidoEm()))) {
+                    continue;
+                }
+                Aluno atual = naMemoria(removido.getMatricula());
+                // Só remove se a lápide for mais nova que a versão que está na memória.
+                if (atual != null && (atual.getAtualizadoEm() == null || !atual.getAtualizadoEm().isAfter(removido.getRemovidoEm()))) {
+                    this.listaAlunos.remove(atual);
+                    desindexar(atual);
+                    retirados.add(atual);
+                }
+            }
+            for (Aluno alterado : alterados) {
+                if (gravacaoPendente(alterado.getMatricula())) {
+                    continue;
+                }
+                Aluno atual = naMemoria(alterado.getMatricula());
+                if (atual != null) {
+                    if (atual.getAtualizadoEm() != null && !alterado.getAtualizadoEm().isAfter(atual.getAtualizadoEm())) {
+                        continue; // A memória já tem esta versão (ou uma mais nova).
+                    }
+                    if (mesmosCampos(atual, alterado)) {
+                        // No armazém a leitura é uma cópia: a versão não fica, e a linha também não muda.
+                        atual.setAtualizadoEm(alterado.getAtualizadoEm());
+                        continue;
+                    }
+                    // Alteração: a versão antiga sai e a nova entra no lugar dela.
+                    this.listaAlunos.remove(atual);
+                    desindexar(atual);
+                    retirados.add(atual);
+                }
+                this.listaAlunos.add(alterado);
+                indexar(alterado);
+                if (armazem == null) {
+                    guardaCpf.registrar(alterado); // O armazém já responde pelo CPF.
+                }
+                inseridos.add(alterado);
+            }
+            view = this.dataView;
+
+            // O backup em CSV acompanha o banco, como num cadastro ou exclusão feitos aqui.
+            try {
+                for (Aluno aluno : retirados) {
+                    registrarNoBackup(null, aluno.getMatricula());
+                }
+                for (Aluno aluno : inseridos) {
+                    registrarNoBackup(aluno, null);
+                }
+            } catch (IOException e) {
+                System.err.println("Erro ao registrar a sincronização no backup CSV: " + e.getMessage());
+            }
+        }
+        // O que o cache do repositório guardava destas matrículas ficou velho.
+        java.util.List<String> mudadas = new java.util.ArrayList<>();
+        alterados.forEach(aluno -> mudadas.add(aluno.getMatricula()));
+        removidos.forEach(removido -> mudadas.add(removido.getMatricula()));
+        banco.esquecer(mudadas);
+
+        if (view != null && !(inseridos.isEmpty() && retirados.isEmpty())) {
+            javax.swing.SwingUtilities.invokeLater(() -> {
+                retirados.forEach(view::alunoRemovido);
+                inseridos.forEach(view::alunoInserido);
+            });
+        }
+        return inseridos.size() + retirados.size();
+    }
+
+    // Se a matrícula tem cadastro ou exclusão na fila da gravação adiada, ainda não gravado.
+    private boolean gravacaoPendente(String matricula) {
+        return gravacaoAdiada != null && gravacaoAdiada.pendente(matricula);
+    }
+
+    // --- ÍNDICES EM MEMÓRIA ---
+
+    /**
+     * Remove tudo que não for dígito do CPF, para que "123.456.789-10" e
+     * "12345678910" apontem para a mesma entrada do índice.
+     */
+    static String normalizarCpf(String cpf) {
+        if (cpf == null) {
+            return "";
+        }
+        StringBuilder digitos = new StringBuilder(11);
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            }
+        }
+        return digitos.toString();
+    }
+
+    // Põe o aluno nos índices. Deve ser chamado sempre junto com 'listaAlunos.add'.
+    // No modo compacto o 'add' já indexou no armazém.
+    private void indexar(Aluno aluno) {
+        if (armazem == null) {
+            indicePorMatricula.put(aluno.getMatricula(), aluno);
+            indiceNascimento.inserir(aluno);
+            indiceNomes.inserir(aluno);
+        }
+    }
+
+    // Aluno com a matrícula na memória (índice ou armazém), ou 'null'. Chamado com a lista travada.
+    private Aluno naMemoria(String matricula) {
+        return armazem == null ? indicePorMatricula.get(matricula) : armazem.buscar(matricula);
+    }
+
+    // Retira o aluno dos índices e libera o CPF. Deve ser chamado sempre junto com 'listaAlunos.remove'.
+    private void desindexar(Aluno aluno) {
+        indicePorMatricula.remove(aluno.getMatricula());
+        indiceNascimento.remover(aluno);
+        indiceNomes.remover(aluno);
+        guardaCpf.liberar(aluno);
+    }
+
+    // O mesmo que 'desindexar' para vários alunos, com uma única passada em cada chave
+    // do índice de nomes e no índice de nascimento.
+    private void desindexarTodos(java.util.List<Aluno> alunos) {
+        for (Aluno aluno : alunos) {
+            indicePorMatricula.remove(aluno.getMatricula());
+            guardaCpf.liberar(aluno);
+        }
+        indiceNomes.removerTodos(alunos);
+        indiceNascimento.removerTodos(alunos);
     }
 
     // -- CARREGAMENTO DE DADOS ---
 
     /**
-     * Tenta carregar todos os alunos do banco de dados MySQL via Hibernate.
+     * Modo compacto: lê a tabela em streaming direto para um armazém colunar, sem que todos
+     * os alunos existam como objetos ao mesmo tempo. Sem banco, usa o mesmo backup do modo normal.
+     */
+    private ArmazemAlunos carregarAlunosNoArmazem() {
+        try {
+            long quantidade = banco.contar();
+            // Folga para os cadastros da sessão sem que as colunas precisem crescer logo.
+            ArmazemAlunos novo = new ArmazemAlunos((int) Math.min(Integer.MAX_VALUE - 8, quantidade + quantidade / 8));
+            System.out.println("Carregando alunos do banco de dados (modo compacto)...");
+            banco.percorrerTodos(novo::adicionar);
+            this.carregadoDoBanco = true;
+            return novo;
+        } catch (Exception e) {
+            System.err.println("Erro grave ao carregar alunos do banco: " + e.getMessage());
+            e.printStackTrace();
+            java.util.List<Aluno> alunos = carregarDoBackup();
+            ArmazemAlunos novo = new ArmazemAlunos(alunos.size());
+            alunos.forEach(novo::adicionar);
+            return novo;
+        }
+    }
+
+    /**
+     * Tenta carregar todos os alunos do banco de dados MySQL, pelo repositório.
      */
     private java.util.List<Aluno> carregarAlunosDoBanco() {
-        // Bloco 'try-with-resources' garante que a sessão do hibernate feche.
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            // Criação da consulta HQL para selecionar todos os objetos Aluno.
-            Query<Aluno> query = session.createQuery("FROM Aluno", Aluno.class);
+        try {
             System.out.println("Carregando alunos do banco de dados...");
-            // Executa a consulta e retorna a lista de alunos.
-            return query.list();
+            java.util.List<Aluno> alunos = banco.todos();
+            this.carregadoDoBanco = true;
+            return alunos;
         } catch (Exception e) {
             System.err.println("Erro grave ao carregar alunos do banco: " + e.getMessage());
             e.printStackTrace();
-            // Fallback: se o banco falhar, tenta carregar de um arquivo CSV existente.
-            if (new File("alunos.csv").exists()) {
-                System.err.println("Tentando carregar do CSV como fallback...");
-                return SwingUtils.carregarAlunosDoCsv();
-            }
-            // Retorna lista vazia se tudo falhar.
-            return new java.util.LinkedList<>();
+            return carregarDoBackup();
         }
     }
 
+    // Fallback: se o banco falhar, reconstrói a lista a partir do CSV e do seu diário.
+    private static java.util.List<Aluno> carregarDoBackup() {
+        if (Files.exists(Paths.get(SwingUtils.CSV_FILE)) || Files.exists(Paths.get(FotoBinaria.ARQUIVO_PADRAO))
+                || Files.exists(Paths.get(DiarioCsv.JOURNAL_FILE))) {
+            System.err.println("Tentando carregar do CSV como fallback...");
+            return DiarioCsv.reproduzir(Paths.get(SwingUtils.CSV_FILE), Paths.get(DiarioCsv.JOURNAL_FILE));
+        }
+        // Retorna lista vazia se tudo falhar.
+        return new java.util.LinkedList<>();
+    }
+
 
     // --- CADASTRO DE ALUNO --
 
     /**
-     * Cadastra um novo aluno no banco de dados, na lista local e salva um backup no CSV.
+     * Lê e valida os campos da tela de cadastro e monta o objeto Aluno.
+     * Deve ser chamado na thread do Swing. Se algum campo for inválido,
+     * mostra a mensagem de erro e retorna 'null'.
      */
-    public void cadastrar(JTextField nomes, JTextField ind, JTextField matr, JTextField idades, JFormattedTextField datan, JFormattedTextField tele, JFormattedTextField cpfs){
+    public static Aluno montarAluno(JTextField nomes, JTextField ind, JTextField matr, JTextField idades, JFormattedTextField datan, JFormattedTextField tele, JFormattedTextField cpfs){
         try {
             // 1. CAPTURA E PARSING DOS DADOS DA GUI (Campos da tela)
             String matricula = matr.getText();
             String nome = nomes.getText();
             int idade = Integer.parseInt(idades.getText());
             int index = Integer.parseInt(ind.getText());
-            Date dataNascimento = (Date) datan.getValue();
+            // O campo de data da tela devolve um java.util.Date; o Aluno guarda só o dia (LocalDate).
+            Date valorData = (Date) datan.getValue();
+            LocalDate dataNascimento = valorData == null ? null
+                    : valorData.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
             String telefone = tele.getText();
             String cpf = cpfs.getText();
 
             // Validação 1: CPF obrigatório.
             if (cpf.equals("   .   .   -  ")) {
                 javax.swing.JOptionPane.showMessageDialog(null, "O campo CPF é obrigatório.", "Erro de Validação", javax.swing.JOptionPane.ERROR_MESSAGE);
-                return;
+                return null;
             }
             // Validação 2: Data, Matrícula e Nome obrigatórios.
             if (dataNascimento == null || matricula.trim().isEmpty() || nome.trim().isEmpty()) {
                  javax.swing.JOptionPane.showMessageDialog(null, "Matrícula, Nome e Data são obrigatórios.", "Erro de Validação", javax.swing.JOptionPane.ERROR_MESSAGE);
-                 return;
+                 return null;
             }
 
             // 2. CRIA O OBJETO ALUNO na memória
-            Aluno novoAluno = new Aluno(matricula, nome, idade, dataNascimento, telefone, cpf, index);
-
-            // 3. PERSISTÊNCIA COM HIBERNATE (Banco de Dados)
-            Transaction transaction = null;
-            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-                // Validação 3: Checagem prévia de CPF duplicado no banco.
-                Query<Aluno> queryCpf = session.createQuery("FROM Aluno WHERE cpf = :cpfDoAluno", Aluno.class);
-                queryCpf.setParameter("cpfDoAluno", cpf);
-
-                // uniqueResult() retorna o objeto se existir, ou 'null'.
-                Aluno alunoComMesmoCpf = queryCpf.uniqueResult();
-
-                if (alunoComMesmoCpf != null) {
-                    // Impede o cadastro se o CPF já estiver em uso.
-                    javax.swing.JOptionPane.showMessageDialog(null,
-                        "Erro: O CPF '" + cpf + "' já está sendo utilizado por: " + alunoComMesmoCpf.getNome(),
-                        "CPF Duplicado",
-                        javax.swing.JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-
-                // Inicia a transação, salva o objeto no banco e confirma.
-                transaction = session.beginTransaction();
-                session.persist(novoAluno);
-                transaction.commit();
-
-                // 4. Se o banco salvou, o objeto é adicionado à lista local (em memória)
-                this.listaAlunos.add(novoAluno);
-                if (this.dataView != null) {
-                    this.dataView.atualizarTudo(); // Atualiza a exibição na interface
-                }
-
-                // 5. Salva também no CSV (Backup)
-                try {
-                    SwingUtils.salvarAlunosEmCsv(this.listaAlunos);
-                    javax.swing.JOptionPane.showMessageDialog(null, "Aluno salvo com SUCESSO no MySQL e no CSV!");
-
-                } catch (IOException ioEx) {
-                    // Aviso se o banco salvou, mas o backup falhou.
-                    javax.swing.JOptionPane.showMessageDialog(null,
-                        "Aluno salvo no MySQL com SUCESSO.\n\nFALHA ao salvar backup no CSV: " + ioEx.getMessage(),
-                        "Aviso de Backup",
-                        javax.swing.JOptionPane.WARNING_MESSAGE);
-                }
-
-                // 6. Limpa os campos da interface gráfica após o sucesso.
-                nomes.setText("");
-                matr.setText("");
-                idades.setText("");
-                datan.setValue(null);
-                tele.setText("");
-                cpfs.setText("");
-                ind.setText("");
-
-            } catch (ConstraintViolationException e) {
-                // Captura erro de chave duplicada (ex: Matrícula) do banco.
-                if (transaction != null) transaction.rollback();
-                javax.swing.JOptionPane.showMessageDialog(null, "Erro: Matrícula '" + matricula + "' já existe no banco de dados.", "Matrícula Duplicada", javax.swing.JOptionPane.ERROR_MESSAGE);
-            } catch (Exception e) {
-                // Captura outros erros gerais do banco de dados/hibernate.
-                if (transaction != null) transaction.rollback();
-                javax.swing.JOptionPane.showMessageDialog(null, "Erro ao salvar no banco de dados: " + e.getMessage(), "Erro de Banco de Dados", javax.swing.JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
-            }
+            return new Aluno(matricula, nome, idade, dataNascimento, telefone, cpf, index);
 
         // --- Tratamento de Exceções de Formato de Entrada ---
         } catch (NumberFormatException e) {
@@ -169,81 +445,606 @@ class listaAlunos {
         catch (HeadlessException e) {
             javax.swing.JOptionPane.showMessageDialog(null, "Erro de GUI ao cadastrar aluno: " + e.getMessage(), "Erro", javax.swing.JOptionPane.ERROR_MESSAGE);
         }
+        return null;
+    }
+
+    /**
+     * Cadastra um novo aluno no banco de dados, na lista local e salva um backup no CSV.
+     *
+     * Este método bloqueia durante o acesso ao banco: a interface deve chamá-lo
+     * através de 'OperacoesAssincronas', nunca direto na thread do Swing.
+     *
+     * @throws OperacaoAlunoException se o CPF ou a matrícula já existirem, ou o banco falhar.
+     */
+    public ResultadoOperacao cadastrar(Aluno novoAluno) {
+        if (gravacaoAdiada != null) {
+            // Vários cadastros simultâneos (ex: o servidor HTTP) saem juntos no mesmo commit.
+            return aguardar(cadastrarAdiado(novoAluno));
+        }
+        long inicio = System.nanoTime();
+        try {
+            ResultadoOperacao resultado = executarCadastro(novoAluno);
+            Metricas.CADASTRAR.sucesso(inicio);
+            return resultado;
+        } catch (RuntimeException e) {
+            Metricas.CADASTRAR.falha(inicio);
+            throw e;
+        }
+    }
+
+    // O cadastro em si; 'cadastrar' só mede o tempo e conta as falhas.
+    private ResultadoOperacao executarCadastro(Aluno novoAluno) {
+        String cpf = novoAluno.getCpf();
+        String matricula = novoAluno.getMatricula();
+
+        // Validação 3: Checagem de CPF duplicado, feita em memória pelo guarda.
+        // Se der certo, o CPF fica reservado para este aluno até o fim do cadastro.
+        Aluno alunoComMesmoCpf = guardaCpf.reservar(novoAluno);
+        if (alunoComMesmoCpf != null) {
+            // Impede o cadastro se o CPF já estiver em uso.
+            throw new OperacaoAlunoException(OperacaoAlunoException.Tipo.CONFLITO, "CPF Duplicado",
+                "Erro: O CPF '" + cpf + "' já está sendo utilizado por: " + alunoComMesmoCpf.getNome());
+        }
+
+        // 3. PERSISTÊNCIA COM HIBERNATE (Banco de Dados)
+        try {
+            // O repositório salva o objeto no banco numa transação própria (e desfaz se falhar).
+            banco.inserir(novoAluno);
+        } catch (ConstraintViolationException e) {
+            // Captura erro de chave duplicada do banco e devolve a reserva do CPF.
+            guardaCpf.liberar(novoAluno);
+            String restricao = e.getConstraintName();
+            if (restricao != null && restricao.toLowerCase().contains("cpf")) {
+                // Outro programa gravou o mesmo CPF direto no banco.
+                throw new OperacaoAlunoException(OperacaoAlunoException.Tipo.CONFLITO, "CPF Duplicado",
+                    "Erro: O CPF '" + cpf + "' já existe no banco de dados.", e);
+            }
+            throw new OperacaoAlunoException(OperacaoAlunoException.Tipo.CONFLITO, "Matrícula Duplicada",
+                "Erro: Matrícula '" + matricula + "' já existe no banco de dados.", e);
+        } catch (OperacaoAlunoException e) {
+            // Um repositório fora do banco (CSV, memória) já diz o que houve.
+            guardaCpf.liberar(novoAluno);
+            throw e;
+        } catch (Exception e) {
+            // Captura outros erros gerais do banco de dados/hibernate.
+            guardaCpf.liberar(novoAluno);
+            e.printStackTrace();
+            throw new OperacaoAlunoException("Erro de Banco de Dados", "Erro ao salvar no banco de dados: " + e.getMessage(), e);
+        }
+
+        // 4. Se o banco salvou, o objeto é adicionado à lista local (em memória)
+        //    e, com a mesma trava, anexado ao diário do CSV (Backup).
+        TrabConsData view;
+        String falhaBackup = null;
+        synchronized (this) {
+            this.listaAlunos.add(novoAluno);
+            indexar(novoAluno);
+            view = this.dataView;
+            try {
+                registrarNoBackup(novoAluno, null);
+            } catch (IOException ioEx) {
+                // O banco salvou, mas o backup falhou.
+                falhaBackup = ioEx.getMessage();
+            }
+        }
+        if (view != null) {
+            // Atualiza a exibição na interface, só com a linha nova.
+            javax.swing.SwingUtilities.invokeLater(() -> view.alunoInserido(novoAluno));
+        }
+        return new ResultadoOperacao(novoAluno, falhaBackup);
     }
 
     /**
      * Retorna o número total de alunos na lista local, como uma string.
      */
-    public String getTamanho(){
+    public synchronized String getTamanho(){
         return String.valueOf(listaAlunos.size());
     }
 
+    /**
+     * Retorna uma cópia da lista de alunos, segura para ser percorrida
+     * enquanto outras threads cadastram ou excluem.
+     */
+    public synchronized java.util.List<Aluno> copiarAlunos() {
+        // No modo compacto a cópia é das colunas; cada Aluno só é montado quando lido.
+        return armazem == null ? new java.util.ArrayList<>(this.listaAlunos) : armazem.copiar();
+    }
+
     // --- EXCLUSÃO DE ALUNO ---
 
     /**
      * Exclui um aluno do banco de dados, da lista local e atualiza o CSV.
+     *
+     * Assim como 'cadastrar', bloqueia durante o acesso ao banco.
+     *
+     * @throws OperacaoAlunoException se o aluno não existir ou o banco falhar.
      */
-    public void excluirAluno(String matricula) {
-        Aluno alunoParaExcluir = null;
-
-        // Procura o aluno na lista local pela matrícula.
-        for (Aluno a : listaAlunos) {
-            if (a.getMatricula().equals(matricula)) {
-                alunoParaExcluir = a;
-                break;
-            }
+    public ResultadoOperacao excluirAluno(String matricula) {
+        if (gravacaoAdiada != null) {
+            return aguardar(excluirAdiado(matricula));
         }
+        long inicio = System.nanoTime();
+        try {
+            ResultadoOperacao resultado = executarExclusao(matricula);
+            Metricas.EXCLUIR.sucesso(inicio);
+            return resultado;
+        } catch (RuntimeException e) {
+            Metricas.EXCLUIR.falha(inicio);
+            throw e;
+        }
+    }
+
+    // A exclusão em si; 'excluirAluno' só mede o tempo e conta as falhas.
+    private ResultadoOperacao executarExclusao(String matricula) {
+        // Procura o aluno pelo índice de matrícula (O(1)).
+        Aluno alunoParaExcluir = buscarPorMatricula(matricula);
 
         if (alunoParaExcluir == null) {
-            javax.swing.JOptionPane.showMessageDialog(null, "Aluno com matrícula " + matricula + " não encontrado na lista.", "Erro", javax.swing.JOptionPane.ERROR_MESSAGE);
-            return;
+            throw new OperacaoAlunoException(OperacaoAlunoException.Tipo.NAO_ENCONTRADO, "Erro",
+                "Aluno com matrícula " + matricula + " não encontrado na lista.");
         }
 
-        // 1. Exclui do banco de dados.
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.remove(alunoParaExcluir);
-            transaction.commit();
+        // 1. Exclui do banco de dados. Se a linha já não existia (outra instância excluiu antes),
+        //    o resultado é o pedido: segue para tirar da memória.
+        try {
+            banco.excluir(matricula);
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new OperacaoAlunoException("Erro de Banco de Dados", "Erro ao excluir aluno do banco: " + e.getMessage(), e);
+        }
 
-            // 2. Se deu certo, remove da lista em memória.
+        // 2. Se deu certo, remove da lista em memória e, com a mesma trava,
+        //    anexa a remoção ao diário do CSV (backup).
+        TrabConsData view;
+        String falhaBackup = null;
+        synchronized (this) {
             this.listaAlunos.remove(alunoParaExcluir);
+            desindexar(alunoParaExcluir);
+            view = this.dataView;
+            try {
+                registrarNoBackup(null, matricula);
+            } catch (IOException ioEx) {
+                // O banco excluiu, mas o backup CSV falhou.
+                falhaBackup = ioEx.getMessage();
+            }
+        }
+        if (view != null) {
+            // Atualiza a interface, retirando só a linha excluída.
+            javax.swing.SwingUtilities.invokeLater(() -> view.alunoRemovido(alunoParaExcluir));
+        }
+        return new ResultadoOperacao(alunoParaExcluir, falhaBackup);
+    }
+
+    // --- EXCLUSÃO EM MASSA ---
+
+    /**
+     * Exclui vários alunos de uma vez (ex: as linhas selecionadas na tabela).
+     *
+     * No banco, um "DELETE ... WHERE matricula IN (...)" por bloco de matrículas, todos na
+     * mesma transação; na memória, uma única passada pela lista. Excluir k alunos um a um
+     * custaria k transações e k passadas.
+     *
+     * Bloqueia durante o acesso ao banco, como 'excluirAluno'.
+     *
+     * @throws OperacaoAlunoException se o banco falhar (nada é excluído).
+     */
+    public ResultadoExclusaoEmMassa excluirAlunos(Collection<String> matriculas) {
+        long inicio = System.nanoTime();
+        try {
+            ResultadoExclusaoEmMassa resultado = executarExclusaoEmMassa(new java.util.LinkedHashSet<>(matriculas));
+            Metricas.EXCLUIR_EM_MASSA.sucesso(inicio);
+            Metricas.EXCLUIR_EM_MASSA.adicionarItens(resultado.excluidosNoBanco());
+            return resultado;
+        } catch (RuntimeException e) {
+            Metricas.EXCLUIR_EM_MASSA.falha(inicio);
+            throw e;
+        }
+    }
+
+    private ResultadoExclusaoEmMassa executarExclusaoEmMassa(java.util.Set<String> alvos) {
+        if (alvos.isEmpty()) {
+            return new ResultadoExclusaoEmMassa(0, java.util.List.of(), null);
+        }
+        if (gravacaoAdiada != null) {
+            return excluirAlunosAdiado(alvos);
+        }
+
+        // 1. Exclui do banco de dados (um DELETE por bloco de matrículas, numa transação só).
+        int excluidosNoBanco;
+        try {
+            excluidosNoBanco = banco.excluirTodos(alvos);
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new OperacaoAlunoException("Erro de Banco de Dados", "Erro ao excluir alunos do banco: " + e.getMessage(), e);
+        }
+
+        // 2. Se deu certo, remove da lista em memória e, com a mesma trava, anexa ao diário.
+        //    No modo paginado a maioria não estava na memória, então vão todas as matrículas.
+        java.util.List<Aluno> removidos;
+        String falhaBackup;
+        synchronized (this) {
+            removidos = removerDaMemoria(alvos);
+            Collection<String> registradas = modoPaginado ? alvos : removidos.stream().map(Aluno::getMatricula).toList();
+            falhaBackup = registrarRemocoesNoBackup(registradas);
+        }
+        return new ResultadoExclusaoEmMassa(excluidosNoBanco, removidos, falhaBackup);
+    }
+
+    // Gravação adiada: as exclusões entram na fila (na ordem da lista) e o resultado espera as confirmações.
+    private ResultadoExclusaoEmMassa excluirAlunosAdiado(java.util.Set<String> alvos) {
+        java.util.List<CompletableFuture<ResultadoOperacao>> confirmacoes;
+        TrabConsData view;
+        java.util.List<Aluno> removidos;
+        synchronized (this) {
+            java.util.List<Aluno> aSair = new java.util.ArrayList<>();
+            for (String matricula : alvos) {
+                Aluno aluno = naMemoria(matricula);
+                if (aluno != null) {
+                    aSair.add(aluno);
+                }
+            }
+            // Primeiro a fila, depois a memória: se a gravação já foi encerrada, nada foi tirado
+            // da lista nem dos índices. (Uma recusada só é desfeita depois desta trava.)
+            confirmacoes = gravacaoAdiada.enfileirarTodas(GravacaoAdiada.Tipo.REMOCAO, aSair);
+            removidos = armazem != null ? armazem.removerMatriculas(alvos) : remocao.removerAlunos(this.listaAlunos, alvos);
+            desindexarTodos(removidos);
+            view = this.dataView;
+        }
+        if (view != null && !removidos.isEmpty()) {
+            javax.swing.SwingUtilities.invokeLater(() -> view.alunosRemovidos(removidos));
+        }
+        // As recusadas já voltaram para a lista (ver 'DestinoGravacao'); o resultado traz só as confirmadas.
+        java.util.List<Aluno> confirmados = new java.util.ArrayList<>();
+        String falhaBackup = null;
+        OperacaoAlunoException primeiroErro = null;
+        for (CompletableFuture<ResultadoOperacao> confirmacao : confirmacoes) {
+            try {
+                ResultadoOperacao resultado = aguardar(confirmacao);
+                confirmados.add(resultado.aluno());
+                if (falhaBackup == null) {
+                    falhaBackup = resultado.falhaBackup();
+                }
+            } catch (OperacaoAlunoException e) {
+                System.err.println("Exclusão em massa: " + e.getMessage());
+                if (primeiroErro == null) {
+                    primeiroErro = e;
+                }
+            }
+        }
+        if (confirmados.isEmpty() && primeiroErro != null) {
+            throw primeiroErro;
+        }
+        return new ResultadoExclusaoEmMassa(confirmados.size(), confirmados, falhaBackup);
+    }
+
+    // Uma passada pela lista (ou pelo armazém) e uma pelos índices; avisa a janela uma vez.
+    private java.util.List<Aluno> removerDaMemoria(java.util.Set<String> alvos) {
+        java.util.List<Aluno> removidos;
+        TrabConsData view;
+        synchronized (this) {
+            removidos = armazem != null ? armazem.removerMatriculas(alvos) : remocao.removerAlunos(this.listaAlunos, alvos);
+            desindexarTodos(removidos);
+            view = this.dataView;
+        }
+        if (view != null && (!removidos.isEmpty() || modoPaginado)) {
+            javax.swing.SwingUtilities.invokeLater(() -> view.alunosRemovidos(removidos));
+        }
+        return removidos;
+    }
+
+    // Anexa as remoções ao diário do CSV. Devolve a mensagem de falha, ou 'null'.
+    private String registrarRemocoesNoBackup(Collection<String> matriculas) {
+        try {
+            for (String matricula : matriculas) {
+                registrarNoBackup(null, matricula);
+            }
+            return null;
+        } catch (IOException ioEx) {
+            return ioEx.getMessage();
+        }
+    }
+
+    // --- GRAVAÇÃO ADIADA ---
+
+    /**
+     * Cadastra o aluno sem esperar o banco: com a gravação adiada ligada, o aluno entra na
+     * lista (e na tabela) na hora e o futuro termina quando o lote dele for confirmado no banco.
+     * Se o banco recusar, o aluno sai da lista de novo e o futuro termina com o erro.
+     *
+     * Com a gravação adiada desligada, é o mesmo que 'cadastrar' (bloqueia até o commit).
+     *
+     * @throws OperacaoAlunoException se o CPF ou a matrícula já estiverem na memória.
+     */
+    CompletableFuture<ResultadoOperacao> cadastrarAdiado(Aluno novoAluno) {
+        if (gravacaoAdiada == null) {
+            return CompletableFuture.completedFuture(cadastrar(novoAluno));
+        }
+        long inicio = System.nanoTime();
+        try {
+            Aluno alunoComMesmoCpf = guardaCpf.reservar(novoAluno);
+            if (alunoComMesmoCpf != null) {
+                throw new OperacaoAlunoException(OperacaoAlunoException.Tipo.CONFLITO, "CPF Duplicado",
+                    "Erro: O CPF '" + novoAluno.getCpf() + "' já está sendo utilizado por: " + alunoComMesmoCpf.getNome());
+            }
+            CompletableFuture<ResultadoOperacao> confirmacao;
+            TrabConsData view;
+            synchronized (this) {
+                // Sem o commit individual, a matrícula repetida precisa ser barrada aqui.
+                if (naMemoria(novoAluno.getMatricula()) != null) {
+                    guardaCpf.liberar(novoAluno);
+                    throw new OperacaoAlunoException(OperacaoAlunoException.Tipo.CONFLITO, "Matrícula Duplicada",
+                        "Erro: Matrícula '" + novoAluno.getMatricula() + "' já está cadastrada.");
+                }
+                try {
+                    // Na fila e na lista sob a mesma trava: o banco recebe as mudanças na ordem da lista.
+                    confirmacao = gravacaoAdiada.enfileirar(GravacaoAdiada.Tipo.INSERCAO, novoAluno);
+                } catch (OperacaoAlunoException e) {
+                    guardaCpf.liberar(novoAluno);
+                    throw e;
+                }
+                this.listaAlunos.add(novoAluno);
+                indexar(novoAluno);
+                view = this.dataView;
+            }
+            if (view != null) {
+                javax.swing.SwingUtilities.invokeLater(() -> view.alunoInserido(novoAluno));
+            }
+            return medir(confirmacao, Metricas.CADASTRAR, inicio);
+        } catch (RuntimeException e) {
+            Metricas.CADASTRAR.falha(inicio);
+            throw e;
+        }
+    }
+
+    /**
+     * Exclui o aluno sem esperar o banco (ver 'cadastrarAdiado'). Se o banco recusar,
+     * o aluno volta para a lista e o futuro termina com o erro.
+     *
+     * @throws OperacaoAlunoException se o aluno não estiver na lista.
+     */
+    CompletableFuture<ResultadoOperacao> excluirAdiado(String matricula) {
+        if (gravacaoAdiada == null) {
+            return CompletableFuture.completedFuture(excluirAluno(matricula));
+        }
+        long inicio = System.nanoTime();
+        try {
+            CompletableFuture<ResultadoOperacao> confirmacao;
+            Aluno alunoParaExcluir;
+            TrabConsData view;
+            synchronized (this) {
+                alunoParaExcluir = naMemoria(matricula);
+                if (alunoParaExcluir == null) {
+                    throw new OperacaoAlunoException(OperacaoAlunoException.Tipo.NAO_ENCONTRADO, "Erro",
+                        "Aluno com matrícula " + matricula + " não encontrado na lista.");
+                }
+                confirmacao = gravacaoAdiada.enfileirar(GravacaoAdiada.Tipo.REMOCAO, alunoParaExcluir);
+                this.listaAlunos.remove(alunoParaExcluir);
+                desindexar(alunoParaExcluir);
+                view = this.dataView;
+            }
+            if (view != null) {
+                javax.swing.SwingUtilities.invokeLater(() -> view.alunoRemovido(alunoParaExcluir));
+            }
+            return medir(confirmacao, Metricas.EXCLUIR, inicio);
+        } catch (RuntimeException e) {
+            Metricas.EXCLUIR.falha(inicio);
+            throw e;
+        }
+    }
+
+    /**
+     * Espera a fila da gravação adiada ir para o banco (chamado ao encerrar o programa).
+     */
+    void descarregarGravacoes() {
+        if (gravacaoAdiada != null && !gravacaoAdiada.encerrar(30_000)) {
+            System.err.println("Gravação adiada: " + gravacaoAdiada.pendentes() + " mudança(s) não chegaram ao banco.");
+        }
+    }
+
+    // No modo compacto cada leitura do armazém monta um Aluno novo, então a comparação é pelos campos.
+    private boolean mesmoCadastro(Aluno naLista, Aluno aluno) {
+        if (naLista == aluno) {
+            return true;
+        }
+        return armazem != null && naLista != null && mesmosCampos(naLista, aluno);
+    }
 
-            if (this.dataView != null) {
-                this.dataView.atualizarTudo(); // Atualiza a interface
+    // Os campos que o usuário vê (sem o 'atualizadoEm' e a posição na lista).
+    private static boolean mesmosCampos(Aluno naLista, Aluno aluno) {
+        return java.util.Objects.equals(naLista.getNome(), aluno.getNome())
+                && java.util.Objects.equals(naLista.getCpf(), aluno.getCpf())
+                && java.util.Objects.equals(naLista.getTelefone(), aluno.getTelefone())
+                && java.util.Objects.equals(naLista.getDataNascimento(), aluno.getDataNascimento())
+                && naLista.getIdade() == aluno.getIdade();
+    }
+
+    // A métrica da operação conta até a confirmação no banco, não só até entrar na fila.
+    private static CompletableFuture<ResultadoOperacao> medir(CompletableFuture<ResultadoOperacao> confirmacao,
+                                                              MetricaOperacao metrica, long inicio) {
+        confirmacao.whenComplete((resultado, erro) -> {
+            if (erro == null) {
+                metrica.sucesso(inicio);
+            } else {
+                metrica.falha(inicio);
             }
+        });
+        return confirmacao;
+    }
 
-            // 3. Tenta atualizar o CSV (backup).
+    // Espera a confirmação, devolvendo o erro original (e não a CompletionException).
+    private static ResultadoOperacao aguardar(CompletableFuture<ResultadoOperacao> confirmacao) {
+        try {
+            return confirmacao.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * O lado da memória da gravação adiada: o backup em CSV depois do commit e o
+     * desfazer quando o banco recusa.
+     */
+    private final class DestinoGravacao implements GravacaoAdiada.Destino {
+
+        @Override
+        public ResultadoOperacao confirmada(GravacaoAdiada.Mutacao mutacao) {
+            Aluno aluno = mutacao.aluno();
             try {
-                SwingUtils.salvarAlunosEmCsv(this.listaAlunos);
-                javax.swing.JOptionPane.showMessageDialog(null, "Aluno " + matricula + " excluído com sucesso do MySQL e do CSV.");
+                if (mutacao.tipo() == GravacaoAdiada.Tipo.INSERCAO) {
+                    registrarNoBackup(aluno, null);
+                } else {
+                    registrarNoBackup(null, aluno.getMatricula());
+                }
+                return new ResultadoOperacao(aluno, null);
             } catch (IOException ioEx) {
-                // Aviso se o banco excluiu, mas o backup CSV falhou.
-                javax.swing.JOptionPane.showMessageDialog(null,
-                    "Aluno excluído do MySQL com SUCESSO.\n\nFALHA ao atualizar o CSV: " + ioEx.getMessage(),
-                    "Aviso de Backup",
-                    javax.swing.JOptionPane.WARNING_MESSAGE);
+                return new ResultadoOperacao(aluno, ioEx.getMessage());
             }
+        }
 
-        } catch (Exception e) {
-            // Reverte a transação em caso de erro no banco.
-            if (transaction != null) transaction.rollback();
-            javax.swing.JOptionPane.showMessageDialog(null, "Erro ao excluir aluno do banco: " + e.getMessage(), "Erro de Banco de Dados", javax.swing.JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
+        @Override
+        public OperacaoAlunoException recusada(GravacaoAdiada.Mutacao mutacao, Exception causa) {
+            Aluno aluno = mutacao.aluno();
+            TrabConsData view;
+            boolean desfeita = false;
+            synchronized (listaAlunos.this) {
+                if (mutacao.tipo() == GravacaoAdiada.Tipo.INSERCAO) {
+                    // Só se ainda for este mesmo cadastro (uma exclusão posterior já pode ter tirado,
+                    // e outro cadastro com a mesma matrícula pode ter entrado depois).
+                    if (mesmoCadastro(naMemoria(aluno.getMatricula()), aluno)) {
+                        listaAlunos.this.listaAlunos.remove(aluno);
+                        desindexar(aluno);
+                        desfeita = true;
+                    }
+                } else if (naMemoria(aluno.getMatricula()) == null) {
+                    listaAlunos.this.listaAlunos.add(aluno);
+                    indexar(aluno);
+                    if (armazem == null) {
+                        guardaCpf.registrar(aluno);
+                    }
+                    desfeita = true;
+                }
+                view = dataView;
+            }
+            if (view != null && desfeita) {
+                if (mutacao.tipo() == GravacaoAdiada.Tipo.INSERCAO) {
+                    javax.swing.SwingUtilities.invokeLater(() -> view.alunoRemovido(aluno));
+                } else {
+                    javax.swing.SwingUtilities.invokeLater(() -> view.alunoInserido(aluno));
+                }
+            }
+
+            if (mutacao.tipo() == GravacaoAdiada.Tipo.REMOCAO) {
+                return new OperacaoAlunoException("Erro de Banco de Dados", "Erro ao excluir aluno do banco: " + causa.getMessage(), causa);
+            }
+            // O Hibernate pode embrulhar a violação (ex: numa PersistenceException do commit).
+            ConstraintViolationException violacao = null;
+            for (Throwable t = causa; t != null && violacao == null; t = t.getCause()) {
+                if (t instanceof ConstraintViolationException c) {
+                    violacao = c;
+                }
+            }
+            if (violacao != null) {
+                String restricao = violacao.getConstraintName();
+                if (restricao != null && restricao.toLowerCase().contains("cpf")) {
+                    return new OperacaoAlunoException(OperacaoAlunoException.Tipo.CONFLITO, "CPF Duplicado",
+                        "Erro: O CPF '" + aluno.getCpf() + "' já existe no banco de dados.", causa);
+                }
+                return new OperacaoAlunoException(OperacaoAlunoException.Tipo.CONFLITO, "Matrícula Duplicada",
+                    "Erro: Matrícula '" + aluno.getMatricula() + "' já existe no banco de dados.", causa);
+            }
+            return new OperacaoAlunoException("Erro de Banco de Dados", "Erro ao salvar no banco de dados: " + causa.getMessage(), causa);
         }
     }
 
     /**
      * Busca um aluno na lista em memória usando a matrícula como chave.
+     * No modo paginado, se ele não estiver na memória, a busca vai ao banco (pela chave primária).
      */
     public Aluno buscarPorMatricula(String matricula) {
-        // Itera sobre a lista 'listaAlunos' local.
-        for (Aluno aluno : this.listaAlunos) {
-            // Compara a matrícula.
-            if (aluno.getMatricula().equals(matricula)) {
-                return aluno; // Retorna o aluno se a matrícula for igual.
+        long inicio = System.nanoTime();
+        Aluno aluno;
+        synchronized (this) {
+            // Consulta direta no índice primário (ou no armazém, no modo compacto).
+            aluno = naMemoria(matricula);
+        }
+        if (aluno == null && modoPaginado) {
+            try {
+                aluno = paginador.buscar(matricula);
+            } catch (RuntimeException e) {
+                Metricas.BUSCAR_MATRICULA.falha(inicio);
+                throw e;
             }
         }
-        return null; // Retorna nulo se o aluno não for encontrado.
+        Metricas.BUSCAR_MATRICULA.sucesso(inicio);
+        return aluno; // Nulo se o aluno não for encontrado.
+    }
+
+    /**
+     * Indica se a lista veio inteira do banco (e não do CSV nem do modo paginado).
+     */
+    public boolean isCarregadoDoBanco() {
+        return carregadoDoBanco;
+    }
+
+    public boolean isModoCompacto() {
+        return armazem != null;
+    }
+
+    /**
+     * O armazém colunar do modo compacto ('null' fora dele).
+     */
+    ArmazemAlunos getArmazem() {
+        return armazem;
+    }
+
+    public boolean isModoPaginado() {
+        return modoPaginado;
+    }
+
+    public PaginadorAlunos getPaginador() {
+        return paginador;
+    }
+
+    /**
+     * Retorna uma cópia do índice por data de nascimento (já ordenada; copiar é O(n), sem ordenar).
+     */
+    public synchronized IndiceDataNascimento copiarIndiceNascimento() {
+        return indiceNascimento.copiar();
+    }
+
+    /**
+     * Retorna os alunos nascidos entre as duas datas (inclusive), do mais velho para o mais novo.
+     * Qualquer limite pode ser 'null'.
+     */
+    public synchronized IndiceDataNascimento buscarPorNascimento(LocalDate de, LocalDate ate) {
+        return indiceNascimento.intervalo(de, ate);
+    }
+
+    /**
+     * Busca alunos por parte do nome, sem diferenciar acentos nem maiúsculas.
+     * No modo paginado a lista local não tem todos os alunos, então a busca vai ao banco.
+     *
+     * @param limite Número máximo de resultados.
+     */
+    public java.util.List<Aluno> buscarPorNome(String texto, int limite) {
+        if (modoPaginado) {
+            return paginador.buscarPorNome(texto, limite);
+        }
+        if (armazem != null) {
+            return armazem.buscarPorNome(texto, limite);
+        }
+        synchronized (this) {
+            return indiceNomes.buscar(texto, limite);
+        }
+    }
+
+    /**
+     * Busca um aluno pelo CPF, com ou sem pontuação, usando o índice secundário.
+     */
+    public Aluno buscarPorCpf(String cpf) {
+        return guardaCpf.donoDe(cpf);
     }
-}
\ No newline at end of file
+}
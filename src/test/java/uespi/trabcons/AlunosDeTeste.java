@@ -0,0 +1,45 @@
+package uespi.trabcons;
+
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alunos prontos para os testes: cada número gera uma matrícula e um CPF próprios.
+ */
+final class AlunosDeTeste {
+
+    private AlunosDeTeste() {
+    }
+
+    static Aluno aluno(int numero, String nome) {
+        try {
+            return new Aluno(String.format("M%05d", numero), nome, 20 + numero % 30,
+                    LocalDate.of(1990, 1, 1).plusDays(numero * 37L), String.format("(86) 9%04d-%04d", numero, numero),
+                    String.format("%03d.%03d.%03d-%02d", numero % 1000, numero / 1000, 111, numero % 100), numero);
+        } catch (ParseException e) {
+            throw new IllegalStateException(e); // O construtor não converte nada; só declara a exceção.
+        }
+    }
+
+    static Aluno aluno(int numero) {
+        return aluno(numero, "Aluno " + numero);
+    }
+
+    static List<Aluno> alunos(int quantidade) {
+        List<Aluno> alunos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            alunos.add(aluno(i));
+        }
+        return alunos;
+    }
+
+    static List<String> matriculas(List<Aluno> alunos) {
+        List<String> matriculas = new ArrayList<>(alunos.size());
+        for (Aluno aluno : alunos) {
+            matriculas.add(aluno.getMatricula());
+        }
+        return matriculas;
+    }
+}
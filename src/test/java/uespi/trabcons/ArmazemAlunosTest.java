@@ -0,0 +1,152 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * O armazém em colunas e a vista flyweight sobre ele.
+ */
+class ArmazemAlunosTest {
+
+    private static void assertMesmoAluno(Aluno esperado, Aluno lido) {
+        assertEquals(esperado.getMatricula(), lido.getMatricula());
+        assertEquals(esperado.getNome(), lido.getNome());
+        assertEquals(esperado.getIdade(), lido.getIdade());
+        assertEquals(esperado.getDataNascimento(), lido.getDataNascimento());
+        assertEquals(esperado.getTelefone(), lido.getTelefone());
+        assertEquals(esperado.getCpf(), lido.getCpf());
+        assertEquals(esperado.getIndex(), lido.getIndex());
+        assertEquals(esperado.getAtualizadoEm(), lido.getAtualizadoEm());
+    }
+
+    @Test
+    void guardaEDevolveTodosOsCampos() {
+        ArmazemAlunos armazem = new ArmazemAlunos(2);
+        List<Aluno> alunos = AlunosDeTeste.alunos(100); // Passa da capacidade inicial: o armazém cresce.
+        alunos.get(7).setAtualizadoEm(LocalDateTime.of(2024, 5, 6, 7, 8, 9, 123_456_000));
+        alunos.get(8).setNome(null);
+        alunos.get(9).setDataNascimento(null);
+        alunos.get(10).setCpf("");
+        alunos.get(11).setTelefone("sem telefone");
+        for (Aluno aluno : alunos) {
+            armazem.adicionar(aluno);
+        }
+
+        assertEquals(alunos.size(), armazem.tamanho());
+        for (int i = 0; i < alunos.size(); i++) {
+            assertMesmoAluno(alunos.get(i), armazem.aluno(i));
+        }
+        List<Aluno> copia = armazem.copiar();
+        for (int i = 0; i < alunos.size(); i++) {
+            assertMesmoAluno(alunos.get(i), copia.get(i));
+        }
+    }
+
+    @Test
+    void buscaPorMatriculaECpf() {
+        ArmazemAlunos armazem = new ArmazemAlunos(16);
+        for (Aluno aluno : AlunosDeTeste.alunos(20)) {
+            armazem.adicionar(aluno);
+        }
+        Aluno esperado = AlunosDeTeste.aluno(13);
+
+        assertMesmoAluno(esperado, armazem.buscar("M00013"));
+        // Com ou sem pontuação.
+        assertMesmoAluno(esperado, armazem.buscarPorCpf(esperado.getCpf()));
+        assertMesmoAluno(esperado, armazem.buscarPorCpf(listaAlunos.normalizarCpf(esperado.getCpf())));
+        assertNull(armazem.buscar("M99999"));
+        assertNull(armazem.buscarPorCpf("999.999.999-99"));
+    }
+
+    @Test
+    void adicionarMatriculaExistenteTrocaAVersaoAntiga() {
+        ArmazemAlunos armazem = new ArmazemAlunos(4);
+        armazem.adicionar(AlunosDeTeste.aluno(1));
+        armazem.adicionar(AlunosDeTeste.aluno(2));
+        Aluno alterado = AlunosDeTeste.aluno(1, "Outro Nome");
+        alterado.setCpf("222.333.444-55");
+        armazem.adicionar(alterado);
+
+        assertEquals(2, armazem.tamanho());
+        assertEquals("M00002", armazem.aluno(0).getMatricula());
+        assertMesmoAluno(alterado, armazem.aluno(1));
+        assertNull(armazem.buscarPorCpf(AlunosDeTeste.aluno(1).getCpf()));
+        assertEquals("M00001", armazem.buscarPorCpf("22233344455").getMatricula());
+    }
+
+    @Test
+    void removerLiberaOSlotParaReuso() {
+        ArmazemAlunos armazem = new ArmazemAlunos(4);
+        for (Aluno aluno : AlunosDeTeste.alunos(4)) {
+            armazem.adicionar(aluno);
+        }
+
+        assertTrue(armazem.remover("M00001"));
+        assertFalse(armazem.remover("M00001"));
+        assertNull(armazem.buscar("M00001"));
+        assertNull(armazem.buscarPorCpf(AlunosDeTeste.aluno(1).getCpf()));
+
+        armazem.adicionar(AlunosDeTeste.aluno(9));
+        List<String> ordem = new ArrayList<>();
+        for (int i = 0; i < armazem.tamanho(); i++) {
+            ordem.add(armazem.aluno(i).getMatricula());
+        }
+        assertEquals(List.of("M00000", "M00002", "M00003", "M00009"), ordem);
+        assertMesmoAluno(AlunosDeTeste.aluno(9), armazem.buscar("M00009"));
+    }
+
+    @Test
+    void copiaNaoMudaComAsEscritasSeguintes() {
+        ArmazemAlunos armazem = new ArmazemAlunos(4);
+        for (Aluno aluno : AlunosDeTeste.alunos(3)) {
+            armazem.adicionar(aluno);
+        }
+        List<Aluno> copia = armazem.copiar();
+
+        armazem.remover("M00000");
+        armazem.adicionar(AlunosDeTeste.aluno(5, "Novo Nome Qualquer"));
+
+        assertEquals(List.of("M00000", "M00001", "M00002"), AlunosDeTeste.matriculas(copia));
+        assertEquals("Aluno 0", copia.get(0).getNome());
+    }
+
+    @Test
+    void vistaLeALinhaEAcompanhaAsEscritas() {
+        ArmazemAlunos armazem = new ArmazemAlunos(4);
+        for (Aluno aluno : AlunosDeTeste.alunos(3)) {
+            armazem.adicionar(aluno);
+        }
+        VistaAluno vista = new VistaAluno(armazem);
+
+        assertTrue(vista.posicionar(1));
+        Aluno esperado = AlunosDeTeste.aluno(1);
+        assertEquals(esperado.getMatricula(), vista.getMatricula());
+        assertEquals(esperado.getNome(), vista.getNome());
+        assertEquals(esperado.getIdade(), vista.getIdade());
+        assertEquals(esperado.getDataNascimento(), vista.getDataNascimento());
+        assertEquals(esperado.getDataNascimentoFormatadaCsv(), vista.getDataNascimentoFormatadaCsv());
+        assertEquals(esperado.getTelefone(), vista.getTelefone());
+        assertEquals(esperado.getCpf(), vista.getCpf());
+        assertMesmoAluno(esperado, vista.paraAluno());
+
+        // Mesma posição, outro aluno nela: a vista copia a linha de novo.
+        armazem.remover("M00001");
+        assertTrue(vista.posicionar(1));
+        assertEquals("M00002", vista.getMatricula());
+
+        // Posição que deixou de existir.
+        armazem.remover("M00002");
+        assertFalse(vista.posicionar(1));
+        assertNull(vista.getMatricula());
+
+        assertTrue(vista.posicionar(0));
+        assertEquals("M00000", vista.getMatricula());
+    }
+}
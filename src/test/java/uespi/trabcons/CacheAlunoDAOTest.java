@@ -0,0 +1,158 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * O cache por cima do repositório, sobre o 'MemoriaAlunoDAO'.
+ */
+class CacheAlunoDAOTest {
+
+    private final MemoriaAlunoDAO memoria = new MemoriaAlunoDAO(AlunosDeTeste.alunos(10));
+
+    private CacheAlunoDAO cache(int tamanho, CacheAlunoDAO.Politica politica) {
+        return new CacheAlunoDAO(memoria, tamanho, 0, politica);
+    }
+
+    @Test
+    void segundaLeituraVemDoCache() {
+        CacheAlunoDAO cache = cache(100, CacheAlunoDAO.Politica.LRU);
+
+        cache.buscar("M00001");
+        cache.buscar("M00001");
+        cache.buscarPorCpf(AlunosDeTeste.aluno(1).getCpf());
+
+        assertEquals(1, cache.getFalhas());
+        assertEquals(2, cache.getAcertos());
+        // Matrícula que não existe não fica guardada.
+        assertNull(cache.buscar("M99999"));
+        assertNull(cache.buscar("M99999"));
+        assertEquals(3, cache.getFalhas());
+    }
+
+    @Test
+    void devolveCopiasDoQueGuarda() {
+        CacheAlunoDAO cache = cache(100, CacheAlunoDAO.Politica.LRU);
+        Aluno inserido = AlunosDeTeste.aluno(20);
+        cache.inserir(inserido);
+        inserido.setNome("Alterado por quem inseriu");
+
+        Aluno lido = cache.buscar("M00020");
+        lido.setNome("Alterado por quem leu");
+
+        Aluno deNovo = cache.buscar("M00020");
+        assertEquals("Aluno 20", deNovo.getNome());
+        assertNotSame(lido, deNovo);
+        assertEquals(2, cache.getAcertos());
+    }
+
+    @Test
+    void lruDespejaOMenosUsado() {
+        CacheAlunoDAO cache = cache(2, CacheAlunoDAO.Politica.LRU);
+        cache.buscar("M00001");
+        cache.buscar("M00002");
+        cache.buscar("M00001"); // Agora o M00002 é o menos usado.
+        cache.buscar("M00003");
+
+        assertEquals(2, cache.getTamanho());
+        long falhas = cache.getFalhas();
+        cache.buscar("M00001");
+        assertEquals(falhas, cache.getFalhas());
+        cache.buscar("M00002");
+        assertEquals(falhas + 1, cache.getFalhas());
+    }
+
+    @Test
+    void fifoDespejaOMaisAntigo() {
+        CacheAlunoDAO cache = cache(2, CacheAlunoDAO.Politica.FIFO);
+        cache.buscar("M00001");
+        cache.buscar("M00002");
+        cache.buscar("M00001"); // O uso não muda a ordem de saída.
+        cache.buscar("M00003");
+
+        assertEquals(2, cache.getTamanho());
+        long falhas = cache.getFalhas();
+        cache.buscar("M00002");
+        assertEquals(falhas, cache.getFalhas());
+        cache.buscar("M00001");
+        assertEquals(falhas + 1, cache.getFalhas());
+    }
+
+    @Test
+    void entradaVencidaVoltaParaAOrigem() throws InterruptedException {
+        CacheAlunoDAO cache = new CacheAlunoDAO(memoria, 100, 1, CacheAlunoDAO.Politica.LRU);
+        cache.buscar("M00001");
+        Thread.sleep(5);
+
+        cache.buscar("M00001");
+
+        assertEquals(0, cache.getAcertos());
+        assertEquals(2, cache.getFalhas());
+    }
+
+    @Test
+    void gravacoesInvalidamOuAtualizam() {
+        CacheAlunoDAO cache = cache(100, CacheAlunoDAO.Politica.LRU);
+        cache.buscar("M00001");
+        cache.buscar("M00002");
+
+        Aluno alterado = AlunosDeTeste.aluno(1, "Nome Novo");
+        alterado.setCpf("555.666.777-88");
+        cache.salvar(alterado);
+        assertEquals("Nome Novo", cache.buscar("M00001").getNome());
+        // O CPF antigo não aponta mais para o aluno.
+        assertNull(cache.buscarPorCpf(AlunosDeTeste.aluno(1).getCpf()));
+        assertEquals("M00001", cache.buscarPorCpf("55566677788").getMatricula());
+
+        cache.excluir("M00002");
+        assertNull(cache.buscar("M00002"));
+
+        cache.excluirTodos(List.of("M00001", "M00003"));
+        assertNull(cache.buscar("M00001"));
+        assertEquals(7, memoria.contar());
+    }
+
+    @Test
+    void esquecerTiraDoCacheOQueMudouPorFora() {
+        CacheAlunoDAO cache = cache(100, CacheAlunoDAO.Politica.LRU);
+        cache.buscar("M00004");
+        // Outra instância alterou o aluno direto na origem.
+        memoria.salvar(AlunosDeTeste.aluno(4, "Mudado Por Fora"));
+        assertEquals("Aluno 4", cache.buscar("M00004").getNome());
+
+        cache.esquecer(List.of("M00004"));
+
+        assertEquals("Mudado Por Fora", cache.buscar("M00004").getNome());
+    }
+
+    @Test
+    void falhaDaOrigemNaoEntraNoCache() {
+        CacheAlunoDAO cache = cache(100, CacheAlunoDAO.Politica.LRU);
+        Aluno repetido = AlunosDeTeste.aluno(30);
+        repetido.setCpf(AlunosDeTeste.aluno(5).getCpf());
+
+        assertThrows(OperacaoAlunoException.class, () -> cache.inserir(repetido));
+
+        assertNull(cache.buscar("M00030"));
+        assertEquals("M00005", cache.buscarPorCpf(repetido.getCpf()).getMatricula());
+    }
+
+    @Test
+    void politicaDesconhecidaNaoDesligaOCache() {
+        assertEquals(CacheAlunoDAO.Politica.FIFO, CacheAlunoDAO.Politica.ler("fifo"));
+        assertEquals(CacheAlunoDAO.Politica.LRU, CacheAlunoDAO.Politica.ler(null));
+
+        System.setProperty("trabcons.repositorio.cache.politica", "LFU");
+        try {
+            assertInstanceOf(CacheAlunoDAO.class, CacheAlunoDAO.envolver(new MemoriaAlunoDAO()));
+        } finally {
+            System.clearProperty("trabcons.repositorio.cache.politica");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * O MBean do cache de segundo nível responde com os números do momento da leitura.
+ */
+class CacheSegundoNivelTest {
+
+    @Test
+    void taxasLidasAoVivo() throws Exception {
+        AtomicReference<EstatisticasCache> atual = new AtomicReference<>(new EstatisticasCache(0, 0, 0, 0, 0));
+        Metricas.publicar(new CacheSegundoNivel(atual::get), "Cache", "teste");
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objeto = new ObjectName("uespi.trabcons:type=Cache,name=teste");
+
+        assertEquals(0.0, servidor.getAttribute(objeto, "TaxaAcertoAluno"));
+
+        atual.set(new EstatisticasCache(3, 1, 4, 1, 3));
+        assertEquals(0.75, servidor.getAttribute(objeto, "TaxaAcertoAluno"));
+        assertEquals(0.25, servidor.getAttribute(objeto, "TaxaAcertoConsultas"));
+        assertEquals(4L, servidor.getAttribute(objeto, "AlunosEmCache"));
+        servidor.unregisterMBean(objeto);
+    }
+}
@@ -0,0 +1,100 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * O repositório em CSV: as gravações vão ao diário e voltam ao abrir de novo.
+ */
+class CsvAlunoDAOTest {
+
+    @TempDir
+    Path pasta;
+
+    private Path csv() {
+        return pasta.resolve("alunos.csv");
+    }
+
+    @Test
+    void gravacoesSobrevivemAReabertura() throws IOException {
+        try (CsvAlunoDAO repositorio = CsvAlunoDAO.abrir(csv())) {
+            for (Aluno aluno : AlunosDeTeste.alunos(5)) {
+                repositorio.inserir(aluno);
+            }
+            assertEquals(1, repositorio.excluirTodos(List.of("M00003", "M00099")));
+            repositorio.salvar(AlunosDeTeste.aluno(1, "Nome Novo"));
+        }
+        assertTrue(Files.exists(pasta.resolve("alunos.journal")));
+
+        try (CsvAlunoDAO repositorio = CsvAlunoDAO.abrir(csv())) {
+            assertEquals(4, repositorio.contar());
+            assertNull(repositorio.buscar("M00003"));
+            assertEquals("Nome Novo", repositorio.buscar("M00001").getNome());
+            assertEquals("M00004", repositorio.buscarPorCpf(AlunosDeTeste.aluno(4).getCpf()).getMatricula());
+            assertEquals(List.of("M00000", "M00001", "M00002", "M00004"), AlunosDeTeste.matriculas(repositorio.todos()));
+        }
+    }
+
+    @Test
+    void loteRecusadoNaoChegaAoDiario() throws IOException {
+        try (CsvAlunoDAO repositorio = CsvAlunoDAO.abrir(csv())) {
+            repositorio.inserir(AlunosDeTeste.aluno(1));
+            Aluno cpfRepetido = AlunosDeTeste.aluno(2);
+            cpfRepetido.setCpf(AlunosDeTeste.aluno(1).getCpf());
+
+            assertThrows(OperacaoAlunoException.class, () -> repositorio.gravarLote(List.of(
+                    new AlunoDAO.Mudanca(AlunosDeTeste.aluno(3), false),
+                    new AlunoDAO.Mudanca(cpfRepetido, false),
+                    new AlunoDAO.Mudanca(AlunosDeTeste.aluno(1), true),
+                    new AlunoDAO.Mudanca(AlunosDeTeste.aluno(4), false))));
+
+            assertEquals(List.of("M00001"), AlunosDeTeste.matriculas(repositorio.todos()));
+        }
+        try (CsvAlunoDAO repositorio = CsvAlunoDAO.abrir(csv())) {
+            assertEquals(List.of("M00001"), AlunosDeTeste.matriculas(repositorio.todos()));
+        }
+    }
+
+    @Test
+    void loteAplicaNaOrdem() throws IOException {
+        try (CsvAlunoDAO repositorio = CsvAlunoDAO.abrir(csv())) {
+            repositorio.inserir(AlunosDeTeste.aluno(1));
+            // Exclui e cadastra de novo a mesma matrícula, e exclui uma que não existe.
+            repositorio.gravarLote(List.of(
+                    new AlunoDAO.Mudanca(AlunosDeTeste.aluno(1), true),
+                    new AlunoDAO.Mudanca(AlunosDeTeste.aluno(1, "De Novo"), false),
+                    new AlunoDAO.Mudanca(AlunosDeTeste.aluno(2), false),
+                    new AlunoDAO.Mudanca(AlunosDeTeste.aluno(9), true)));
+        }
+        try (CsvAlunoDAO repositorio = CsvAlunoDAO.abrir(csv())) {
+            assertEquals("De Novo", repositorio.buscar("M00001").getNome());
+            List<Aluno> percorridos = new ArrayList<>();
+            repositorio.percorrerTodos(percorridos::add);
+            assertEquals(List.of("M00001", "M00002"), AlunosDeTeste.matriculas(percorridos));
+            assertFalse(repositorio.excluir("M00009"));
+        }
+    }
+
+    @Test
+    void buscaPorNomeSemAcento() throws IOException {
+        try (CsvAlunoDAO repositorio = CsvAlunoDAO.abrir(csv())) {
+            repositorio.inserir(AlunosDeTeste.aluno(1, "João Araújo"));
+            repositorio.inserir(AlunosDeTeste.aluno(2, "Ana Araujo"));
+            repositorio.inserir(AlunosDeTeste.aluno(3, "Pedro Lima"));
+
+            assertEquals(List.of("M00002", "M00001"), AlunosDeTeste.matriculas(repositorio.buscarPorNome("ARAUJO", 10)));
+            assertEquals(1, repositorio.buscarPorNome("araujo", 1).size());
+        }
+    }
+}
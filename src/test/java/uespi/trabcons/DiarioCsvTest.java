@@ -0,0 +1,167 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Reaplicação e compactação do diário do CSV, em arquivos temporários.
+ */
+class DiarioCsvTest {
+
+    @TempDir
+    Path pasta;
+
+    private Path foto() {
+        return pasta.resolve("ListagemAlunos.csv");
+    }
+
+    private Path diario() {
+        return pasta.resolve(DiarioCsv.JOURNAL_FILE);
+    }
+
+    private DiarioCsv abrir() throws IOException {
+        return new DiarioCsv(foto(), diario(), DiarioCsv.PoliticaSync.SEMPRE, 32, 200L, 1_000);
+    }
+
+    @Test
+    void reaplicaInsercoesERemocoesNaOrdem() throws IOException {
+        try (DiarioCsv diario = abrir()) {
+            diario.registrarInsercao(AlunosDeTeste.aluno(1));
+            diario.registrarInsercao(AlunosDeTeste.aluno(2));
+            diario.registrarInsercao(AlunosDeTeste.aluno(3));
+            diario.registrarRemocao("M00002");
+            // Nova inserção da mesma matrícula: vale a última versão.
+            diario.registrarInsercao(AlunosDeTeste.aluno(1, "Aluno Um Alterado"));
+        }
+
+        List<Aluno> alunos = DiarioCsv.reproduzir(foto(), diario());
+
+        assertEquals(List.of("M00001", "M00003"), AlunosDeTeste.matriculas(alunos));
+        assertEquals("Aluno Um Alterado", alunos.get(0).getNome());
+        assertEquals(AlunosDeTeste.aluno(3).getCpf(), alunos.get(1).getCpf());
+        assertEquals(AlunosDeTeste.aluno(3).getDataNascimento(), alunos.get(1).getDataNascimento());
+    }
+
+    @Test
+    void nomeComAspasEQuebraDeLinhaVoltaIgual() throws IOException {
+        String nome = "Ana \"Aninha\", da Silva\nSegunda linha";
+        try (DiarioCsv diario = abrir()) {
+            diario.registrarInsercao(AlunosDeTeste.aluno(1, nome));
+            diario.registrarInsercao(AlunosDeTeste.aluno(2));
+        }
+
+        List<Aluno> alunos = DiarioCsv.reproduzir(foto(), diario());
+
+        assertEquals(2, alunos.size());
+        assertEquals(nome, alunos.get(0).getNome());
+        assertEquals("M00002", alunos.get(1).getMatricula());
+    }
+
+    @Test
+    void registroComCrcErradoEDescartado() throws IOException {
+        try (DiarioCsv diario = abrir()) {
+            diario.registrarInsercao(AlunosDeTeste.aluno(1));
+        }
+        // Mesmo formato, mas o CRC não confere com o registro.
+        Files.writeString(diario(), "0;D,M00001\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        assertEquals(List.of("M00001"), AlunosDeTeste.matriculas(DiarioCsv.reproduzir(foto(), diario())));
+    }
+
+    @Test
+    void registroCortadoNoFimSaiAoReabrir() throws IOException {
+        try (DiarioCsv diario = abrir()) {
+            diario.registrarInsercao(AlunosDeTeste.aluno(1));
+        }
+        // Uma queda no meio de um registro com aspas: sem o fim das aspas e sem o '\n'.
+        Files.writeString(diario(), "1a2b3c;I,M00009,\"Nome cort", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (DiarioCsv diario = abrir()) {
+            diario.registrarInsercao(AlunosDeTeste.aluno(2));
+        }
+
+        assertEquals(List.of("M00001", "M00002"), AlunosDeTeste.matriculas(DiarioCsv.reproduzir(foto(), diario())));
+    }
+
+    @Test
+    void compactacaoGravaAFotoEEsvaziaODiario() throws IOException {
+        List<Aluno> estado = new ArrayList<>();
+        Object trava = new Object();
+        try (DiarioCsv diario = abrir()) {
+            for (int i = 0; i < 10; i++) {
+                Aluno aluno = AlunosDeTeste.aluno(i);
+                estado.add(aluno);
+                diario.registrarInsercao(aluno);
+            }
+            estado.remove(0);
+            diario.registrarRemocao("M00000");
+
+            diario.compactar(trava, () -> new ArrayList<>(estado));
+
+            assertTrue(Files.exists(foto()));
+            assertTrue(Files.exists(FotoBinaria.aoLadoDe(foto())));
+            assertEquals(0, Files.size(diario()));
+
+            // O que chega depois da compactação fica no diário, por cima da foto.
+            Aluno novo = AlunosDeTeste.aluno(50, "Depois da \"foto\"");
+            estado.add(novo);
+            diario.registrarInsercao(novo);
+            estado.removeIf(aluno -> aluno.getMatricula().equals("M00003"));
+            diario.registrarRemocao("M00003");
+        }
+
+        List<Aluno> reproduzidos = DiarioCsv.reproduzir(foto(), diario());
+
+        assertEquals(AlunosDeTeste.matriculas(estado), AlunosDeTeste.matriculas(reproduzidos));
+        assertEquals("Depois da \"foto\"", reproduzidos.get(reproduzidos.size() - 1).getNome());
+    }
+
+    @Test
+    void compactacaoAceitaUmaLeituraPreguicosa() throws IOException {
+        List<Aluno> estado = AlunosDeTeste.alunos(5);
+        try (DiarioCsv diario = abrir()) {
+            for (Aluno aluno : estado) {
+                diario.registrarInsercao(aluno);
+            }
+            // Um Iterable que só lê os alunos quando é percorrido (como a tabela no modo paginado).
+            diario.compactar(new Object(), () -> () -> estado.iterator());
+        }
+
+        assertEquals(0, Files.size(diario()));
+        assertEquals(AlunosDeTeste.matriculas(estado), AlunosDeTeste.matriculas(DiarioCsv.reproduzir(foto(), diario())));
+    }
+
+    @Test
+    void reaplicarDuasVezesDaNoMesmo() throws IOException {
+        // Queda entre a troca da foto e o corte do diário: a foto já tem o que o diário repete.
+        List<Aluno> estado = AlunosDeTeste.alunos(3);
+        try (DiarioCsv diario = abrir()) {
+            for (Aluno aluno : estado) {
+                diario.registrarInsercao(aluno);
+            }
+            diario.registrarRemocao("M00001");
+        }
+        SwingUtils.salvarAlunosEmCsv(List.of(estado.get(0), estado.get(2)), foto());
+
+        assertEquals(List.of("M00000", "M00002"), AlunosDeTeste.matriculas(DiarioCsv.reproduzir(foto(), diario())));
+    }
+
+    @Test
+    void politicaDesconhecidaFicaComOPadrao() {
+        assertEquals(DiarioCsv.PoliticaSync.SEMPRE, DiarioCsv.PoliticaSync.ler(" sempre "));
+        assertEquals(DiarioCsv.PoliticaSync.NUNCA, DiarioCsv.PoliticaSync.ler("NUNCA"));
+        // Erro de digitação não derruba a abertura do diário.
+        assertEquals(DiarioCsv.PoliticaSync.GRUPO, DiarioCsv.PoliticaSync.ler("SEMRPE"));
+        assertEquals(DiarioCsv.PoliticaSync.GRUPO, DiarioCsv.PoliticaSync.ler(null));
+    }
+}
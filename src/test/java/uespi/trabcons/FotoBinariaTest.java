@@ -0,0 +1,84 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * A foto binária: ida e volta dos campos e a recusa de arquivos corrompidos.
+ */
+class FotoBinariaTest {
+
+    @TempDir
+    Path pasta;
+
+    private Path arquivo() {
+        return pasta.resolve(FotoBinaria.ARQUIVO_PADRAO);
+    }
+
+    @Test
+    void devolveOsMesmosAlunos() throws IOException {
+        List<Aluno> alunos = AlunosDeTeste.alunos(50);
+        alunos.get(3).setNome(null);
+        alunos.get(4).setDataNascimento(null);
+        alunos.get(5).setTelefone("");
+        alunos.get(6).setNome("Nome com acentuação: João Araújo");
+
+        FotoBinaria.salvar(alunos, arquivo());
+        List<Aluno> lidos = FotoBinaria.carregar(arquivo());
+
+        assertEquals(alunos.size(), lidos.size());
+        for (int i = 0; i < alunos.size(); i++) {
+            Aluno esperado = alunos.get(i);
+            Aluno lido = lidos.get(i);
+            assertEquals(esperado.getMatricula(), lido.getMatricula());
+            assertEquals(esperado.getNome(), lido.getNome());
+            assertEquals(esperado.getIdade(), lido.getIdade());
+            assertEquals(esperado.getDataNascimento(), lido.getDataNascimento());
+            assertEquals(esperado.getTelefone(), lido.getTelefone());
+            assertEquals(esperado.getCpf(), lido.getCpf());
+            assertEquals(esperado.getIndex(), lido.getIndex());
+        }
+    }
+
+    @Test
+    void recusaCorpoComCrcErrado() throws IOException {
+        FotoBinaria.salvar(AlunosDeTeste.alunos(10), arquivo());
+        byte[] bytes = Files.readAllBytes(arquivo());
+        bytes[bytes.length - 5] ^= 0x01; // Um bit no meio do último aluno.
+        Files.write(arquivo(), bytes);
+
+        IOException erro = assertThrows(IOException.class, () -> FotoBinaria.carregar(arquivo()));
+        assertEquals("Conteúdo da foto binária corrompido.", erro.getMessage());
+    }
+
+    @Test
+    void recusaCabecalhoComCrcErrado() throws IOException {
+        FotoBinaria.salvar(AlunosDeTeste.alunos(10), arquivo());
+        byte[] bytes = Files.readAllBytes(arquivo());
+        bytes[9] ^= 0x01; // A quantidade de alunos.
+        Files.write(arquivo(), bytes);
+
+        IOException erro = assertThrows(IOException.class, () -> FotoBinaria.carregar(arquivo()));
+        assertEquals("Cabeçalho da foto binária corrompido.", erro.getMessage());
+    }
+
+    @Test
+    void recusaArquivoCortado() throws IOException {
+        FotoBinaria.salvar(AlunosDeTeste.alunos(10), arquivo());
+        byte[] bytes = Files.readAllBytes(arquivo());
+        Files.write(arquivo(), Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertThrows(IOException.class, () -> FotoBinaria.carregar(arquivo()));
+        Files.write(arquivo(), Arrays.copyOf(bytes, 20));
+        assertEquals("Foto binária truncada.",
+                assertThrows(IOException.class, () -> FotoBinaria.carregar(arquivo())).getMessage());
+    }
+}
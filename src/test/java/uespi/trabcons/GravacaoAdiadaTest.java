@@ -0,0 +1,152 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.exception.JDBCConnectionException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A fila da gravação adiada sobre um repositório em memória: lotes, recusas e repetições.
+ */
+class GravacaoAdiadaTest {
+
+    // O lado da memória: só anota o que foi confirmado e o que foi recusado.
+    private static final class DestinoAnotado implements GravacaoAdiada.Destino {
+        final List<String> confirmadas = new CopyOnWriteArrayList<>();
+        final List<String> recusadas = new CopyOnWriteArrayList<>();
+
+        @Override
+        public ResultadoOperacao confirmada(GravacaoAdiada.Mutacao mutacao) {
+            confirmadas.add(mutacao.aluno().getMatricula());
+            return new ResultadoOperacao(mutacao.aluno(), null);
+        }
+
+        @Override
+        public OperacaoAlunoException recusada(GravacaoAdiada.Mutacao mutacao, Exception causa) {
+            recusadas.add(mutacao.aluno().getMatricula());
+            return new OperacaoAlunoException("Erro", causa.getMessage(), causa);
+        }
+    }
+
+    private final MemoriaAlunoDAO repositorio = new MemoriaAlunoDAO();
+    private final DestinoAnotado destino = new DestinoAnotado();
+
+    private static ResultadoOperacao esperar(CompletableFuture<ResultadoOperacao> confirmacao) throws Exception {
+        return confirmacao.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void mudancasConfirmadasNaOrdem() throws Exception {
+        GravacaoAdiada gravacao = new GravacaoAdiada(repositorio, destino, 200, 50, 3);
+        CompletableFuture<ResultadoOperacao> primeira = gravacao.enfileirar(GravacaoAdiada.Tipo.INSERCAO, AlunosDeTeste.aluno(1));
+        gravacao.enfileirar(GravacaoAdiada.Tipo.INSERCAO, AlunosDeTeste.aluno(2));
+        // Sai e entra de novo no mesmo lote: a exclusão vai antes.
+        gravacao.enfileirar(GravacaoAdiada.Tipo.REMOCAO, AlunosDeTeste.aluno(1));
+        CompletableFuture<ResultadoOperacao> ultima = gravacao.enfileirar(GravacaoAdiada.Tipo.INSERCAO, AlunosDeTeste.aluno(1, "De Novo"));
+        assertTrue(gravacao.pendente("M00001"));
+
+        assertEquals("M00001", esperar(primeira).aluno().getMatricula());
+        esperar(ultima);
+
+        assertEquals(List.of("M00001", "M00002", "M00001", "M00001"), destino.confirmadas);
+        assertEquals("De Novo", repositorio.buscar("M00001").getNome());
+        assertEquals(2, repositorio.contar());
+        // A matrícula só sai de 'pendente' depois de o futuro terminar; com a thread parada, com certeza.
+        assertTrue(gravacao.encerrar(5_000));
+        assertFalse(gravacao.pendente("M00001"));
+    }
+
+    @Test
+    void soAMudancaCulpadaERecusada() throws Exception {
+        repositorio.inserir(AlunosDeTeste.aluno(9));
+        GravacaoAdiada gravacao = new GravacaoAdiada(repositorio, destino, 200, 50, 3);
+        Aluno cpfRepetido = AlunosDeTeste.aluno(3);
+        cpfRepetido.setCpf(AlunosDeTeste.aluno(9).getCpf());
+
+        List<CompletableFuture<ResultadoOperacao>> confirmacoes = gravacao.enfileirarTodas(GravacaoAdiada.Tipo.INSERCAO,
+                List.of(AlunosDeTeste.aluno(1), cpfRepetido, AlunosDeTeste.aluno(2)));
+        // Excluir quem já não existe não é erro.
+        CompletableFuture<ResultadoOperacao> remocao = gravacao.enfileirar(GravacaoAdiada.Tipo.REMOCAO, AlunosDeTeste.aluno(7));
+
+        esperar(confirmacoes.get(0));
+        ExecutionException erro = assertThrows(ExecutionException.class, () -> esperar(confirmacoes.get(1)));
+        assertInstanceOf(OperacaoAlunoException.class, erro.getCause());
+        esperar(confirmacoes.get(2));
+        esperar(remocao);
+
+        assertEquals(List.of("M00003"), destino.recusadas);
+        assertEquals(List.of("M00001", "M00002", "M00007"), destino.confirmadas);
+        assertEquals(3, repositorio.contar());
+        gravacao.encerrar(5_000);
+    }
+
+    @Test
+    void falhaPassageiraRepeteOLote() throws Exception {
+        AtomicInteger tentativas = new AtomicInteger();
+        MemoriaAlunoDAO instavel = new MemoriaAlunoDAO() {
+            @Override
+            public void gravarLote(List<Mudanca> mudancas) {
+                if (tentativas.incrementAndGet() == 1) {
+                    throw new JDBCConnectionException("conexão caiu", new SQLException("conexão caiu"));
+                }
+                super.gravarLote(mudancas);
+            }
+        };
+        GravacaoAdiada gravacao = new GravacaoAdiada(instavel, destino, 200, 0, 3);
+
+        esperar(gravacao.enfileirar(GravacaoAdiada.Tipo.INSERCAO, AlunosDeTeste.aluno(1)));
+
+        assertEquals(2, tentativas.get());
+        assertEquals(1, instavel.contar());
+        assertTrue(destino.recusadas.isEmpty());
+        gravacao.encerrar(5_000);
+    }
+
+    @Test
+    void falhaQueNaoPassaRecusaOLoteInteiro() throws Exception {
+        MemoriaAlunoDAO foraDoAr = new MemoriaAlunoDAO() {
+            @Override
+            public void gravarLote(List<Mudanca> mudancas) {
+                throw new JDBCConnectionException("sem banco", new SQLException("sem banco"));
+            }
+        };
+        GravacaoAdiada gravacao = new GravacaoAdiada(foraDoAr, destino, 200, 50, 2);
+
+        List<CompletableFuture<ResultadoOperacao>> confirmacoes = gravacao.enfileirarTodas(GravacaoAdiada.Tipo.INSERCAO,
+                List.of(AlunosDeTeste.aluno(1), AlunosDeTeste.aluno(2)));
+
+        for (CompletableFuture<ResultadoOperacao> confirmacao : confirmacoes) {
+            assertThrows(ExecutionException.class, () -> esperar(confirmacao));
+        }
+        // Desfeitas de trás para frente.
+        assertEquals(List.of("M00002", "M00001"), destino.recusadas);
+        assertTrue(gravacao.encerrar(5_000));
+        assertFalse(gravacao.pendente("M00001"));
+    }
+
+    @Test
+    void encerradaNaoAceitaMaisNada() {
+        GravacaoAdiada gravacao = new GravacaoAdiada(repositorio, destino, 200, 50, 3);
+        gravacao.enfileirar(GravacaoAdiada.Tipo.INSERCAO, AlunosDeTeste.aluno(1));
+
+        assertTrue(gravacao.encerrar(5_000));
+
+        // A fila foi gravada antes de a thread terminar.
+        assertEquals(1, repositorio.contar());
+        OperacaoAlunoException erro = assertThrows(OperacaoAlunoException.class,
+                () -> gravacao.enfileirarTodas(GravacaoAdiada.Tipo.REMOCAO, List.of(AlunosDeTeste.aluno(1))));
+        assertEquals(OperacaoAlunoException.Tipo.INDISPONIVEL, erro.getTipo());
+        assertFalse(gravacao.pendente("M00001"));
+    }
+}
@@ -0,0 +1,93 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * O índice por data de nascimento: ordem, cadastros, exclusões e intervalos.
+ */
+class IndiceDataNascimentoTest {
+
+    private static Aluno nascidoEm(int numero, LocalDate data) {
+        Aluno aluno = AlunosDeTeste.aluno(numero);
+        aluno.setDataNascimento(data);
+        return aluno;
+    }
+
+    private static List<Aluno> emOrdem(IndiceDataNascimento indice, boolean decrescente) {
+        List<Aluno> alunos = new ArrayList<>();
+        for (int i = 0; i < indice.tamanho(); i++) {
+            alunos.add(indice.get(i, decrescente));
+        }
+        return alunos;
+    }
+
+    @Test
+    void ordenaPorDataComAsNulasNoFim() {
+        List<Aluno> alunos = new ArrayList<>(List.of(
+                nascidoEm(1, LocalDate.of(2001, 3, 1)),
+                nascidoEm(2, null),
+                nascidoEm(3, LocalDate.of(1999, 12, 31)),
+                nascidoEm(4, LocalDate.of(2001, 3, 1))));
+        Collections.shuffle(alunos);
+
+        IndiceDataNascimento indice = new IndiceDataNascimento(alunos);
+
+        // A matrícula desempata as datas iguais.
+        assertEquals(List.of("M00003", "M00001", "M00004", "M00002"), AlunosDeTeste.matriculas(emOrdem(indice, false)));
+        assertEquals(List.of("M00002", "M00004", "M00001", "M00003"), AlunosDeTeste.matriculas(emOrdem(indice, true)));
+    }
+
+    @Test
+    void inserirERemoverDevolvemAPosicao() {
+        IndiceDataNascimento indice = new IndiceDataNascimento(List.of(
+                nascidoEm(1, LocalDate.of(2000, 1, 1)),
+                nascidoEm(2, LocalDate.of(2002, 1, 1))));
+        Aluno meio = nascidoEm(3, LocalDate.of(2001, 1, 1));
+
+        assertEquals(1, indice.inserir(meio));
+        assertEquals(-1, indice.inserir(meio));
+        assertEquals(List.of("M00001", "M00003", "M00002"), AlunosDeTeste.matriculas(emOrdem(indice, false)));
+
+        assertEquals(1, indice.remover(meio));
+        assertEquals(-1, indice.remover(meio));
+        assertEquals(2, indice.tamanho());
+    }
+
+    @Test
+    void intervaloIncluiOsLimites() {
+        List<Aluno> alunos = new ArrayList<>();
+        for (int dia = 1; dia <= 10; dia++) {
+            alunos.add(nascidoEm(dia, LocalDate.of(2000, 1, dia)));
+        }
+        alunos.add(nascidoEm(99, null));
+        IndiceDataNascimento indice = new IndiceDataNascimento(alunos);
+
+        assertEquals(List.of("M00003", "M00004", "M00005"),
+                AlunosDeTeste.matriculas(indice.listarIntervalo(LocalDate.of(2000, 1, 3), LocalDate.of(2000, 1, 5))));
+        // Intervalo aberto de um lado: as datas nulas nunca entram.
+        assertEquals(2, indice.listarIntervalo(LocalDate.of(2000, 1, 9), null).size());
+        assertEquals(10, indice.listarIntervalo(null, null).size());
+        assertTrue(indice.listarIntervalo(LocalDate.of(2000, 2, 1), LocalDate.of(2000, 1, 1)).isEmpty());
+        assertEquals("M00001", indice.intervalo(null, LocalDate.of(2000, 1, 1)).get(0, false).getMatricula());
+    }
+
+    @Test
+    void copiaEIndependente() {
+        IndiceDataNascimento indice = new IndiceDataNascimento(List.of(nascidoEm(1, LocalDate.of(2000, 1, 1))));
+        IndiceDataNascimento copia = indice.copiar();
+
+        copia.inserir(nascidoEm(2, null));
+
+        assertEquals(1, indice.tamanho());
+        assertEquals(2, copia.tamanho());
+        assertNull(copia.get(0, true).getDataNascimento());
+    }
+}
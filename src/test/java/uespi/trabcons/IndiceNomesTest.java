@@ -0,0 +1,82 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A busca por nome: começo de palavra, trecho no meio do nome e a saída de alunos do índice.
+ */
+class IndiceNomesTest {
+
+    @Test
+    void buscaSemAcentoESemMaiusculas() {
+        IndiceNomes indice = new IndiceNomes(List.of(
+                AlunosDeTeste.aluno(1, "João Araújo"),
+                AlunosDeTeste.aluno(2, "Maria da Conceição"),
+                AlunosDeTeste.aluno(3, "JOANA silva")));
+
+        assertEquals(List.of("M00001"), AlunosDeTeste.matriculas(indice.buscar("araujo", 10)));
+        assertEquals(List.of("M00002"), AlunosDeTeste.matriculas(indice.buscar("CONCEICAO", 10)));
+        assertEquals(Set.of("M00001", "M00003"), new HashSet<>(AlunosDeTeste.matriculas(indice.buscar("jo", 10))));
+        assertTrue(indice.buscar("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void comecoDePalavraVemAntesDoTrechoNoMeio() {
+        IndiceNomes indice = new IndiceNomes(List.of(
+                AlunosDeTeste.aluno(1, "Carlos Marinho"),
+                AlunosDeTeste.aluno(2, "Ana Marina"),
+                AlunosDeTeste.aluno(3, "Rosemarina Lopes")));
+
+        List<String> encontrados = AlunosDeTeste.matriculas(indice.buscar("marin", 10));
+
+        assertEquals(3, encontrados.size());
+        assertEquals("M00003", encontrados.get(2));
+        assertEquals(List.of("M00002"), AlunosDeTeste.matriculas(indice.buscar("marina", 1)));
+    }
+
+    @Test
+    void removerTiraSoOAluno() {
+        Aluno ana = AlunosDeTeste.aluno(1, "Ana Souza");
+        Aluno outraAna = AlunosDeTeste.aluno(2, "Ana Souza");
+        IndiceNomes indice = new IndiceNomes(List.of(ana, outraAna));
+
+        indice.remover(ana);
+
+        assertEquals(List.of("M00002"), AlunosDeTeste.matriculas(indice.buscar("ana", 10)));
+        assertEquals(List.of("M00002"), AlunosDeTeste.matriculas(indice.buscar("ouz", 10)));
+    }
+
+    @Test
+    void removerTodosEsqueceOsRemovidos() {
+        // Mais alunos com a mesma palavra do que cabem numa lista: a postagem vira um conjunto.
+        List<Aluno> alunos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            alunos.add(AlunosDeTeste.aluno(i, (i % 2 == 0 ? "Maria " : "José ") + "Silva " + i));
+        }
+        IndiceNomes indice = new IndiceNomes(alunos);
+        List<Aluno> removidos = new ArrayList<>();
+        for (Aluno aluno : alunos) {
+            if (aluno.getIndex() % 3 == 0) {
+                removidos.add(aluno);
+            }
+        }
+
+        indice.removerTodos(removidos);
+
+        Set<Aluno> esperados = new HashSet<>(alunos);
+        removidos.forEach(esperados::remove);
+        assertEquals(esperados, new HashSet<>(indice.buscar("silva", 1_000)));
+        assertEquals(esperados, new HashSet<>(indice.buscar("ilv", 1_000)));
+        for (Aluno aluno : indice.buscar("maria", 1_000)) {
+            assertTrue(aluno.getIndex() % 2 == 0 && aluno.getIndex() % 3 != 0);
+        }
+        assertTrue(indice.buscar("silva 3", 1_000).stream().noneMatch(aluno -> aluno.getIndex() == 3));
+    }
+}
@@ -0,0 +1,99 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * O leitor mapeado tem que concordar com o 'LeitorCsvParalelo' (o CSVParser), inclusive
+ * com os cortes entre blocos caindo dentro de registros entre aspas.
+ */
+class LeitorCsvMapeadoTest {
+
+    @TempDir
+    Path pasta;
+
+    // Cada aluno como texto, para comparar os dois leitores campo a campo.
+    private static List<String> campos(List<Aluno> alunos) {
+        List<String> linhas = new ArrayList<>();
+        for (Aluno aluno : alunos) {
+            linhas.add(aluno.getMatricula() + "|" + aluno.getNome() + "|" + aluno.getIdade() + "|" + aluno.getDataNascimento()
+                    + "|" + aluno.getTelefone() + "|" + aluno.getCpf() + "|" + aluno.getIndex());
+        }
+        return linhas;
+    }
+
+    private static List<String> linhasRejeitadas(LeitorCsvParalelo.RelatorioRejeicoes relatorio) {
+        List<String> linhas = new ArrayList<>();
+        for (LeitorCsvParalelo.Rejeicao rejeicao : relatorio.listar()) {
+            linhas.add(rejeicao.linha() + ": " + rejeicao.conteudo());
+        }
+        return linhas;
+    }
+
+    private Path arquivoComAspas() throws IOException {
+        StringBuilder csv = new StringBuilder(String.join(",", SwingUtils.HEADERS)).append('\n');
+        for (int i = 0; i < 40; i++) {
+            String fim = i % 3 == 0 ? "\r\n" : "\n";
+            csv.append("A").append(i).append(",\"Nome, com vírgula ").append(i).append("\",20,01/01/2000,\"tel\nsegunda linha\",")
+                    .append(i).append(",").append(i).append(fim);
+            csv.append("B").append(i).append(",Simples ").append(i).append(",21,02/02/2001,999,x").append(i).append(",").append(i).append(fim);
+            if (i % 4 == 0) {
+                csv.append(fim); // Linha vazia: pulada pelos dois.
+            }
+            if (i % 5 == 0) {
+                csv.append("   ").append(fim); // Só espaços: rejeitada pelos dois.
+            }
+            csv.append("C").append(i).append(",\"Aspas \"\"escapadas\"\"\n\ne dois fins de linha\",22,03/03/2002,888,y")
+                    .append(i).append(",").append(i).append(fim);
+            if (i % 6 == 0) {
+                csv.append("curta,demais").append(fim);
+            }
+            if (i % 7 == 0) {
+                csv.append("D").append(i).append(",Idade Errada,xx,01/01/2000,1,z").append(i).append(",").append(i).append(fim);
+            }
+        }
+        Path arquivo = pasta.resolve("alunos.csv");
+        Files.writeString(arquivo, csv, StandardCharsets.UTF_8);
+        return arquivo;
+    }
+
+    @Test
+    void mesmosAlunosEMesmasRejeicoesQueOCsvParser() throws IOException {
+        Path arquivo = arquivoComAspas();
+        LeitorCsvParalelo.RelatorioRejeicoes esperadas = new LeitorCsvParalelo.RelatorioRejeicoes();
+        List<String> esperados = campos(LeitorCsvParalelo.carregar(arquivo, esperadas));
+        assertEquals(120, esperados.size());
+        assertEquals(8 + 7 + 6, esperadas.total());
+
+        // De blocos de 1 byte (um corte em cada linha) até blocos maiores que vários registros.
+        for (long tamanhoBloco : new long[] {1, 2, 7, 13, 31, 50, 64, 97, 128, 200, 333, 1_000, 0}) {
+            LeitorCsvParalelo.RelatorioRejeicoes rejeicoes = new LeitorCsvParalelo.RelatorioRejeicoes();
+            List<String> lidos = campos(LeitorCsvMapeado.carregar(arquivo, rejeicoes, tamanhoBloco));
+
+            assertEquals(esperados, lidos, "bloco de " + tamanhoBloco);
+            assertEquals(linhasRejeitadas(esperadas), linhasRejeitadas(rejeicoes), "bloco de " + tamanhoBloco);
+        }
+    }
+
+    @Test
+    void linhaSoDeEspacosERejeitadaPelosDois() throws IOException {
+        Path arquivo = pasta.resolve("espacos.csv");
+        Files.writeString(arquivo, "A1,Nome,20,01/01/2000,1,2,3\n \t \n\nA2,Nome,20,01/01/2000,1,2,3\n", StandardCharsets.UTF_8);
+
+        LeitorCsvParalelo.RelatorioRejeicoes doParser = new LeitorCsvParalelo.RelatorioRejeicoes();
+        LeitorCsvParalelo.RelatorioRejeicoes doMapeado = new LeitorCsvParalelo.RelatorioRejeicoes();
+        assertEquals(2, LeitorCsvParalelo.carregar(arquivo, doParser).size());
+        assertEquals(2, LeitorCsvMapeado.carregar(arquivo, doMapeado).size());
+
+        assertEquals(List.of("2:  \t "), linhasRejeitadas(doParser));
+        assertEquals(linhasRejeitadas(doParser), linhasRejeitadas(doMapeado));
+    }
+}
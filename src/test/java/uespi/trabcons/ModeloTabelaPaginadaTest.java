@@ -0,0 +1,107 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.Test;
+
+/**
+ * O modelo da tabela no modo paginado, sobre um repositório em memória com a contagem à
+ * frente das linhas (como depois de exclusões feitas por outro programa).
+ */
+class ModeloTabelaPaginadaTest {
+
+    private static final int TAMANHO_PAGINA = 10;
+
+    // Anota de onde cada página começou e conta a mais do que tem.
+    private static final class RepositorioAnotado extends MemoriaAlunoDAO {
+        final List<String> paginasPedidas = Collections.synchronizedList(new ArrayList<>());
+        private final long contagem;
+
+        RepositorioAnotado(List<Aluno> alunos, long contagem) {
+            super(alunos);
+            this.contagem = contagem;
+        }
+
+        @Override
+        public List<Aluno> pagina(String depoisDe, int tamanho) {
+            paginasPedidas.add(String.valueOf(depoisDe));
+            return super.pagina(depoisDe, tamanho);
+        }
+
+        @Override
+        public long contar() {
+            return contagem;
+        }
+    }
+
+    private static <T> T naEdt(java.util.function.Supplier<T> acao) throws Exception {
+        AtomicReference<T> resultado = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> resultado.set(acao.get()));
+        return resultado.get();
+    }
+
+    // Espera as buscas em segundo plano terminarem (a resposta chega na EDT).
+    private static void esperarBuscas(RepositorioAnotado repositorio) throws Exception {
+        int antes;
+        do {
+            antes = repositorio.paginasPedidas.size();
+            Thread.sleep(100);
+            SwingUtilities.invokeAndWait(() -> { });
+        } while (repositorio.paginasPedidas.size() != antes);
+    }
+
+    @Test
+    void paginaIncompletaEOFimEAContagemEncolhe() throws Exception {
+        RepositorioAnotado repositorio = new RepositorioAnotado(AlunosDeTeste.alunos(25), 40);
+        AtomicLong contados = new AtomicLong();
+        ModeloTabelaPaginada modelo = naEdt(() -> new ModeloTabelaPaginada(new PaginadorAlunos(TAMANHO_PAGINA, repositorio), contados::set));
+        esperarBuscas(repositorio);
+        assertEquals(40, (int) naEdt(modelo::getRowCount));
+
+        // A tabela pede a linha 35: as páginas vêm em sequência até a incompleta.
+        assertNull(naEdt(() -> modelo.getAluno(35)));
+        esperarBuscas(repositorio);
+
+        assertEquals(Arrays.asList("null", "M00009", "M00019"), repositorio.paginasPedidas);
+        assertEquals(25, (int) naEdt(modelo::getRowCount));
+        assertEquals(25, contados.get());
+        assertEquals("M00024", naEdt(() -> modelo.getAluno(24)).getMatricula());
+
+        // Depois do fim, nada mais é pedido (e nunca volta para a primeira página).
+        naEdt(() -> modelo.getAluno(30));
+        naEdt(() -> modelo.getAluno(39));
+        esperarBuscas(repositorio);
+        assertEquals(3, repositorio.paginasPedidas.size());
+    }
+
+    @Test
+    void paginaVaziaNaoReiniciaDoComeco() throws Exception {
+        // Duas páginas cheias e a contagem prometendo mais: a terceira vem vazia.
+        RepositorioAnotado repositorio = new RepositorioAnotado(AlunosDeTeste.alunos(20), 30);
+        ModeloTabelaPaginada modelo = naEdt(() -> new ModeloTabelaPaginada(new PaginadorAlunos(TAMANHO_PAGINA, repositorio), quantidade -> { }));
+        esperarBuscas(repositorio);
+
+        naEdt(() -> modelo.getAluno(25));
+        esperarBuscas(repositorio);
+        naEdt(() -> modelo.getAluno(25));
+        esperarBuscas(repositorio);
+
+        assertEquals(Arrays.asList("null", "M00009", "M00019"), repositorio.paginasPedidas);
+        assertEquals(20, (int) naEdt(modelo::getRowCount));
+        assertEquals("M00019", naEdt(() -> modelo.getAluno(19)).getMatricula());
+
+        // A recarga começa de novo, do começo.
+        SwingUtilities.invokeAndWait(modelo::recarregar);
+        naEdt(() -> modelo.getAluno(0));
+        esperarBuscas(repositorio);
+        assertEquals("null", repositorio.paginasPedidas.get(3));
+    }
+}
@@ -0,0 +1,29 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * O MBean do pool de conexões: publicado uma vez só e zerado enquanto não há pool.
+ */
+class PoolConexoesTest {
+
+    @Test
+    void publicadoNoJmxEZeradoSemPool() throws Exception {
+        Metricas.publicar(new PoolConexoes(), "Pool", "conexoes");
+        // Publicar de novo (outro SessionFactory) não é erro.
+        Metricas.publicar(new PoolConexoes(), "Pool", "conexoes");
+
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objeto = new ObjectName("uespi.trabcons:type=Pool,name=conexoes");
+        assertTrue(servidor.isRegistered(objeto));
+        assertEquals(0, servidor.getAttribute(objeto, "Ativas"));
+        assertEquals(0, servidor.getAttribute(objeto, "Pendentes"));
+        assertEquals(0.0, servidor.getAttribute(objeto, "EsperaMediaMs"));
+    }
+}
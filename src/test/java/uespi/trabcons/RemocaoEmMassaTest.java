@@ -0,0 +1,166 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A exclusão de vários alunos de uma vez, na lista, no armazém e no índice de datas.
+ */
+class RemocaoEmMassaTest {
+
+    private final AlunoDAO remocao = new RemocaoAlunoDAO();
+
+    @Test
+    void removerAlunosPorMatriculaDevolveOsRemovidosNaOrdem() {
+        List<Aluno> alunos = AlunosDeTeste.alunos(10);
+        List<Aluno> original = new ArrayList<>(alunos);
+
+        List<Aluno> removidos = remocao.removerAlunos(alunos, List.of("M00007", "M00002", "M00099", "M00002"));
+
+        assertEquals(List.of("M00002", "M00007"), AlunosDeTeste.matriculas(removidos));
+        assertSame(original.get(2), removidos.get(0));
+        assertEquals(8, alunos.size());
+        assertTrue(alunos.stream().noneMatch(aluno -> aluno.getMatricula().equals("M00002")
+                || aluno.getMatricula().equals("M00007")));
+        // Os que ficam mantêm a ordem.
+        List<Aluno> esperados = new ArrayList<>(original);
+        esperados.removeAll(removidos);
+        assertEquals(esperados, alunos);
+    }
+
+    @Test
+    void removerAlunosPorCriterio() {
+        List<Aluno> alunos = AlunosDeTeste.alunos(10);
+
+        List<Aluno> removidos = remocao.removerAlunos(alunos, aluno -> aluno.getIndex() % 3 == 0);
+
+        assertEquals(List.of("M00000", "M00003", "M00006", "M00009"), AlunosDeTeste.matriculas(removidos));
+        assertEquals(List.of("M00001", "M00002", "M00004", "M00005", "M00007", "M00008"), AlunosDeTeste.matriculas(alunos));
+    }
+
+    @Test
+    void removerAlunosSemNadaParaRemover() {
+        List<Aluno> alunos = AlunosDeTeste.alunos(3);
+
+        assertTrue(remocao.removerAlunos(alunos, List.of()).isEmpty());
+        assertTrue(remocao.removerAlunos(null, List.of("M00001")).isEmpty());
+        assertTrue(remocao.removerAlunos(alunos, aluno -> false).isEmpty());
+        assertEquals(3, alunos.size());
+    }
+
+    @Test
+    void removerAlunoUmSoPelaMatricula() {
+        List<Aluno> alunos = AlunosDeTeste.alunos(3);
+
+        remocao.removerAluno(alunos, AlunosDeTeste.aluno(1, "Outro Nome"));
+
+        assertEquals(List.of("M00000", "M00002"), AlunosDeTeste.matriculas(alunos));
+    }
+
+    @Test
+    void armazemRemoveMatriculasNumaPassada() {
+        ArmazemAlunos armazem = new ArmazemAlunos(8);
+        for (Aluno aluno : AlunosDeTeste.alunos(20)) {
+            armazem.adicionar(aluno);
+        }
+        long versao = armazem.versao();
+
+        List<Aluno> removidos = armazem.removerMatriculas(List.of("M00015", "M00003", "M00003", "M00077"));
+
+        assertEquals(List.of("M00003", "M00015"), AlunosDeTeste.matriculas(removidos));
+        assertEquals(AlunosDeTeste.aluno(3).getCpf(), removidos.get(0).getCpf());
+        assertEquals(18, armazem.tamanho());
+        assertTrue(armazem.versao() > versao);
+        assertNull(armazem.buscar("M00003"));
+        assertNull(armazem.buscarPorCpf(AlunosDeTeste.aluno(15).getCpf()));
+        List<String> restantes = AlunosDeTeste.matriculas(armazem.copiar());
+        List<String> esperadas = AlunosDeTeste.matriculas(AlunosDeTeste.alunos(20));
+        esperadas.removeAll(List.of("M00003", "M00015"));
+        assertEquals(esperadas, restantes);
+
+        // Nada encontrado: nada muda, nem a versão.
+        versao = armazem.versao();
+        assertTrue(armazem.removerMatriculas(List.of("M00003")).isEmpty());
+        assertEquals(versao, armazem.versao());
+    }
+
+    @Test
+    void armazemRemoveSePorCriterio() {
+        ArmazemAlunos armazem = new ArmazemAlunos(8);
+        for (Aluno aluno : AlunosDeTeste.alunos(10)) {
+            armazem.adicionar(aluno);
+        }
+
+        List<Aluno> removidos = armazem.removerSe(aluno -> aluno.getIndex() >= 8);
+
+        assertEquals(List.of("M00008", "M00009"), AlunosDeTeste.matriculas(removidos));
+        assertEquals(8, armazem.tamanho());
+        // Os slots liberados voltam a ser usados.
+        armazem.adicionar(AlunosDeTeste.aluno(8));
+        assertEquals("M00008", armazem.aluno(8).getMatricula());
+    }
+
+    @Test
+    void indiceDeDatasEsqueceOsRemovidos() {
+        List<Aluno> alunos = AlunosDeTeste.alunos(30);
+        alunos.get(4).setDataNascimento(null);
+        IndiceDataNascimento indice = new IndiceDataNascimento(alunos);
+
+        indice.removerTodos(List.of(alunos.get(4), alunos.get(10), alunos.get(20)));
+
+        assertEquals(27, indice.tamanho());
+        List<Aluno> todos = new ArrayList<>();
+        for (int i = 0; i < indice.tamanho(); i++) {
+            todos.add(indice.get(i, false));
+        }
+        assertTrue(todos.stream().noneMatch(aluno -> aluno.getIndex() == 4 || aluno.getIndex() == 10 || aluno.getIndex() == 20));
+        for (int i = 1; i < todos.size(); i++) {
+            assertTrue(!todos.get(i).getDataNascimento().isBefore(todos.get(i - 1).getDataNascimento()));
+        }
+    }
+
+    @Test
+    void gravacaoAdiadaExcluiNaMemoriaENoRepositorio() {
+        List<Aluno> alunos = AlunosDeTeste.alunos(10);
+        MemoriaAlunoDAO repositorio = new MemoriaAlunoDAO(alunos);
+        listaAlunos gerenciador = listaAlunos.emMemoria(new ArrayList<>(alunos), repositorio, true);
+
+        ResultadoExclusaoEmMassa resultado = gerenciador.excluirAlunos(List.of("M00002", "M00005", "M00099"));
+        gerenciador.descarregarGravacoes();
+
+        assertEquals(2, resultado.excluidosNoBanco());
+        assertNull(gerenciador.buscarPorMatricula("M00002"));
+        assertNull(repositorio.buscar("M00005"));
+        assertEquals(8, repositorio.contar());
+    }
+
+    @Test
+    void gravacaoAdiadaEncerradaNaoTiraNadaDaMemoria() {
+        List<Aluno> alunos = AlunosDeTeste.alunos(10);
+        MemoriaAlunoDAO repositorio = new MemoriaAlunoDAO(alunos);
+        listaAlunos gerenciador = listaAlunos.emMemoria(new ArrayList<>(alunos), repositorio, true);
+        gerenciador.descarregarGravacoes();
+
+        OperacaoAlunoException erro = assertThrows(OperacaoAlunoException.class,
+                () -> gerenciador.excluirAlunos(List.of("M00002", "M00005")));
+
+        assertEquals(OperacaoAlunoException.Tipo.INDISPONIVEL, erro.getTipo());
+        assertNotNull(gerenciador.buscarPorMatricula("M00002"));
+        assertNotNull(gerenciador.buscarPorMatricula("M00005"));
+        assertEquals(10, gerenciador.copiarAlunos().size());
+        // O CPF continua reservado: não pode ser usado por outro cadastro.
+        Aluno mesmoCpf = AlunosDeTeste.aluno(50);
+        mesmoCpf.setCpf(AlunosDeTeste.aluno(2).getCpf());
+        assertEquals(OperacaoAlunoException.Tipo.CONFLITO,
+                assertThrows(OperacaoAlunoException.class, () -> gerenciador.cadastrar(mesmoCpf)).getTipo());
+        assertEquals(10, repositorio.contar());
+    }
+}
@@ -0,0 +1,98 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * O leitor de JSON da API e as respostas do servidor HTTP para pedidos mal formados.
+ */
+class ServidorAlunosTest {
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+    private ServidorAlunos servidor;
+
+    @BeforeEach
+    void subir() throws IOException {
+        servidor = ServidorAlunos.iniciar(listaAlunos.emMemoria(new ArrayList<>(AlunosDeTeste.alunos(3))), 0);
+    }
+
+    @AfterEach
+    void parar() {
+        servidor.parar(0);
+    }
+
+    private HttpResponse<String> pedir(String metodo, String caminho, String corpo) throws Exception {
+        HttpRequest pedido = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + servidor.getPorta() + caminho))
+                .method(metodo, corpo == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        return cliente.send(pedido, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void leTextosNumerosENulos() {
+        Map<String, String> campos = ServidorAlunos.lerObjetoJson(
+                " { \"nome\" : \"Jo\\u00e3o \\\"Zé\\\"\\n\", \"idade\": 20, \"ativo\":true, \"telefone\": null } ");
+
+        assertEquals("João \"Zé\"\n", campos.get("nome"));
+        assertEquals("20", campos.get("idade"));
+        assertEquals("true", campos.get("ativo"));
+        assertFalse(campos.containsKey("telefone"));
+        assertTrue(ServidorAlunos.lerObjetoJson("{}").isEmpty());
+    }
+
+    @Test
+    void jsonMalFormadoEErroDeValidacao() {
+        for (String json : new String[] {
+                "", "[]", "{\"a\":}", "{\"a\":1", "{\"a\" 1}", "{\"a\":\"sem fim}",
+                "{\"a\":\"\\u12\"}", "{\"a\":\"\\u00zz\"}", "{\"a\":\"\\u-123\"}"}) {
+            OperacaoAlunoException erro = assertThrows(OperacaoAlunoException.class, () -> ServidorAlunos.lerObjetoJson(json), json);
+            assertEquals(OperacaoAlunoException.Tipo.VALIDACAO, erro.getTipo(), json);
+        }
+    }
+
+    @Test
+    void escapeUnicodeInvalidoNoCorpoDa400() throws Exception {
+        HttpResponse<String> resposta = pedir("POST", "/alunos", "{\"matricula\":\"\\u00zz\"}");
+
+        assertEquals(400, resposta.statusCode());
+        assertTrue(resposta.body().contains("hexadecimal"), resposta.body());
+    }
+
+    @Test
+    void percentNaUrlEDecodificadoUmaVezSo() throws Exception {
+        // "%25" é um '%' literal: decodificado duas vezes, viraria um escape inválido (e um 500).
+        HttpResponse<String> resposta = pedir("GET", "/alunos/M%25zz", null);
+        assertEquals(404, resposta.statusCode());
+        assertTrue(resposta.body().contains("M%zz"), resposta.body());
+        assertEquals(200, pedir("GET", "/alunos/M%300001", null).statusCode());
+        assertEquals(400, pedir("GET", "/alunos?limite=%25", null).statusCode());
+        // Um escape mal formado de verdade nem chega à rota: o próprio HttpServer recusa a URI.
+        assertTrue(pedirCru("GET /alunos?limite=%2 HTTP/1.1").startsWith("HTTP/1.1 400"));
+    }
+
+    // Uma linha de pedido que o 'HttpClient' nem deixaria sair (ele valida a URI antes).
+    private String pedirCru(String linhaDoPedido) throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", servidor.getPorta())) {
+            OutputStream saida = socket.getOutputStream();
+            saida.write((linhaDoPedido + "\r\nHost: 127.0.0.1\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            saida.flush();
+            return new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
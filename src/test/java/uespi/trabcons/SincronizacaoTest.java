@@ -0,0 +1,81 @@
+package uespi.trabcons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * As mudanças trazidas do banco pelo 'SincronizadorAlunos', aplicadas na memória.
+ */
+class SincronizacaoTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    // O aluno como a sincronização o traz: um objeto novo, com a versão do banco.
+    private static Aluno doBanco(Aluno aluno, LocalDateTime atualizadoEm) {
+        Aluno lido = aluno.copiar();
+        lido.setAtualizadoEm(atualizadoEm);
+        return lido;
+    }
+
+    @Test
+    void cadastroFeitoAquiNaoSaiEVoltaDaLista() {
+        listaAlunos gerenciador = listaAlunos.emMemoria(new ArrayList<>());
+        Aluno cadastrado = AlunosDeTeste.aluno(1);
+        gerenciador.cadastrar(cadastrado);
+
+        int mudancas = gerenciador.aplicarAlteracoes(List.of(doBanco(cadastrado, AGORA)), List.of());
+
+        assertEquals(0, mudancas);
+        assertSame(cadastrado, gerenciador.buscarPorMatricula("M00001"));
+        assertEquals(AGORA, cadastrado.getAtualizadoEm());
+        // A mesma versão de novo continua sem efeito.
+        assertEquals(0, gerenciador.aplicarAlteracoes(List.of(doBanco(cadastrado, AGORA)), List.of()));
+    }
+
+    @Test
+    void cadastroFeitoAquiDepoisDeUmaExclusaoDeFora() {
+        listaAlunos gerenciador = listaAlunos.emMemoria(new ArrayList<>());
+        Aluno cadastrado = AlunosDeTeste.aluno(1);
+        gerenciador.cadastrar(cadastrado);
+
+        // Outra instância excluiu a matrícula antes deste cadastro: a lápide é mais velha.
+        int mudancas = gerenciador.aplicarAlteracoes(List.of(doBanco(cadastrado, AGORA)),
+                List.of(new AlunoRemovido("M00001", AGORA.minusSeconds(1))));
+
+        assertEquals(0, mudancas);
+        assertSame(cadastrado, gerenciador.buscarPorMatricula("M00001"));
+    }
+
+    @Test
+    void alteracaoDeForaTrocaALinha() {
+        listaAlunos gerenciador = listaAlunos.emMemoria(new ArrayList<>(AlunosDeTeste.alunos(3)));
+        Aluno alterado = doBanco(AlunosDeTeste.aluno(1, "Nome Alterado"), AGORA);
+
+        assertEquals(2, gerenciador.aplicarAlteracoes(List.of(alterado), List.of()));
+
+        assertEquals("Nome Alterado", gerenciador.buscarPorMatricula("M00001").getNome());
+        assertEquals(List.of("M00001"), AlunosDeTeste.matriculas(gerenciador.buscarPorNome("alterado", 10)));
+        // Uma versão mais velha que a da memória é ignorada.
+        Aluno velho = doBanco(AlunosDeTeste.aluno(1, "Nome Velho"), AGORA.minusMinutes(5));
+        assertEquals(0, gerenciador.aplicarAlteracoes(List.of(velho), List.of()));
+    }
+
+    @Test
+    void exclusaoDeForaTiraDaLista() {
+        listaAlunos gerenciador = listaAlunos.emMemoria(new ArrayList<>(AlunosDeTeste.alunos(3)));
+        gerenciador.aplicarAlteracoes(List.of(doBanco(AlunosDeTeste.aluno(2), AGORA)), List.of());
+
+        // A lápide mais velha que a versão da memória não remove; a mais nova, sim.
+        assertEquals(0, gerenciador.aplicarAlteracoes(List.of(), List.of(new AlunoRemovido("M00002", AGORA.minusSeconds(1)))));
+        assertEquals(1, gerenciador.aplicarAlteracoes(List.of(), List.of(new AlunoRemovido("M00002", AGORA.plusSeconds(1)))));
+
+        assertNull(gerenciador.buscarPorMatricula("M00002"));
+        assertEquals(2, gerenciador.copiarAlunos().size());
+    }
+}